@@ -0,0 +1,99 @@
+package perf;
+
+import controller.Controller;
+import dao.AggiornamentoDAO;
+import dao.CommentoDAO;
+import dao.DocumentoDAO;
+import dao.HackathonDAO;
+import dao.ProblemaDAO;
+import dao.TeamDAO;
+import dao.UtenteDAO;
+import dao.ValutazioneDAO;
+import dao.row.HackathonDettaglioRow;
+import dao.row.HackathonRow;
+import dao.row.ValutazioneRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversione delle righe lette dai DAO nelle stringhe mostrate dall'interfaccia.
+ * <p>
+ * Il controller lavora su DAO in memoria ({@link DaoFinti}) che restituiscono {@code righe}
+ * righe già pronte: il tempo misurato è quello di costruzione del modello e formattazione,
+ * senza accesso al database.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int righe;
+
+    private Controller controller;
+
+    @Setup
+    public void setup() {
+        LocalDate inizio = LocalDate.now().plusDays(30);
+        List<HackathonDettaglioRow> dettagli = new ArrayList<>();
+        List<HackathonRow> hackathon = new ArrayList<>();
+        List<ValutazioneRow> valutazioni = new ArrayList<>();
+        for (int i = 1; i <= righe; i++) {
+            dettagli.add(new HackathonDettaglioRow(i, "Hackathon " + i, "Descrizione dell'hackathon " + i,
+                    "Napoli", inizio, inizio.plusDays(2), true,
+                    1, "Mario", "Rossi", "mario.rossi@example.com"));
+            hackathon.add(new HackathonRow(i, "  Hackathon " + i + " ", "Descrizione", "Napoli",
+                    inizio, inizio.plusDays(2), true, 1));
+            // una valutazione su dieci senza nome del giudice né feedback, come nei dati reali
+            valutazioni.add(i % 10 == 0
+                    ? new ValutazioneRow(i, 1, i, null, null, i % 11, "")
+                    : new ValutazioneRow(i, 1, i, "Giudice" + i, "Cognome" + i, i % 11, "Buon lavoro sul prototipo"));
+        }
+
+        controller = new Controller(
+                DaoFinti.dao(AggiornamentoDAO.class, Map.of()),
+                DaoFinti.dao(CommentoDAO.class, Map.of()),
+                DaoFinti.dao(DocumentoDAO.class, Map.of()),
+                DaoFinti.dao(HackathonDAO.class, Map.of(
+                        "findDettagliByOrganizzatoreId", dettagli,
+                        "getRowsByOrganizzatoreId", hackathon)),
+                DaoFinti.dao(ProblemaDAO.class, Map.of()),
+                DaoFinti.dao(TeamDAO.class, Map.of()),
+                DaoFinti.dao(UtenteDAO.class, Map.of()),
+                DaoFinti.dao(ValutazioneDAO.class, Map.of("getRowsByTeam", valutazioni)));
+    }
+
+    @Benchmark
+    public List<String> getAllHackathons() {
+        return controller.getAllHackathons(1);
+    }
+
+    @Benchmark
+    public List<String> getHackathonByOrganizzatoreId() {
+        return controller.getHackathonByOrganizzatoreId(1);
+    }
+
+    @Benchmark
+    public List<String> getValutazioniByTeam() {
+        return controller.getValutazioniByTeam(1);
+    }
+}
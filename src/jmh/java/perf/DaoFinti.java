@@ -0,0 +1,39 @@
+package perf;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * DAO in memoria per i benchmark: ogni metodo restituisce la risposta preparata per il suo nome,
+ * così che il tempo misurato sia solo quello del codice applicativo.
+ */
+final class DaoFinti {
+
+    private DaoFinti() {
+    }
+
+    /**
+     * Crea un DAO finto.
+     *
+     * @param interfaccia interfaccia del DAO
+     * @param risposte    risultato da restituire per nome del metodo
+     * @param <T>         tipo del DAO
+     * @return il DAO; i metodi senza risposta lanciano {@link UnsupportedOperationException}
+     */
+    static <T> T dao(Class<T> interfaccia, Map<String, Object> risposte) {
+        return interfaccia.cast(Proxy.newProxyInstance(interfaccia.getClassLoader(), new Class<?>[]{interfaccia},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> interfaccia.getSimpleName() + " finto";
+                        };
+                    }
+                    if (!risposte.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(interfaccia.getSimpleName() + "." + method.getName());
+                    }
+                    return risposte.get(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,80 @@
+package perf;
+
+import model.Concorrente;
+import model.Giudice;
+import model.Team;
+import model.Valutazione;
+import model.exceptions.InvalidDataException;
+import model.exceptions.RegistrazioneScadutaException;
+import model.exceptions.TeamFullException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operazioni del modello eseguite dal controller per ogni riga letta: composizione dei team
+ * e registrazione delle valutazioni dei giudici.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+
+    /** Valutazioni già registrate dal giudice: {@code valutaTeam} le scorre per evitare duplicati. */
+    @Param({"10", "100", "1000"})
+    public int valutazioniPresenti;
+
+    private Concorrente[] concorrenti;
+    private Giudice giudice;
+    private Valutazione ultima;
+
+    @Setup
+    public void setup() throws InvalidDataException, RegistrazioneScadutaException {
+        concorrenti = new Concorrente[Team.MAX_TEAM_SIZE];
+        for (int i = 0; i < concorrenti.length; i++) {
+            concorrenti[i] = new Concorrente(i + 1, "Nome" + i, "Cognome" + i, "concorrente" + i + "@example.com");
+        }
+
+        giudice = new Giudice(1, "Anna", "Bianchi", "anna.bianchi@example.com");
+        for (int i = 1; i <= valutazioniPresenti; i++) {
+            Team team = new Team(i, "Team " + i);
+            team.setAggiornamentiRegistrati(1);
+            ultima = new Valutazione(team, giudice, i % 11, "Feedback " + i);
+        }
+    }
+
+    /**
+     * Riempie un team nuovo fino alla capienza massima.
+     */
+    @Benchmark
+    public Team aggiungiConcorrente() throws InvalidDataException, TeamFullException {
+        Team team = new Team(1, "Team");
+        for (Concorrente concorrente : concorrenti) {
+            team.aggiungiConcorrente(concorrente);
+        }
+        return team;
+    }
+
+    /**
+     * Ripropone la valutazione registrata per ultima: il controllo dei duplicati scorre tutte le
+     * valutazioni del giudice senza modificarle, quindi ogni invocazione fa lo stesso lavoro.
+     */
+    @Benchmark
+    public Giudice valutaTeam() throws InvalidDataException {
+        giudice.valutaTeam(ultima);
+        return giudice;
+    }
+}
@@ -0,0 +1,59 @@
+package perf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import security.PasswordSecurity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing e verifica delle password con {@link PasswordSecurity} a diversi costi BCrypt.
+ * <p>
+ * Il costo viene fissato con {@code hackathon.bcrypt.cost} prima del primo uso di
+ * {@link PasswordSecurity}, che lo legge una sola volta: funziona perché JMH esegue ogni
+ * valore di {@code costo} in una JVM separata, quindi {@link Fork} non deve essere 0.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    @Param({"10", "11", "12"})
+    public int costo;
+
+    private final String password = "Password!2024";
+    private String hash;
+
+    @Setup
+    public void setup() {
+        System.setProperty("hackathon.bcrypt.cost", Integer.toString(costo));
+        if (PasswordSecurity.getTargetCost() != costo) {
+            throw new IllegalStateException("Costo BCrypt già fissato a " + PasswordSecurity.getTargetCost()
+                    + ": eseguire il benchmark con almeno un fork.");
+        }
+        hash = PasswordSecurity.hashPassword(password);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordSecurity.hashPassword(password);
+    }
+
+    @Benchmark
+    public boolean checkPassword() {
+        return PasswordSecurity.checkPassword(password, hash);
+    }
+}
@@ -0,0 +1,47 @@
+package perf;
+
+import model.utils.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validazione degli indirizzi email con {@link ValidationUtils#isValidEmail(String)}, eseguita a
+ * ogni registrazione e per ogni riga degli import CSV.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    public String valida = "mario.rossi+hackathon@studenti.unina.it";
+    public String senzaDominio = "mario.rossi@unina";
+    /** Parte locale lunga seguita da un dominio non valido: il caso peggiore per il backtracking. */
+    public String lunga = "a".repeat(200) + "@" + "b.".repeat(50) + "c";
+
+    @Benchmark
+    public boolean emailValida() {
+        return ValidationUtils.isValidEmail(valida);
+    }
+
+    @Benchmark
+    public boolean emailSenzaDominio() {
+        return ValidationUtils.isValidEmail(senzaDominio);
+    }
+
+    @Benchmark
+    public boolean emailLunga() {
+        return ValidationUtils.isValidEmail(lunga);
+    }
+}
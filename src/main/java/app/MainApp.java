@@ -2,13 +2,21 @@
 
 package app;
 
+import controller.AsyncController;
 import controller.Controller;
+import db.DatabaseConnectionSingleton;
+import db.MigrationRunner;
+import security.PasswordSecurity;
 import gui.LoginPanel;
 import gui.RegistrazionePanel;
 import gui.MainFrame;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Classe principale dell'applicazione Hackathon.
@@ -24,20 +32,43 @@ import java.awt.*;
  * </p>
  */
 public class MainApp {
+
+    private static final Logger logger = Logger.getLogger(MainApp.class.getName());
+
     /**
      * Punto di ingresso dell'applicazione.
      * <p>
-     * Avvia l'interfaccia grafica su Event Dispatch Thread tramite
+     * Porta lo schema del database all'ultima versione con {@link MigrationRunner}
+     * e avvia l'interfaccia grafica su Event Dispatch Thread tramite
      * {@link SwingUtilities#invokeLater(Runnable)}.
-     * Crea il controller, i pannelli di login e registrazione, e gestisce
+     * Crea il controller (esposto ai pannelli tramite la facciata asincrona
+     * {@link AsyncController}, che completa le operazioni sull'EDT),
+     * i pannelli di login e registrazione, e gestisce
      * la transizione tra di essi tramite {@link CardLayout}.
      * </p>
      *
      * @param args argomenti da linea di comando (non utilizzati)
      */
     public static void main(String[] args) {
+        // calibra il costo BCrypt in background, così il primo login non ne paga il tempo
+        Thread calibrazione = new Thread(PasswordSecurity::getTargetCost, "bcrypt-calibration");
+        calibrazione.setDaemon(true);
+        calibrazione.start();
+
+        if (MigrationRunner.isAbilitato()) {
+            try {
+                new MigrationRunner(DatabaseConnectionSingleton.getInstance()).migrate();
+            } catch (IOException | SQLException e) {
+                logger.log(Level.SEVERE, "Aggiornamento dello schema del database fallito", e);
+                JOptionPane.showMessageDialog(null,
+                        "Impossibile aggiornare lo schema del database:\n" + e.getMessage(),
+                        "Errore di avvio", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+        }
+
         SwingUtilities.invokeLater(() -> {
-            Controller controller = new Controller();
+            AsyncController controller = new AsyncController(new Controller(), SwingUtilities::invokeLater);
 
 
             JFrame authFrame = new JFrame("Hackathon - Login/Registrazione");
@@ -56,11 +87,11 @@ public class MainApp {
             LoginPanel loginPanel = new LoginPanel(
                     controller,
                     showRegistrazione, //  uso la lambda che ho già definito
-                    (userId, tipo) -> {
+                    sessione -> {
 
                         authFrame.dispose();
 
-                        new MainFrame(controller, userId, tipo).setVisible(true);
+                        new MainFrame(controller, sessione).setVisible(true);
                     }
             );
             RegistrazionePanel registrazionePanel = new RegistrazionePanel(controller, showLogin);
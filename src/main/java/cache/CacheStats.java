@@ -0,0 +1,24 @@
+package cache;
+
+/**
+ * Istantanea delle statistiche di una {@link TtlCache}.
+ *
+ * @param dimensione         voci attualmente in cache (comprese quelle scadute non ancora rimosse)
+ * @param dimensioneMassima  numero massimo di voci
+ * @param hits               letture servite dalla cache
+ * @param misses             letture non servite dalla cache (voce assente o scaduta)
+ * @param evictions          voci rimosse per far posto a nuove voci
+ * @param expirations        voci rimosse perché scadute
+ * @param invalidations      voci rimosse da un'invalidazione esplicita
+ */
+public record CacheStats(int dimensione, int dimensioneMassima, long hits, long misses,
+                         long evictions, long expirations, long invalidations) {
+
+    /**
+     * @return frazione delle letture servite dalla cache, tra 0 e 1
+     */
+    public double hitRate() {
+        long letture = hits + misses;
+        return letture == 0 ? 0 : (double) hits / letture;
+    }
+}
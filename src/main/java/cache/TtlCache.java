@@ -0,0 +1,174 @@
+package cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache in memoria limitata per numero di voci e per durata.
+ * <p>
+ * Quando la cache è piena viene rimossa la voce usata meno di recente; una voce più vecchia
+ * del TTL non viene più restituita e viene rimossa alla lettura successiva. I valori devono
+ * essere immutabili, perché vengono condivisi tra tutti i chiamanti.
+ * </p>
+ * <p>
+ * {@link #get(Object, Caricatore)} implementa la lettura attraverso la cache: in caso di miss
+ * il valore viene caricato fuori dal lock e inserito solo se nel frattempo non c'è stata
+ * un'invalidazione, così un caricamento concorrente a una scrittura non reinserisce un valore
+ * già superato. I valori {@code null} (elemento inesistente) non vengono memorizzati.
+ * </p>
+ *
+ * @param <K> tipo delle chiavi
+ * @param <V> tipo dei valori
+ */
+public class TtlCache<K, V> {
+
+    /**
+     * Carica il valore di una chiave assente dalla cache.
+     *
+     * @param <K> tipo delle chiavi
+     * @param <V> tipo dei valori
+     * @param <E> eccezione sollevata dal caricamento
+     */
+    @FunctionalInterface
+    public interface Caricatore<K, V, E extends Exception> {
+
+        /**
+         * @param chiave chiave da caricare
+         * @return il valore, oppure {@code null} se non esiste
+         * @throws E se il caricamento fallisce
+         */
+        V carica(K chiave) throws E;
+    }
+
+    private record Voce<V>(V valore, long scadenzaNanos) {
+    }
+
+    private final int dimensioneMassima;
+    private final long ttlNanos;
+    private final LongSupplier orologio;
+    private final LinkedHashMap<K, Voce<V>> voci;
+
+    private long generazione;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Crea una cache.
+     *
+     * @param dimensioneMassima numero massimo di voci
+     * @param ttlMillis         durata di una voce, in millisecondi
+     */
+    public TtlCache(int dimensioneMassima, long ttlMillis) {
+        this(dimensioneMassima, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Crea una cache con un orologio esplicito.
+     *
+     * @param dimensioneMassima numero massimo di voci
+     * @param ttlMillis         durata di una voce, in millisecondi
+     * @param orologio          sorgente del tempo in nanosecondi, monotona
+     */
+    public TtlCache(int dimensioneMassima, long ttlMillis, LongSupplier orologio) {
+        if (dimensioneMassima < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("Dimensione e durata della cache devono essere positive.");
+        }
+        this.dimensioneMassima = dimensioneMassima;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.orologio = orologio;
+        this.voci = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Voce<V>> eldest) {
+                if (size() <= TtlCache.this.dimensioneMassima) {
+                    return false;
+                }
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Restituisce il valore in cache, se presente e non scaduto.
+     *
+     * @param chiave chiave da cercare
+     * @return il valore, oppure {@code null}
+     */
+    public synchronized V get(K chiave) {
+        Voce<V> voce = voci.get(chiave);
+        if (voce == null) {
+            misses++;
+            return null;
+        }
+        if (orologio.getAsLong() - voce.scadenzaNanos() >= 0) {
+            voci.remove(chiave);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return voce.valore();
+    }
+
+    /**
+     * Restituisce il valore in cache oppure lo carica e lo memorizza.
+     *
+     * @param chiave     chiave da cercare
+     * @param caricatore caricamento del valore in caso di miss
+     * @param <E>        eccezione sollevata dal caricamento
+     * @return il valore, oppure {@code null} se non esiste
+     * @throws E se il caricamento fallisce
+     */
+    public <E extends Exception> V get(K chiave, Caricatore<? super K, ? extends V, E> caricatore) throws E {
+        long generazioneLettura;
+        synchronized (this) {
+            V valore = get(chiave);
+            if (valore != null) {
+                return valore;
+            }
+            generazioneLettura = generazione;
+        }
+
+        V caricato = caricatore.carica(chiave);
+        if (caricato != null) {
+            synchronized (this) {
+                if (generazioneLettura == generazione) {
+                    voci.put(chiave, new Voce<>(caricato, orologio.getAsLong() + ttlNanos));
+                }
+            }
+        }
+        return caricato;
+    }
+
+    /**
+     * Rimuove una voce.
+     *
+     * @param chiave chiave da rimuovere
+     */
+    public synchronized void invalida(K chiave) {
+        generazione++;
+        if (voci.remove(chiave) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Rimuove tutte le voci.
+     */
+    public synchronized void invalidaTutto() {
+        generazione++;
+        invalidations += voci.size();
+        voci.clear();
+    }
+
+    /**
+     * @return istantanea delle statistiche della cache
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(voci.size(), dimensioneMassima, hits, misses, evictions, expirations, invalidations);
+    }
+}
@@ -0,0 +1,138 @@
+package controller;
+
+import metriche.Metriche;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Facciata asincrona del {@link Controller}.
+ * <p>
+ * Ogni operazione viene eseguita su un virtual thread dedicato, così che l'accesso
+ * al database non blocchi il thread chiamante (tipicamente l'Event Dispatch Thread di Swing).
+ * Il {@link CompletableFuture} restituito viene completato sull'{@code Executor} di callback
+ * indicato nel costruttore: passando {@code SwingUtilities::invokeLater} i risultati
+ * tornano direttamente sull'EDT e possono aggiornare i componenti grafici.
+ * </p>
+ * <p>
+ * Le letture si eseguono con {@link #call(Function)}: annullare il future con
+ * {@link CompletableFuture#cancel(boolean)} interrompe il virtual thread che sta eseguendo
+ * l'operazione e il risultato eventualmente prodotto dopo l'annullamento viene scartato.
+ * Le operazioni che scrivono nel database si eseguono con {@link #callScrittura(Function)},
+ * che non si possono interrompere: una scrittura già inviata può essere confermata dal
+ * database anche dopo l'annullamento, e il suo esito non deve andare perso.
+ * </p>
+ * <p>
+ * Ogni operazione è misurata come operazione utente da {@link Metriche}, che conta le
+ * query DAO eseguite per ciascuna azione.
+ * </p>
+ */
+public class AsyncController implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(AsyncController.class.getName());
+
+    private final Controller controller;
+    private final Executor callbackExecutor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Crea la facciata asincrona.
+     *
+     * @param controller       controller sincrono a cui delegare le operazioni
+     * @param callbackExecutor executor su cui completare i future restituiti
+     *                         (es. {@code SwingUtilities::invokeLater})
+     */
+    public AsyncController(Controller controller, Executor callbackExecutor) {
+        this.controller = controller;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Esegue un'operazione del controller in modo asincrono.
+     * <p>
+     * Esempio: {@code async.call(c -> c.getAllHackathons(organizzatoreId))}.
+     * Le eccezioni non controllate sollevate dall'operazione completano il future
+     * in modo eccezionale.
+     * </p>
+     *
+     * @param operation operazione da eseguire sul controller
+     * @param <T>       tipo del risultato
+     * @return future completato sull'executor di callback con il risultato dell'operazione
+     */
+    public <T> CompletableFuture<T> call(Function<? super Controller, ? extends T> operation) {
+        return esegui(operation, true);
+    }
+
+    /**
+     * Esegue in modo asincrono un'operazione del controller che scrive nel database.
+     * <p>
+     * A differenza di {@link #call(Function)}, annullare il future non interrompe
+     * l'operazione: prosegue fino alla fine, e se il future era già stato annullato il suo
+     * esito viene registrato nel log invece di essere scartato senza traccia.
+     * </p>
+     *
+     * @param operation operazione da eseguire sul controller
+     * @param <T>       tipo del risultato
+     * @return future completato sull'executor di callback con il risultato dell'operazione
+     */
+    public <T> CompletableFuture<T> callScrittura(Function<? super Controller, ? extends T> operation) {
+        return esegui(operation, false);
+    }
+
+    private <T> CompletableFuture<T> esegui(Function<? super Controller, ? extends T> operation,
+                                            boolean interrompibile) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    T value = Metriche.misuraOperazione(Controller.class, () -> operation.apply(controller));
+                    if (!interrompibile && result.isCancelled()) {
+                        logger.log(Level.INFO, "Scrittura completata dopo l''annullamento: {0}", value);
+                    }
+                    callbackExecutor.execute(() -> result.complete(value));
+                } catch (RuntimeException | Error e) {
+                    if (!result.isCancelled()) {
+                        logger.log(Level.FINE, "Operazione asincrona fallita", e);
+                    }
+                    callbackExecutor.execute(() -> result.completeExceptionally(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (interrompibile) {
+            result.whenComplete((_, _) -> {
+                if (result.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Restituisce il controller sincrono sottostante.
+     *
+     * @return il controller delegato
+     */
+    public Controller getController() {
+        return controller;
+    }
+
+    /**
+     * Interrompe le operazioni in corso e rifiuta quelle successive.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,13 +1,28 @@
 package controller;
 
+import cache.CacheStats;
 import dao.*;
 import dao.impl.*;
+import dao.row.*;
+import exporter.ExportReport;
+import exporter.FormatoExport;
+import exporter.RisultatiExporter;
+import importer.ImportReport;
+import importer.UtentiCsvImporter;
+import metriche.Metriche;
 import model.*;
 import model.exceptions.*;
+import model.utils.ValidationUtils;
+import security.HashingRejectedException;
+import security.PasswordSecurity;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
 import java.time.LocalDate;
+import java.util.function.LongConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,7 +39,7 @@ public class Controller {
     private final AggiornamentoDAO aggiornamentoDAO;
     private final CommentoDAO commentoDAO;
     private final DocumentoDAO documentoDAO;
-    private final HackathonDAO hackathonDAO;
+    private final CachingHackathonDAO hackathonDAO;
     private final ProblemaDAO problemaDAO;
     private final TeamDAO teamDAO;
     private final UtenteDAO utenteDAO;
@@ -37,20 +52,60 @@ public class Controller {
      * <p>
      * Inizializza le implementazioni concrete dei DAO utilizzati
      * dal controller per gestire le operazioni sul database.
+     * Ogni DAO è misurato da {@link Metriche}; per gli hackathon la misura
+     * sta sotto la cache, così da contare solo le letture che arrivano al database.
      */
     public Controller() {
+        this(Metriche.strumenta(AggiornamentoDAO.class, new AggiornamentoDAOImpl()),
+                Metriche.strumenta(CommentoDAO.class, new CommentoDAOImpl()),
+                Metriche.strumenta(DocumentoDAO.class, new DocumentoDAOImpl()),
+                Metriche.strumenta(HackathonDAO.class, new HackathonDAOImpl()),
+                Metriche.strumenta(ProblemaDAO.class, new ProblemaDAOImpl()),
+                Metriche.strumenta(TeamDAO.class, new TeamDAOImpl()),
+                Metriche.strumenta(UtenteDAO.class, new UtenteDAOImpl()),
+                Metriche.strumenta(ValutazioneDAO.class, new ValutazioneDAOImpl()));
+    }
 
-        this.aggiornamentoDAO = new AggiornamentoDAOImpl();
-        this.commentoDAO = new CommentoDAOImpl();
-        this.documentoDAO = new DocumentoDAOImpl();
-        this.hackathonDAO = new HackathonDAOImpl();
-        this.problemaDAO = new ProblemaDAOImpl();
-        this.teamDAO = new TeamDAOImpl();
-        this.utenteDAO = new UtenteDAOImpl();
-        this.valutazioneDAO = new ValutazioneDAOImpl();
+    /**
+     * Crea un controller sui DAO indicati, ad esempio implementazioni in memoria
+     * per benchmark e prove senza database.
+     * <p>
+     * Il DAO degli hackathon viene avvolto nella cache dei metadati ({@link CachingHackathonDAO}).
+     * </p>
+     *
+     * @param aggiornamentoDAO DAO degli aggiornamenti
+     * @param commentoDAO      DAO dei commenti
+     * @param documentoDAO     DAO dei documenti
+     * @param hackathonDAO     DAO degli hackathon
+     * @param problemaDAO      DAO dei problemi
+     * @param teamDAO          DAO dei team
+     * @param utenteDAO        DAO degli utenti
+     * @param valutazioneDAO   DAO delle valutazioni
+     */
+    public Controller(AggiornamentoDAO aggiornamentoDAO, CommentoDAO commentoDAO, DocumentoDAO documentoDAO,
+                      HackathonDAO hackathonDAO, ProblemaDAO problemaDAO, TeamDAO teamDAO,
+                      UtenteDAO utenteDAO, ValutazioneDAO valutazioneDAO) {
+        this.aggiornamentoDAO = aggiornamentoDAO;
+        this.commentoDAO = commentoDAO;
+        this.documentoDAO = documentoDAO;
+        this.hackathonDAO = new CachingHackathonDAO(hackathonDAO);
+        this.problemaDAO = problemaDAO;
+        this.teamDAO = teamDAO;
+        this.utenteDAO = utenteDAO;
+        this.valutazioneDAO = valutazioneDAO;
     }
 
 
+    /**
+     * Restituisce le statistiche della cache dei metadati degli hackathon
+     * (nome, data di fine e organizzatore).
+     *
+     * @return istantanea delle statistiche della cache
+     */
+    public CacheStats getHackathonCacheStats() {
+        return hackathonDAO.getCacheStats();
+    }
+
     /**
      * Salva un nuovo aggiornamento associato a un team e a un documento.
      *
@@ -150,6 +205,10 @@ public class Controller {
     /**
      * Salva un nuovo commento associato a un documento e a un giudice.
      *
+     * <p>Il testo viene validato come in {@link Commento}; esistenza di documento e giudice,
+     * presenza di almeno un aggiornamento sul documento e appartenenza allo stesso hackathon
+     * sono verificate dal database nella stessa istruzione che inserisce il commento.</p>
+     *
      * @param documentoId ID del documento a cui associare il commento
      * @param giudiceId   ID del giudice autore del commento
      * @param testo       contenuto testuale del commento
@@ -163,101 +222,20 @@ public class Controller {
      */
     public String saveCommento(int documentoId, int giudiceId, String testo) {
         try {
+            ValidationUtils.validateNotEmpty(testo, "Testo commento");
+        } catch (InvalidDataException e) {
+            return "Errore nei dati del commento: " + e.getMessage();
+        }
 
-            String titoloDocumento = documentoDAO.getTitoloById(documentoId);
-            String giudiceNome = utenteDAO.getNomeGiudiceById(giudiceId);
-            String giudiceCognome = utenteDAO.getCognomeGiudiceById(giudiceId);
-            String giudiceEmail = utenteDAO.getEmailGiudiceById(giudiceId);
-
-            if (titoloDocumento == null || titoloDocumento.isEmpty()) {
-                return "Errore: Documento non trovato con ID " + documentoId;
-            }
-            if (giudiceNome == null || giudiceNome.isEmpty()
-                    || giudiceCognome == null || giudiceCognome.isEmpty()
-                    || giudiceEmail == null || giudiceEmail.isEmpty()) {
-                return "Errore: Giudice non trovato con ID " + giudiceId;
-            }
-
-
-            List<String> rawAggList = aggiornamentoDAO.findByDocumentoId(documentoId);
-            if (rawAggList == null || rawAggList.isEmpty()) {
-                return "Errore: Nessun aggiornamento trovato per il documento ID: " + documentoId;
-            }
-
-
-            Documento documento;
-            Giudice giudice;
-            try {
-                documento = new Documento(documentoId, titoloDocumento);
-                giudice = new Giudice(giudiceId, giudiceNome, giudiceCognome, giudiceEmail);
-            } catch (InvalidDataException | RegistrazioneScadutaException e) {
-
-                return "Errore nei dati del commento: " + e.getMessage();
-            }
-
-            boolean atLeastOneAdded = false;
-            for (String row : rawAggList) {
-                if (row == null || row.trim().isEmpty()) continue;
-
-                String[] parts = row.split(";", 4);
-
-                int parsedTeamId = -1;
-                String parsedTeamNome = "";
-                String parsedContenuto = "";
-
-                try {
-                    if (parts.length > 1 && !parts[1].trim().isEmpty()) {
-                        parsedTeamId = Integer.parseInt(parts[1].trim());
-                    }
-                } catch (NumberFormatException ignored) {
-                    parsedTeamId = -1;
-                }
-                if (parts.length > 2) parsedTeamNome = parts[2].trim();
-                if (parts.length > 3) parsedContenuto = parts[3];
-
-                Team t;
-                try {
-                    t = new Team(parsedTeamId, parsedTeamNome);
-                } catch (InvalidDataException e) {
-
-                    continue;
-                }
-
-                Aggiornamento a;
-                try {
-                    a = new Aggiornamento(t, documento, parsedContenuto);
-                } catch (InvalidDataException e) {
-
-                    continue;
-                }
-
-                try {
-                    documento.aggiungiAggiornamento(a);
-                    atLeastOneAdded = true;
-                } catch (Exception ignored) {
-
-                }
-            }
-
-            if (!atLeastOneAdded) {
-                return "Errore nei dati del commento: impossibile popolare gli aggiornamenti nel modello per il documento ID " + documentoId;
-            }
-
-
-            try {
-                giudice.commentaDocumento(testo, documento);
-            } catch (InvalidDataException e) {
-                return "Errore nei dati del commento: " + e.getMessage();
-            }
-
-            try {
-                commentoDAO.save(documentoId, giudiceId, testo);
-            } catch (SQLException e) {
-                return "Errore durante il salvataggio del commento: " + e.getMessage();
-            }
-
-            return "Nuovo commento aggiunto con successo.";
-
+        try {
+            EsitoCommento esito = commentoDAO.save(documentoId, giudiceId, testo);
+            return switch (esito) {
+                case AGGIUNTO -> "Nuovo commento aggiunto con successo.";
+                case DOCUMENTO_NON_TROVATO -> "Errore: Documento non trovato con ID " + documentoId;
+                case GIUDICE_NON_TROVATO -> "Errore: Giudice non trovato con ID " + giudiceId;
+                case NESSUN_AGGIORNAMENTO -> "Errore: Nessun aggiornamento trovato per il documento ID: " + documentoId;
+                case HACKATHON_DIVERSO -> "Errore: giudice e documento non appartengono allo stesso hackathon.";
+            };
         } catch (SQLException e) {
 
             return "Errore durante il salvataggio del commento: " + e.getMessage();
@@ -280,15 +258,15 @@ public class Controller {
     public List<String> getCommentiByDocumentoId(int documentoId) {
         try {
 
-            List<String> commentiDb = commentoDAO.findByDocumentoId(documentoId);
+            List<CommentoRow> commentiDb = commentoDAO.findRowsByDocumentoId(documentoId);
             if (commentiDb.isEmpty()) {
                 return List.of("Nessun commento trovato per il documento ID: " + documentoId);
             }
 
             List<String> commentiModel = new ArrayList<>();
-            for (String testo : commentiDb) {
+            for (CommentoRow commento : commentiDb) {
 
-                commentiModel.add(testo);
+                commentiModel.add(commento.testo());
             }
 
             return commentiModel;
@@ -298,6 +276,27 @@ public class Controller {
         }
     }
 
+    /**
+     * Recupera una pagina dei commenti di un documento, ordinati per ID.
+     *
+     * @param documentoId ID del documento di cui recuperare i commenti
+     * @param cursore     cursore restituito dalla pagina precedente, {@code null} per la prima
+     * @param limite      numero massimo di commenti nella pagina
+     * @return pagina con il testo dei commenti, oppure un messaggio che segnala
+     *         l'assenza di commenti o l'errore
+     */
+    public Pagina<String> getCommentiByDocumentoIdPage(int documentoId, Integer cursore, int limite) {
+        try {
+            Pagina<CommentoRow> pagina = commentoDAO.findRowsByDocumentoIdPage(documentoId, cursore, limite);
+            if (pagina.elementi().isEmpty() && cursore == null) {
+                return Pagina.messaggio("Nessun commento trovato per il documento ID: " + documentoId);
+            }
+            return pagina.map(CommentoRow::testo);
+        } catch (SQLException e) {
+            return Pagina.messaggio("Errore ricerca commenti: " + e.getMessage());
+        }
+    }
+
     /**
      * Salva un nuovo documento associato a un team.
      *
@@ -377,6 +376,29 @@ public class Controller {
         }
     }
 
+    /**
+     * Recupera una pagina dei documenti di un team, ordinati per ID, ciascuno seguito dai suoi aggiornamenti.
+     * Il limite si applica al numero di documenti.
+     *
+     * @param teamId  ID del team
+     * @param cursore cursore restituito dalla pagina precedente, {@code null} per la prima
+     * @param limite  numero massimo di documenti nella pagina
+     * @return pagina di descrizioni testuali dei documenti oppure un messaggio di errore
+     */
+    public Pagina<String> getDocumentiByTeamIdPage(int teamId, Integer cursore, int limite) {
+        try {
+            Pagina<DocumentoRow> pagina = documentoDAO.findRowsByTeamIdPage(teamId, cursore, limite);
+            List<String> docs = new ArrayList<>();
+            for (DocumentoRow row : pagina.elementi()) {
+                docs.add(row.id() + " - " + row.titolo());
+                docs.addAll(row.aggiornamenti());
+            }
+            return new Pagina<>(docs, pagina.cursore());
+        } catch (SQLException e) {
+            return Pagina.messaggio("Errore nel recupero dei documenti: " + e.getMessage());
+        }
+    }
+
     /**
      * Recupera l'ID dell'hackathon a cui è associato un documento.
      *
@@ -414,21 +436,15 @@ public class Controller {
                                 LocalDate dataInizio, LocalDate dataFine, int organizzatoreId) {
         try {
 
-            String tipo = utenteDAO.getUserTypeById(organizzatoreId);
-            String nomeOrganizzatore = utenteDAO.getNomeOrgById(organizzatoreId);
-            String cognomeOrganizzatore = utenteDAO.getCognomeOrgById(organizzatoreId);
-            String emailOrganizzatore = utenteDAO.getEmailOrgById(organizzatoreId);
+            UtenteRow profiloOrganizzatore = utenteDAO.findProfileById(organizzatoreId, "organizzatore");
 
-            if (tipo == null || !tipo.equalsIgnoreCase("organizzatore")) {
+            if (profiloOrganizzatore == null) {
                 return "Errore: l'utente con ID " + organizzatoreId + " non è un organizzatore valido.";
             }
-            if (nomeOrganizzatore == null || cognomeOrganizzatore == null || emailOrganizzatore == null) {
-                return "Errore: dati dell'organizzatore non trovati.";
-            }
 
             try {
 
-                Organizzatore org = new Organizzatore(organizzatoreId, nomeOrganizzatore, cognomeOrganizzatore,emailOrganizzatore);
+                Organizzatore org = toOrganizzatore(profiloOrganizzatore);
                 new Hackathon(nome, descrizione, luogo, dataInizio, dataFine, org);
             } catch (InvalidDataException e) {
                 return "Errore di validazione Organizzatore: " + e.getMessage();
@@ -448,8 +464,8 @@ public class Controller {
             * Recupera la lista di tutti gli hackathon dal database.
      *
      * @param organizzatoreId      identificativo univoco dell'organizzatore
-             * <p>I dati grezzi ottenuti dalla DAO vengono trasformati in oggetti {@link Hackathon},
-            * arricchiti con i dati dell’organizzatore, e convertiti in stringa.</p>
+             * <p>Gli hackathon dell'organizzatore e i suoi dati anagrafici vengono letti con un'unica query,
+            * trasformati in oggetti {@link Hackathon} e convertiti in stringa.</p>
             *
             * @return lista di stringhe con le informazioni sugli hackathon
      */
@@ -459,117 +475,66 @@ public class Controller {
         List<String> result = new ArrayList<>();
 
         try {
+            result.addAll(formattaHackathons(hackathonDAO.findDettagliByOrganizzatoreId(organizzatoreId)));
+        } catch (SQLException e) {
+            result.add("Errore durante la visualizzazione degli hackathon: " + e.getMessage());
+        }
 
-            List<String> allHackathonsRaw = hackathonDAO.getAll();
+        if (result.isEmpty()) {
+            result.add("Nessun hackathon trovato per questo organizzatore.");
+        }
 
-            if (allHackathonsRaw == null || allHackathonsRaw.isEmpty()) {
-                result.add("Nessun hackathon trovato.");
-                return result;
+        return result;
+    }
+
+    /**
+     * Recupera una pagina degli hackathon di un organizzatore, ordinati per ID.
+     *
+     * @param organizzatoreId identificativo univoco dell'organizzatore
+     * @param cursore         cursore restituito dalla pagina precedente, {@code null} per la prima
+     * @param limite          numero massimo di hackathon nella pagina
+     * @return pagina di stringhe con le informazioni sugli hackathon, oppure un messaggio
+     *         che segnala l'assenza di hackathon o l'errore
+     */
+    public Pagina<String> getAllHackathonsPage(int organizzatoreId, Integer cursore, int limite) {
+        try {
+            Pagina<HackathonDettaglioRow> pagina =
+                    hackathonDAO.findDettagliByOrganizzatoreIdPage(organizzatoreId, cursore, limite);
+            if (pagina.elementi().isEmpty() && cursore == null) {
+                return Pagina.messaggio("Nessun hackathon trovato per questo organizzatore.");
             }
+            return new Pagina<>(formattaHackathons(pagina.elementi()), pagina.cursore());
+        } catch (SQLException e) {
+            return Pagina.messaggio("Errore durante la visualizzazione degli hackathon: " + e.getMessage());
+        }
+    }
 
+    private static List<String> formattaHackathons(List<HackathonDettaglioRow> rows) {
+        List<String> result = new ArrayList<>();
+        Organizzatore organizzatore = null;
+        for (HackathonDettaglioRow row : rows) {
+            try {
+                if (organizzatore == null) {
+                    organizzatore = new Organizzatore(row.organizzatoreId(), row.organizzatoreNome(),
+                            row.organizzatoreCognome(), row.organizzatoreEmail());
+                }
 
-            for (String row : allHackathonsRaw) {
-                try {
-                    int hackathonId = -1;
-
-                    if (row.contains("ID:")) {
-                        String[] parts = row.split(",");
-                        for (String p : parts) {
-                            p = p.trim();
-                            if (p.startsWith("ID:")) {
-                                try {
-                                    hackathonId = Integer.parseInt(p.split(":")[1].trim());
-                                } catch (NumberFormatException ignored) { }
-                                break;
-                            }
-                        }
-                    }
-                    if (hackathonId == -1 && row.contains(" - ")) {
-                        try {
-                            hackathonId = Integer.parseInt(row.split(" - ")[0].trim());
-                        } catch (NumberFormatException ignored) { }
-                    }
-
-                    if (hackathonId == -1) {
-                        logger.log(Level.WARNING, "Formato hackathon non riconosciuto: " + row);
-                        continue;
-                    }
-
-                    int orgIdFromDb;
-                    try {
-                        orgIdFromDb = hackathonDAO.getOrganizzatoreIdByHackathon(hackathonId);
-                    } catch (SQLException e) {
-                        logger.log(Level.WARNING, "Impossibile ottenere organizzatore per hackathonId=" + hackathonId, e);
-                        continue;
-                    }
-
-                    if (orgIdFromDb != organizzatoreId) {
-                        continue;
-                    }
-
-                    String nome = "";
-                    String descrizione = "";
-                    String luogo = "";
-                    LocalDate dataInizio = null;
-                    LocalDate dataFine = null;
-
-                    try {
-                        String[] parts = row.split(",");
-                        for (String part : parts) {
-                            part = part.trim();
-                            if (part.startsWith("Nome:")) nome = part.split(":", 2)[1].trim();
-                            else if (part.startsWith("Descrizione:")) descrizione = part.split(":", 2)[1].trim();
-                            else if (part.startsWith("Luogo:")) luogo = part.split(":", 2)[1].trim();
-                            else if (part.startsWith("Data Inizio:") || part.startsWith("DataInizio:"))
-                                dataInizio = LocalDate.parse(part.split(":", 2)[1].trim());
-                            else if (part.startsWith("Data Fine:") || part.startsWith("DataFine:"))
-                                dataFine = LocalDate.parse(part.split(":", 2)[1].trim());
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "Parsing parziale fallito per hackathonId=" + hackathonId, e);
-                    }
-
-                    String nomeOrg = "";
-                    String cognomeOrg = "";
-                    String emailOrg = "";
-                    try {
-                        nomeOrg = utenteDAO.getNomeOrgById(orgIdFromDb);
-                        cognomeOrg = utenteDAO.getCognomeOrgById(orgIdFromDb);
-                        emailOrg = utenteDAO.getEmailOrgById(orgIdFromDb);
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "Errore recupero organizzatore id=" + orgIdFromDb, e);
-                    }
-
-
-                    Hackathon hackathon;
-                    if (dataInizio != null && dataFine != null) {
-                        hackathon = new Hackathon(
-                                nome, descrizione, luogo, dataInizio, dataFine,
-                                new Organizzatore(orgIdFromDb, nomeOrg, cognomeOrg, emailOrg)
-                        );
-                    } else {
-                        hackathon = new Hackathon(
-                                nome,
-                                new Organizzatore(orgIdFromDb, nomeOrg, cognomeOrg, emailOrg)
-                        );
-                    }
-
-
-                    result.add(hackathon.toString());
-
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "Errore durante il parsing di una riga hackathon: " + row, e);
+                Hackathon hackathon;
+                if (row.dataInizio() != null && row.dataFine() != null) {
+                    hackathon = new Hackathon(
+                            row.nome(), row.descrizione(), row.luogo(), row.dataInizio(), row.dataFine(),
+                            organizzatore
+                    );
+                } else {
+                    hackathon = new Hackathon(row.nome(), organizzatore);
                 }
-            }
 
-        } catch (SQLException e) {
-            result.add("Errore durante la visualizzazione degli hackathon: " + e.getMessage());
-        }
+                result.add(hackathon.toString());
 
-        if (result.isEmpty()) {
-            result.add("Nessun hackathon trovato per questo organizzatore.");
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Errore durante la creazione dell'hackathon id=" + row.id(), e);
+            }
         }
-
         return result;
     }
 
@@ -585,68 +550,19 @@ public class Controller {
     public List<String> getHackathonsWithOpenRegistrations(int organizzatoreId) {
         List<String> result = new ArrayList<>();
         try {
-            List<String> rawList = hackathonDAO.findByRegistrazioniAperte(true);
+            List<HackathonRow> rows = hackathonDAO.findRowsByRegistrazioniAperte(true);
 
-            if (rawList.isEmpty()) {
+            if (rows.isEmpty()) {
                 result.add("Nessun hackathon con registrazioni aperte.");
                 return result;
             }
 
-            for (String row : rawList) {
-                try {
-
-                    if (row.contains(", ") && row.contains("ID:")) {
-                        String[] parts = row.split(", ");
-
-                        int id = -1;
-                        try {
-
-                            for (String p : parts) {
-                                if (p.trim().startsWith("ID:")) {
-                                    id = Integer.parseInt(p.split(":")[1].trim());
-                                    break;
-                                }
-                            }
-                        } catch (NumberFormatException ignore) {}
-
-                        // se richiesto filtrare per organizzatore
-                        if (organizzatoreId != -1 && id != -1) {
-                            int orgIdFromRow = hackathonDAO.getOrganizzatoreIdByHackathon(id);
-                            if (orgIdFromRow != organizzatoreId) {
-                                continue;
-                            }
-                        }
-
-
-                        result.add(row);
-                    }
-
-                    else if (row.contains(" - ")) {
-
-                        int id = -1;
-                        try {
-                            id = Integer.parseInt(row.split(" - ")[0].trim());
-                        } catch (NumberFormatException ignore) {}
-
-                        if (organizzatoreId != -1 && id != -1) {
-                            int orgIdFromRow = hackathonDAO.getOrganizzatoreIdByHackathon(id);
-                            if (orgIdFromRow != organizzatoreId) {
-                                continue;
-                            }
-                        }
-
-                        result.add(row);
-                    }
-
-                    else {
-                        result.add(row);
-                    }
-                } catch (Exception e) {
-
-                    logger.log(Level.WARNING, "Parsing hackathon riga failed: " + row, e);
-
-                    result.add(row);
+            for (HackathonRow row : rows) {
+                // se richiesto filtrare per organizzatore
+                if (organizzatoreId != -1 && row.organizzatoreId() != organizzatoreId) {
+                    continue;
                 }
+                result.add(row.id() + " - " + row.nome());
             }
 
         } catch (SQLException e) {
@@ -683,62 +599,16 @@ public class Controller {
     public List<String> getHackathonByOrganizzatoreId(int organizzatoreId) {
         List<String> result = new ArrayList<>();
         try {
-            List<String> rawList = hackathonDAO.getHackathonByOrganizzatoreId(organizzatoreId);
+            List<HackathonRow> rows = hackathonDAO.getRowsByOrganizzatoreId(organizzatoreId);
 
-            if (rawList == null || rawList.isEmpty()) {
+            if (rows.isEmpty()) {
                 result.add("Nessun hackathon trovato per l'organizzatore ID: " + organizzatoreId);
                 return result;
             }
 
-            for (String row : rawList) {
-                if (row == null) continue;
-                row = row.trim();
-
-
-                Integer id = null;
-                String nome = null;
-
-                try {
-
-                    if (row.contains(" - ")) {
-                        String[] parts = row.split(" - ", 2);
-                        id = Integer.parseInt(parts[0].trim());
-                        nome = parts[1].trim();
-                    }
-
-                    else if (row.contains(";")) {
-                        String[] parts = row.split(";", 2);
-                        nome = parts[0].trim();
-
-                    }
-
-                    else if (row.contains("ID:") && row.contains("Nome:")) {
-                        String[] parts = row.split(",\\s*");
-                        for (String p : parts) {
-                            if (p.startsWith("ID:")) {
-                                try { id = Integer.parseInt(p.split(":")[1].trim()); } catch (Exception ignored) {}
-                            } else if (p.startsWith("Nome:")) {
-                                nome = p.split(":", 2)[1].trim();
-                            }
-                        }
-                    }
-
-                    else {
-                        nome = row;
-                    }
-                } catch (Exception e) {
-
-                    continue;
-                }
-
-                if (nome == null || nome.isEmpty()) continue;
-
-
-                if (id != null && id > 0) {
-                    result.add(id + " - " + nome);
-                } else {
-                    result.add(nome);
-                }
+            for (HackathonRow row : rows) {
+                if (row.nome() == null || row.nome().isBlank()) continue;
+                result.add(row.id() + " - " + row.nome().trim());
             }
 
         } catch (SQLException e) {
@@ -768,9 +638,9 @@ public class Controller {
                 return List.of("Classifica disponibile solo dopo la conclusione dell'hackathon (data fine: " + dataFine + ").");
             }
 
-            List<String> raw = hackathonDAO.getClassifica(hackathonId);
+            List<ClassificaRow> classifica = hackathonDAO.getClassificaRows(hackathonId);
 
-            if (raw == null || raw.isEmpty()) {
+            if (classifica.isEmpty()) {
                 return List.of("Nessuna valutazione disponibile per questo hackathon.");
             }
 
@@ -778,30 +648,10 @@ public class Controller {
             out.add("Classifica Hackathon ID: " + hackathonId);
 
             int posizione = 1;
-            for (String row : raw) {
-                if (row == null || row.trim().isEmpty()) continue;
-
-                String[] parts = row.split(";", 3);
-                String teamIdStr = parts.length > 0 ? parts[0].trim() : "";
-                String teamName = parts.length > 1 ? parts[1].trim() : ("Team_" + teamIdStr);
-                String avgStr = parts.length > 2 ? parts[2].trim() : "";
-                String avgFormatted = "N/A";
-
-                if (!avgStr.isEmpty()) {
-                    try {
-                        double avg = Double.parseDouble(avgStr.replace(',', '.')); // tollera virgola
-                        avgFormatted = String.format("%.2f", avg);
-                    } catch (NumberFormatException ignored) { /* rimane N/A */ }
-                }
-
-
-                StringBuilder sb = new StringBuilder();
-                sb.append(posizione).append(". ");
-                sb.append(teamName);
-                if (!teamIdStr.isEmpty()) sb.append(" (ID: ").append(teamIdStr).append(")");
-                sb.append(" - Punteggio medio: ").append(avgFormatted);
-
-                out.add(sb.toString());
+            for (ClassificaRow row : classifica) {
+                String teamName = row.teamNome() != null ? row.teamNome() : ("Team_" + row.teamId());
+                out.add(String.format("%d. %s (ID: %d) - Punteggio medio: %.2f",
+                        posizione, teamName, row.teamId(), row.punteggioMedio()));
                 posizione++;
             }
 
@@ -815,6 +665,43 @@ public class Controller {
         }
     }
 
+    /**
+     * Esporta in un file i risultati di un hackathon concluso: classifica, valutazioni,
+     * commenti dei giudici e aggiornamenti dei team.
+     *
+     * <p>Le righe vengono lette e scritte in streaming, senza caricarle in memoria.
+     * Vedi {@link RisultatiExporter} per il contenuto del file.</p>
+     *
+     * @param hackathonId ID dell’hackathon
+     * @param file        file di destinazione, sostituito se esiste
+     * @param formato     formato del file
+     * @param avanzamento riceve il numero di righe scritte finora, dal thread che esegue l'esportazione
+     * @return riepilogo dell'esportazione oppure un messaggio di errore
+     */
+    public List<String> esportaRisultati(int hackathonId, Path file, FormatoExport formato, LongConsumer avanzamento) {
+        try {
+            LocalDate dataFine = hackathonDAO.getDataFineById(hackathonId);
+            if (dataFine == null) {
+                return List.of("Errore: data di fine non impostata per l'hackathon.");
+            }
+            if (dataFine.isAfter(LocalDate.now())) {
+                return List.of("Risultati esportabili solo dopo la conclusione dell'hackathon (data fine: " + dataFine + ").");
+            }
+
+            ExportReport report = new RisultatiExporter().esporta(hackathonId, file, formato, avanzamento);
+            List<String> out = new ArrayList<>(report.toLines());
+            out.add("File: " + file);
+            return out;
+        } catch (InterruptedIOException e) {
+            return List.of("Esportazione annullata.");
+        } catch (IOException e) {
+            return List.of("Errore nella scrittura del file: " + e.getMessage());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Esportazione risultati interrotta per hackathonId=" + hackathonId, e);
+            return List.of("Errore durante l'esportazione dei risultati: " + e.getMessage());
+        }
+    }
+
     /**
      * Recupera la lista degli hackathon con registrazioni aperte,
      * pensata per popolare interfacce grafiche (es. combo box).
@@ -864,15 +751,13 @@ public class Controller {
      */
     public String assignProblemaToTeam(String titolo, String descrizione, Integer teamId, int giudiceId, Integer problemaId) {
         try {
-            String giudiceNome = utenteDAO.getNomeGiudiceById(giudiceId);
-            String giudiceCognome = utenteDAO.getCognomeGiudiceById(giudiceId);
-            String giudiceEmail = utenteDAO.getEmailGiudiceById(giudiceId);
+            UtenteRow profiloGiudice = utenteDAO.findProfileById(giudiceId, "giudice");
             String nomeTeam = teamDAO.getNomeTeamById(teamId);
 
-            if (giudiceNome == null || giudiceCognome == null || giudiceEmail == null) return "Errore: Giudice non trovato.";
+            if (profiloGiudice == null) return "Errore: Giudice non trovato.";
             if (nomeTeam == null) return "Errore: Team non trovato.";
 
-            Giudice giudice = new Giudice(giudiceId, giudiceNome, giudiceCognome,giudiceEmail);
+            Giudice giudice = toGiudice(profiloGiudice);
             Team team = new Team(teamId, nomeTeam);
 
             giudice.assegnaProblemaATeam(titolo, descrizione, team);
@@ -917,11 +802,12 @@ public class Controller {
 
             int organizzatoreId = hackathonDAO.getOrganizzatoreIdByHackathon(hackathonId);
 
-            String nomeOrg = utenteDAO.getNomeOrgById(organizzatoreId);
-            String cognomeOrg = utenteDAO.getCognomeOrgById(organizzatoreId);
-            String emailOrg = utenteDAO.getEmailOrgById(organizzatoreId);
+            UtenteRow profiloOrganizzatore = utenteDAO.findProfileById(organizzatoreId, "organizzatore");
+            if (profiloOrganizzatore == null) {
+                return "Errore: Organizzatore con ID " + organizzatoreId + " non trovato.";
+            }
 
-            Organizzatore organizzatore = new Organizzatore(organizzatoreId, nomeOrg, cognomeOrg,emailOrg);
+            Organizzatore organizzatore = toOrganizzatore(profiloOrganizzatore);
             Hackathon hackathon = new Hackathon(nomeHackathon, organizzatore);
             Team team = new Team(0, nome, hackathon);
 
@@ -998,16 +884,13 @@ public class Controller {
 
             Hackathon hackathon = new Hackathon(nomeHackathon);
 
-            List<String> nomiTeams = teamDAO.findByHackathonId(hackathonId);
-
-            for (String nomeTeam : nomiTeams) {
-                Team team = new Team(0, nomeTeam);
-                hackathon.aggiungiTeam(team);
+            for (TeamRow row : teamDAO.findRowsByHackathonId(hackathonId)) {
+                hackathon.aggiungiTeam(new Team(row.id(), row.nome()));
             }
 
             return hackathon.getTeams()
                     .stream()
-                    .map(Team::getNome)
+                    .map(team -> team.getId() + " - " + team.getNome())
                     .toList();
 
         } catch (Exception e) {
@@ -1018,7 +901,8 @@ public class Controller {
     /**
      * Recupera i team di un hackathon che non hanno ancora raggiunto il numero massimo di membri.
      *
-     * <p>Per ogni team viene verificato che il numero di concorrenti sia inferiore a 6.</p>
+     * <p>Il numero di concorrenti di ogni team è letto dal contatore mantenuto dal database,
+     * senza contare gli utenti.</p>
      *
      * @param hackathonId ID dell’hackathon
      * @return lista dei nomi dei team non pieni o un messaggio di errore
@@ -1031,18 +915,8 @@ public class Controller {
                     return List.of("Hackathon non trovato con ID: " + hackathonId);
                 }
 
-                Hackathon hackathon = new Hackathon(nomeHackathon);
-
-                List<String> nomiTeams = teamDAO.findTeamsNotFull(hackathonId);
-
-                for (String nomeTeam : nomiTeams) {
-                    Team team = new Team(0, nomeTeam);
-                    hackathon.aggiungiTeam(team);
-                }
-
-                return hackathon.getTeams().stream()
-                        .filter(team -> team.getConcorrenti().size() < 6)
-                        .map(Team::getNome)
+                return teamDAO.findRowsNotFull(hackathonId, Team.MAX_TEAM_SIZE).stream()
+                        .map(row -> "ID: " + row.id() + ", Nome: " + row.nome() + ", Hackathon ID: " + hackathonId)
                         .toList();
 
             } catch (Exception e) {
@@ -1050,6 +924,25 @@ public class Controller {
             }
         }
 
+    /**
+     * Recupera i team di un hackathon a cui è ancora possibile unirsi,
+     * pensata per popolare interfacce grafiche (es. combo box).
+     *
+     * @param hackathonId ID dell’hackathon
+     * @return lista di stringhe nel formato {@code "id - nome (membri/massimo)"},
+     *         oppure un messaggio di errore
+     */
+    public List<String> getTeamsNotFullCombo(int hackathonId) {
+        try {
+            return teamDAO.findRowsNotFull(hackathonId, Team.MAX_TEAM_SIZE).stream()
+                    .map(row -> row.id() + " - " + row.nome()
+                            + " (" + row.memberCount() + "/" + Team.MAX_TEAM_SIZE + ")")
+                    .toList();
+        } catch (SQLException e) {
+            return List.of("Errore nel caricamento dei team: " + e.getMessage());
+        }
+    }
+
     /**
      * Recupera l’ID del team a cui appartiene un utente.
      *
@@ -1118,27 +1011,7 @@ public class Controller {
             if (hackathonId != null && !"organizzatore".equalsIgnoreCase(tipoUtente)) {
                 boolean foundOpen = false;
                 try {
-
-                    List<String> openHackathons = hackathonDAO.findByRegistrazioniAperte(true);
-
-                    if (openHackathons != null) {
-                        for (String row : openHackathons) {
-                            int parsedId = extractIdFromHackathonRow(row);
-                            if (parsedId == hackathonId) {
-                                foundOpen = true;
-                                break;
-                            }
-
-                            if (parsedId == -1) {
-
-                                String parsedName = extractNameFromRawHackathonRow(row);
-                                if (parsedName != null && parsedName.equalsIgnoreCase(nomeHackathon)) {
-                                    foundOpen = true;
-                                    break;
-                                }
-                            }
-                        }
-                    }
+                    foundOpen = hackathonDAO.isRegistrazioniAperte(hackathonId);
                 } catch (SQLException e) {
 
 
@@ -1166,6 +1039,9 @@ public class Controller {
                 } else {
                     return "Errore: tipo utente non valido: " + tipoUtente;
                 }
+            } catch (HashingRejectedException e) {
+                logger.log(Level.WARNING, "Registrazione rifiutata: servizio di hashing saturo");
+                return "Errore: " + e.getMessage();
             } catch (Exception e) {
                 return "Errore di validazione utente: " + e.getMessage();
             }
@@ -1182,69 +1058,39 @@ public class Controller {
         }
     }
 
-    /* Helper: prova a estrarre un ID da una riga raw dell'hackathon.
-       Ritorna id se trovato, altrimenti -1. */
-    private int extractIdFromHackathonRow(String row) {
-        if (row == null) return -1;
-        row = row.trim();
-        try {
-
-            if (row.contains("ID:")) {
-                String[] parts = row.split(",");
-                for (String p : parts) {
-                    p = p.trim();
-                    if (p.startsWith("ID:")) {
-                        String after = p.substring(3).trim();
-                        return Integer.parseInt(after);
-                    }
-                }
-            }
-
-            if (row.contains(" - ")) {
-                String first = row.split(" - ")[0].trim();
-                return Integer.parseInt(first);
-            }
-
-        } catch (NumberFormatException ignored) { }
-        return -1;
-    }
-
-    /* Helper: prova ad estrarre il nome dall'attuale formato "Nome;..." oppure "42 - Nome"
-       Ritorna nome, o null se non riconosciuto. */
-    private String extractNameFromRawHackathonRow(String row) {
-        if (row == null) return null;
+    /**
+     * Importa in blocco gli utenti da un file CSV.
+     *
+     * <p>Righe non valide, email già registrate e team incoerenti vengono scartati
+     * e riportati nel risultato senza interrompere l'importazione.
+     * Le righe possono indicare solo hackathon dell'organizzatore che importa.
+     * Vedi {@link UtentiCsvImporter} per il formato del file.</p>
+     *
+     * @param file            percorso del file CSV
+     * @param organizzatoreId ID dell'organizzatore che esegue l'importazione
+     * @return riepilogo dell'importazione seguito dagli errori per riga,
+     *         oppure un messaggio di errore
+     */
+    public List<String> importUtentiCsv(Path file, int organizzatoreId) {
         try {
-            if (row.contains(";")) {
-                String[] parts = row.split(";");
-                return parts[0].trim();
-            }
-            if (row.contains(" - ")) {
-                String[] parts = row.split(" - ", 2);
-                if (parts.length > 1) return parts[1].trim();
-            }
-
-            if (row.contains("Nome:")) {
-                String[] parts = row.split(",");
-                for (String p : parts) {
-                    p = p.trim();
-                    if (p.startsWith("Nome:")) {
-                        return p.split(":", 2)[1].trim();
-                    }
-                }
-            }
-        } catch (Exception ignored) {}
-        return null;
+            ImportReport report = new UtentiCsvImporter(utenteDAO, teamDAO, hackathonDAO)
+                    .importa(file, organizzatoreId);
+            return report.toLines();
+        } catch (IOException e) {
+            return List.of("Errore nella lettura del file: " + e.getMessage());
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Importazione utenti interrotta", e);
+            return List.of("Errore durante l'importazione degli utenti: " + e.getMessage());
+        }
     }
 
     /**
      * Aggiunge un utente concorrente a un team.
      *
-     * <p>Il metodo:
-     * <ul>
-     *     <li>Recupera i dati del team e del concorrente dal database</li>
-     *     <li>Istanzia gli oggetti {@link Team} e {@link Concorrente}</li>
-     *     <li>Aggiunge l’utente al team sia a livello di database sia a livello di modello</li>
-     * </ul>
+     * <p>L’utente viene aggiunto al team nel database, in un'unica transazione; il messaggio
+     * di conferma usa i nomi del team e del concorrente restituiti dall'aggiornamento stesso.
+     * Se il database rifiuta l’unione (team inesistente o pieno, ruolo o hackathon non validi)
+     * il messaggio restituito ne riporta il motivo.
      *
      * @param userId ID dell’utente concorrente
      * @param teamId ID del team
@@ -1253,27 +1099,22 @@ public class Controller {
         public String addUtenteToTeam(int userId, int teamId) {
             try {
 
-                String nomeTeam = teamDAO.getNomeTeamById(teamId);
-                String nomeConcorrente = utenteDAO.getNomeConcById(userId);
-                String cognomeConcorrente = utenteDAO.getCognomeConcById(userId);
-                String emailConcorrente=utenteDAO.getEmailConcById(userId);
-
-                Team team = new Team(teamId, nomeTeam);
-                Concorrente concorrente = new Concorrente(userId, nomeConcorrente, cognomeConcorrente, emailConcorrente);
-
-                utenteDAO.addUserToTeam(userId, teamId);
-
-
-                team.aggiungiConcorrente(concorrente);
-
-
-                return String.format("Utente %s %s aggiunto al team %s con successo!",
-                        nomeConcorrente, cognomeConcorrente, nomeTeam);
+                UnioneTeamRow unione = utenteDAO.addUserToTeam(userId, teamId, Team.MAX_TEAM_SIZE);
+                return switch (unione.esito()) {
+                    case AGGIUNTO -> String.format("Utente %s %s aggiunto al team %s con successo!",
+                            unione.nome(), unione.cognome(), unione.nomeTeam());
+                    case GIA_NEL_TEAM -> "L'utente fa già parte del team " + unione.nomeTeam() + ".";
+                    case TEAM_PIENO -> "Errore: il team " + unione.nomeTeam()
+                            + " ha già raggiunto il numero massimo di " + Team.MAX_TEAM_SIZE + " concorrenti.";
+                    case RUOLO_NON_VALIDO -> "Errore: l'utente con ID " + userId + " non è un concorrente.";
+                    case HACKATHON_DIVERSO -> "Errore: l'utente non è iscritto all'hackathon del team "
+                            + unione.nomeTeam() + ".";
+                    case UTENTE_NON_TROVATO -> "Errore: Concorrente con ID " + userId + " non trovato.";
+                    case TEAM_NON_TROVATO -> "Errore: Team con ID " + teamId + " non trovato.";
+                };
 
             } catch (SQLException e) {
                 return "Errore durante l'aggiunta dell'utente al team: " + e.getMessage();
-            } catch (InvalidDataException | TeamFullException | RegistrazioneScadutaException e) {
-                return "Errore di validazione: " + e.getMessage();
             }
         }
 
@@ -1305,8 +1146,12 @@ public class Controller {
                 return "L'utente non appartiene al team con ID " + teamId + " (è nel team " + currentTeamId + ").";
             }
 
-            String nomeConc = utenteDAO.getNomeConcById(userId);
-            String cognomeConc = utenteDAO.getCognomeConcById(userId);
+            UtenteRow profiloConcorrente = utenteDAO.findProfileById(userId, "concorrente");
+            if (profiloConcorrente == null) {
+                return "Errore: Concorrente con ID " + userId + " non trovato.";
+            }
+            String nomeConc = profiloConcorrente.nome();
+            String cognomeConc = profiloConcorrente.cognome();
             String nomeTeam = teamDAO.getNomeTeamById(teamId);
 
             boolean removed = utenteDAO.removeUserFromTeam(userId);
@@ -1341,6 +1186,31 @@ public class Controller {
             }
         }
 
+    /**
+     * Recupera una pagina degli utenti di un determinato tipo per un dato hackathon, ordinati per ID.
+     *
+     * @param hackathonId ID dell’hackathon
+     * @param tipoUtente  tipo di utente da cercare ({@code concorrente}, {@code giudice}, {@code organizzatore})
+     * @param cursore     cursore restituito dalla pagina precedente, {@code null} per la prima
+     * @param limite      numero massimo di utenti nella pagina
+     * @return pagina di utenti, oppure un messaggio di errore
+     */
+    public Pagina<String> getUtentiByTipoUtenteForHackathonPage(int hackathonId, String tipoUtente,
+                                                                Integer cursore, int limite) {
+        try {
+            return utenteDAO.findRowsByTipoUtenteForHackathonPage(hackathonId, tipoUtente, cursore, limite)
+                    .map(row -> "ID: " + row.id() +
+                            ", Nome: " + row.nome() +
+                            ", Cognome: " + row.cognome() +
+                            ", Email: " + row.email() +
+                            ", Tipo Utente: " + row.tipoUtente() +
+                            ", Hackathon ID: " + (row.hackathonId() != null ? row.hackathonId() : 0) +
+                            ", Team ID: " + row.teamId());
+        } catch (SQLException e) {
+            return Pagina.messaggio("Errore durante la ricerca degli utenti: " + e.getMessage());
+        }
+    }
+
     /**
      * Recupera tutti i concorrenti associati a un team in un hackathon.
      *
@@ -1353,17 +1223,13 @@ public class Controller {
         public List<String> getAllConcorrentiForTeam(int teamId, int hackathonId) {
             try {
 
-                List<String> concorrentiDAO = utenteDAO.getAllConcorrentiForTeam(teamId, hackathonId);
+                List<UtenteRow> concorrentiDAO = utenteDAO.getConcorrentiRowsForTeam(teamId, hackathonId);
 
                 String nomeTeam = teamDAO.getNomeTeamById(teamId);
                 Team team = new Team(teamId, nomeTeam != null ? nomeTeam : "Team_" + teamId);
 
-                for (String fullName : concorrentiDAO) {
-                    String[] parts = fullName.split(" ", 2);
-                    String nome = parts.length > 0 ? parts[0] : "";
-                    String cognome = parts.length > 1 ? parts[1] : "";
-
-                    Concorrente c = new Concorrente(0, nome, cognome);
+                for (UtenteRow row : concorrentiDAO) {
+                    Concorrente c = new Concorrente(row.id(), row.nome(), row.cognome(), row.email());
                     team.aggiungiConcorrente(c);
                 }
 
@@ -1393,6 +1259,71 @@ public class Controller {
             }
         }
 
+    /**
+     * Effettua il login e restituisce la sessione dell'utente autenticato.
+     * <p>
+     * Credenziali, tipo utente, hackathon e team vengono letti con un'unica query,
+     * così che i pannelli non debbano rileggerli a ogni operazione.
+     * </p>
+     *
+     * @param email    email dell'utente
+     * @param password password in chiaro
+     * @return la sessione dell'utente, oppure {@code null} se le credenziali sono errate o in caso di errore
+     */
+    public SessioneUtente loginSessione(String email, String password) {
+        try {
+            CredenzialiRow credenziali = utenteDAO.findCredenzialiByEmail(email);
+            if (credenziali == null || !PasswordSecurity.checkPassword(password, credenziali.passwordHash())) {
+                return null;
+            }
+
+            UtenteRow profilo = credenziali.profilo();
+            if (PasswordSecurity.needsRehash(credenziali.passwordHash())) {
+                rehashPasswordAsync(profilo.id(), password, credenziali.passwordHash());
+            }
+            return toSessione(profilo);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Errore durante il login per email=" + email, e);
+            return null;
+        }
+    }
+
+    /**
+     * Ricalcola in background l'hash della password con il costo corrente, senza
+     * rallentare il login. Se il servizio di hashing è saturo il ricalcolo viene
+     * semplicemente rimandato al login successivo.
+     */
+    private void rehashPasswordAsync(int userId, String plainPassword, String oldHash) {
+        Thread.ofVirtual().name("password-rehash-" + userId).start(() -> {
+            try {
+                String newHash = PasswordSecurity.hashPassword(plainPassword);
+                if (utenteDAO.updatePasswordHash(userId, oldHash, newHash)) {
+                    logger.log(Level.INFO, "Hash della password aggiornato per userId={0}", userId);
+                }
+            } catch (HashingRejectedException e) {
+                logger.log(Level.FINE, "Ricalcolo dell''hash rimandato per userId={0}", userId);
+            } catch (SQLException | RuntimeException e) {
+                logger.log(Level.WARNING, "Errore durante il ricalcolo dell'hash per userId=" + userId, e);
+            }
+        });
+    }
+
+    /**
+     * Ricarica la sessione di un utente, ad esempio dopo un cambio di team.
+     *
+     * @param userId ID dell'utente
+     * @return la sessione aggiornata, oppure {@code null} se l'utente non esiste o in caso di errore
+     */
+    public SessioneUtente refreshSessione(int userId) {
+        try {
+            UtenteRow profilo = utenteDAO.findProfileById(userId, null);
+            return profilo != null ? toSessione(profilo) : null;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Errore durante il ricaricamento della sessione per userId=" + userId, e);
+            return null;
+        }
+    }
+
         /**
      * Recupera il tipo di un utente dato il suo ID.
      *
@@ -1429,10 +1360,11 @@ public class Controller {
      *
      * <p>Il metodo:
      * <ul>
-     *     <li>Verifica l’esistenza del team e del giudice</li>
-     *     <li>Istanzia gli oggetti di dominio {@link Team}, {@link Giudice} e {@link Valutazione}</li>
-     *     <li>Chiama il metodo {@link Giudice#valutaTeam(Valutazione)} per validare l’associazione</li>
-     *     <li>Registra la valutazione nel database tramite {@code valutazioneDAO}</li>
+     *     <li>Legge con una sola query nome del team, profilo del giudice e numero di documenti
+     *         e aggiornamenti del team</li>
+     *     <li>Istanzia gli oggetti di dominio {@link Team}, {@link Giudice} e {@link Valutazione}
+     *         a partire da quel riepilogo e ne esegue la validazione</li>
+     *     <li>Registra la valutazione nel database nella stessa transazione della lettura</li>
      * </ul>
      *
      * @param teamId ID del team valutato
@@ -1440,91 +1372,62 @@ public class Controller {
      * @param punteggio punteggio assegnato (valore numerico)
      * @param feedback commento o osservazione del giudice
      * @return messaggio che indica l’esito del salvataggio
-
      */
-
     public String saveValutazione(int teamId, int giudiceId, int punteggio, String feedback) {
-
         try {
-            String nomeTeam = teamDAO.getNomeTeamById(teamId);
-            if (nomeTeam == null) {
+            RiepilogoValutazioneRow riepilogo = valutazioneDAO.saveVerificata(teamId, giudiceId, punteggio, feedback,
+                    r -> verificaValutazione(r, punteggio, feedback));
+            if (riepilogo == null) {
                 return "Errore: team non trovato.";
             }
 
-            String giudiceNome = utenteDAO.getNomeGiudiceById(giudiceId);
-            String giudiceCognome = utenteDAO.getCognomeGiudiceById(giudiceId);
-            String giudiceEmail = utenteDAO.getEmailGiudiceById(giudiceId);
-            if (giudiceNome == null || giudiceCognome == null || giudiceEmail == null) {
-                return "Errore: giudice non trovato.";
-            }
-
-            List<Integer> documentoIds = documentoDAO.getIdsByTeamId(teamId);
-
-            if (documentoIds == null || documentoIds.isEmpty()) {
-                return "Errore: Il team '" + teamId + ";" + nomeTeam + "' non ha ancora aggiunto alcun documento e non può essere valutato.";
-            }
-
-            Team team = new Team(teamId, nomeTeam);
-            boolean hasAnyAgg = false;
-            for (Integer docId : documentoIds) {
-                if (docId == null) continue;
-
-                String titolo = documentoDAO.getTitoloById(docId);
-                Documento doc = new Documento(docId, titolo);
-
-                boolean docHasAgg = aggiornamentoDAO.existsByDocumentoId(docId);
-
-                if (docHasAgg) {
-                    hasAnyAgg = true;
-
-                    try {
-
-                        Aggiornamento fakeAgg = new Aggiornamento(team, doc, "agg-placeholder");
-
-                        doc.aggiungiAggiornamento(fakeAgg);
-                        team.aggiungiDocumento(doc);
-                    }  catch (Exception ignored) {}
-                } else {
-                    try {
-                        team.aggiungiDocumento(doc);
-                    } catch (Exception ignored) {}
-                }
-            }
-
-            if (!hasAnyAgg) {
-                return "Errore: Il team '" + teamId + ";" + nomeTeam + "' non ha ancora aggiunto alcun aggiornamento e non può essere valutato.";
-            }
-
-
-            Giudice giudice;
-            try {
-                giudice = new Giudice(giudiceId, giudiceNome, giudiceCognome, giudiceEmail);
-            } catch (model.exceptions.InvalidDataException e) {
-                return "Errore nella creazione del giudice: " + e.getMessage();
-            }
-
+            UtenteRow giudice = riepilogo.giudice();
+            return "Valutazione salvata con successo per il team '" + riepilogo.teamNome() + "' dal giudice '"
+                    + giudice.nome() + " " + giudice.cognome() + "'.";
+        } catch (InvalidDataException e) {
+            return e.getMessage();
+        } catch (SQLException e) {
+            return "Errore durante il salvataggio della valutazione: " + e.getMessage();
+        } catch (Exception e) {
 
-            Valutazione valutazione;
-            try {
-                valutazione = new Valutazione(team, giudice, punteggio, feedback);
-                giudice.valutaTeam(valutazione); // azione di business nel model
-            } catch (model.exceptions.InvalidDataException e) {
-                return "Errore: " + e.getMessage();
-            }
+            return "Errore inatteso: " + e.getMessage();
+        }
+    }
 
+    /**
+     * Valida una valutazione sul modello di dominio a partire dal riepilogo letto dal database.
+     *
+     * @throws InvalidDataException con il messaggio da mostrare se la valutazione non è valida
+     */
+    private static void verificaValutazione(RiepilogoValutazioneRow riepilogo, int punteggio, String feedback)
+            throws InvalidDataException {
+        int teamId = riepilogo.teamId();
+        String nomeTeam = riepilogo.teamNome();
 
-            try {
-                valutazioneDAO.save(teamId, giudiceId, punteggio, feedback);
-            } catch (SQLException e) {
-                return "Errore durante il salvataggio della valutazione: " + e.getMessage();
-            }
+        if (riepilogo.giudice() == null) {
+            throw new InvalidDataException("Errore: giudice non trovato.");
+        }
+        if (riepilogo.documenti() == 0) {
+            throw new InvalidDataException("Errore: Il team '" + teamId + ";" + nomeTeam + "' non ha ancora aggiunto alcun documento e non può essere valutato.");
+        }
+        if (riepilogo.aggiornamenti() == 0) {
+            throw new InvalidDataException("Errore: Il team '" + teamId + ";" + nomeTeam + "' non ha ancora aggiunto alcun aggiornamento e non può essere valutato.");
+        }
 
-            return "Valutazione salvata con successo per il team '" + nomeTeam + "' dal giudice '" + giudiceNome + " " + giudiceCognome + "'.";
-        } catch (SQLException e) {
-            return "Errore DB: " + e.getMessage();
-        } catch (Exception e) {
+        Giudice giudice;
+        try {
+            giudice = toGiudice(riepilogo.giudice());
+        } catch (InvalidDataException | RegistrazioneScadutaException e) {
+            throw new InvalidDataException("Errore nella creazione del giudice: " + e.getMessage());
+        }
 
-            return "Errore inatteso: " + e.getMessage();
+        try {
+            Team team = new Team(teamId, nomeTeam);
+            team.setAggiornamentiRegistrati(riepilogo.aggiornamenti());
+            Valutazione valutazione = new Valutazione(team, giudice, punteggio, feedback);
+            giudice.valutaTeam(valutazione); // azione di business nel model
+        } catch (InvalidDataException e) {
+            throw new InvalidDataException("Errore: " + e.getMessage());
         }
     }
 
@@ -1533,9 +1436,7 @@ public class Controller {
      *
      * <p>Il metodo:
      * <ul>
-     *     <li>Ottiene le valutazioni dal database in formato raw tramite {@code valutazioneDAO}</li>
-     *     <li>Istanzia oggetti {@link Valutazione} per ogni record</li>
-     *     <li>Collega le valutazioni al team corrispondente</li>
+     *     <li>Ottiene le valutazioni del team tramite {@code valutazioneDAO}, con i dati del giudice già risolti</li>
      *     <li>Restituisce un elenco testuale con nome del giudice, punteggio e feedback</li>
      * </ul>
      *
@@ -1544,132 +1445,73 @@ public class Controller {
      */
 
     public List<String> getValutazioniByTeam(int teamId) {
-        List<String> output = new ArrayList<>();
         try {
-            List<String> rawRows = valutazioneDAO.getAllByTeam(teamId);
-            if (rawRows == null || rawRows.isEmpty()) {
-                output.add("Nessuna valutazione trovata per il team con ID " + teamId);
-                return output;
+            List<ValutazioneRow> rows = valutazioneDAO.getRowsByTeam(teamId);
+            if (rows.isEmpty()) {
+                return List.of("Nessuna valutazione trovata per il team con ID " + teamId);
             }
 
-            System.out.println("[DEBUG getValutazioniByTeam] rawRows size=" + rawRows.size());
-            for (String r : rawRows) System.out.println("[DEBUG rawRow] \"" + r + "\"");
-
-            String nomeTeam = "Team_" + teamId;
-            try {
-                String tn = teamDAO.getNomeTeamById(teamId);
-                if (tn != null && !tn.isBlank()) nomeTeam = tn;
-            } catch (Exception ignore) {
+            List<String> output = new ArrayList<>();
+            for (ValutazioneRow row : rows) {
+                output.add(formattaValutazione(row));
             }
+            return output;
+        } catch (Exception e) {
 
-            for (String raw : rawRows) {
-                if (raw == null || raw.trim().isEmpty()) continue;
-
-                String normalized = raw.trim();
-
-                if (normalized.toLowerCase().contains("feedback:")) {
-
-                    int idx = normalized.toLowerCase().lastIndexOf("feedback:");
-
-                    String after = normalized.substring(idx + "feedback:".length()).trim();
-                    String before = normalized.substring(0, idx).trim();
-
-                    normalized = before + " - " + after;
-                } else {
-
-                    String lower = normalized.toLowerCase();
-                    if ((lower.contains("giudice id") || lower.contains("punteggio")) &&
-                            (lower.startsWith("id") || lower.contains("id:") || lower.contains("giudice id"))) {
-
-                        normalized = normalized.replaceAll("(?i)\\bID\\b", "")
-                                .replaceAll("(?i)Giudice ID", "Giudice ID")
-                                .replaceAll("(?i)Punteggio", "Punteggio")
-                                .replaceAll("(?i)Feedback", "Feedback")
-                                .replaceAll("[:]+", ":")
-                                .replaceAll("\\s{2,}", " ").trim();
-                    }
-                }
-
-                Integer valutazioneId = null;
-                Integer giudiceId = null;
-                Integer punteggio = null;
-                String feedback = "";
-
-                if (normalized.toLowerCase().contains("feedback:")) {
-                    int idx = normalized.toLowerCase().lastIndexOf("feedback:");
-                    feedback = normalized.substring(idx + "feedback:".length()).trim();
-                    normalized = normalized.substring(0, idx).trim();
-                }
-
-                java.util.regex.Matcher mAll = java.util.regex.Pattern.compile("\\d+").matcher(normalized);
-                List<Integer> nums = new ArrayList<>();
-                while (mAll.find()) {
-                    try {
-                        nums.add(Integer.parseInt(mAll.group()));
-                    } catch (NumberFormatException ignored) {
-                    }
-                }
-
-                if (!nums.isEmpty()) {
-                    if (nums.size() >= 3) {
-                        valutazioneId = nums.get(0);
-                        giudiceId = nums.get(1);
-                        punteggio = nums.get(2);
-                    } else if (nums.size() == 2) {
-                        giudiceId = nums.get(0);
-                        punteggio = nums.get(1);
-                    } else
-                        giudiceId = nums.getFirst();
-
-                }
-
-                if (feedback.isBlank()) {
-
-                    String tmp = normalized;
-                    if (valutazioneId != null) tmp = tmp.replaceFirst("\\b" + valutazioneId + "\\b", "");
-                    if (giudiceId != null) tmp = tmp.replaceFirst("\\b" + giudiceId + "\\b", "");
-                    if (punteggio != null) tmp = tmp.replaceFirst("\\b" + punteggio + "\\b", "");
-                    feedback = tmp.replaceAll("[-:,]+", " ").trim();
-                    if (feedback.isEmpty() && feedback.matches("^\\W*$")) feedback = "";
-                }
-
-                String giudiceNome = null;
-                String giudiceCognome = null;
-                if (giudiceId != null && giudiceId > 0) {
-                    try {
-                        giudiceNome = utenteDAO.getNomeGiudiceById(giudiceId);
-                        giudiceCognome = utenteDAO.getCognomeGiudiceById(giudiceId);
-                    } catch (Exception ex) {
-                        System.out.println("[DEBUG] utenteDAO.getNomeGiudiceById errore per id=" + giudiceId + ": " + ex.getMessage());
-                    }
-                }
+            return List.of("Errore durante la visualizzazione delle valutazioni: " + e.getMessage());
+        }
+    }
 
-                String giudiceDisplay;
-                if (giudiceNome != null && !giudiceNome.isBlank()) {
-                    giudiceDisplay = giudiceNome + (giudiceCognome != null ? " " + giudiceCognome : "");
-                } else if (giudiceId != null && giudiceId > 0) {
-                    giudiceDisplay = "Giudice id:" + giudiceId;
-                } else {
-                    giudiceDisplay = "Giudice sconosciuto";
-                }
+    /**
+     * Recupera una pagina delle valutazioni ricevute da un team, ordinate per ID.
+     *
+     * @param teamId  ID del team
+     * @param cursore cursore restituito dalla pagina precedente, {@code null} per la prima
+     * @param limite  numero massimo di valutazioni nella pagina
+     * @return pagina di stringhe che descrivono le valutazioni, oppure un messaggio
+     *         che segnala l'assenza di valutazioni o l'errore
+     */
+    public Pagina<String> getValutazioniByTeamPage(int teamId, Integer cursore, int limite) {
+        try {
+            Pagina<ValutazioneRow> pagina = valutazioneDAO.getRowsByTeamPage(teamId, cursore, limite);
+            if (pagina.elementi().isEmpty() && cursore == null) {
+                return Pagina.messaggio("Nessuna valutazione trovata per il team con ID " + teamId);
+            }
+            return pagina.map(Controller::formattaValutazione);
+        } catch (Exception e) {
+            return Pagina.messaggio("Errore durante la visualizzazione delle valutazioni: " + e.getMessage());
+        }
+    }
 
-                String punteggioDisplay = (punteggio != null) ? String.valueOf(punteggio) : "N/A";
-                String feedbackDisplay = (!feedback.isBlank()) ? feedback : "-";
+    private static String formattaValutazione(ValutazioneRow row) {
+        String giudiceDisplay;
+        if (row.giudiceNome() != null && !row.giudiceNome().isBlank()) {
+            giudiceDisplay = row.giudiceNome() + (row.giudiceCognome() != null ? " " + row.giudiceCognome() : "");
+        } else if (row.giudiceId() > 0) {
+            giudiceDisplay = "Giudice id:" + row.giudiceId();
+        } else {
+            giudiceDisplay = "Giudice sconosciuto";
+        }
 
-                String line = String.format("Giudice: %s - Punteggio: %s - Feedback: %s",
-                        giudiceDisplay, punteggioDisplay, feedbackDisplay);
+        String feedbackDisplay = !row.feedback().isBlank() ? row.feedback() : "-";
 
-                System.out.println("[DEBUG parsed] valutazioneId=" + valutazioneId + " giudiceId=" + giudiceId +
-                        " punteggio=" + punteggio + " feedback='" + feedback + "' -> " + line);
+        return String.format("Giudice: %s - Punteggio: %d - Feedback: %s",
+                giudiceDisplay, row.punteggio(), feedbackDisplay);
+    }
 
-                output.add(line);
-            }
+    private static SessioneUtente toSessione(UtenteRow profilo) {
+        String nome = profilo.nome() != null ? profilo.nome() : "";
+        String cognome = profilo.cognome() != null ? profilo.cognome() : "";
+        return new SessioneUtente(profilo.id(), profilo.tipoUtente(), profilo.hackathonId(), profilo.teamId(),
+                (nome + " " + cognome).trim());
+    }
 
-            return output;
-        } catch (Exception e) {
+    private static Giudice toGiudice(UtenteRow profilo) throws InvalidDataException, RegistrazioneScadutaException {
+        return new Giudice(profilo.id(), profilo.nome(), profilo.cognome(), profilo.email());
+    }
 
-            return List.of("Errore durante la visualizzazione delle valutazioni: " + e.getMessage());
-        }
+    private static Organizzatore toOrganizzatore(UtenteRow profilo) throws InvalidDataException {
+        return new Organizzatore(profilo.id(), profilo.nome(), profilo.cognome(), profilo.email());
     }
 
 }
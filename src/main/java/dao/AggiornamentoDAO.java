@@ -1,5 +1,7 @@
 package dao;
 
+import dao.row.AggiornamentoRow;
+
 import java.sql.SQLException;
 import java.util.List;
 
@@ -53,6 +55,15 @@ public interface AggiornamentoDAO {
      */
      List<String> findByDocumentoId(int documentoId) throws SQLException;
 
+    /**
+     * Restituisce gli aggiornamenti di un documento come righe tipizzate, in ordine di inserimento.
+     *
+     * @param documentoId ID del documento
+     * @return lista degli aggiornamenti del documento
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<AggiornamentoRow> findRowsByDocumentoId(int documentoId) throws SQLException;
+
     /**
      * Restituisce l’ID del documento associato a un aggiornamento.
      *
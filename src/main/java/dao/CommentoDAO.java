@@ -1,5 +1,9 @@
 package dao;
 
+import dao.row.CommentoRow;
+import dao.row.EsitoCommento;
+import model.Pagina;
+
 import java.sql.SQLException;
 import java.util.List;
 
@@ -14,13 +18,20 @@ public interface CommentoDAO {
 
     /**
      * Salva un nuovo commento associato a un documento e a un giudice.
+     * <p>
+     * L'inserimento avviene solo se il documento esiste e ha almeno un aggiornamento e se
+     * il giudice è assegnato all'hackathon del team del documento; le verifiche e l'inserimento
+     * sono un'unica istruzione, quindi un'unica transazione.
+     * </p>
      *
      * @param documentoId identificativo del documento a cui il commento è riferito
      * @param giudiceId   identificativo del giudice autore del commento
      * @param testo       contenuto del commento
+     * @return {@link EsitoCommento#AGGIUNTO} se il commento è stato inserito,
+     *         altrimenti il motivo del rifiuto
      * @throws SQLException se si verifica un errore nell’accesso al database
      */
-    void save(int documentoId, int giudiceId, String testo) throws SQLException;
+    EsitoCommento save(int documentoId, int giudiceId, String testo) throws SQLException;
 
 
     /**
@@ -33,6 +44,26 @@ public interface CommentoDAO {
      */
     List<String> findByDocumentoId(int documentoId) throws SQLException;
 
+    /**
+     * Restituisce i commenti di un documento come righe tipizzate.
+     *
+     * @param documentoId ID del documento
+     * @return lista dei commenti del documento
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<CommentoRow> findRowsByDocumentoId(int documentoId) throws SQLException;
+
+    /**
+     * Restituisce una pagina dei commenti di un documento, in ordine di ID e con paginazione keyset.
+     *
+     * @param documentoId ID del documento
+     * @param dopoId      ID dell'ultimo commento della pagina precedente, {@code null} per la prima pagina
+     * @param limite      numero massimo di commenti nella pagina
+     * @return la pagina di commenti
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<CommentoRow> findRowsByDocumentoIdPage(int documentoId, Integer dopoId, int limite) throws SQLException;
+
     /**
      * Verifica se esistono aggiornamenti associati a un documento.
      * <p>
@@ -1,5 +1,8 @@
 package dao;
 
+import dao.row.DocumentoRow;
+import model.Pagina;
+
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
@@ -66,6 +69,28 @@ public interface DocumentoDAO {
      * @throws SQLException se si verifica un errore nell’accesso al database
      */
     List<String> findDocumentoByTeamId(int teamId,Integer documentoId) throws SQLException;
+
+    /**
+     * Restituisce i documenti di un team, ciascuno con i contenuti dei propri aggiornamenti.
+     *
+     * @param teamId      ID del team
+     * @param documentoId ID del documento da cercare, oppure {@code null} per tutti i documenti del team
+     * @return lista dei documenti del team
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<DocumentoRow> findRowsByTeamId(int teamId, Integer documentoId) throws SQLException;
+
+    /**
+     * Restituisce una pagina dei documenti di un team con i relativi aggiornamenti,
+     * in ordine di ID e con paginazione keyset sui documenti.
+     *
+     * @param teamId ID del team
+     * @param dopoId ID dell'ultimo documento della pagina precedente, {@code null} per la prima pagina
+     * @param limite numero massimo di documenti nella pagina
+     * @return la pagina di documenti
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<DocumentoRow> findRowsByTeamIdPage(int teamId, Integer dopoId, int limite) throws SQLException;
     /**
      * Restituisce il titolo di un documento a partire dal suo ID.
      *
@@ -1,5 +1,11 @@
 package dao;
 
+import dao.row.ClassificaRow;
+import dao.row.HackathonDettaglioRow;
+import dao.row.HackathonMetaRow;
+import dao.row.HackathonRow;
+import model.Pagina;
+
 import java.sql.SQLException;
 import java.util.List;
 import java.time.LocalDate;
@@ -44,6 +50,15 @@ public interface HackathonDAO {
      */
     LocalDate getDataFineById(int hackathonId) throws SQLException;
 
+    /**
+     * Restituisce nome, data di fine e organizzatore di un hackathon con una sola query.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @return i metadati dell'hackathon, oppure {@code null} se non trovato
+     * @throws SQLException se si verifica un errore nella query
+     */
+    HackathonMetaRow findMetaById(int hackathonId) throws SQLException;
+
 
 
     /**
@@ -54,6 +69,24 @@ public interface HackathonDAO {
      */
     List<String> getAll() throws SQLException;
 
+    /**
+     * Restituisce tutti gli hackathon presenti come righe tipizzate.
+     *
+     * @return lista degli hackathon
+     * @throws SQLException se si verifica un errore durante il recupero
+     */
+    List<HackathonRow> getAllRows() throws SQLException;
+
+    /**
+     * Restituisce una pagina di hackathon in ordine di ID, con paginazione keyset.
+     *
+     * @param dopoId ID dell'ultimo hackathon della pagina precedente, {@code null} per la prima pagina
+     * @param limite numero massimo di hackathon nella pagina
+     * @return la pagina di hackathon
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<HackathonRow> getAllRowsPage(Integer dopoId, int limite) throws SQLException;
+
 
     /**
      * Restituisce la classifica dei team di un hackathon in base al punteggio medio.
@@ -63,6 +96,17 @@ public interface HackathonDAO {
      * @throws SQLException se si verifica un errore nella query
      */
     List<String> getClassifica(int hackathonId) throws SQLException;
+
+    /**
+     * Restituisce la classifica dei team di un hackathon come righe tipizzate,
+     * ordinate per punteggio medio decrescente.
+     * Legge gli aggregati mantenuti al salvataggio di ogni valutazione.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @return lista ordinata delle righe di classifica
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<ClassificaRow> getClassificaRows(int hackathonId) throws SQLException;
     /**
      * Restituisce gli hackathon in base allo stato delle registrazioni.
      *
@@ -72,6 +116,25 @@ public interface HackathonDAO {
      * @throws SQLException se si verifica un errore nella query
      */
     List<String> findByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException;
+
+    /**
+     * Restituisce gli hackathon in base allo stato delle registrazioni come righe tipizzate.
+     *
+     * @param statoRegistrazioni {@code true} per gli hackathon con registrazioni aperte,
+     *                           {@code false} altrimenti
+     * @return lista degli hackathon filtrati
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<HackathonRow> findRowsByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException;
+
+    /**
+     * Verifica se un hackathon ha le registrazioni aperte, leggendo solo la sua riga.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @return {@code true} se l'hackathon esiste e ha le registrazioni aperte
+     * @throws SQLException se si verifica un errore nella query
+     */
+    boolean isRegistrazioniAperte(int hackathonId) throws SQLException;
     /**
      * Restituisce l'ID dell'organizzatore di un hackathon.
      *
@@ -89,6 +152,38 @@ public interface HackathonDAO {
      */
     List<String> getHackathonByOrganizzatoreId(int organizzatoreId) throws SQLException;
 
+    /**
+     * Restituisce gli hackathon creati da un organizzatore come righe tipizzate.
+     *
+     * @param organizzatoreId ID dell'organizzatore
+     * @return lista degli hackathon dell'organizzatore
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<HackathonRow> getRowsByOrganizzatoreId(int organizzatoreId) throws SQLException;
+
+    /**
+     * Restituisce gli hackathon di un organizzatore insieme ai dati dell'organizzatore stesso,
+     * con un'unica query indipendente dal numero di hackathon presenti.
+     *
+     * @param organizzatoreId ID dell'organizzatore
+     * @return lista degli hackathon dell'organizzatore, ordinata per ID
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<HackathonDettaglioRow> findDettagliByOrganizzatoreId(int organizzatoreId) throws SQLException;
+
+    /**
+     * Restituisce una pagina degli hackathon di un organizzatore, con i dati dell'organizzatore,
+     * in ordine di ID e con paginazione keyset.
+     *
+     * @param organizzatoreId ID dell'organizzatore
+     * @param dopoId          ID dell'ultimo hackathon della pagina precedente, {@code null} per la prima pagina
+     * @param limite          numero massimo di hackathon nella pagina
+     * @return la pagina di hackathon
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<HackathonDettaglioRow> findDettagliByOrganizzatoreIdPage(int organizzatoreId, Integer dopoId, int limite)
+            throws SQLException;
+
     /**
             * Restituisce l'id dell' hackathon creati dal nome e dall'id di un organizzatore specifico.
             *
@@ -1,7 +1,11 @@
 package dao;
 
+import dao.row.TeamRow;
+
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaccia DAO per la gestione dei {@code Team} negli hackathon.
@@ -37,16 +41,35 @@ public interface TeamDAO {
      */
     List<String> findByHackathonId(int hackathonId) throws SQLException;
 
+    /**
+     * Restituisce i team di un hackathon come righe tipizzate.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @return lista dei team dell'hackathon
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<TeamRow> findRowsByHackathonId(int hackathonId) throws SQLException;
+
     /**
      * Recupera tutti i team di un hackathon che non hanno ancora raggiunto il numero massimo di concorrenti.
-     * <p>
-     * Si assume che il numero massimo di concorrenti per team sia 6.
      *
-     * @param hackathonId identificativo dell'hackathon
+     * @param hackathonId    identificativo dell'hackathon
+     * @param maxConcorrenti numero massimo di concorrenti per team
      * @return lista di stringhe con le informazioni dei team non completi
      * @throws SQLException se si verifica un errore durante la query
      */
-    List<String> findTeamsNotFull(int hackathonId) throws SQLException;
+    List<String> findTeamsNotFull(int hackathonId, int maxConcorrenti) throws SQLException;
+
+    /**
+     * Restituisce i team di un hackathon che non hanno raggiunto il numero massimo
+     * di concorrenti, come righe tipizzate.
+     *
+     * @param hackathonId    ID dell'hackathon
+     * @param maxConcorrenti numero massimo di concorrenti per team
+     * @return lista dei team non pieni
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<TeamRow> findRowsNotFull(int hackathonId, int maxConcorrenti) throws SQLException;
     /**
      * Restituisce l'identificativo dell'hackathon a cui appartiene un team.
      *
@@ -55,6 +78,15 @@ public interface TeamDAO {
      * @throws SQLException se si verifica un errore durante la query
      */
     int getHackathonIdByTeam(int teamId) throws SQLException;
+
+    /**
+     * Restituisce con un'unica query l'hackathon di appartenenza di più team.
+     *
+     * @param teamIds ID dei team
+     * @return mappa da ID del team a ID dell'hackathon; i team inesistenti non compaiono
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Map<Integer, Integer> findHackathonIdsByTeamIds(Collection<Integer> teamIds) throws SQLException;
     /**
      * Restituisce l'identificativo del team a cui appartiene un utente.
      *
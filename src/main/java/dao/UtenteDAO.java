@@ -1,7 +1,15 @@
 package dao;
 
+import dao.row.CredenzialiRow;
+import dao.row.NuovoUtenteRow;
+import dao.row.UnioneTeamRow;
+import dao.row.UtenteRow;
+import model.Pagina;
+
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.time.LocalDate;
 
 /**
@@ -38,13 +46,48 @@ public interface UtenteDAO {
     List<String> findByTipoUtenteForHackathon(int hackathonId, String tipoUtente) throws SQLException;
 
     /**
-     * Aggiunge un utente a un team (solo se è un concorrente e il team non è pieno).
+     * Restituisce gli utenti di un certo tipo iscritti a un hackathon, come righe tipizzate.
      *
-     * @param userId identificativo dell'utente
-     * @param teamId identificativo del team
+     * @param hackathonId ID dell'hackathon
+     * @param tipoUtente  tipo di utente da cercare
+     * @return lista degli utenti trovati
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<UtenteRow> findRowsByTipoUtenteForHackathon(int hackathonId, String tipoUtente) throws SQLException;
+
+    /**
+     * Restituisce una pagina degli utenti di un tipo iscritti a un hackathon,
+     * in ordine di ID e con paginazione keyset.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @param tipoUtente  tipo di utente
+     * @param dopoId      ID dell'ultimo utente della pagina precedente, {@code null} per la prima pagina
+     * @param limite      numero massimo di utenti nella pagina
+     * @return la pagina di utenti
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<UtenteRow> findRowsByTipoUtenteForHackathonPage(int hackathonId, String tipoUtente, Integer dopoId, int limite)
+            throws SQLException;
+
+    /**
+     * Aggiunge un utente a un team, in un'unica transazione.
+     * <p>
+     * Vengono bloccate per tutta la transazione la riga dell'utente e, in ordine di id, le righe
+     * del team di ingresso e del team da cui l'utente esce: due unioni concorrenti allo stesso
+     * team non possono superarne la capienza e due spostamenti opposti tra gli stessi team non
+     * vanno in deadlock. La capienza viene passata anche al trigger che aggiorna il contatore
+     * dei concorrenti del team.
+     * L'utente viene aggiunto solo se è un concorrente iscritto allo stesso hackathon
+     * del team e il team non è pieno; altrimenti l'esito indica il motivo del rifiuto.
+     *
+     * @param userId         identificativo dell'utente
+     * @param teamId         identificativo del team
+     * @param maxConcorrenti numero massimo di concorrenti del team
+     * @return l'esito dell'operazione, con il nome del team e, se l'utente è stato aggiunto,
+     *         il suo nome e cognome
      * @throws SQLException se si verifica un errore durante l'aggiornamento
      */
-    void addUserToTeam(int userId, int teamId) throws SQLException;
+    UnioneTeamRow addUserToTeam(int userId, int teamId, int maxConcorrenti) throws SQLException;
 
     /**
      * Rimuove un utente da un team.
@@ -67,6 +110,16 @@ public interface UtenteDAO {
      */
     List<String> getAllConcorrentiForTeam(int teamId,int hackathonId) throws SQLException;
 
+    /**
+     * Restituisce i concorrenti di un team in un hackathon, come righe tipizzate.
+     *
+     * @param teamId      ID del team
+     * @param hackathonId ID dell'hackathon
+     * @return lista dei concorrenti del team
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<UtenteRow> getConcorrentiRowsForTeam(int teamId, int hackathonId) throws SQLException;
+
 
     /**
      * Verifica le credenziali di accesso e restituisce l'ID dell'utente se valide.
@@ -78,79 +131,81 @@ public interface UtenteDAO {
      */
     int checkLoginAndGetId(String email, String password) throws SQLException;
 
-
-    /**
-     * Recupera il nome di un giudice a partire dal suo ID.
-     *
-     * @param giudiceId l'identificativo del giudice
-     * @return il nome del giudice
-     * @throws SQLException se si verifica un errore durante la query
-     */
-    String getNomeGiudiceById(int giudiceId) throws SQLException;
-    /**
-     * Recupera il cognome di un giudice a partire dal suo ID.
-     *
-     * @param giudiceId l'identificativo del giudice
-     * @return il cognome del giudice
-     * @throws SQLException se si verifica un errore durante la query
-     */
-    String getCognomeGiudiceById(int giudiceId) throws SQLException;
-    /**
-     * Recupera l'email di un giudice a partire dal suo ID.
-     *
-     * @param giudiceId l'identificativo del giudice
-     * @return l'email del giudice
-     * @throws SQLException se si verifica un errore durante la query
-     */
-    String getEmailGiudiceById(int giudiceId) throws SQLException;
     /**
-     * Recupera il nome di un organizzatore a partire dal suo ID.
+     * Verifica le credenziali di accesso e, se valide, restituisce il profilo dell'utente.
+     * <p>
+     * Hash della password, tipo utente, hackathon e team sono letti con un'unica query.
+     * </p>
      *
-     * @param organizzatoreId l'identificativo dell'organizzatore
-     * @return il nome dell'organizzatore
+     * @param email    email dell'utente
+     * @param password password in chiaro (verrà confrontata con l'hash)
+     * @return il profilo dell'utente, oppure {@code null} se le credenziali non sono valide
      * @throws SQLException se si verifica un errore durante la query
      */
-    String getNomeOrgById(int organizzatoreId) throws SQLException;
+    UtenteRow authenticate(String email, String password) throws SQLException;
+
     /**
-     * Recupera il cognome di un organizzatore a partire dal suo ID.
+     * Recupera con un'unica query il profilo e l'hash della password di un utente,
+     * senza verificare la password.
      *
-     * @param organizzatoreId l'identificativo dell'organizzatore
-     * @return il cognome dell'organizzatore
+     * @param email email dell'utente (viene normalizzata in minuscolo)
+     * @return profilo e hash della password, oppure {@code null} se l'email non è registrata
      * @throws SQLException se si verifica un errore durante la query
      */
-    String getCognomeOrgById(int organizzatoreId) throws SQLException;
+    CredenzialiRow findCredenzialiByEmail(String email) throws SQLException;
+
     /**
-     * Recupera l'email di un organizzatore a partire dal suo ID.
-     *
-     * @param organizzatoreId l'identificativo dell'organizzatore
-     * @return l'email dell'organizzatore
-     * @throws SQLException se si verifica un errore durante la query
+     * Aggiorna l'hash della password di un utente.
+     * <p>
+     * Se {@code expectedHash} non è {@code null} l'aggiornamento avviene solo se l'hash
+     * salvato coincide ancora con quello atteso, così che un ricalcolo in background
+     * non sovrascriva una password cambiata nel frattempo.
+     * </p>
+     *
+     * @param userId       ID dell'utente
+     * @param expectedHash hash atteso, oppure {@code null} per aggiornare incondizionatamente
+     * @param newHash      nuovo hash BCrypt
+     * @return {@code true} se la riga è stata aggiornata
+     * @throws SQLException se si verifica un errore durante l'aggiornamento
      */
-    String getEmailOrgById(int organizzatoreId) throws SQLException;
+    boolean updatePasswordHash(int userId, String expectedHash, String newHash) throws SQLException;
+
     /**
-     * Recupera il nome di un concorrente a partire dal suo ID.
+     * Restituisce, tra le email indicate, quelle già registrate.
      *
-     * @param concorrenteId l'identificativo del concorrente
-     * @return il nome del concorrente
+     * @param emails email da verificare (già normalizzate in minuscolo)
+     * @return insieme delle email già presenti nella tabella {@code utente}
      * @throws SQLException se si verifica un errore durante la query
      */
-     String getNomeConcById(int concorrenteId) throws SQLException;
+    Set<String> findExistingEmails(Collection<String> emails) throws SQLException;
+
     /**
-     * Recupera il cognome di un concorrente a partire dal suo ID.
+     * Inserisce più utenti in un'unica transazione, tramite un batch JDBC.
+     * <p>
+     * Se il database rifiuta una delle righe, la transazione viene annullata e le righe
+     * vengono reinserite una alla volta con un savepoint ciascuna, così che solo quelle
+     * rifiutate vengano scartate.
+     * </p>
      *
-     * @param concorrenteId l'identificativo del concorrente
-     * @return il cognome del concorrente
-     * @throws SQLException se si verifica un errore durante la query
+     * @param utenti utenti da inserire
+     * @return lista parallela a {@code utenti}: {@code null} per le righe inserite,
+     *         altrimenti il messaggio di errore del database
+     * @throws SQLException se non è possibile completare la transazione
      */
-     String getCognomeConcById(int concorrenteId) throws SQLException;
+    List<String> saveBatch(List<NuovoUtenteRow> utenti) throws SQLException;
+
+
     /**
-     * Recupera l'email di un concorrente a partire dal suo ID.
+     * Recupera con un'unica query il profilo completo di un utente con il ruolo indicato.
      *
-     * @param concorrenteId l'identificativo del concorrente
-     * @return l'email del concorrente
+     * @param userId     identificativo dell'utente
+     * @param tipoUtente ruolo atteso ({@code concorrente}, {@code giudice}, {@code organizzatore}),
+     *                   oppure {@code null} per non filtrare sul ruolo
+     * @return il profilo dell'utente, oppure {@code null} se non esiste un utente con quell'ID e quel ruolo
      * @throws SQLException se si verifica un errore durante la query
      */
-    public String getEmailConcById(int concorrenteId) throws SQLException;
+    UtenteRow findProfileById(int userId, String tipoUtente) throws SQLException;
+
     /**
      * Restituisce il tipo di utente.
      *
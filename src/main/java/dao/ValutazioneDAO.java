@@ -1,5 +1,9 @@
 package dao;
 
+import dao.row.RiepilogoValutazioneRow;
+import dao.row.ValutazioneRow;
+import model.Pagina;
+
 import java.sql.SQLException;
 import java.util.List;
 
@@ -14,6 +18,10 @@ public interface ValutazioneDAO {
 
     /**
      * Salva una nuova valutazione associata a un team e a un giudice.
+     * <p>
+     * Nella stessa transazione il trigger su valutazione aggiorna gli aggregati di classifica
+     * del team, così che la classifica dell'hackathon non debba ricalcolare le medie.
+     * </p>
      *
      * @param teamId    ID del team valutato
      * @param giudiceId ID del giudice che effettua la valutazione
@@ -23,6 +31,48 @@ public interface ValutazioneDAO {
      */
     void save(int teamId, int giudiceId, int punteggio, String feedback) throws SQLException;
 
+    /**
+     * Verifica una valutazione sui dati del database e la salva, in un'unica transazione.
+     * <p>
+     * Nome del team, profilo del giudice e numero di documenti e aggiornamenti del team vengono
+     * letti con una sola query e passati a {@code verifica}; se la verifica non solleva eccezioni
+     * la valutazione viene inserita e gli aggregati di classifica aggiornati come in
+     * {@link #save(int, int, int, String)}, nella stessa transazione. La riga del team resta
+     * bloccata in condivisione fino al commit, quindi il team non può essere eliminato tra
+     * la verifica e l'inserimento.
+     * </p>
+     *
+     * @param teamId    ID del team valutato
+     * @param giudiceId ID del giudice che effettua la valutazione
+     * @param punteggio punteggio assegnato al team
+     * @param feedback  eventuale commento o feedback testuale
+     * @param verifica  validazione da eseguire sul riepilogo prima dell'inserimento
+     * @param <E>       eccezione con cui la verifica rifiuta la valutazione
+     * @return il riepilogo usato per la verifica, oppure {@code null} se il team non esiste
+     *         (in tal caso non viene salvato nulla)
+     * @throws E            se la verifica rifiuta la valutazione; la transazione viene annullata
+     * @throws SQLException se si verifica un errore nell'accesso al database
+     */
+    <E extends Exception> RiepilogoValutazioneRow saveVerificata(int teamId, int giudiceId, int punteggio,
+                                                                 String feedback, VerificaValutazione<E> verifica)
+            throws SQLException, E;
+
+    /**
+     * Validazione di una valutazione sui dati letti da
+     * {@link #saveVerificata(int, int, int, String, VerificaValutazione)}.
+     *
+     * @param <E> eccezione con cui la verifica rifiuta la valutazione
+     */
+    @FunctionalInterface
+    interface VerificaValutazione<E extends Exception> {
+
+        /**
+         * @param riepilogo dati del team e del giudice
+         * @throws E se la valutazione non può essere salvata
+         */
+        void verifica(RiepilogoValutazioneRow riepilogo) throws E;
+    }
+
     /**
      * Recupera tutte le valutazioni associate a un team.
      *
@@ -32,6 +82,27 @@ public interface ValutazioneDAO {
      */
     List<String> getAllByTeam(int teamId) throws SQLException;
 
+    /**
+     * Restituisce le valutazioni di un team come righe tipizzate,
+     * con nome e cognome del giudice già risolti.
+     *
+     * @param teamId ID del team
+     * @return lista delle valutazioni del team
+     * @throws SQLException se si verifica un errore nella query
+     */
+    List<ValutazioneRow> getRowsByTeam(int teamId) throws SQLException;
+
+    /**
+     * Restituisce una pagina delle valutazioni di un team, in ordine di ID e con paginazione keyset.
+     *
+     * @param teamId ID del team
+     * @param dopoId ID dell'ultima valutazione della pagina precedente, {@code null} per la prima pagina
+     * @param limite numero massimo di valutazioni nella pagina
+     * @return la pagina di valutazioni
+     * @throws SQLException se si verifica un errore nella query
+     */
+    Pagina<ValutazioneRow> getRowsByTeamPage(int teamId, Integer dopoId, int limite) throws SQLException;
+
     /**
      * Verifica se esistono aggiornamenti per un team specifico.
      *
@@ -1,6 +1,7 @@
 package dao.impl;
 
 import dao.AggiornamentoDAO;
+import dao.row.AggiornamentoRow;
 import db.DatabaseConnectionSingleton;
 
 import java.sql.Connection;
@@ -122,6 +123,19 @@ public class AggiornamentoDAOImpl implements AggiornamentoDAO {
     @Override
     public List<String> findByDocumentoId(int documentoId) throws SQLException {
         List<String> result = new ArrayList<>();
+        for (AggiornamentoRow row : findRowsByDocumentoId(documentoId)) {
+            // formato neutro: aggId;teamId;teamNome;contenuto
+            result.add(row.id() + ";" + row.teamId() + ";" + row.teamNome() + ";" + row.contenuto());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AggiornamentoRow> findRowsByDocumentoId(int documentoId) throws SQLException {
+        List<AggiornamentoRow> result = new ArrayList<>();
 
         String sql = "SELECT a.id AS agg_id, a.team_id, t.nome AS team_nome, a.contenuto " +
                 "FROM aggiornamento a " +
@@ -135,16 +149,13 @@ public class AggiornamentoDAOImpl implements AggiornamentoDAO {
             ps.setInt(1, documentoId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    int aggId = rs.getInt("agg_id");
-                    int teamId = rs.getInt("team_id");
                     String teamNome = rs.getString("team_nome");
                     String contenuto = rs.getString("contenuto");
-
-                    // formato neutro: aggId;teamId;teamNome;contenuto
-                    String row = aggId + ";" + teamId + ";" +
-                            (teamNome != null ? teamNome : "") + ";" +
-                            (contenuto != null ? contenuto : "");
-                    result.add(row);
+                    result.add(new AggiornamentoRow(
+                            rs.getInt("agg_id"),
+                            rs.getInt("team_id"),
+                            teamNome != null ? teamNome : "",
+                            contenuto != null ? contenuto : ""));
                 }
             }
         }
@@ -166,9 +177,7 @@ public class AggiornamentoDAOImpl implements AggiornamentoDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    int count = rs.getInt(1);
-                    System.out.println("[DEBUG AggiornamentoDAO] existsByDocumentoId(" + documentoId + ") -> " + (count > 0));
-                    return count > 0;
+                    return rs.getInt(1) > 0;
                 }
             }
         }
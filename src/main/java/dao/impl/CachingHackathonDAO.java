@@ -0,0 +1,195 @@
+package dao.impl;
+
+import cache.CacheStats;
+import cache.TtlCache;
+import dao.HackathonDAO;
+import dao.row.ClassificaRow;
+import dao.row.HackathonDettaglioRow;
+import dao.row.HackathonMetaRow;
+import dao.row.HackathonRow;
+import model.Pagina;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * {@link HackathonDAO} che tiene in cache i metadati degli hackathon ({@link HackathonMetaRow}).
+ * <p>
+ * Nome, data di fine e organizzatore vengono letti prima di quasi ogni operazione dei pannelli
+ * e del controller, sempre per gli stessi pochi hackathon: {@link #getNomeById(int)},
+ * {@link #getDataFineById(int)}, {@link #getOrganizzatoreIdByHackathon(int)} e
+ * {@link #findMetaById(int)} li leggono da una {@link TtlCache} e interrogano il database
+ * solo in caso di miss, con una sola query per tutti e tre i valori. Gli altri metodi sono
+ * delegati senza cache.
+ * </p>
+ * <p>
+ * Le scritture eseguite tramite questo DAO invalidano la cache. La durata delle voci limita
+ * invece il ritardo con cui si vedono le modifiche fatte da altri processi; dimensione e durata
+ * si configurano con le proprietà di sistema {@code hackathon.cache.dimensione} (predefinita
+ * 256 voci) e {@code hackathon.cache.ttlMs} (predefinita 5 minuti).
+ * </p>
+ */
+public class CachingHackathonDAO implements HackathonDAO {
+
+    private final HackathonDAO delegate;
+    private final TtlCache<Integer, HackathonMetaRow> metadati;
+
+    /**
+     * Crea il DAO con dimensione e durata della cache lette dalle proprietà di sistema.
+     *
+     * @param delegate DAO che accede al database
+     */
+    public CachingHackathonDAO(HackathonDAO delegate) {
+        this(delegate, new TtlCache<>(
+                Integer.getInteger("hackathon.cache.dimensione", 256),
+                Long.getLong("hackathon.cache.ttlMs", 300_000L)));
+    }
+
+    /**
+     * Crea il DAO con la cache indicata.
+     *
+     * @param delegate DAO che accede al database
+     * @param metadati cache dei metadati, per ID dell'hackathon
+     */
+    public CachingHackathonDAO(HackathonDAO delegate, TtlCache<Integer, HackathonMetaRow> metadati) {
+        this.delegate = delegate;
+        this.metadati = metadati;
+    }
+
+    /**
+     * @return istantanea delle statistiche della cache dei metadati
+     */
+    public CacheStats getCacheStats() {
+        return metadati.getStats();
+    }
+
+    /**
+     * Rimuove dalla cache i metadati di un hackathon, ad esempio dopo una modifica
+     * fatta senza passare da questo DAO.
+     *
+     * @param hackathonId ID dell'hackathon
+     */
+    public void invalida(int hackathonId) {
+        metadati.invalida(hackathonId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Invalida la cache: l'ID del nuovo hackathon non è noto, e un caricamento
+     * concorrente non deve reinserire dati letti prima dell'inserimento.</p>
+     */
+    @Override
+    public void save(String nome, String descrizione, String luogo, LocalDate dataInizio, LocalDate dataFine,
+                     int organizzatoreId) throws SQLException {
+        try {
+            delegate.save(nome, descrizione, luogo, dataInizio, dataFine, organizzatoreId);
+        } finally {
+            metadati.invalidaTutto();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HackathonMetaRow findMetaById(int hackathonId) throws SQLException {
+        return metadati.get(hackathonId, delegate::findMetaById);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getNomeById(int hackathonId) throws SQLException {
+        HackathonMetaRow meta = findMetaById(hackathonId);
+        return meta != null ? meta.nome() : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LocalDate getDataFineById(int hackathonId) throws SQLException {
+        HackathonMetaRow meta = findMetaById(hackathonId);
+        return meta != null ? meta.dataFine() : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOrganizzatoreIdByHackathon(int hackathonId) throws SQLException {
+        HackathonMetaRow meta = findMetaById(hackathonId);
+        if (meta == null) {
+            throw new SQLException("Hackathon non trovato con ID: " + hackathonId);
+        }
+        return meta.organizzatoreId();
+    }
+
+    @Override
+    public List<String> getAll() throws SQLException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public List<HackathonRow> getAllRows() throws SQLException {
+        return delegate.getAllRows();
+    }
+
+    @Override
+    public Pagina<HackathonRow> getAllRowsPage(Integer dopoId, int limite) throws SQLException {
+        return delegate.getAllRowsPage(dopoId, limite);
+    }
+
+    @Override
+    public List<String> getClassifica(int hackathonId) throws SQLException {
+        return delegate.getClassifica(hackathonId);
+    }
+
+    @Override
+    public List<ClassificaRow> getClassificaRows(int hackathonId) throws SQLException {
+        return delegate.getClassificaRows(hackathonId);
+    }
+
+    @Override
+    public List<String> findByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException {
+        return delegate.findByRegistrazioniAperte(statoRegistrazioni);
+    }
+
+    @Override
+    public List<HackathonRow> findRowsByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException {
+        return delegate.findRowsByRegistrazioniAperte(statoRegistrazioni);
+    }
+
+    @Override
+    public boolean isRegistrazioniAperte(int hackathonId) throws SQLException {
+        return delegate.isRegistrazioniAperte(hackathonId);
+    }
+
+    @Override
+    public List<String> getHackathonByOrganizzatoreId(int organizzatoreId) throws SQLException {
+        return delegate.getHackathonByOrganizzatoreId(organizzatoreId);
+    }
+
+    @Override
+    public List<HackathonRow> getRowsByOrganizzatoreId(int organizzatoreId) throws SQLException {
+        return delegate.getRowsByOrganizzatoreId(organizzatoreId);
+    }
+
+    @Override
+    public List<HackathonDettaglioRow> findDettagliByOrganizzatoreId(int organizzatoreId) throws SQLException {
+        return delegate.findDettagliByOrganizzatoreId(organizzatoreId);
+    }
+
+    @Override
+    public Pagina<HackathonDettaglioRow> findDettagliByOrganizzatoreIdPage(int organizzatoreId, Integer dopoId,
+                                                                           int limite) throws SQLException {
+        return delegate.findDettagliByOrganizzatoreIdPage(organizzatoreId, dopoId, limite);
+    }
+
+    @Override
+    public int getIdByNameAndOrganizzatore(String nome, int organizzatoreId) throws SQLException {
+        return delegate.getIdByNameAndOrganizzatore(nome, organizzatoreId);
+    }
+}
@@ -1,7 +1,10 @@
 package dao.impl;
 
 import dao.CommentoDAO;
+import dao.row.CommentoRow;
+import dao.row.EsitoCommento;
 import db.DatabaseConnectionSingleton;
+import model.Pagina;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -23,59 +26,64 @@ import java.util.ArrayList;
  */
 public class CommentoDAOImpl implements CommentoDAO {
 
+    /**
+     * Pagina keyset dei commenti di un documento (indice idx_commento_documento_id);
+     * pubblica perché perf.IndexPlanCheck ne verifica il piano di esecuzione.
+     */
+    public static final String SELECT_PAGE_BY_DOCUMENTO =
+            "SELECT id, documento_id, giudice_id, testo FROM commento WHERE documento_id = ? AND id > ? " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String INSERT_VERIFICATO =
+            "WITH d AS (SELECT d.id, t.hackathon_id FROM documento d LEFT JOIN team t ON t.id = d.team_id WHERE d.id = ?), " +
+            "g AS (SELECT id, hackathon_id FROM utente WHERE id = ? AND tipo_utente = 'giudice'), " +
+            "agg AS (SELECT EXISTS (SELECT 1 FROM aggiornamento WHERE documento_id = ?) AS presente), " +
+            "ins AS (INSERT INTO commento (documento_id, giudice_id, testo) " +
+            "        SELECT d.id, g.id, ? FROM d JOIN g ON g.hackathon_id = d.hackathon_id, agg " +
+            "        WHERE agg.presente RETURNING id) " +
+            "SELECT EXISTS (SELECT 1 FROM ins) AS aggiunto, " +
+            "EXISTS (SELECT 1 FROM d) AS documento_trovato, " +
+            "EXISTS (SELECT 1 FROM g) AS giudice_trovato, " +
+            "(SELECT presente FROM agg) AS ha_aggiornamenti";
+
 
 
 
     /**
      * {@inheritDoc}
      * <p>
-     * Prima di salvare un commento, viene verificato che:
-     * <ul>
-     *     <li>Il documento abbia almeno un aggiornamento</li>
-     *     <li>Il giudice e il documento appartengano allo stesso hackathon</li>
-     * </ul>
-     * In caso contrario viene sollevata un’{@link IllegalArgumentException}.
+     * Le verifiche sono eseguite nella stessa istruzione dell'inserimento: l'{@code INSERT ... SELECT}
+     * produce una riga solo se documento, giudice e aggiornamenti soddisfano le condizioni, e la
+     * {@code SELECT} finale riporta quali condizioni sono vere per ricavare il motivo del rifiuto.
+     * Il costo non dipende dal numero di aggiornamenti del documento (indice idx_aggiornamento_documento).
+     * </p>
      */
     @Override
-
-
-    public void save(int documentoId, int giudiceId, String testo) throws SQLException {
-
-        if (!existsAggiornamento(documentoId)) {
-            throw new IllegalArgumentException("Errore: nessun aggiornamento trovato per il documento ID: " + documentoId);
-        }
-
-
-        String checkSql = """
-        SELECT COUNT(*)
-        FROM documento d
-        JOIN team t ON d.team_id = t.id
-        JOIN utente g ON g.hackathon_id = t.hackathon_id
-        WHERE d.id = ? AND g.id = ? AND g.tipo_utente = 'giudice'
-    """;
-
+    public EsitoCommento save(int documentoId, int giudiceId, String testo) throws SQLException {
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
-
-            checkStmt.setInt(1, documentoId);
-            checkStmt.setInt(2, giudiceId);
+             PreparedStatement stmt = conn.prepareStatement(INSERT_VERIFICATO)) {
+            stmt.setInt(1, documentoId);
+            stmt.setInt(2, giudiceId);
+            stmt.setInt(3, documentoId);
+            stmt.setString(4, testo);
 
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next() && rs.getInt(1) == 0) {
-                    throw new IllegalArgumentException("Errore: giudice e documento non appartengono allo stesso hackathon.");
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                if (rs.getBoolean("aggiunto")) {
+                    return EsitoCommento.AGGIUNTO;
+                }
+                if (!rs.getBoolean("documento_trovato")) {
+                    return EsitoCommento.DOCUMENTO_NON_TROVATO;
                 }
+                if (!rs.getBoolean("giudice_trovato")) {
+                    return EsitoCommento.GIUDICE_NON_TROVATO;
+                }
+                if (!rs.getBoolean("ha_aggiornamenti")) {
+                    return EsitoCommento.NESSUN_AGGIORNAMENTO;
+                }
+                return EsitoCommento.HACKATHON_DIVERSO;
             }
         }
-
-
-        String query = "INSERT INTO commento (documento_id, giudice_id, testo) VALUES (?, ?, ?)";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, documentoId);
-            stmt.setInt(2, giudiceId);
-            stmt.setString(3, testo);
-            stmt.executeUpdate();
-        }
     }
 
 
@@ -84,20 +92,61 @@ public class CommentoDAOImpl implements CommentoDAO {
      */
     @Override
     public List<String> findByDocumentoId(int documentoId) throws SQLException {
-        String sql = "SELECT testo FROM commento WHERE documento_id = ?";
         List<String> commenti = new ArrayList<>();
+        for (CommentoRow row : findRowsByDocumentoId(documentoId)) {
+            commenti.add(row.testo());
+        }
+        return commenti;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<CommentoRow> findRowsByDocumentoId(int documentoId) throws SQLException {
+        String sql = "SELECT id, documento_id, giudice_id, testo FROM commento WHERE documento_id = ? ORDER BY id";
+        List<CommentoRow> commenti = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, documentoId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    commenti.add(rs.getString("testo"));
+                    commenti.add(mapCommento(rs));
                 }
             }
         }
         return commenti;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pagina<CommentoRow> findRowsByDocumentoIdPage(int documentoId, Integer dopoId, int limite) throws SQLException {
+        List<CommentoRow> commenti = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_PAGE_BY_DOCUMENTO)) {
+            pstmt.setInt(1, documentoId);
+            pstmt.setInt(2, dopoId != null ? dopoId : 0);
+            pstmt.setInt(3, limite + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    commenti.add(mapCommento(rs));
+                }
+            }
+        }
+        return Pagina.daRighe(commenti, limite, CommentoRow::id);
+    }
+
+    private static CommentoRow mapCommento(ResultSet rs) throws SQLException {
+        return new CommentoRow(
+                rs.getInt("id"),
+                rs.getInt("documento_id"),
+                rs.getInt("giudice_id"),
+                rs.getString("testo"));
+    }
     /**
      * {@inheritDoc}
      */
@@ -1,7 +1,9 @@
 package dao.impl;
 
 import dao.DocumentoDAO;
+import dao.row.DocumentoRow;
 import db.DatabaseConnectionSingleton;
+import model.Pagina;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -136,7 +138,18 @@ public class DocumentoDAOImpl implements DocumentoDAO {
 
     public List<String> findDocumentoByTeamId(int teamId, Integer documentoId) throws SQLException {
         List<String> docs = new ArrayList<>();
+        for (DocumentoRow row : findRowsByTeamId(teamId, documentoId)) {
+            docs.add(row.id() + " - " + row.titolo());
+            docs.addAll(row.aggiornamenti());
+        }
+        return docs;
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DocumentoRow> findRowsByTeamId(int teamId, Integer documentoId) throws SQLException {
         String sql = """
         SELECT d.id AS documento_id, d.titolo, a.id AS aggiornamento_id, a.contenuto
         FROM documento d
@@ -159,23 +172,70 @@ public class DocumentoDAOImpl implements DocumentoDAO {
             }
 
             try (ResultSet rs = stmt.executeQuery()) {
-                int documentoCorrente = -1;
-                while (rs.next()) {
-                    int docId = rs.getInt("documento_id");
-                    String titolo = rs.getString("titolo");
-                    int aggiornamentoId = rs.getInt("aggiornamento_id");
-                    String contenuto = rs.getString("contenuto");
-
-                    if (docId != documentoCorrente) {
-                        docs.add(docId + " - " + titolo);
-                        documentoCorrente = docId;
-                    }
-                    if (aggiornamentoId > 0) {
-                        docs.add(contenuto);
-                    }
+                return raggruppaAggiornamenti(rs);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pagina<DocumentoRow> findRowsByTeamIdPage(int teamId, Integer dopoId, int limite) throws SQLException {
+        // il limite si applica ai documenti, non alle righe del join con gli aggiornamenti
+        String sql = """
+        WITH pagina AS (
+            SELECT id, titolo FROM documento
+            WHERE team_id = ? AND id > ?
+            ORDER BY id
+            LIMIT ?
+        )
+        SELECT d.id AS documento_id, d.titolo, a.id AS aggiornamento_id, a.contenuto
+        FROM pagina d
+        LEFT JOIN aggiornamento a ON d.id = a.documento_id
+        ORDER BY d.id, a.id
+    """;
+
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, teamId);
+            stmt.setInt(2, dopoId != null ? dopoId : 0);
+            stmt.setInt(3, limite + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return Pagina.daRighe(raggruppaAggiornamenti(rs), limite, DocumentoRow::id);
+            }
+        }
+    }
+
+    /**
+     * Raggruppa le righe del join documento-aggiornamento (ordinate per documento)
+     * in un {@link DocumentoRow} per documento.
+     */
+    private static List<DocumentoRow> raggruppaAggiornamenti(ResultSet rs) throws SQLException {
+        List<DocumentoRow> docs = new ArrayList<>();
+        int documentoCorrente = -1;
+        String titoloCorrente = null;
+        List<String> aggiornamenti = new ArrayList<>();
+        while (rs.next()) {
+            int docId = rs.getInt("documento_id");
+
+            if (docId != documentoCorrente) {
+                if (documentoCorrente != -1) {
+                    docs.add(new DocumentoRow(documentoCorrente, titoloCorrente, List.copyOf(aggiornamenti)));
+                    aggiornamenti.clear();
                 }
+                documentoCorrente = docId;
+                titoloCorrente = rs.getString("titolo");
+            }
+            if (rs.getInt("aggiornamento_id") > 0) {
+                aggiornamenti.add(rs.getString("contenuto"));
             }
         }
+        if (documentoCorrente != -1) {
+            docs.add(new DocumentoRow(documentoCorrente, titoloCorrente, List.copyOf(aggiornamenti)));
+        }
         return docs;
     }
 
@@ -198,8 +258,6 @@ public class DocumentoDAOImpl implements DocumentoDAO {
                 }
             }
         }
-
-        System.out.println("[DEBUG DocumentoDAO] getIdsByTeamId(" + teamId + ") -> trovati " + ids.size() + " documenti");
         return ids;
     }
 
@@ -1,7 +1,12 @@
 package dao.impl;
 
 import dao.HackathonDAO;
+import dao.row.ClassificaRow;
+import dao.row.HackathonDettaglioRow;
+import dao.row.HackathonMetaRow;
+import dao.row.HackathonRow;
 import db.DatabaseConnectionSingleton;
+import model.Pagina;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -19,6 +24,40 @@ import java.time.temporal.ChronoUnit;
  */
 public class HackathonDAOImpl implements HackathonDAO {
 
+    private static final String HACKATHON_COLUMNS =
+            "id, nome, descrizione, luogo, data_inizio, data_fine, stato_registrazioni, organizzatore_id";
+
+    /*
+     * Query sui predicati più frequenti: sono pubbliche perché perf.IndexPlanCheck ne verifica
+     * i piani di esecuzione contro gli indici della migrazione V005.
+     */
+
+    /** Hackathon di un organizzatore (indice idx_hackathon_organizzatore_nome). */
+    public static final String SELECT_BY_ORGANIZZATORE =
+            "SELECT " + HACKATHON_COLUMNS + " FROM hackathon WHERE organizzatore_id = ?";
+
+    /** ID di un hackathon dato nome e organizzatore (indice idx_hackathon_organizzatore_nome). */
+    public static final String SELECT_ID_BY_NOME_E_ORGANIZZATORE =
+            "SELECT id FROM hackathon WHERE nome = ? AND organizzatore_id = ? LIMIT 1";
+
+    /**
+     * Hackathon con registrazioni aperte (indice parziale idx_hackathon_registrazioni_aperte).
+     * Lo stato è una costante nel testo, non un parametro: solo così il planner può usare
+     * l'indice parziale anche con un piano generico.
+     */
+    public static final String SELECT_REGISTRAZIONI_APERTE =
+            "SELECT " + HACKATHON_COLUMNS + " FROM hackathon WHERE stato_registrazioni = true";
+
+    private static final String SELECT_DETTAGLI =
+            "SELECT h.id, h.nome, h.descrizione, h.luogo, h.data_inizio, h.data_fine, " +
+            "h.stato_registrazioni, h.organizzatore_id, " +
+            "u.nome AS org_nome, u.cognome AS org_cognome, u.email AS org_email " +
+            "FROM hackathon h " +
+            "JOIN utente u ON u.id = h.organizzatore_id ";
+
+    private static final String SELECT_REGISTRAZIONI_CHIUSE =
+            "SELECT " + HACKATHON_COLUMNS + " FROM hackathon WHERE stato_registrazioni = false";
+
     /**
      * {@inheritDoc}
      */
@@ -60,6 +99,47 @@ public class HackathonDAOImpl implements HackathonDAO {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HackathonMetaRow findMetaById(int hackathonId) throws SQLException {
+        String sql = "SELECT id, nome, data_fine, organizzatore_id FROM hackathon WHERE id = ?";
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hackathonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Date dataFine = rs.getDate("data_fine");
+                return new HackathonMetaRow(
+                        rs.getInt("id"),
+                        rs.getString("nome"),
+                        dataFine != null ? dataFine.toLocalDate() : null,
+                        rs.getInt("organizzatore_id"));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRegistrazioniAperte(int hackathonId) throws SQLException {
+        String sql = "SELECT EXISTS (SELECT 1 FROM hackathon WHERE id = ? AND stato_registrazioni = true)";
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hackathonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
 
 
 
@@ -94,23 +174,34 @@ public class HackathonDAOImpl implements HackathonDAO {
      */
     @Override
     public List<String> getAll() throws SQLException {
-        String sql = "SELECT * FROM hackathon";
         List<String> hackathons = new ArrayList<>();
+        for (HackathonRow row : getAllRows()) {
+            hackathons.add("ID: " + row.id() +
+                    ", Nome: " + row.nome() +
+                    ", Descrizione: " + row.descrizione() +
+                    ", Luogo: " + row.luogo() +
+                    ", Data Inizio: " + row.dataInizio() +
+                    ", Data Fine: " + row.dataFine() +
+                    ", Stato Registrazioni: " + row.statoRegistrazioni() +
+                    ", Organizzatore ID: " + row.organizzatoreId());
+        }
+        return hackathons;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HackathonRow> getAllRows() throws SQLException {
+        String sql = "SELECT " + HACKATHON_COLUMNS + " FROM hackathon ORDER BY id";
+        List<HackathonRow> hackathons = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                String hackathon = "ID: " + rs.getInt("id") +
-                        ", Nome: " + rs.getString("nome") +
-                        ", Descrizione: " + rs.getString("descrizione") +
-                        ", Luogo: " + rs.getString("luogo") +
-                        ", Data Inizio: " + rs.getString("data_inizio") +
-                        ", Data Fine: " + rs.getString("data_fine") +
-                        ", Stato Registrazioni: " + rs.getBoolean("stato_registrazioni") +
-                        ", Organizzatore ID: " + rs.getInt("organizzatore_id");
-                hackathons.add(hackathon);
+                hackathons.add(mapHackathon(rs));
             }
         }
         return hackathons;
@@ -120,54 +211,96 @@ public class HackathonDAOImpl implements HackathonDAO {
      * {@inheritDoc}
      */
     @Override
-    public List<String> findByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException {
-        String sql = "SELECT id, nome FROM hackathon WHERE stato_registrazioni = ?";
-        List<String> hackathons = new ArrayList<>();
+    public Pagina<HackathonRow> getAllRowsPage(Integer dopoId, int limite) throws SQLException {
+        String sql = "SELECT " + HACKATHON_COLUMNS + " FROM hackathon WHERE id > ? ORDER BY id LIMIT ?";
+        List<HackathonRow> hackathons = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setBoolean(1, statoRegistrazioni);
+            pstmt.setInt(1, dopoId != null ? dopoId : 0);
+            pstmt.setInt(2, limite + 1);
+
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String hackathon = rs.getInt("id") + " - " + rs.getString("nome");
-                    hackathons.add(hackathon);
+                    hackathons.add(mapHackathon(rs));
                 }
             }
         }
+        return Pagina.daRighe(hackathons, limite, HackathonRow::id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> findByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException {
+        List<String> hackathons = new ArrayList<>();
+        for (HackathonRow row : findRowsByRegistrazioniAperte(statoRegistrazioni)) {
+            hackathons.add(row.id() + " - " + row.nome());
+        }
         return hackathons;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HackathonRow> findRowsByRegistrazioniAperte(boolean statoRegistrazioni) throws SQLException {
+        String sql = statoRegistrazioni ? SELECT_REGISTRAZIONI_APERTE : SELECT_REGISTRAZIONI_CHIUSE;
+        List<HackathonRow> hackathons = new ArrayList<>();
 
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hackathons.add(mapHackathon(rs));
+                }
+            }
+        }
+        return hackathons;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
     public List<String> getClassifica(int hackathonId) throws SQLException {
-        String sql = "SELECT t.id AS team_id, t.nome AS team_nome, AVG(v.punteggio) AS punteggio_medio " +
-                "FROM team t " +
-                "JOIN valutazione v ON t.id = v.team_id " +
-                "WHERE t.hackathon_id = ? " +
-                "GROUP BY t.id, t.nome " +
-                "ORDER BY punteggio_medio DESC";
-
         List<String> classifica = new ArrayList<>();
+        for (ClassificaRow row : getClassificaRows(hackathonId)) {
+            classifica.add(String.format("%d;%s;%.2f", row.teamId(), row.teamNome().replace(";", " "), row.punteggioMedio()));
+        }
+        return classifica;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ClassificaRow> getClassificaRows(int hackathonId) throws SQLException {
+        // lettura ordinata dagli aggregati mantenuti da ValutazioneDAOImpl.save:
+        // l'indice (hackathon_id, punteggio_medio DESC) evita di riscandire tutte le valutazioni
+        String sql = "SELECT c.team_id, t.nome AS team_nome, c.punteggio_medio, " +
+                "c.numero_valutazioni, c.punteggio_min, c.punteggio_max " +
+                "FROM classifica_team c " +
+                "JOIN team t ON t.id = c.team_id " +
+                "WHERE c.hackathon_id = ? AND c.numero_valutazioni > 0 " +
+                "ORDER BY c.punteggio_medio DESC";
+
+        List<ClassificaRow> classifica = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, hackathonId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
-
                 while (rs.next()) {
-                    int teamId = rs.getInt("team_id");
-                    String teamNome = rs.getString("team_nome");
-                    double punteggioMedio = rs.getDouble("punteggio_medio");
-
-
-                    String riga = String.format("%d;%s;%.2f", teamId, teamNome.replace(";", " "), punteggioMedio);
-                    classifica.add(riga);
-
+                    classifica.add(new ClassificaRow(
+                            rs.getInt("team_id"),
+                            rs.getString("team_nome"),
+                            rs.getDouble("punteggio_medio"),
+                            rs.getInt("numero_valutazioni"),
+                            rs.getInt("punteggio_min"),
+                            rs.getInt("punteggio_max")));
                 }
             }
         }
@@ -197,9 +330,41 @@ public class HackathonDAOImpl implements HackathonDAO {
      */
     @Override
     public List<String> getHackathonByOrganizzatoreId(int organizzatoreId) throws SQLException {
-
-        String sql = "SELECT id, nome FROM hackathon WHERE organizzatore_id = ?";
         List<String> result = new ArrayList<>();
+        for (HackathonRow row : getRowsByOrganizzatoreId(organizzatoreId)) {
+            result.add(row.id() + " - " + row.nome());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HackathonRow> getRowsByOrganizzatoreId(int organizzatoreId) throws SQLException {
+        List<HackathonRow> result = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ORGANIZZATORE)) {
+
+            pstmt.setInt(1, organizzatoreId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapHackathon(rs));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HackathonDettaglioRow> findDettagliByOrganizzatoreId(int organizzatoreId) throws SQLException {
+        String sql = SELECT_DETTAGLI + "WHERE h.organizzatore_id = ? ORDER BY h.id";
+        List<HackathonDettaglioRow> result = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -208,15 +373,53 @@ public class HackathonDAOImpl implements HackathonDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
+                    result.add(mapDettaglio(rs));
+                }
+            }
+        }
+        return result;
+    }
 
-                    int id = rs.getInt("id");
-                    String nome = rs.getString("nome");
-                    result.add(id + " - " + nome);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pagina<HackathonDettaglioRow> findDettagliByOrganizzatoreIdPage(int organizzatoreId, Integer dopoId, int limite)
+            throws SQLException {
+        String sql = SELECT_DETTAGLI + "WHERE h.organizzatore_id = ? AND h.id > ? ORDER BY h.id LIMIT ?";
+        List<HackathonDettaglioRow> result = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, organizzatoreId);
+            pstmt.setInt(2, dopoId != null ? dopoId : 0);
+            pstmt.setInt(3, limite + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapDettaglio(rs));
                 }
             }
         }
+        return Pagina.daRighe(result, limite, HackathonDettaglioRow::id);
+    }
 
-        return result;
+    private static HackathonDettaglioRow mapDettaglio(ResultSet rs) throws SQLException {
+        Date dataInizio = rs.getDate("data_inizio");
+        Date dataFine = rs.getDate("data_fine");
+        return new HackathonDettaglioRow(
+                rs.getInt("id"),
+                rs.getString("nome"),
+                rs.getString("descrizione"),
+                rs.getString("luogo"),
+                dataInizio != null ? dataInizio.toLocalDate() : null,
+                dataFine != null ? dataFine.toLocalDate() : null,
+                rs.getBoolean("stato_registrazioni"),
+                rs.getInt("organizzatore_id"),
+                rs.getString("org_nome"),
+                rs.getString("org_cognome"),
+                rs.getString("org_email"));
     }
 
     /**
@@ -224,9 +427,8 @@ public class HackathonDAOImpl implements HackathonDAO {
      */
     @Override
     public int getIdByNameAndOrganizzatore(String nome, int organizzatoreId) throws SQLException {
-        String sql = "SELECT id FROM hackathon WHERE nome = ? AND organizzatore_id = ? LIMIT 1";
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_ID_BY_NOME_E_ORGANIZZATORE)) {
             pstmt.setString(1, nome);
             pstmt.setInt(2, organizzatoreId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -238,6 +440,17 @@ public class HackathonDAOImpl implements HackathonDAO {
         }
     }
 
-
-
-}
\ No newline at end of file
+    private static HackathonRow mapHackathon(ResultSet rs) throws SQLException {
+        Date dataInizio = rs.getDate("data_inizio");
+        Date dataFine = rs.getDate("data_fine");
+        return new HackathonRow(
+                rs.getInt("id"),
+                rs.getString("nome"),
+                rs.getString("descrizione"),
+                rs.getString("luogo"),
+                dataInizio != null ? dataInizio.toLocalDate() : null,
+                dataFine != null ? dataFine.toLocalDate() : null,
+                rs.getBoolean("stato_registrazioni"),
+                rs.getInt("organizzatore_id"));
+    }
+}
@@ -1,11 +1,15 @@
 package dao.impl;
 
 import dao.TeamDAO;
+import dao.row.TeamRow;
 import db.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementazione concreta dell'interfaccia {@link TeamDAO}.
@@ -81,8 +85,20 @@ public class TeamDAOImpl implements TeamDAO {
 
 
     public List<String> findByHackathonId(int hackathonId) throws SQLException {
-        String sql = "SELECT id, nome FROM team WHERE hackathon_id = ?";
         List<String> result = new ArrayList<>();
+        for (TeamRow row : findRowsByHackathonId(hackathonId)) {
+            result.add(row.id() + " - " + row.nome()); // <-- formato già pronto
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<TeamRow> findRowsByHackathonId(int hackathonId) throws SQLException {
+        String sql = "SELECT id, nome, hackathon_id, member_count FROM team WHERE hackathon_id = ?";
+        List<TeamRow> result = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -90,9 +106,7 @@ public class TeamDAOImpl implements TeamDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String nome = rs.getString("nome");
-                    result.add(id + " - " + nome); // <-- formato già pronto
+                    result.add(mapTeam(rs));
                 }
             }
         }
@@ -103,31 +117,36 @@ public class TeamDAOImpl implements TeamDAO {
      */
     @Override
 
-    public List<String> findTeamsNotFull(int hackathonId) throws SQLException {
-        String sql =
-                "SELECT t.id, t.nome, t.hackathon_id " +
-                        "FROM team t " +
-                        "LEFT JOIN utente u " +
-                        "  ON u.team_id = t.id " +
-                        " AND u.tipo_utente = 'concorrente' " +
-                        " AND u.hackathon_id = t.hackathon_id " + // coerenza hackathon (opzionale ma consigliata)
-                        "WHERE t.hackathon_id = ? " +
-                        "GROUP BY t.id, t.nome, t.hackathon_id " +
-                        "HAVING COUNT(u.id) < 6"; // team con meno di 6 concorrenti
-
+    public List<String> findTeamsNotFull(int hackathonId, int maxConcorrenti) throws SQLException {
         List<String> teams = new ArrayList<>();
+        for (TeamRow row : findRowsNotFull(hackathonId, maxConcorrenti)) {
+            teams.add("ID: " + row.id() +
+                    ", Nome: " + row.nome() +
+                    ", Hackathon ID: " + row.hackathonId());
+        }
+        return teams;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<TeamRow> findRowsNotFull(int hackathonId, int maxConcorrenti) throws SQLException {
+        // member_count è mantenuto dal database a ogni unione o uscita: nessun conteggio sugli utenti
+        String sql = "SELECT id, nome, hackathon_id, member_count FROM team " +
+                "WHERE hackathon_id = ? AND member_count < ?";
+
+        List<TeamRow> teams = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, hackathonId);
+            pstmt.setInt(2, maxConcorrenti);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String team = "ID: " + rs.getInt("id") +
-                            ", Nome: " + rs.getString("nome") +
-                            ", Hackathon ID: " + rs.getInt("hackathon_id");
-                    teams.add(team);
+                    teams.add(mapTeam(rs));
                 }
             }
         }
@@ -150,6 +169,30 @@ public class TeamDAOImpl implements TeamDAO {
         }
         return -1;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, Integer> findHackathonIdsByTeamIds(Collection<Integer> teamIds) throws SQLException {
+        Map<Integer, Integer> result = new HashMap<>();
+        if (teamIds == null || teamIds.isEmpty()) {
+            return result;
+        }
+
+        String sql = "SELECT id, hackathon_id FROM team WHERE id = ANY(?)";
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", teamIds.toArray()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    result.put(rs.getInt("id"), rs.getObject("hackathon_id", Integer.class));
+                }
+            }
+        }
+        return result;
+    }
     /**
      * {@inheritDoc}
      */
@@ -168,4 +211,8 @@ public class TeamDAOImpl implements TeamDAO {
         }
     }
 
-}
\ No newline at end of file
+    private static TeamRow mapTeam(ResultSet rs) throws SQLException {
+        return new TeamRow(rs.getInt("id"), rs.getString("nome"), rs.getInt("hackathon_id"),
+                rs.getInt("member_count"));
+    }
+}
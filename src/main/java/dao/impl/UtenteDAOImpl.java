@@ -1,11 +1,22 @@
 package dao.impl;
 
 import dao.UtenteDAO;
+import dao.row.CredenzialiRow;
+import dao.row.EsitoUnioneTeam;
+import dao.row.NuovoUtenteRow;
+import dao.row.UnioneTeamRow;
+import dao.row.UtenteRow;
 import db.DatabaseConnectionSingleton;
+import model.Pagina;
+import model.Team;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.sql.Date;
 import java.time.LocalDate;
 
@@ -18,6 +29,47 @@ import java.time.LocalDate;
  */
 public class UtenteDAOImpl implements UtenteDAO {
 
+    private static final String UTENTE_COLUMNS = "id, nome, cognome, email, tipo_utente, hackathon_id, team_id";
+
+    private static final String INSERT_UTENTE =
+            "INSERT INTO utente (nome, cognome, email, password_hash, data_registrazione, tipo_utente, hackathon_id, team_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /*
+     * Query verificate da perf.IndexPlanCheck contro gli indici delle migrazioni, per questo pubbliche.
+     */
+
+    /** Utenti di un tipo iscritti a un hackathon (indice idx_utente_hackathon_tipo_id). */
+    public static final String SELECT_BY_HACKATHON_E_TIPO =
+            "SELECT " + UTENTE_COLUMNS + " FROM utente WHERE hackathon_id = ? AND tipo_utente = ?";
+
+    /** Pagina keyset degli utenti di un tipo iscritti a un hackathon (indice idx_utente_hackathon_tipo_id). */
+    public static final String SELECT_PAGE_BY_HACKATHON_E_TIPO =
+            "SELECT " + UTENTE_COLUMNS + " FROM utente WHERE hackathon_id = ? AND tipo_utente = ? AND id > ? " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String LOCK_UTENTE =
+            "SELECT tipo_utente, hackathon_id, team_id FROM utente WHERE id = ? FOR UPDATE";
+
+    /*
+     * Team di ingresso e team attuale dell'utente, bloccati in ordine di id: due spostamenti
+     * opposti tra gli stessi team attendono sul primo dei due invece di bloccarsi a vicenda.
+     * Il trigger su utente aggiorna poi member_count di righe già bloccate.
+     */
+    private static final String LOCK_TEAM =
+            "SELECT id, nome, hackathon_id, member_count FROM team WHERE id IN (?, ?) ORDER BY id FOR UPDATE";
+
+    /* Nome del team e del concorrente per il messaggio di conferma, letti dalle righe appena aggiornate. */
+    private static final String JOIN_TEAM =
+            "UPDATE utente u SET team_id = t.id FROM team t WHERE u.id = ? AND t.id = ? " +
+            "RETURNING t.nome AS nome_team, u.nome, u.cognome";
+
+    /*
+     * Capienza dei team letta dal trigger aggiorna_member_count_team (V003), valida fino alla
+     * fine della transazione.
+     */
+    private static final String LIMITE_TEAM = "SELECT set_config('hackathon.max_concorrenti_team', ?, true)";
+
 
     /**
      * {@inheritDoc}
@@ -53,9 +105,7 @@ public class UtenteDAOImpl implements UtenteDAO {
 
 
             //  Inserimento utente
-            String sql = "INSERT INTO utente (nome, cognome, email, password_hash, data_registrazione, tipo_utente, hackathon_id, team_id) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_UTENTE)) {
                 pstmt.setString(1, nome);
                 pstmt.setString(2, cognome);
                 pstmt.setString(3, normalizedEmail);
@@ -81,7 +131,20 @@ public class UtenteDAOImpl implements UtenteDAO {
                 }
 
 
-                pstmt.executeUpdate();
+                if (teamId != null) {
+                    // l'inserimento con il team passa dal trigger di capienza: serve una transazione
+                    conn.setAutoCommit(false);
+                    try {
+                        impostaLimiteTeam(conn, Team.MAX_TEAM_SIZE);
+                        pstmt.executeUpdate();
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                } else {
+                    pstmt.executeUpdate();
+                }
 
 
             }
@@ -93,80 +156,160 @@ public class UtenteDAOImpl implements UtenteDAO {
      */
     @Override
     public List<String> findByTipoUtenteForHackathon(int hackathonId, String tipoUtente) throws SQLException {
-        String sql = "SELECT * FROM utente WHERE hackathon_id = ? AND tipo_utente = ?";
         List<String> utenti = new ArrayList<>();
+        for (UtenteRow row : findRowsByTipoUtenteForHackathon(hackathonId, tipoUtente)) {
+            utenti.add("ID: " + row.id() +
+                    ", Nome: " + row.nome() +
+                    ", Cognome: " + row.cognome() +
+                    ", Email: " + row.email() +
+                    ", Tipo Utente: " + row.tipoUtente() +
+                    ", Hackathon ID: " + (row.hackathonId() != null ? row.hackathonId() : 0) +
+                    ", Team ID: " + row.teamId());
+        }
+        return utenti;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UtenteRow> findRowsByTipoUtenteForHackathon(int hackathonId, String tipoUtente) throws SQLException {
+        List<UtenteRow> utenti = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_HACKATHON_E_TIPO)) {
             pstmt.setInt(1, hackathonId);
             pstmt.setString(2, tipoUtente);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String utente = "ID: " + rs.getInt("id") +
-                            ", Nome: " + rs.getString("nome") +
-                            ", Cognome: " + rs.getString("cognome") +
-                            ", Email: " + rs.getString("email") +
-                            ", Tipo Utente: " + rs.getString("tipo_utente") +
-                            ", Hackathon ID: " + rs.getInt("hackathon_id") +
-                            ", Team ID: " + rs.getObject("team_id");
-                    utenti.add(utente);
+                    utenti.add(mapUtente(rs));
                 }
             }
         }
         return utenti;
     }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public void addUserToTeam(int userId, int teamId) throws SQLException {
-        // Verifica che l'utente sia di tipo "concorrente"
-        String checkUserTypeSql = "SELECT tipo_utente FROM utente WHERE id = ?";
+    public Pagina<UtenteRow> findRowsByTipoUtenteForHackathonPage(int hackathonId, String tipoUtente, Integer dopoId,
+                                                                  int limite) throws SQLException {
+        List<UtenteRow> utenti = new ArrayList<>();
+
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(checkUserTypeSql)) {
-            pstmt.setInt(1, userId);
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_PAGE_BY_HACKATHON_E_TIPO)) {
+            pstmt.setInt(1, hackathonId);
+            pstmt.setString(2, tipoUtente);
+            pstmt.setInt(3, dopoId != null ? dopoId : 0);
+            pstmt.setInt(4, limite + 1);
 
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    String tipoUtente = rs.getString("tipo_utente");
-                    if (!"concorrente".equals(tipoUtente)) {
-                        System.out.println("Errore: l'utente non è un concorrente.");
-                        return;
-                    }
-                } else {
-                    System.out.println("Errore: utente non trovato.");
-                    return;
+                while (rs.next()) {
+                    utenti.add(mapUtente(rs));
                 }
             }
         }
+        return Pagina.daRighe(utenti, limite, UtenteRow::id);
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnioneTeamRow addUserToTeam(int userId, int teamId, int maxConcorrenti) throws SQLException {
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                UnioneTeamRow esito = addUserToTeam(conn, userId, teamId, maxConcorrenti);
+                conn.commit();
+                return esito;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 
-        // Verifica che il team non abbia raggiunto la dimensione massima
-        String checkTeamSizeSql = "SELECT COUNT(*) FROM utente WHERE team_id = ?";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(checkTeamSizeSql)) {
-            pstmt.setInt(1, teamId);
+    private static UnioneTeamRow addUserToTeam(Connection conn, int userId, int teamId, int maxConcorrenti)
+            throws SQLException {
+        // il lock sulla riga dell'utente fissa il team da cui esce fino alla fine della transazione
+        String tipoUtente;
+        Integer hackathonUtente;
+        Integer teamAttuale;
+        try (PreparedStatement lock = conn.prepareStatement(LOCK_UTENTE)) {
+            lock.setInt(1, userId);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (!rs.next()) {
+                    return rifiuto(EsitoUnioneTeam.UTENTE_NON_TROVATO, null);
+                }
+                tipoUtente = rs.getString("tipo_utente");
+                hackathonUtente = rs.getObject("hackathon_id", Integer.class);
+                teamAttuale = rs.getObject("team_id", Integer.class);
+            }
+        }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int teamSize = rs.getInt(1);
-                    if (teamSize >= 6) {
-                        System.out.println("Errore: il team ha già raggiunto la dimensione massima di 6 membri.");
-                        return;
+        // i lock sui team serializzano le unioni concorrenti: il contatore letto resta valido
+        // fino alla fine della transazione
+        String nomeTeam = null;
+        Integer hackathonTeam = null;
+        int membri = 0;
+        try (PreparedStatement lock = conn.prepareStatement(LOCK_TEAM)) {
+            lock.setInt(1, teamId);
+            lock.setInt(2, teamAttuale != null ? teamAttuale : teamId);
+            try (ResultSet rs = lock.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt("id") == teamId) {
+                        nomeTeam = rs.getString("nome");
+                        hackathonTeam = rs.getObject("hackathon_id", Integer.class);
+                        membri = rs.getInt("member_count");
                     }
                 }
             }
         }
 
-        // Aggiungi l'utente al team
-        String sql = "UPDATE utente SET team_id = ? WHERE id = ? AND tipo_utente = 'concorrente' AND hackathon_id = (SELECT hackathon_id FROM utente WHERE id = ?)";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, userId);
-            pstmt.setInt(3, userId);
-            pstmt.executeUpdate();
-            System.out.println("Utente aggiunto al team con successo.");
+        if (nomeTeam == null) {
+            return rifiuto(EsitoUnioneTeam.TEAM_NON_TROVATO, null);
+        }
+        if (!"concorrente".equals(tipoUtente)) {
+            return rifiuto(EsitoUnioneTeam.RUOLO_NON_VALIDO, nomeTeam);
+        }
+        if (teamAttuale != null && teamAttuale == teamId) {
+            return rifiuto(EsitoUnioneTeam.GIA_NEL_TEAM, nomeTeam);
+        }
+        if (hackathonUtente == null || !hackathonUtente.equals(hackathonTeam)) {
+            return rifiuto(EsitoUnioneTeam.HACKATHON_DIVERSO, nomeTeam);
+        }
+        if (membri >= maxConcorrenti) {
+            return rifiuto(EsitoUnioneTeam.TEAM_PIENO, nomeTeam);
+        }
+
+        impostaLimiteTeam(conn, maxConcorrenti);
+        try (PreparedStatement pstmt = conn.prepareStatement(JOIN_TEAM)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, teamId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new UnioneTeamRow(EsitoUnioneTeam.AGGIUNTO, rs.getString("nome_team"),
+                        rs.getString("nome"), rs.getString("cognome"));
+            }
+        }
+    }
+
+    private static UnioneTeamRow rifiuto(EsitoUnioneTeam esito, String nomeTeam) {
+        return new UnioneTeamRow(esito, nomeTeam, null, null);
+    }
+
+    /**
+     * Passa al trigger su utente la capienza dei team per la transazione corrente.
+     * La connessione deve avere l'autocommit disattivato.
+     */
+    private static void impostaLimiteTeam(Connection conn, int maxConcorrenti) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LIMITE_TEAM)) {
+            pstmt.setString(1, Integer.toString(maxConcorrenti));
+            try (ResultSet ignored = pstmt.executeQuery()) {
+                // il valore restituito da set_config non serve
+            }
         }
     }
     /**
@@ -188,22 +331,33 @@ public class UtenteDAOImpl implements UtenteDAO {
      */
     @Override
     public List<String> getAllConcorrentiForTeam(int teamId,int hackathonId) throws SQLException {
-        String sql = "SELECT * FROM utente WHERE team_id = ? AND hackathon_id = ? AND tipo_utente = 'concorrente'";
         List<String> concorrenti = new ArrayList<>();
+        for (UtenteRow row : getConcorrentiRowsForTeam(teamId, hackathonId)) {
+            concorrenti.add("ID: " + row.id() +
+                    ", Nome: " + row.nome() +
+                    ", Cognome: " + row.cognome() +
+                    ", Email: " + row.email());
+        }
+        return concorrenti;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UtenteRow> getConcorrentiRowsForTeam(int teamId, int hackathonId) throws SQLException {
+        String sql = "SELECT " + UTENTE_COLUMNS + " FROM utente " +
+                "WHERE team_id = ? AND hackathon_id = ? AND tipo_utente = 'concorrente'";
+        List<UtenteRow> concorrenti = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, teamId);
             pstmt.setInt(2, hackathonId);
 
-
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    String concorrente = "ID: " + rs.getInt("id") +
-                            ", Nome: " + rs.getString("nome") +
-                            ", Cognome: " + rs.getString("cognome") +
-                            ", Email: " + rs.getString("email");
-                    concorrenti.add(concorrente);
+                    concorrenti.add(mapUtente(rs));
                 }
             }
         }
@@ -216,30 +370,60 @@ public class UtenteDAOImpl implements UtenteDAO {
      */
     @Override
     public int checkLoginAndGetId(String email, String password) throws SQLException {
+        UtenteRow profilo = authenticate(email, password);
+        return profilo != null ? profilo.id() : -1; // -1: login fallito
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UtenteRow authenticate(String email, String password) throws SQLException {
+        CredenzialiRow credenziali = findCredenzialiByEmail(email);
+        if (credenziali == null) {
+            return null; // login fallito
+        }
 
+        // la verifica BCrypt avviene dopo aver restituito la connessione al pool
+        return security.PasswordSecurity.checkPassword(password, credenziali.passwordHash())
+                ? credenziali.profilo() : null;
+    }
 
-        if (email == null) return -1;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CredenzialiRow findCredenzialiByEmail(String email) throws SQLException {
+
+        if (email == null) return null;
         String normalizedEmail = email.trim().toLowerCase();
 
-        String sql = "SELECT id, password_hash FROM utente WHERE email = ?";
+        String sql = "SELECT " + UTENTE_COLUMNS + ", password_hash FROM utente WHERE email = ?";
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, normalizedEmail);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    String storedHash = rs.getString("password_hash");
-
-
-                    boolean ok = security.PasswordSecurity.checkPassword(password, storedHash);
-
+                return rs.next() ? new CredenzialiRow(mapUtente(rs), rs.getString("password_hash")) : null;
+            }
+        }
+    }
 
-                    if (security.PasswordSecurity.checkPassword(password, storedHash)) {
-                        return rs.getInt("id"); // ritorna l'ID se login ok
-                    }
-                }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean updatePasswordHash(int userId, String expectedHash, String newHash) throws SQLException {
+        String sql = "UPDATE utente SET password_hash = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?" +
+                (expectedHash != null ? " AND password_hash = ?" : "");
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, newHash);
+            pstmt.setInt(2, userId);
+            if (expectedHash != null) {
+                pstmt.setString(3, expectedHash);
             }
+            return pstmt.executeUpdate() > 0;
         }
-        return -1; // login fallito
     }
 
     /*public int checkLoginAndGetId(String email, String password) throws SQLException {
@@ -287,6 +471,26 @@ public class UtenteDAOImpl implements UtenteDAO {
     }*/
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UtenteRow findProfileById(int userId, String tipoUtente) throws SQLException {
+        String sql = "SELECT " + UTENTE_COLUMNS + " FROM utente WHERE id = ?" +
+                (tipoUtente != null ? " AND tipo_utente = ?" : "");
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            if (tipoUtente != null) {
+                stmt.setString(2, tipoUtente.toLowerCase());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapUtente(rs) : null;
+            }
+        }
+    }
+
         /**
          * {@inheritDoc}
          */
@@ -327,216 +531,122 @@ public class UtenteDAOImpl implements UtenteDAO {
      * {@inheritDoc}
      */
     @Override
-
-    public String getNomeGiudiceById(int giudiceId) throws SQLException {
-        String sql = "SELECT id, nome FROM utente WHERE id = ? AND tipo_utente = 'giudice'";
+    public int getTeamIdByUser(int userId) throws SQLException {
+        String sql = "SELECT team_id FROM utente WHERE id = ?";
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, giudiceId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("nome");
-                } else {
-                    throw new SQLException("Giudice non trovato con ID: " + giudiceId);
-                }
-            }
-        }
-    }
-    /**
-     * {@inheritDoc}
-     */
-    @Override
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-    public String getCognomeGiudiceById(int giudiceId) throws SQLException {
-        String sql = "SELECT id, cognome FROM utente WHERE id = ? AND tipo_utente = 'giudice'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, giudiceId);
+            ps.setInt(1, userId);
 
-            try (ResultSet rs = stmt.executeQuery()) {
+            try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getString("cognome");
+                    int teamId = rs.getInt("team_id");
+                    // Se la colonna è NULL, getInt restituisce 0, ma possiamo gestirlo esplicitamente:
+                    if (rs.wasNull()) {
+                        return 0; // convenzione: 0 = nessun team
+                    }
+                    return teamId;
                 } else {
-                    throw new SQLException("Giudice non trovato con ID: " + giudiceId);
+                    // Nessun utente trovato
+                    return -1;
                 }
             }
         }
     }
 
-
     /**
      * {@inheritDoc}
      */
     @Override
-
-    public String getEmailGiudiceById(int giudiceId) throws SQLException {
-        String sql = "SELECT id, email FROM utente WHERE id = ? AND tipo_utente = 'giudice'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, giudiceId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("email");
-                } else {
-                    throw new SQLException("Giudice non trovato con ID: " + giudiceId);
-                }
-            }
+    public Set<String> findExistingEmails(Collection<String> emails) throws SQLException {
+        Set<String> esistenti = new HashSet<>();
+        if (emails == null || emails.isEmpty()) {
+            return esistenti;
         }
-    }
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public String getNomeOrgById(int organizzatoreId) throws SQLException {
-        String sql = "SELECT  id,nome FROM utente WHERE id = ? AND tipo_utente = 'organizzatore'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, organizzatoreId);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("nome");
-                } else {
-                    throw new SQLException("Organizzatore non trovato con ID: " + organizzatoreId);
-                }
-            }
-        }
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public String getCognomeOrgById(int organizzatoreId) throws SQLException {
-        String sql = "SELECT id, cognome FROM utente WHERE id = ? AND tipo_utente = 'organizzatore'";
+        String sql = "SELECT email FROM utente WHERE email = ANY(?)";
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, organizzatoreId);
+            stmt.setArray(1, conn.createArrayOf("varchar", emails.toArray()));
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("cognome");
-                } else {
-                    throw new SQLException("Organizzatore non trovato con ID: " + organizzatoreId);
+                while (rs.next()) {
+                    esistenti.add(rs.getString("email"));
                 }
             }
         }
+        return esistenti;
     }
 
-
     /**
      * {@inheritDoc}
      */
     @Override
-    public String getEmailOrgById(int organizzatoreId) throws SQLException {
-        String sql = "SELECT id, email FROM utente WHERE id = ? AND tipo_utente = 'organizzatore'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, organizzatoreId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("email");
-                } else {
-                    throw new SQLException("Organizzatore non trovato con ID: " + organizzatoreId);
-                }
-            }
+    public List<String> saveBatch(List<NuovoUtenteRow> utenti) throws SQLException {
+        List<String> esiti = new ArrayList<>(Collections.nCopies(utenti.size(), (String) null));
+        if (utenti.isEmpty()) {
+            return esiti;
         }
-    }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public String getNomeConcById(int concorrenteId) throws SQLException {
-        String sql = "SELECT id, nome FROM utente WHERE id = ? AND tipo_utente = 'concorrente'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, concorrenteId);
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("nome");
-                } else {
-                    throw new SQLException("Concorrente non trovato con ID: " + concorrenteId);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_UTENTE)) {
+                impostaLimiteTeam(conn, Team.MAX_TEAM_SIZE);
+                for (NuovoUtenteRow utente : utenti) {
+                    bindUtente(pstmt, utente);
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
+                conn.commit();
+                return esiti;
+            } catch (BatchUpdateException e) {
+                conn.rollback();
             }
-        }
-    }
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public String getCognomeConcById(int concorrenteId) throws SQLException {
-        String sql = "SELECT id, cognome FROM utente WHERE id = ? AND tipo_utente = 'concorrente'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, concorrenteId);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("cognome");
-                } else {
-                    throw new SQLException("Concorrente non trovato con ID: " + concorrenteId);
+            // almeno una riga è stata rifiutata: si reinserisce una riga alla volta per isolarla
+            // il rollback ha annullato anche la capienza impostata per la transazione
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_UTENTE)) {
+                impostaLimiteTeam(conn, Team.MAX_TEAM_SIZE);
+                for (int i = 0; i < utenti.size(); i++) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        bindUtente(pstmt, utenti.get(i));
+                        pstmt.executeUpdate();
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        conn.rollback(savepoint);
+                        esiti.set(i, e.getMessage());
+                    }
                 }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
+        return esiti;
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public String getEmailConcById(int concorrenteId) throws SQLException {
-        String sql = "SELECT id, email FROM utente WHERE id = ? AND tipo_utente = 'concorrente'";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, concorrenteId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("email");
-                } else {
-                    throw new SQLException("Concorrente non trovato con ID: " + concorrenteId);
-                }
-            }
-        }
+    private static void bindUtente(PreparedStatement pstmt, NuovoUtenteRow utente) throws SQLException {
+        pstmt.setString(1, utente.nome());
+        pstmt.setString(2, utente.cognome());
+        pstmt.setString(3, utente.email());
+        pstmt.setString(4, utente.passwordHash());
+        pstmt.setDate(5, Date.valueOf(utente.dataRegistrazione()));
+        pstmt.setString(6, utente.tipoUtente());
+        pstmt.setObject(7, utente.hackathonId(), Types.INTEGER);
+        pstmt.setObject(8, utente.teamId(), Types.INTEGER);
     }
 
-
-
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public int getTeamIdByUser(int userId) throws SQLException {
-        String sql = "SELECT team_id FROM utente WHERE id = ?";
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, userId);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    int teamId = rs.getInt("team_id");
-                    // Se la colonna è NULL, getInt restituisce 0, ma possiamo gestirlo esplicitamente:
-                    if (rs.wasNull()) {
-                        return 0; // convenzione: 0 = nessun team
-                    }
-                    return teamId;
-                } else {
-                    // Nessun utente trovato
-                    return -1;
-                }
-            }
-        }
+    private static UtenteRow mapUtente(ResultSet rs) throws SQLException {
+        return new UtenteRow(
+                rs.getInt("id"),
+                rs.getString("nome"),
+                rs.getString("cognome"),
+                rs.getString("email"),
+                rs.getString("tipo_utente"),
+                rs.getObject("hackathon_id", Integer.class),
+                rs.getObject("team_id", Integer.class));
     }
-
-
-
-
-
-}
\ No newline at end of file
+}
@@ -1,7 +1,11 @@
 package dao.impl;
 
 import dao.ValutazioneDAO;
+import dao.row.RiepilogoValutazioneRow;
+import dao.row.UtenteRow;
+import dao.row.ValutazioneRow;
 import db.DatabaseConnectionSingleton;
+import model.Pagina;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -14,9 +18,38 @@ import java.util.List;
  * come salvataggio, recupero e verifica della presenza di aggiornamenti.
  * <br>
  * Utilizza {@link DatabaseConnectionSingleton} per la connessione al database.
+ * <br>
+ * Gli aggregati della tabella {@code classifica_team} (somma, numero, minimo e massimo dei
+ * punteggi del team), da cui viene letta la classifica dell'hackathon, sono aggiornati dal
+ * trigger su {@code valutazione} nella stessa transazione di ogni inserimento.
  */
 public class ValutazioneDAOImpl implements ValutazioneDAO {
 
+    private static final String INSERT_VALUTAZIONE =
+            "INSERT INTO valutazione (team_id, giudice_id, punteggio, feedback) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_VALUTAZIONI =
+            "SELECT v.id, v.team_id, v.giudice_id, g.nome AS giudice_nome, g.cognome AS giudice_cognome, " +
+            "v.punteggio, v.feedback " +
+            "FROM valutazione v " +
+            "LEFT JOIN utente g ON g.id = v.giudice_id ";
+
+    /*
+     * Riepilogo per saveVerificata: i conteggi usano gli indici su documento(team_id, id) e
+     * aggiornamento(team_id); FOR KEY SHARE blocca solo l'eliminazione del team, non le
+     * modifiche di member_count fatte dalle unioni ai team.
+     */
+    private static final String SELECT_RIEPILOGO =
+            "SELECT t.id AS team_id, t.nome AS team_nome, " +
+            "(SELECT COUNT(*) FROM documento d WHERE d.team_id = t.id) AS documenti, " +
+            "(SELECT COUNT(*) FROM aggiornamento a JOIN documento d ON d.id = a.documento_id " +
+            "WHERE a.team_id = t.id AND d.team_id = t.id) AS aggiornamenti, " +
+            "g.id AS giudice_id, g.nome AS giudice_nome, g.cognome AS giudice_cognome, g.email AS giudice_email, " +
+            "g.tipo_utente AS giudice_tipo, g.hackathon_id AS giudice_hackathon_id, g.team_id AS giudice_team_id " +
+            "FROM team t " +
+            "LEFT JOIN utente g ON g.id = ? AND g.tipo_utente = 'giudice' " +
+            "WHERE t.id = ? " +
+            "FOR KEY SHARE OF t";
 
     /**
      * {@inheritDoc}
@@ -28,15 +61,91 @@ public class ValutazioneDAOImpl implements ValutazioneDAO {
             throw new SQLException("Il team non ha aggiornamenti, non è possibile salvare la valutazione.");
         }
 
-        String sql = "INSERT INTO valutazione (team_id, giudice_id, punteggio, feedback) VALUES (?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                inserisci(conn, teamId, giudiceId, punteggio, feedback);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 
-        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, teamId);
-            pstmt.setInt(2, giudiceId);
-            pstmt.setInt(3, punteggio);
-            pstmt.setString(4, feedback);
-            pstmt.executeUpdate();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <E extends Exception> RiepilogoValutazioneRow saveVerificata(int teamId, int giudiceId, int punteggio,
+                                                                        String feedback,
+                                                                        VerificaValutazione<E> verifica)
+            throws SQLException, E {
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                RiepilogoValutazioneRow riepilogo = leggiRiepilogo(conn, teamId, giudiceId);
+                if (riepilogo == null) {
+                    conn.rollback();
+                    return null;
+                }
+
+                verifica.verifica(riepilogo);
+
+                inserisci(conn, teamId, giudiceId, punteggio, feedback);
+                conn.commit();
+                return riepilogo;
+            } catch (Exception e) {
+                // rilancia le sole eccezioni del blocco: SQLException, E o non controllate
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static RiepilogoValutazioneRow leggiRiepilogo(Connection conn, int teamId, int giudiceId)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_RIEPILOGO)) {
+            pstmt.setInt(1, giudiceId);
+            pstmt.setInt(2, teamId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                UtenteRow giudice = null;
+                if (rs.getObject("giudice_id") != null) {
+                    giudice = new UtenteRow(
+                            rs.getInt("giudice_id"),
+                            rs.getString("giudice_nome"),
+                            rs.getString("giudice_cognome"),
+                            rs.getString("giudice_email"),
+                            rs.getString("giudice_tipo"),
+                            (Integer) rs.getObject("giudice_hackathon_id"),
+                            (Integer) rs.getObject("giudice_team_id"));
+                }
+                return new RiepilogoValutazioneRow(
+                        rs.getInt("team_id"),
+                        rs.getString("team_nome"),
+                        giudice,
+                        rs.getInt("documenti"),
+                        rs.getInt("aggiornamenti"));
+            }
+        }
+    }
+
+    /**
+     * Inserisce la valutazione nella transazione della connessione; il trigger su valutazione
+     * aggiorna gli aggregati di classifica.
+     */
+    private static void inserisci(Connection conn, int teamId, int giudiceId, int punteggio, String feedback)
+            throws SQLException {
+        try (PreparedStatement insert = conn.prepareStatement(INSERT_VALUTAZIONE)) {
+            insert.setInt(1, teamId);
+            insert.setInt(2, giudiceId);
+            insert.setInt(3, punteggio);
+            insert.setString(4, feedback);
+            insert.executeUpdate();
         }
     }
 
@@ -46,8 +155,20 @@ public class ValutazioneDAOImpl implements ValutazioneDAO {
      */
     @Override
     public List<String> getAllByTeam(int teamId) throws SQLException {
-        String sql = "SELECT id, giudice_id, punteggio, feedback FROM valutazione WHERE team_id = ?";
         List<String> valutazioni = new ArrayList<>();
+        for (ValutazioneRow row : getRowsByTeam(teamId)) {
+            valutazioni.add(row.giudiceId() + " - " + row.punteggio() + " - " + row.feedback());
+        }
+        return valutazioni;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ValutazioneRow> getRowsByTeam(int teamId) throws SQLException {
+        String sql = SELECT_VALUTAZIONI + "WHERE v.team_id = ? ORDER BY v.id";
+        List<ValutazioneRow> valutazioni = new ArrayList<>();
 
         try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -55,19 +176,46 @@ public class ValutazioneDAOImpl implements ValutazioneDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    int giudiceId = rs.getInt("giudice_id");
+                    valutazioni.add(mapValutazione(rs));
+                }
+            }
+        }
+        return valutazioni;
+    }
 
-                    int punteggio = rs.getInt("punteggio");
-                    String feedback = rs.getString("feedback");
-                    if (feedback == null) feedback = "";
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pagina<ValutazioneRow> getRowsByTeamPage(int teamId, Integer dopoId, int limite) throws SQLException {
+        String sql = SELECT_VALUTAZIONI + "WHERE v.team_id = ? AND v.id > ? ORDER BY v.id LIMIT ?";
+        List<ValutazioneRow> valutazioni = new ArrayList<>();
 
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, teamId);
+            pstmt.setInt(2, dopoId != null ? dopoId : 0);
+            pstmt.setInt(3, limite + 1);
 
-                    String valutazione = giudiceId + " - " + punteggio + " - " + feedback;
-                    valutazioni.add(valutazione);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    valutazioni.add(mapValutazione(rs));
                 }
             }
         }
-        return valutazioni;
+        return Pagina.daRighe(valutazioni, limite, ValutazioneRow::id);
+    }
+
+    private static ValutazioneRow mapValutazione(ResultSet rs) throws SQLException {
+        String feedback = rs.getString("feedback");
+        return new ValutazioneRow(
+                rs.getInt("id"),
+                rs.getInt("team_id"),
+                rs.getInt("giudice_id"),
+                rs.getString("giudice_nome"),
+                rs.getString("giudice_cognome"),
+                rs.getInt("punteggio"),
+                feedback != null ? feedback : "");
     }
 
     /**
@@ -0,0 +1,12 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della tabella {@code aggiornamento}, con il nome del team autore.
+ *
+ * @param id        ID dell'aggiornamento
+ * @param teamId    ID del team autore
+ * @param teamNome  nome del team autore (mai {@code null})
+ * @param contenuto contenuto dell'aggiornamento (mai {@code null})
+ */
+public record AggiornamentoRow(int id, int teamId, String teamNome, String contenuto) {
+}
@@ -0,0 +1,15 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della classifica di un hackathon.
+ *
+ * @param teamId             ID del team
+ * @param teamNome           nome del team
+ * @param punteggioMedio     media dei punteggi ricevuti dal team
+ * @param numeroValutazioni  numero di valutazioni ricevute dal team
+ * @param punteggioMin       punteggio più basso ricevuto
+ * @param punteggioMax       punteggio più alto ricevuto
+ */
+public record ClassificaRow(int teamId, String teamNome, double punteggioMedio,
+                            int numeroValutazioni, int punteggioMin, int punteggioMax) {
+}
@@ -0,0 +1,12 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della tabella {@code commento}.
+ *
+ * @param id          ID del commento
+ * @param documentoId ID del documento commentato
+ * @param giudiceId   ID del giudice autore
+ * @param testo       testo del commento
+ */
+public record CommentoRow(int id, int documentoId, int giudiceId, String testo) {
+}
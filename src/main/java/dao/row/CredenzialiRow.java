@@ -0,0 +1,10 @@
+package dao.row;
+
+/**
+ * Profilo di un utente insieme all'hash della password, letto per l'autenticazione.
+ *
+ * @param profilo      profilo dell'utente
+ * @param passwordHash hash BCrypt della password salvato nel database
+ */
+public record CredenzialiRow(UtenteRow profilo, String passwordHash) {
+}
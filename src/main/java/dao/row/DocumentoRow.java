@@ -0,0 +1,13 @@
+package dao.row;
+
+import java.util.List;
+
+/**
+ * Documento di un team con i contenuti dei suoi aggiornamenti, in ordine di inserimento.
+ *
+ * @param id             ID del documento
+ * @param titolo         titolo del documento
+ * @param aggiornamenti  contenuti degli aggiornamenti collegati al documento
+ */
+public record DocumentoRow(int id, String titolo, List<String> aggiornamenti) {
+}
@@ -0,0 +1,23 @@
+package dao.row;
+
+/**
+ * Esito dell'inserimento di un commento, restituito da
+ * {@link dao.CommentoDAO#save(int, int, String)}.
+ */
+public enum EsitoCommento {
+
+    /** Il commento è stato inserito. */
+    AGGIUNTO,
+
+    /** Il documento non esiste. */
+    DOCUMENTO_NON_TROVATO,
+
+    /** L'utente non esiste o non è un giudice. */
+    GIUDICE_NON_TROVATO,
+
+    /** Il documento non ha ancora aggiornamenti, quindi non può essere commentato. */
+    NESSUN_AGGIORNAMENTO,
+
+    /** Il giudice non è assegnato all'hackathon del team che ha scritto il documento. */
+    HACKATHON_DIVERSO
+}
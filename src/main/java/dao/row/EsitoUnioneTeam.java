@@ -0,0 +1,28 @@
+package dao.row;
+
+/**
+ * Esito dell'aggiunta di un concorrente a un team, riportato in {@link UnioneTeamRow}.
+ */
+public enum EsitoUnioneTeam {
+
+    /** Il concorrente è stato aggiunto al team. */
+    AGGIUNTO,
+
+    /** Il concorrente fa già parte del team. */
+    GIA_NEL_TEAM,
+
+    /** Il team ha già raggiunto il numero massimo di concorrenti. */
+    TEAM_PIENO,
+
+    /** L'utente non è un concorrente. */
+    RUOLO_NON_VALIDO,
+
+    /** L'utente non è iscritto all'hackathon a cui appartiene il team. */
+    HACKATHON_DIVERSO,
+
+    /** L'utente non esiste. */
+    UTENTE_NON_TROVATO,
+
+    /** Il team non esiste. */
+    TEAM_NON_TROVATO
+}
@@ -0,0 +1,25 @@
+package dao.row;
+
+import java.time.LocalDate;
+
+/**
+ * Riga tipizzata di un hackathon con i dati anagrafici del suo organizzatore,
+ * ottenuta con un'unica query in join sulla tabella {@code utente}.
+ *
+ * @param id                   ID dell'hackathon
+ * @param nome                 nome dell'hackathon
+ * @param descrizione          descrizione dell'hackathon
+ * @param luogo                luogo di svolgimento
+ * @param dataInizio           data di inizio
+ * @param dataFine             data di fine
+ * @param statoRegistrazioni   {@code true} se le registrazioni sono aperte
+ * @param organizzatoreId      ID dell'organizzatore
+ * @param organizzatoreNome    nome dell'organizzatore
+ * @param organizzatoreCognome cognome dell'organizzatore
+ * @param organizzatoreEmail   email dell'organizzatore
+ */
+public record HackathonDettaglioRow(int id, String nome, String descrizione, String luogo,
+                                    LocalDate dataInizio, LocalDate dataFine, boolean statoRegistrazioni,
+                                    int organizzatoreId, String organizzatoreNome,
+                                    String organizzatoreCognome, String organizzatoreEmail) {
+}
@@ -0,0 +1,15 @@
+package dao.row;
+
+import java.time.LocalDate;
+
+/**
+ * Metadati di un hackathon letti prima di quasi ogni operazione (nome, data di fine, organizzatore).
+ * Sono immutabili e possono essere condivisi in cache.
+ *
+ * @param id              ID dell'hackathon
+ * @param nome            nome dell'hackathon
+ * @param dataFine        data di fine, oppure {@code null} se non impostata
+ * @param organizzatoreId ID dell'organizzatore, 0 se non assegnato
+ */
+public record HackathonMetaRow(int id, String nome, LocalDate dataFine, int organizzatoreId) {
+}
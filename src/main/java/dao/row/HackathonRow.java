@@ -0,0 +1,20 @@
+package dao.row;
+
+import java.time.LocalDate;
+
+/**
+ * Riga tipizzata della tabella {@code hackathon}.
+ *
+ * @param id                 ID dell'hackathon
+ * @param nome               nome dell'hackathon
+ * @param descrizione        descrizione dell'hackathon
+ * @param luogo              luogo di svolgimento
+ * @param dataInizio         data di inizio
+ * @param dataFine           data di fine
+ * @param statoRegistrazioni {@code true} se le registrazioni sono aperte
+ * @param organizzatoreId    ID dell'organizzatore
+ */
+public record HackathonRow(int id, String nome, String descrizione, String luogo,
+                           LocalDate dataInizio, LocalDate dataFine,
+                           boolean statoRegistrazioni, int organizzatoreId) {
+}
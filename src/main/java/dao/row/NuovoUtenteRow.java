@@ -0,0 +1,20 @@
+package dao.row;
+
+import java.time.LocalDate;
+
+/**
+ * Dati di un utente da inserire, con la password già trasformata in hash.
+ *
+ * @param nome              nome dell'utente
+ * @param cognome           cognome dell'utente
+ * @param email             email normalizzata in minuscolo
+ * @param passwordHash      hash BCrypt della password
+ * @param dataRegistrazione data di registrazione
+ * @param tipoUtente        tipo di utente ({@code concorrente}, {@code giudice}, {@code organizzatore})
+ * @param hackathonId       ID dell'hackathon scelto, oppure {@code null}
+ * @param teamId            ID del team, oppure {@code null}
+ */
+public record NuovoUtenteRow(String nome, String cognome, String email, String passwordHash,
+                             LocalDate dataRegistrazione, String tipoUtente,
+                             Integer hackathonId, Integer teamId) {
+}
@@ -0,0 +1,14 @@
+package dao.row;
+
+/**
+ * Dati letti con una sola query per validare una valutazione prima di salvarla.
+ *
+ * @param teamId        ID del team valutato
+ * @param teamNome      nome del team
+ * @param giudice       profilo del giudice, oppure {@code null} se l'utente non esiste o non è un giudice
+ * @param documenti     documenti del team
+ * @param aggiornamenti aggiornamenti rilasciati dal team sui propri documenti
+ */
+public record RiepilogoValutazioneRow(int teamId, String teamNome, UtenteRow giudice,
+                                      int documenti, int aggiornamenti) {
+}
@@ -0,0 +1,12 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della tabella {@code team}.
+ *
+ * @param id          ID del team
+ * @param nome        nome del team
+ * @param hackathonId ID dell'hackathon a cui appartiene il team
+ * @param memberCount numero di concorrenti nel team
+ */
+public record TeamRow(int id, String nome, int hackathonId, int memberCount) {
+}
@@ -0,0 +1,13 @@
+package dao.row;
+
+/**
+ * Risultato dell'aggiunta di un concorrente a un team, restituito da
+ * {@link dao.UtenteDAO#addUserToTeam(int, int, int)}.
+ *
+ * @param esito    esito dell'operazione
+ * @param nomeTeam nome del team, {@code null} se il team non esiste
+ * @param nome     nome del concorrente, valorizzato solo se è stato aggiunto
+ * @param cognome  cognome del concorrente, valorizzato solo se è stato aggiunto
+ */
+public record UnioneTeamRow(EsitoUnioneTeam esito, String nomeTeam, String nome, String cognome) {
+}
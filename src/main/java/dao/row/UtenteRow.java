@@ -0,0 +1,16 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della tabella {@code utente}, senza hash della password.
+ *
+ * @param id          ID dell'utente
+ * @param nome        nome dell'utente
+ * @param cognome     cognome dell'utente
+ * @param email       email dell'utente
+ * @param tipoUtente  tipo di utente ({@code concorrente}, {@code giudice}, {@code organizzatore})
+ * @param hackathonId ID dell'hackathon di appartenenza, oppure {@code null}
+ * @param teamId      ID del team di appartenenza, oppure {@code null}
+ */
+public record UtenteRow(int id, String nome, String cognome, String email,
+                        String tipoUtente, Integer hackathonId, Integer teamId) {
+}
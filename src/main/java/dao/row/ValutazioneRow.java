@@ -0,0 +1,16 @@
+package dao.row;
+
+/**
+ * Riga tipizzata della tabella {@code valutazione}, arricchita con nome e cognome del giudice.
+ *
+ * @param id             ID della valutazione
+ * @param teamId         ID del team valutato
+ * @param giudiceId      ID del giudice
+ * @param giudiceNome    nome del giudice, oppure {@code null} se non più presente
+ * @param giudiceCognome cognome del giudice, oppure {@code null} se non più presente
+ * @param punteggio      punteggio assegnato
+ * @param feedback       feedback del giudice (mai {@code null})
+ */
+public record ValutazioneRow(int id, int teamId, int giudiceId, String giudiceNome, String giudiceCognome,
+                             int punteggio, String feedback) {
+}
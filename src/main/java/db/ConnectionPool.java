@@ -0,0 +1,440 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool limitato di connessioni JDBC verso il database PostgreSQL.
+ * <p>
+ * Le connessioni fisiche vengono aperte una sola volta e riutilizzate: il chiamante
+ * riceve un proxy di {@link Connection} il cui {@code close()} restituisce la
+ * connessione al pool invece di chiuderla. In questo modo i DAO continuano a usare
+ * il consueto blocco {@code try-with-resources} senza alcuna modifica.
+ * </p>
+ * <p>
+ * Il pool gestisce:
+ * <ul>
+ *     <li>una dimensione minima (mantenuta dal thread di manutenzione) e una massima;
+ *         oltre il massimo i chiamanti attendono fino al timeout di prestito</li>
+ *     <li>l'eliminazione delle connessioni inattive da troppo tempo, senza scendere sotto il minimo</li>
+ *     <li>la validazione al prestito delle connessioni rimaste inattive</li>
+ *     <li>il rilevamento dei leak: le connessioni non restituite entro la soglia vengono
+ *         segnalate nel log insieme allo stack del punto in cui sono state prese</li>
+ *     <li>le statistiche di utilizzo tramite {@link #getStats()}</li>
+ * </ul>
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Le connessioni usate più di recente di questa soglia non vengono rivalidate al prestito. */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long HOUSEKEEPING_PERIOD_SECONDS = 30;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final long leakThresholdNanos;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /** Connessioni libere: in testa le più recenti, in coda le più vecchie (candidate all'eliminazione). */
+    private final Deque<PooledEntry> idle = new ArrayDeque<>();
+    private final Set<PooledEntry> inUse = ConcurrentHashMap.newKeySet();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Crea un nuovo pool e avvia il thread di manutenzione, che porta subito
+     * il pool alla dimensione minima in background.
+     *
+     * @param url                   URL JDBC del database
+     * @param user                  utente del database
+     * @param password              password del database
+     * @param minSize               numero minimo di connessioni mantenute aperte
+     * @param maxSize               numero massimo di connessioni aperte contemporaneamente
+     * @param borrowTimeoutMillis   attesa massima per ottenere una connessione quando il pool è saturo
+     * @param idleTimeoutMillis     inattività dopo la quale una connessione oltre il minimo viene chiusa
+     * @param leakThresholdMillis   durata di prestito oltre la quale la connessione è segnalata come leak
+     *                              ({@code 0} disabilita il rilevamento)
+     * @param validationTimeoutSeconds timeout del controllo di validità al prestito
+     * @throws IllegalArgumentException se le dimensioni del pool non sono coerenti
+     */
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int validationTimeoutSeconds) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Dimensioni del pool non valide: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, HOUSEKEEPING_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Prende in prestito una connessione dal pool.
+     * <p>
+     * Se non ci sono connessioni libere e il pool non ha raggiunto la dimensione massima
+     * ne viene aperta una nuova; altrimenti il chiamante attende fino al timeout di prestito.
+     * La connessione va restituita chiamandone {@code close()}.
+     * </p>
+     *
+     * @return una connessione valida
+     * @throws SQLException se il pool è chiuso, se scade il timeout o se non è possibile aprire la connessione
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + borrowTimeoutNanos;
+        while (true) {
+            PooledEntry entry = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (entry == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Il pool di connessioni è stato chiuso.");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry == null) {
+                        if (total < maxSize) {
+                            total++;
+                            create = true;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                timeouts.incrementAndGet();
+                                throw new SQLTransientConnectionException(
+                                        "Nessuna connessione disponibile entro il timeout (pool saturo: " + maxSize + ").");
+                            }
+                            waiting++;
+                            try {
+                                available.awaitNanos(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Attesa di una connessione interrotta.", e);
+                            } finally {
+                                waiting--;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    entry = new PooledEntry(openPhysical());
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isAlive(entry)) {
+                validationFailures.incrementAndGet();
+                discard(entry);
+                continue;
+            }
+            return lease(entry);
+        }
+    }
+
+    /**
+     * Restituisce un'istantanea delle statistiche del pool.
+     *
+     * @return statistiche correnti
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(total, inUse.size(), idle.size(), waiting,
+                    created.get(), destroyed.get(), borrowed.get(),
+                    timeouts.get(), validationFailures.get(), leaks.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Chiude il pool: le connessioni libere vengono chiuse subito, quelle in prestito
+     * alla loro restituzione.
+     */
+    @Override
+    public void close() {
+        List<PooledEntry> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::discard);
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        return conn;
+    }
+
+    private boolean isAlive(PooledEntry entry) {
+        if (System.nanoTime() - entry.lastReturnedAt < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(PooledEntry entry) {
+        entry.leasedAt = System.nanoTime();
+        entry.leakReported = false;
+        entry.leaseTrace = leakThresholdNanos > 0 ? new Throwable("Connessione presa in prestito qui") : null;
+        inUse.add(entry);
+        borrowed.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler(entry));
+    }
+
+    private void giveBack(PooledEntry entry) {
+        inUse.remove(entry);
+        try {
+            Connection conn = entry.physical;
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Connessione non riutilizzabile, viene scartata.", e);
+            discard(entry);
+            return;
+        }
+
+        entry.lastReturnedAt = System.nanoTime();
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(entry);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(entry);
+    }
+
+    private void discard(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Errore durante la chiusura di una connessione del pool.", e);
+        }
+        destroyed.incrementAndGet();
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            detectLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Errore durante la manutenzione del pool di connessioni.", e);
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledEntry> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            int surplus = total - minSize;
+            while (it.hasNext() && surplus > 0) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastReturnedAt > idleTimeoutNanos) {
+                    it.remove();
+                    expired.add(entry);
+                    surplus--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(this::discard);
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdNanos <= 0) return;
+        long now = System.nanoTime();
+        for (PooledEntry entry : inUse) {
+            if (!entry.leakReported && now - entry.leasedAt > leakThresholdNanos) {
+                entry.leakReported = true;
+                leaks.incrementAndGet();
+                logger.log(Level.WARNING, "Possibile leak: connessione in prestito da oltre "
+                        + TimeUnit.NANOSECONDS.toMillis(leakThresholdNanos) + " ms.", entry.leaseTrace);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || total >= minSize) return;
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            PooledEntry entry;
+            try {
+                entry = new PooledEntry(openPhysical());
+            } catch (SQLException e) {
+                releaseSlot();
+                logger.log(Level.WARNING, "Impossibile aprire le connessioni minime del pool: " + e.getMessage());
+                return;
+            }
+            giveBack(entry);
+        }
+    }
+
+    /**
+     * Connessione fisica gestita dal pool, con i metadati di prestito.
+     */
+    private static final class PooledEntry {
+        private final Connection physical;
+        private volatile long leasedAt;
+        private volatile long lastReturnedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable leaseTrace;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.lastReturnedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Gestore del proxy consegnato al chiamante: {@code close()} restituisce la
+     * connessione al pool, tutti gli altri metodi sono delegati alla connessione fisica.
+     * Gli statement creati mentre è aperta una {@link SessioneQuery} vengono avvolti per contarne
+     * le esecuzioni.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        private LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("La connessione è già stata restituita al pool.");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(entry.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return SessioneQuery.avvolgi(result, method.getReturnType(), sql);
+                    }
+                    return result;
+            }
+        }
+    }
+}
@@ -3,7 +3,6 @@
 package db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -17,8 +16,18 @@ import java.util.logging.Logger;
  * configurazione di accesso al database.
  * </p>
  * <p>
- * Ogni chiamata a {@link #getConnection()} restituisce una <b>nuova connessione</b>
- * valida al database. La responsabilità di chiudere la connessione rimane al chiamante.
+ * Le connessioni sono fornite da un {@link ConnectionPool}: ogni chiamata a
+ * {@link #getConnection()} presta una connessione valida, e chiuderla con
+ * {@code conn.close()} la restituisce al pool. La responsabilità di chiudere
+ * la connessione rimane quindi al chiamante.
+ * </p>
+ * <p>
+ * Il database si può cambiare con le proprietà di sistema {@code hackathon.db.url},
+ * {@code hackathon.db.user} e {@code hackathon.db.password}, lette alla creazione dell'istanza.
+ * Le dimensioni e i timeout del pool possono essere modificati con le proprietà di sistema
+ * {@code hackathon.db.pool.min}, {@code hackathon.db.pool.max},
+ * {@code hackathon.db.pool.borrowTimeoutMs}, {@code hackathon.db.pool.idleTimeoutMs}
+ * e {@code hackathon.db.pool.leakThresholdMs}.
  * </p>
  */
 public class DatabaseConnectionSingleton {
@@ -27,7 +36,12 @@ public class DatabaseConnectionSingleton {
 
     private static final Logger logger = Logger.getLogger(DatabaseConnectionSingleton.class.getName());
 
-    private final String url = "jdbc:postgresql://localhost:5432/hackathon_sql"; private final String user = "postgres";             private final String password = "marioruigoat6";
+    private final String url = System.getProperty("hackathon.db.url",
+            "jdbc:postgresql://localhost:5432/hackathon_sql?reWriteBatchedInserts=true");
+    private final String user = System.getProperty("hackathon.db.user", "postgres");
+    private final String password = System.getProperty("hackathon.db.password", "marioruigoat6");
+
+    private final ConnectionPool pool;
 
     private DatabaseConnectionSingleton() {
         // eventualmente carica driver se serve
@@ -36,6 +50,14 @@ public class DatabaseConnectionSingleton {
         } catch (ClassNotFoundException e) {
             logger.log(Level.SEVERE, "Driver PostgreSQL non trovato.", e);
         }
+        pool = new ConnectionPool(url, user, password,
+                Integer.getInteger("hackathon.db.pool.min", 2),
+                Integer.getInteger("hackathon.db.pool.max", 10),
+                Long.getLong("hackathon.db.pool.borrowTimeoutMs", 10_000L),
+                Long.getLong("hackathon.db.pool.idleTimeoutMs", 600_000L),
+                Long.getLong("hackathon.db.pool.leakThresholdMs", 60_000L),
+                2);
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "db-pool-shutdown"));
     }
 
     /**
@@ -52,17 +74,25 @@ public class DatabaseConnectionSingleton {
     }
 
     /**
-     * Crea e restituisce una nuova connessione al database PostgreSQL.
+     * Restituisce una connessione valida al database PostgreSQL presa dal pool.
      * <p>
-     * Ogni invocazione apre una connessione distinta: è responsabilità
-     * del chiamante chiuderla correttamente con {@code conn.close()}.
+     * È responsabilità del chiamante chiuderla correttamente con {@code conn.close()},
+     * che la restituisce al pool senza chiudere la connessione fisica.
      * </p>
      *
-     * @return una nuova connessione valida al database
-     * @throws SQLException se non è possibile stabilire la connessione
+     * @return una connessione valida al database
+     * @throws SQLException se non è possibile ottenere una connessione entro il timeout
      */
     public Connection getConnection() throws SQLException {
-        // ogni chiamata restituisce una nuova connessione valida
-        return DriverManager.getConnection(url, user, password);
+        return pool.getConnection();
+    }
+
+    /**
+     * Restituisce le statistiche correnti del pool di connessioni.
+     *
+     * @return istantanea delle statistiche del pool
+     */
+    public PoolStats getPoolStats() {
+        return pool.getStats();
     }
 }
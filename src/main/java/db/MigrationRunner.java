@@ -0,0 +1,442 @@
+package db;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Applica all'avvio gli script di migrazione dello schema non ancora eseguiti.
+ * <p>
+ * Gli script si trovano nella risorsa {@value #CARTELLA_MIGRAZIONI} e si chiamano
+ * {@code V<versione>__<descrizione>.sql} (es. {@code V004__vincoli_ruolo_dichiarativi.sql}).
+ * Vengono eseguiti in ordine di versione e ogni versione applicata è registrata nella tabella
+ * {@code schema_migrazioni}, insieme al checksum dello script e alla durata dell'esecuzione.
+ * </p>
+ * <p>
+ * Ogni script è eseguito in una singola transazione: se un'istruzione fallisce, nessuna
+ * modifica dello script resta applicata. Gli script che iniziano con la riga
+ * {@value #DIRETTIVA_SENZA_TRANSAZIONE} vengono invece eseguiti un'istruzione alla volta
+ * in autocommit, come richiesto ad esempio da {@code CREATE INDEX CONCURRENTLY}; devono
+ * quindi poter essere rieseguiti (es. con {@code IF NOT EXISTS}) dopo un'interruzione.
+ * </p>
+ * <p>
+ * Un advisory lock impedisce a due istanze dell'applicazione avviate insieme di applicare
+ * le stesse migrazioni. L'esecuzione può essere disattivata con la proprietà di sistema
+ * {@code hackathon.db.migrations=false}. È richiesto PostgreSQL {@value #VERSIONE_MINIMA_POSTGRES}
+ * o successivo: con un server precedente il runner non applica nulla e segnala l'errore.
+ * </p>
+ * <p>
+ * La versione 1 è lo schema del dump usato prima del runner, senza le istruzioni che
+ * riguardano il database e i ruoli ({@code comment on database}, {@code grant},
+ * {@code owner to}): su un database creato con quel dump (tabella {@code utente} già
+ * presente, nessuna migrazione registrata) viene registrata senza eseguirla, e le modifiche
+ * successive allo schema si trovano solo nelle migrazioni dalla 2 in poi. Creazione del
+ * database, ruoli e permessi restano compito di chi installa il database: gli oggetti
+ * appartengono al ruolo con cui si collega l'applicazione, che non deve essere un superutente.
+ * </p>
+ */
+public class MigrationRunner {
+
+    private static final Logger logger = Logger.getLogger(MigrationRunner.class.getName());
+
+    /** Cartella delle migrazioni nel classpath. */
+    public static final String CARTELLA_MIGRAZIONI = "database/migrations";
+
+    /** Prima riga degli script da eseguire fuori da una transazione. */
+    public static final String DIRETTIVA_SENZA_TRANSAZIONE = "-- migrazione: senza-transazione";
+
+    private static final Pattern NOME_MIGRAZIONE = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    /**
+     * Versione minima di PostgreSQL richiesta dalle migrazioni: V004 usa
+     * {@code ON DELETE SET NULL (colonna)}, introdotto in PostgreSQL 15.
+     */
+    public static final int VERSIONE_MINIMA_POSTGRES = 15;
+
+    /** Chiave dell'advisory lock che serializza le esecuzioni del runner. */
+    private static final long CHIAVE_LOCK = 0x6861636b6174686fL;
+
+    private static final String CREATE_TABELLA =
+            "CREATE TABLE IF NOT EXISTS schema_migrazioni (" +
+            "versione integer PRIMARY KEY, " +
+            "descrizione varchar(255) NOT NULL, " +
+            "checksum varchar(64) NOT NULL, " +
+            "applicata_il timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "durata_ms bigint NOT NULL)";
+
+    private static final String INSERT_MIGRAZIONE =
+            "INSERT INTO schema_migrazioni (versione, descrizione, checksum, durata_ms) VALUES (?, ?, ?, ?)";
+
+    private final DatabaseConnectionSingleton database;
+    private final String cartella;
+
+    /**
+     * Crea un runner per le migrazioni nella cartella predefinita del classpath.
+     *
+     * @param database sorgente delle connessioni
+     */
+    public MigrationRunner(DatabaseConnectionSingleton database) {
+        this(database, CARTELLA_MIGRAZIONI);
+    }
+
+    /**
+     * Crea un runner per le migrazioni in una cartella del classpath.
+     *
+     * @param database sorgente delle connessioni
+     * @param cartella cartella delle migrazioni nel classpath
+     */
+    public MigrationRunner(DatabaseConnectionSingleton database, String cartella) {
+        this.database = database;
+        this.cartella = cartella;
+    }
+
+    /**
+     * Indica se l'esecuzione delle migrazioni all'avvio è abilitata.
+     *
+     * @return {@code false} se la proprietà {@code hackathon.db.migrations} vale {@code false}
+     */
+    public static boolean isAbilitato() {
+        return !"false".equalsIgnoreCase(System.getProperty("hackathon.db.migrations"));
+    }
+
+    /**
+     * Applica in ordine le migrazioni non ancora registrate.
+     *
+     * @return le versioni applicate da questa esecuzione (vuota se lo schema è aggiornato)
+     * @throws IOException  se gli script non possono essere letti
+     * @throws SQLException se il server è precedente a {@value #VERSIONE_MINIMA_POSTGRES} o una
+     *                      migrazione fallisce; le migrazioni precedenti restano applicate
+     */
+    public List<Integer> migrate() throws IOException, SQLException {
+        List<Migrazione> migrazioni = caricaMigrazioni();
+        List<Integer> applicate = new ArrayList<>();
+
+        try (Connection conn = database.getConnection()) {
+            verificaVersioneServer(conn);
+            conn.setAutoCommit(true);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_advisory_lock(" + CHIAVE_LOCK + ")");
+            }
+            try {
+                boolean schemaEsistente = esisteTabella(conn, "utente");
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_TABELLA);
+                }
+                Map<Integer, String> registrate = leggiRegistrate(conn);
+
+                if (registrate.isEmpty() && schemaEsistente && !migrazioni.isEmpty()) {
+                    Migrazione base = migrazioni.getFirst();
+                    registra(conn, base, 0);
+                    registrate.put(base.versione(), base.checksum());
+                    logger.log(Level.INFO, "Schema esistente registrato alla versione {0} senza eseguire {1}",
+                            new Object[]{base.versione(), base.nome()});
+                }
+
+                int ultimaRegistrata = registrate.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+                for (Migrazione migrazione : migrazioni) {
+                    String checksum = registrate.get(migrazione.versione());
+                    if (checksum != null) {
+                        if (!checksum.equals(migrazione.checksum())) {
+                            logger.log(Level.WARNING, "La migrazione {0} è stata modificata dopo essere stata applicata",
+                                    migrazione.nome());
+                        }
+                        continue;
+                    }
+                    if (migrazione.versione() < ultimaRegistrata) {
+                        logger.log(Level.WARNING, "Migrazione {0} applicata fuori ordine (ultima versione: {1})",
+                                new Object[]{migrazione.nome(), ultimaRegistrata});
+                    }
+                    applica(conn, migrazione);
+                    applicate.add(migrazione.versione());
+                }
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT pg_advisory_unlock(" + CHIAVE_LOCK + ")");
+                }
+            }
+        }
+
+        if (applicate.isEmpty()) {
+            logger.info("Schema del database aggiornato, nessuna migrazione da applicare");
+        }
+        return applicate;
+    }
+
+    private void applica(Connection conn, Migrazione migrazione) throws SQLException {
+        logger.log(Level.INFO, "Applicazione della migrazione {0}", migrazione.nome());
+        long inizio = System.nanoTime();
+        List<String> istruzioni = dividiIstruzioni(migrazione.script());
+
+        if (!migrazione.transazionale()) {
+            for (String istruzione : istruzioni) {
+                esegui(conn, migrazione, istruzione);
+            }
+            registra(conn, migrazione, (System.nanoTime() - inizio) / 1_000_000);
+            return;
+        }
+
+        conn.setAutoCommit(false);
+        try {
+            for (String istruzione : istruzioni) {
+                esegui(conn, migrazione, istruzione);
+            }
+            registra(conn, migrazione, (System.nanoTime() - inizio) / 1_000_000);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void esegui(Connection conn, Migrazione migrazione, String istruzione) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(istruzione);
+        } catch (SQLException e) {
+            throw new SQLException("Migrazione " + migrazione.nome() + " fallita: " + e.getMessage()
+                    + "\nIstruzione: " + istruzione, e.getSQLState(), e);
+        }
+    }
+
+    private static void registra(Connection conn, Migrazione migrazione, long durataMs) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_MIGRAZIONE)) {
+            pstmt.setInt(1, migrazione.versione());
+            pstmt.setString(2, migrazione.descrizione());
+            pstmt.setString(3, migrazione.checksum());
+            pstmt.setLong(4, durataMs);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void verificaVersioneServer(Connection conn) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        if (metaData.getDatabaseMajorVersion() < VERSIONE_MINIMA_POSTGRES) {
+            throw new SQLException("Le migrazioni richiedono PostgreSQL " + VERSIONE_MINIMA_POSTGRES
+                    + " o successivo, il server è alla versione " + metaData.getDatabaseProductVersion());
+        }
+    }
+
+    private static boolean esisteTabella(Connection conn, String tabella) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getTables(null, null, tabella, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static Map<Integer, String> leggiRegistrate(Connection conn) throws SQLException {
+        Map<Integer, String> registrate = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT versione, checksum FROM schema_migrazioni")) {
+            while (rs.next()) {
+                registrate.put(rs.getInt("versione"), rs.getString("checksum"));
+            }
+        }
+        return registrate;
+    }
+
+    private List<Migrazione> caricaMigrazioni() throws IOException {
+        URL url = MigrationRunner.class.getClassLoader().getResource(cartella);
+        if (url == null) {
+            throw new IOException("Cartella delle migrazioni non trovata nel classpath: " + cartella);
+        }
+
+        URI uri;
+        try {
+            uri = url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Percorso delle migrazioni non valido: " + url, e);
+        }
+
+        // dentro un jar la cartella si legge tramite il file system zip
+        if ("jar".equals(uri.getScheme())) {
+            FileSystem fs;
+            try {
+                fs = FileSystems.newFileSystem(uri, Map.of());
+            } catch (FileSystemAlreadyExistsException e) {
+                return leggiCartella(FileSystems.getFileSystem(uri).provider().getPath(uri));
+            }
+            try (fs) {
+                return leggiCartella(fs.provider().getPath(uri));
+            }
+        }
+        return leggiCartella(Path.of(uri));
+    }
+
+    private static List<Migrazione> leggiCartella(Path dir) throws IOException {
+        List<Migrazione> migrazioni = new ArrayList<>();
+        Map<Integer, String> versioni = new HashMap<>();
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String nome = file.getFileName().toString();
+                Matcher matcher = NOME_MIGRAZIONE.matcher(nome);
+                if (!matcher.matches()) {
+                    if (nome.endsWith(".sql")) {
+                        logger.log(Level.WARNING, "Script ignorato, nome non conforme a V<versione>__<descrizione>.sql: {0}", nome);
+                    }
+                    continue;
+                }
+
+                int versione = Integer.parseInt(matcher.group(1));
+                String precedente = versioni.put(versione, nome);
+                if (precedente != null) {
+                    throw new IOException("Versione " + versione + " duplicata: " + precedente + " e " + nome);
+                }
+
+                String script = Files.readString(file, StandardCharsets.UTF_8);
+                migrazioni.add(new Migrazione(versione, matcher.group(2).replace('_', ' '), nome, script,
+                        !script.stripLeading().startsWith(DIRETTIVA_SENZA_TRANSAZIONE), checksum(script)));
+            }
+        }
+
+        migrazioni.sort((a, b) -> Integer.compare(a.versione(), b.versione()));
+        return migrazioni;
+    }
+
+    private static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
+    }
+
+    /**
+     * Divide uno script SQL nelle singole istruzioni, separate da {@code ;}.
+     * <p>
+     * I punti e virgola dentro stringhe, identificatori tra doppi apici, commenti e
+     * blocchi delimitati da dollari (es. il corpo {@code $$ ... $$} di una funzione)
+     * non separano le istruzioni. Le istruzioni vuote o composte solo da commenti
+     * vengono scartate.
+     * </p>
+     *
+     * @param script testo dello script
+     * @return le istruzioni nell'ordine in cui compaiono
+     */
+    static List<String> dividiIstruzioni(String script) {
+        List<String> istruzioni = new ArrayList<>();
+        StringBuilder corrente = new StringBuilder();
+        boolean soloCommenti = true;
+        int i = 0;
+        int n = script.length();
+
+        while (i < n) {
+            char ch = script.charAt(i);
+            int fine;
+
+            if (ch == '-' && i + 1 < n && script.charAt(i + 1) == '-') {
+                fine = script.indexOf('\n', i);
+                fine = fine < 0 ? n : fine;
+                corrente.append(script, i, fine);
+                i = fine;
+                continue;
+            }
+            if (ch == '/' && i + 1 < n && script.charAt(i + 1) == '*') {
+                fine = script.indexOf("*/", i + 2);
+                fine = fine < 0 ? n : fine + 2;
+                corrente.append(script, i, fine);
+                i = fine;
+                continue;
+            }
+
+            if (ch == '\'' || ch == '"') {
+                // un apice raddoppiato chiude e riapre la stringa, quindi non serve trattarlo a parte
+                fine = script.indexOf(ch, i + 1);
+                fine = fine < 0 ? n : fine + 1;
+            } else if (ch == '$' && (fine = fineDollarQuote(script, i)) > 0) {
+                // fine già calcolata
+            } else if (ch == ';') {
+                if (!soloCommenti) {
+                    istruzioni.add(corrente.toString().strip());
+                }
+                corrente.setLength(0);
+                soloCommenti = true;
+                i++;
+                continue;
+            } else {
+                fine = i + 1;
+            }
+
+            if (!Character.isWhitespace(ch)) {
+                soloCommenti = false;
+            }
+            corrente.append(script, i, fine);
+            i = fine;
+        }
+
+        if (!soloCommenti) {
+            istruzioni.add(corrente.toString().strip());
+        }
+        return istruzioni;
+    }
+
+    /**
+     * Se in {@code inizio} comincia un blocco {@code $tag$ ... $tag$}, restituisce la posizione
+     * successiva alla sua chiusura; altrimenti {@code -1}.
+     */
+    private static int fineDollarQuote(String script, int inizio) {
+        int chiusuraTag = inizio + 1;
+        while (chiusuraTag < script.length()) {
+            char c = script.charAt(chiusuraTag);
+            if (c == '$') {
+                break;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return -1;
+            }
+            chiusuraTag++;
+        }
+        if (chiusuraTag >= script.length()) {
+            return -1;
+        }
+        // $1, $2 ... sono parametri, non delimitatori
+        if (chiusuraTag > inizio + 1 && Character.isDigit(script.charAt(inizio + 1))) {
+            return -1;
+        }
+
+        String tag = script.substring(inizio, chiusuraTag + 1);
+        int chiusura = script.indexOf(tag, chiusuraTag + 1);
+        return chiusura < 0 ? script.length() : chiusura + tag.length();
+    }
+
+    /**
+     * Script di migrazione letto dal classpath.
+     *
+     * @param versione      numero di versione
+     * @param descrizione   descrizione ricavata dal nome del file
+     * @param nome          nome del file
+     * @param script        contenuto dello script
+     * @param transazionale {@code false} se lo script va eseguito fuori da una transazione
+     * @param checksum      SHA-256 dello script
+     */
+    private record Migrazione(int versione, String descrizione, String nome, String script,
+                              boolean transazionale, String checksum) {
+    }
+}
@@ -0,0 +1,20 @@
+package db;
+
+/**
+ * Istantanea delle statistiche di un {@link ConnectionPool}.
+ *
+ * @param total              connessioni fisiche attualmente aperte
+ * @param active             connessioni in prestito
+ * @param idle               connessioni libere nel pool
+ * @param waiting            thread in attesa di una connessione
+ * @param created            connessioni fisiche aperte dall'avvio
+ * @param destroyed          connessioni fisiche chiuse dall'avvio
+ * @param borrowed           prestiti totali effettuati
+ * @param timeouts           richieste fallite per timeout di prestito
+ * @param validationFailures connessioni scartate perché non valide al prestito
+ * @param leaks              connessioni segnalate come possibili leak
+ */
+public record PoolStats(int total, int active, int idle, int waiting,
+                        long created, long destroyed, long borrowed,
+                        long timeouts, long validationFailures, long leaks) {
+}
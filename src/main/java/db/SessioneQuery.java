@@ -0,0 +1,247 @@
+package db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Conteggio degli statement SQL eseguiti dal thread corrente, per individuare gli accessi N+1.
+ * <p>
+ * Finché una sessione è aperta sul thread, gli statement creati dalle connessioni del
+ * {@link ConnectionPool} registrano ogni esecuzione nella sessione, raggruppata per
+ * <em>forma</em>: il testo SQL con letterali e liste {@code IN} ridotti a segnaposto.
+ * La stessa forma eseguita molte volte in una sola operazione è il segno tipico di un ciclo
+ * che chiama il database una volta per riga. Senza sessioni aperte le connessioni non
+ * vengono avvolte e il costo è nullo.
+ * </p>
+ * <p>
+ * Le sessioni si annidano: uno statement viene contato nella sessione corrente e in tutte
+ * quelle che la contengono. Alla chiusura, se la proprietà di sistema
+ * {@code hackathon.db.nPiuUno.soglia} è maggiore di zero, le forme eseguite più volte della
+ * soglia vengono segnalate nel log; con la soglia impostata anche ogni operazione del
+ * controller viene eseguita in una sessione (vedi {@code metriche.Metriche}).
+ * </p>
+ * <p>
+ * Uso in un test o in una verifica manuale:
+ * <pre>
+ * try (SessioneQuery sessione = SessioneQuery.apri("getValutazioniByTeam")) {
+ *     controller.getValutazioniByTeam(teamId);
+ *     sessione.assertStatementAlPiu(2).assertNessunaRipetizione(1);
+ * }
+ * </pre>
+ * </p>
+ */
+public final class SessioneQuery implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(SessioneQuery.class.getName());
+
+    private static final int SOGLIA = Integer.getInteger("hackathon.db.nPiuUno.soglia", 0);
+    private static final ThreadLocal<SessioneQuery> CORRENTE = new ThreadLocal<>();
+    private static final Set<String> ESECUZIONI = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Pattern STRINGHE = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERI = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTE = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPAZI = Pattern.compile("\\s+");
+
+    private final SessioneQuery contenitore;
+    private final Map<String, Integer> esecuzioni = new LinkedHashMap<>();
+    private String nome;
+    private int statement;
+    private boolean chiusa;
+
+    private SessioneQuery(String nome, SessioneQuery contenitore) {
+        this.nome = nome;
+        this.contenitore = contenitore;
+    }
+
+    /**
+     * Apre una sessione sul thread corrente. Va chiusa sullo stesso thread, di solito con
+     * {@code try-with-resources}.
+     *
+     * @param nome nome dell'operazione osservata, usato nei messaggi
+     * @return la sessione aperta
+     */
+    public static SessioneQuery apri(String nome) {
+        SessioneQuery sessione = new SessioneQuery(nome, CORRENTE.get());
+        CORRENTE.set(sessione);
+        return sessione;
+    }
+
+    /**
+     * @return {@code true} se le ripetizioni vanno segnalate nel log alla chiusura delle sessioni
+     */
+    public static boolean isRilevamentoAttivo() {
+        return SOGLIA > 0;
+    }
+
+    /**
+     * Riduce un testo SQL alla sua forma: letterali e liste {@code IN} diventano segnaposto,
+     * gli spazi vengono compattati.
+     *
+     * @param sql testo SQL
+     * @return la forma dello statement
+     */
+    public static String forma(String sql) {
+        String forma = STRINGHE.matcher(sql).replaceAll("?");
+        forma = NUMERI.matcher(forma).replaceAll("?");
+        forma = LISTE.matcher(forma).replaceAll("(?)");
+        return SPAZI.matcher(forma).replaceAll(" ").trim();
+    }
+
+    /**
+     * Cambia il nome della sessione, ad esempio quando l'operazione è identificata solo al termine.
+     *
+     * @param nome nuovo nome
+     */
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return numero totale di statement eseguiti nella sessione
+     */
+    public int getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return esecuzioni per forma, nell'ordine della prima esecuzione
+     */
+    public Map<String, Integer> getEsecuzioni() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(esecuzioni));
+    }
+
+    /**
+     * Restituisce le forme eseguite più volte della soglia.
+     *
+     * @param soglia numero di esecuzioni ammesse per forma
+     * @return esecuzioni per forma, solo per le forme oltre la soglia
+     */
+    public Map<String, Integer> formeRipetute(int soglia) {
+        return esecuzioni.entrySet().stream()
+                .filter(e -> e.getValue() > soglia)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, _) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * Verifica che la sessione abbia eseguito al più il numero indicato di statement.
+     *
+     * @param massimo statement ammessi
+     * @return questa sessione, per concatenare le verifiche
+     * @throws AssertionError se gli statement eseguiti sono di più
+     */
+    public SessioneQuery assertStatementAlPiu(int massimo) {
+        if (statement > massimo) {
+            throw new AssertionError(nome + ": " + statement + " statement eseguiti, attesi al più "
+                    + massimo + System.lineSeparator() + report());
+        }
+        return this;
+    }
+
+    /**
+     * Verifica che nessuna forma sia stata eseguita più volte della soglia.
+     *
+     * @param soglia esecuzioni ammesse per forma (1 per vietare qualsiasi ripetizione)
+     * @return questa sessione, per concatenare le verifiche
+     * @throws AssertionError se almeno una forma supera la soglia
+     */
+    public SessioneQuery assertNessunaRipetizione(int soglia) {
+        Map<String, Integer> ripetute = formeRipetute(soglia);
+        if (!ripetute.isEmpty()) {
+            throw new AssertionError(nome + ": possibile accesso N+1, forme eseguite più di "
+                    + soglia + " volte" + System.lineSeparator() + descrivi(ripetute));
+        }
+        return this;
+    }
+
+    /**
+     * @return descrizione delle esecuzioni della sessione, una riga per forma
+     */
+    public String report() {
+        return statement + " statement in " + nome + System.lineSeparator() + descrivi(esecuzioni);
+    }
+
+    /**
+     * Chiude la sessione e, se il rilevamento è attivo, segnala nel log le forme oltre la soglia.
+     */
+    @Override
+    public void close() {
+        if (chiusa) {
+            return;
+        }
+        chiusa = true;
+        if (CORRENTE.get() == this) {
+            if (contenitore != null) {
+                CORRENTE.set(contenitore);
+            } else {
+                CORRENTE.remove();
+            }
+        }
+        if (isRilevamentoAttivo()) {
+            Map<String, Integer> ripetute = formeRipetute(SOGLIA);
+            if (!ripetute.isEmpty()) {
+                logger.warning("Possibile accesso N+1 in " + nome + " (" + statement + " statement):"
+                        + System.lineSeparator() + descrivi(ripetute));
+            }
+        }
+    }
+
+    /**
+     * Avvolge uno statement appena creato in modo che ne registri le esecuzioni nella sessione
+     * corrente; se non c'è una sessione aperta lo restituisce invariato.
+     *
+     * @param statement    statement creato dalla connessione
+     * @param tipo         interfaccia restituita dal metodo che ha creato lo statement
+     * @param sqlPreparato testo SQL dello statement preparato, {@code null} per uno {@link Statement} semplice
+     * @return lo statement da consegnare al chiamante
+     */
+    static Object avvolgi(Object statement, Class<?> tipo, String sqlPreparato) {
+        SessioneQuery sessione = CORRENTE.get();
+        if (sessione == null || !(statement instanceof Statement) || !tipo.isInterface()) {
+            return statement;
+        }
+        return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{tipo},
+                (_, method, args) -> {
+                    if (ESECUZIONI.contains(method.getName())) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String testo
+                                ? testo : sqlPreparato;
+                        if (sql != null) {
+                            sessione.registra(forma(sql));
+                        }
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void registra(String forma) {
+        for (SessioneQuery s = this; s != null; s = s.contenitore) {
+            if (!s.chiusa) {
+                s.statement++;
+                s.esecuzioni.merge(forma, 1, Integer::sum);
+            }
+        }
+    }
+
+    private static String descrivi(Map<String, Integer> esecuzioni) {
+        List<String> righe = esecuzioni.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(e -> String.format(Locale.ROOT, "%6d x %s", e.getValue(), e.getKey()))
+                .toList();
+        return String.join(System.lineSeparator(), righe);
+    }
+}
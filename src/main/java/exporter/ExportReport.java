@@ -0,0 +1,46 @@
+package exporter;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Esito dell'esportazione dei risultati di un hackathon.
+ *
+ * @param classifica      righe della classifica esportate
+ * @param valutazioni     valutazioni esportate
+ * @param commenti        commenti esportati
+ * @param aggiornamenti   aggiornamenti esportati
+ * @param byteScritti     dimensione del file prodotto
+ * @param durataMillis    durata complessiva dell'esportazione
+ */
+public record ExportReport(long classifica, long valutazioni, long commenti, long aggiornamenti,
+                           long byteScritti, long durataMillis) {
+
+    /**
+     * @return numero complessivo di righe esportate
+     */
+    public long righe() {
+        return classifica + valutazioni + commenti + aggiornamenti;
+    }
+
+    /**
+     * @return righe esportate al secondo sull'intera durata
+     */
+    public double righePerSecondo() {
+        return durataMillis == 0 ? righe() : righe() * 1000.0 / durataMillis;
+    }
+
+    /**
+     * Restituisce il riepilogo come righe di testo, nel formato usato dai pannelli per mostrare i risultati.
+     *
+     * @return righe del report
+     */
+    public List<String> toLines() {
+        return List.of(
+                "Esportazione completata: " + righe() + " righe (" + classifica + " in classifica, "
+                        + valutazioni + " valutazioni, " + commenti + " commenti, "
+                        + aggiornamenti + " aggiornamenti).",
+                String.format(Locale.ROOT, "Durata: %d ms (%.1f righe/s) - %d KB scritti",
+                        durataMillis, righePerSecondo(), byteScritti / 1024));
+    }
+}
@@ -0,0 +1,26 @@
+package exporter;
+
+/**
+ * Formato del file prodotto da {@link RisultatiExporter}.
+ */
+public enum FormatoExport {
+
+    /** Valori separati da virgola, con intestazione e una colonna {@code tipo} per ogni riga. */
+    CSV("csv"),
+
+    /** JSON Lines: un oggetto JSON per riga, con i soli campi valorizzati. */
+    JSONL("jsonl");
+
+    private final String estensione;
+
+    FormatoExport(String estensione) {
+        this.estensione = estensione;
+    }
+
+    /**
+     * @return estensione consigliata per il file, senza punto
+     */
+    public String estensione() {
+        return estensione;
+    }
+}
@@ -0,0 +1,360 @@
+package exporter;
+
+import db.DatabaseConnectionSingleton;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Esportazione dei risultati di un hackathon (classifica, valutazioni, commenti e aggiornamenti)
+ * in un unico file CSV o JSON Lines.
+ * <p>
+ * Le righe non vengono mai raccolte in memoria: ogni sezione è letta con un cursore lato server
+ * (autocommit disattivato e {@link PreparedStatement#setFetchSize(int) fetch size} positivo, le
+ * condizioni con cui il driver PostgreSQL legge il risultato a blocchi) e scritta subito su un
+ * {@link FileChannel} attraverso un buffer. La memoria usata resta quindi costante anche per gli
+ * eventi con centinaia di migliaia di commenti e aggiornamenti.
+ * </p>
+ * <p>
+ * Tutte le sezioni sono lette nella stessa transazione {@code REPEATABLE READ}, quindi il file
+ * descrive un'unica istantanea dei dati. Il file viene scritto accanto alla destinazione con un
+ * nome temporaneo e rinominato solo a esportazione completata: un'esportazione fallita o annullata
+ * (interruzione del thread) non lascia file parziali.
+ * </p>
+ * <p>
+ * Ogni riga ha un campo {@code tipo} ({@code classifica}, {@code valutazione}, {@code commento},
+ * {@code aggiornamento}) e le colonne di {@link #COLONNE} che la riguardano; nel CSV le altre
+ * colonne restano vuote, nel JSON Lines vengono omesse.
+ * </p>
+ */
+public class RisultatiExporter {
+
+    /** Righe lette dal database per ogni round trip del cursore. */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /** Colonne esportate dopo {@code tipo}, nell'ordine dell'intestazione CSV. */
+    public static final List<String> COLONNE = List.of(
+            "team_id", "team", "posizione", "punteggio_medio", "numero_valutazioni",
+            "giudice_id", "giudice", "punteggio", "documento_id", "documento", "testo");
+
+    private static final int DIMENSIONE_BUFFER = 64 * 1024;
+
+    /*
+     * Gli alias delle colonne selezionate coincidono con i nomi in COLONNE:
+     * è così che ogni valore finisce nella colonna giusta del file.
+     */
+
+    private static final String SELECT_CLASSIFICA = """
+            SELECT row_number() OVER (ORDER BY c.punteggio_medio DESC, c.team_id) AS posizione,
+                   c.team_id, t.nome AS team, c.punteggio_medio, c.numero_valutazioni
+            FROM classifica_team c
+            JOIN team t ON t.id = c.team_id
+            WHERE c.hackathon_id = ? AND c.numero_valutazioni > 0
+            ORDER BY posizione
+            """;
+
+    private static final String SELECT_VALUTAZIONI = """
+            SELECT v.team_id, t.nome AS team, v.giudice_id,
+                   NULLIF(concat_ws(' ', g.nome, g.cognome), '') AS giudice,
+                   v.punteggio, v.feedback AS testo
+            FROM valutazione v
+            JOIN team t ON t.id = v.team_id
+            LEFT JOIN utente g ON g.id = v.giudice_id
+            WHERE t.hackathon_id = ?
+            ORDER BY v.id
+            """;
+
+    private static final String SELECT_COMMENTI = """
+            SELECT d.team_id, t.nome AS team, c.giudice_id,
+                   NULLIF(concat_ws(' ', g.nome, g.cognome), '') AS giudice,
+                   c.documento_id, d.titolo AS documento, c.testo
+            FROM commento c
+            JOIN documento d ON d.id = c.documento_id
+            JOIN team t ON t.id = d.team_id
+            LEFT JOIN utente g ON g.id = c.giudice_id
+            WHERE t.hackathon_id = ?
+            ORDER BY c.id
+            """;
+
+    private static final String SELECT_AGGIORNAMENTI = """
+            SELECT a.team_id, t.nome AS team, a.documento_id, d.titolo AS documento, a.contenuto AS testo
+            FROM aggiornamento a
+            JOIN team t ON t.id = a.team_id
+            LEFT JOIN documento d ON d.id = a.documento_id
+            WHERE t.hackathon_id = ?
+            ORDER BY a.id
+            """;
+
+    private final int fetchSize;
+
+    /**
+     * Crea un esportatore che legge {@value #DEFAULT_FETCH_SIZE} righe per round trip.
+     */
+    public RisultatiExporter() {
+        this(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Crea un esportatore con la dimensione di fetch indicata.
+     *
+     * @param fetchSize righe lette dal database per ogni round trip del cursore
+     */
+    public RisultatiExporter(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("La dimensione di fetch deve essere positiva.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Esporta i risultati di un hackathon nel file indicato, sostituendolo se esiste.
+     *
+     * @param hackathonId ID dell'hackathon
+     * @param file        file di destinazione
+     * @param formato     formato del file
+     * @param avanzamento riceve il numero di righe scritte finora, ogni {@code fetchSize} righe e
+     *                    alla fine di ogni sezione; è chiamato dal thread che esegue l'esportazione
+     * @return il report dell'esportazione
+     * @throws InterruptedIOException se il thread viene interrotto durante l'esportazione
+     * @throws IOException            se il file non può essere scritto
+     * @throws SQLException           se una sezione non può essere letta
+     */
+    public ExportReport esporta(int hackathonId, Path file, FormatoExport formato, LongConsumer avanzamento)
+            throws IOException, SQLException {
+        long inizio = System.nanoTime();
+        Path cartella = file.toAbsolutePath().getParent();
+        Path temporaneo = Files.createTempFile(cartella, file.getFileName().toString(), ".tmp");
+        boolean completato = false;
+
+        try {
+            long[] conteggi;
+            long byteScritti;
+            try (FileChannel channel = FileChannel.open(temporaneo,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8),
+                         DIMENSIONE_BUFFER)) {
+                Scrittore scrittore = formato == FormatoExport.CSV ? new ScrittoreCsv(out) : new ScrittoreJsonl(out);
+                conteggi = leggiSezioni(hackathonId, scrittore, new Avanzamento(avanzamento));
+                out.flush();
+                byteScritti = channel.size();
+            }
+
+            try {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaneo, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            completato = true;
+
+            long durataMillis = (System.nanoTime() - inizio) / 1_000_000;
+            return new ExportReport(conteggi[0], conteggi[1], conteggi[2], conteggi[3], byteScritti, durataMillis);
+        } finally {
+            if (!completato) {
+                Files.deleteIfExists(temporaneo);
+            }
+        }
+    }
+
+    private long[] leggiSezioni(int hackathonId, Scrittore scrittore, Avanzamento avanzamento)
+            throws SQLException, IOException {
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            // senza autocommit il driver apre un cursore e legge fetchSize righe alla volta
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+            }
+
+            long[] conteggi = {
+                    leggiSezione(conn, "classifica", SELECT_CLASSIFICA, hackathonId, scrittore, avanzamento),
+                    leggiSezione(conn, "valutazione", SELECT_VALUTAZIONI, hackathonId, scrittore, avanzamento),
+                    leggiSezione(conn, "commento", SELECT_COMMENTI, hackathonId, scrittore, avanzamento),
+                    leggiSezione(conn, "aggiornamento", SELECT_AGGIORNAMENTI, hackathonId, scrittore, avanzamento)
+            };
+            conn.commit();
+            return conteggi;
+        }
+    }
+
+    private long leggiSezione(Connection conn, String tipo, String sql, int hackathonId,
+                              Scrittore scrittore, Avanzamento avanzamento) throws SQLException, IOException {
+        long righe = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(fetchSize);
+            pstmt.setInt(1, hackathonId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int[] posizioni = posizioni(rs.getMetaData());
+                Object[] valori = new Object[COLONNE.size()];
+                while (rs.next()) {
+                    for (int i = 0; i < posizioni.length; i++) {
+                        valori[posizioni[i]] = rs.getObject(i + 1);
+                    }
+                    scrittore.scrivi(tipo, valori);
+                    righe++;
+                    if (righe % fetchSize == 0) {
+                        avanzamento.righe(fetchSize);
+                    }
+                }
+            }
+        }
+        avanzamento.righe(righe % fetchSize);
+        return righe;
+    }
+
+    /**
+     * Posizione in {@link #COLONNE} di ogni colonna del risultato, ricavata dal suo alias.
+     */
+    private static int[] posizioni(ResultSetMetaData meta) throws SQLException {
+        int[] posizioni = new int[meta.getColumnCount()];
+        for (int i = 0; i < posizioni.length; i++) {
+            posizioni[i] = COLONNE.indexOf(meta.getColumnLabel(i + 1));
+            if (posizioni[i] < 0) {
+                throw new IllegalStateException("Colonna non esportabile: " + meta.getColumnLabel(i + 1));
+            }
+        }
+        return posizioni;
+    }
+
+    /**
+     * Conta le righe scritte, notifica la callback e interrompe l'esportazione se il thread è stato interrotto.
+     */
+    private static final class Avanzamento {
+
+        private final LongConsumer callback;
+        private long scritte;
+
+        Avanzamento(LongConsumer callback) {
+            this.callback = callback;
+        }
+
+        void righe(long nuove) throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Esportazione annullata.");
+            }
+            scritte += nuove;
+            callback.accept(scritte);
+        }
+    }
+
+    private interface Scrittore {
+
+        void scrivi(String tipo, Object[] valori) throws IOException;
+    }
+
+    private static final class ScrittoreCsv implements Scrittore {
+
+        private final Writer out;
+
+        ScrittoreCsv(Writer out) throws IOException {
+            this.out = out;
+            out.write("tipo");
+            for (String colonna : COLONNE) {
+                out.write(',');
+                out.write(colonna);
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void scrivi(String tipo, Object[] valori) throws IOException {
+            out.write(tipo);
+            for (Object valore : valori) {
+                out.write(',');
+                if (valore instanceof String testo) {
+                    scriviTesto(testo);
+                } else if (valore != null) {
+                    out.write(numero(valore));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void scriviTesto(String testo) throws IOException {
+            boolean virgolette = testo.indexOf(',') >= 0 || testo.indexOf('"') >= 0
+                    || testo.indexOf('\n') >= 0 || testo.indexOf('\r') >= 0;
+            if (!virgolette) {
+                out.write(testo);
+                return;
+            }
+            out.write('"');
+            out.write(testo.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+
+    private static final class ScrittoreJsonl implements Scrittore {
+
+        private final Writer out;
+
+        ScrittoreJsonl(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void scrivi(String tipo, Object[] valori) throws IOException {
+            out.write("{\"tipo\":");
+            scriviTesto(tipo);
+            for (int i = 0; i < valori.length; i++) {
+                Object valore = valori[i];
+                if (valore == null) {
+                    continue;
+                }
+                out.write(",\"");
+                out.write(COLONNE.get(i));
+                out.write("\":");
+                if (valore instanceof String testo) {
+                    scriviTesto(testo);
+                } else {
+                    out.write(numero(valore));
+                }
+            }
+            out.write("}\n");
+        }
+
+        private void scriviTesto(String testo) throws IOException {
+            out.write('"');
+            for (int i = 0; i < testo.length(); i++) {
+                char c = testo.charAt(i);
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                    }
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    private static String numero(Object valore) {
+        return valore instanceof BigDecimal decimale ? decimale.toPlainString() : valore.toString();
+    }
+}
@@ -1,8 +1,12 @@
 package gui;
 
+import controller.AsyncController;
 import controller.Controller;
+import model.SessioneUtente;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
 
 /**
  * Pannello Swing per la gestione degli aggiornamenti legati ai documenti di un team.
@@ -14,11 +18,13 @@ import java.awt.*;
  *   <li>Eliminare un aggiornamento esistente, se appartenente al proprio team</li>
  * </ul>
  *
- * <p>La classe si appoggia al {@link Controller} per la logica applicativa e per l’accesso ai dati.</p>
+ * <p>La classe si appoggia al {@link Controller}, tramite {@link AsyncController}, per la logica
+ * applicativa e per l’accesso ai dati; le chiamate sono eseguite in background.</p>
  */
 public class AggiornamentoPanel extends JPanel {  // Cambiato da JFrame a JPanel
-    private final Controller controller;
-    private final int loggedUserId;       // id utente loggato
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
 
@@ -31,12 +37,12 @@ public class AggiornamentoPanel extends JPanel {  // Cambiato da JFrame a JPanel
     /**
      * Crea e inizializza il pannello per la gestione degli aggiornamenti.
      *
-     * @param controller riferimento al controller per interagire con il backend
-     * @param loggedUserId ID dell’utente attualmente loggato
+     * @param controller riferimento al controller asincrono per interagire con il backend
+     * @param sessione   sessione dell’utente attualmente loggato
      */
-    public AggiornamentoPanel(Controller controller, int loggedUserId) {
+    public AggiornamentoPanel(AsyncController controller, SessioneCorrente sessione) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
+        this.sessione = sessione;
 
 
 
@@ -109,113 +115,121 @@ public class AggiornamentoPanel extends JPanel {  // Cambiato da JFrame a JPanel
 
         buttonPanel.add(btnDelete);
 
+        busyIndicator = new BusyIndicator(btnSave, btnDelete);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
 
         add(inputPanel, BorderLayout.CENTER);   // i campi al centro
-        add(buttonPanel, BorderLayout.SOUTH);   // bottoni in basso
+        add(southPanel, BorderLayout.SOUTH);    // bottoni in basso
         add(risultatiScroll, BorderLayout.EAST);
 
+        sessione.addListener(_ -> loadDocumentiForTeam());
         loadDocumentiForTeam();
     }
 
+    /**
+     * Ricarica in background l'elenco dei documenti del team dell'utente loggato.
+     */
     public void loadDocumentiForTeam() {
-        cbDocumento.removeAllItems();
-        try {
-            int teamId = controller.getTeamIdByUser(loggedUserId);
-            if (teamId == -1) {
-                cbDocumento.addItem("Nessun team trovato");
-                return;
-            }
-
-            var docs = controller.getDocumentoByTeamId(teamId, null);
-            if (docs.isEmpty()) {
-                cbDocumento.addItem("Nessun documento trovato");
-            } else {
-                for (String d : docs) {
-                    cbDocumento.addItem(d); // formato "id - titolo"
-                }
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Errore nel caricamento documenti: " + e.getMessage());
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.hasTeam()) {
+            cbDocumento.removeAllItems();
+            cbDocumento.addItem("Nessun team trovato");
+            return;
         }
+
+        busyIndicator.track("Caricamento documenti",
+                controller.call(c -> {
+                    var docs = c.getDocumentoByTeamId(corrente.teamId(), null);
+                    return docs.isEmpty() ? List.of("Nessun documento trovato") : docs;
+                }),
+                docs -> {
+                    cbDocumento.removeAllItems();
+                    for (String d : docs) {
+                        cbDocumento.addItem(d); // formato "id - titolo"
+                    }
+                });
     }
 
 
 
     private void saveAggiornamento() {
-        try {
-
-            String userType = controller.getUserType(loggedUserId);
-            if (userType == null || !userType.equalsIgnoreCase("concorrente")) {
-                JOptionPane.showMessageDialog(this,
-                        "Solo gli utenti concorrenti possono aggiungere aggiornamenti.");
-                return;
-            }
-
-            //int documentoId = Integer.parseInt(tfDocumentoId.getText());
-            String selected = (String) cbDocumento.getSelectedItem();
-            if (selected == null || !selected.contains(" - ")) {
-                JOptionPane.showMessageDialog(this, "Seleziona un documento valido.");
-                return;
-            }
-            int documentoId = Integer.parseInt(selected.split(" - ")[0].trim());
-            String contenuto = taContenuto.getText();
-
-
-            int teamId = controller.getTeamIdByUser(loggedUserId);
-
-            String result = controller.saveAggiornamento(teamId, documentoId, contenuto);
-            showResults(result);
-            clearFields();
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.isTipo("concorrente")) {
+            JOptionPane.showMessageDialog(this,
+                    "Solo gli utenti concorrenti possono aggiungere aggiornamenti.");
+            return;
+        }
 
-        }  catch (Exception ex) {
+        //int documentoId = Integer.parseInt(tfDocumentoId.getText());
+        String selected = (String) cbDocumento.getSelectedItem();
+        if (selected == null || !selected.contains(" - ")) {
+            JOptionPane.showMessageDialog(this, "Seleziona un documento valido.");
+            return;
+        }
+        int documentoId;
+        try {
+            documentoId = Integer.parseInt(selected.split(" - ")[0].trim());
+        } catch (NumberFormatException ex) {
             showResults(" Errore durante il salvataggio: " + ex.getMessage());
+            return;
         }
+        String contenuto = taContenuto.getText();
+        int teamId = corrente.hasTeam() ? corrente.teamId() : -1;
+
+        busyIndicator.trackScrittura("Salvataggio aggiornamento",
+                controller.callScrittura(c -> c.saveAggiornamento(teamId, documentoId, contenuto)),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
 
     private void deleteAggiornamento() {
+        int aggiornamentoId;
         try {
-            int aggiornamentoId = Integer.parseInt(tfAggiornamentoId.getText());
-
-
-            String userType = controller.getUserType(loggedUserId);
-            if (userType == null || !userType.equalsIgnoreCase("concorrente")) {
-                JOptionPane.showMessageDialog(this,
-                        "Solo un concorrente può eliminare aggiornamenti.");
-                return;
-            }
-
-            String selected = (String) cbDocumento.getSelectedItem();
-            if (selected == null || !selected.contains(" - ")) {
-                JOptionPane.showMessageDialog(this, "Seleziona un documento valido.");
-                return;
-            }
-
-
-
-            int documentoId = controller.getDocumentoIdByAggiornamento(aggiornamentoId);
+            aggiornamentoId = Integer.parseInt(tfAggiornamentoId.getText());
+        } catch (NumberFormatException ex) {
+            showResults("Errore durante l'eliminazione: " + ex.getMessage());
+            return;
+        }
 
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.isTipo("concorrente")) {
+            JOptionPane.showMessageDialog(this,
+                    "Solo un concorrente può eliminare aggiornamenti.");
+            return;
+        }
 
-            int teamIdDocumento = controller.getTeamIdByDocumento(documentoId);
+        String selected = (String) cbDocumento.getSelectedItem();
+        if (selected == null || !selected.contains(" - ")) {
+            JOptionPane.showMessageDialog(this, "Seleziona un documento valido.");
+            return;
+        }
 
+        busyIndicator.trackScrittura("Eliminazione aggiornamento",
+                controller.callScrittura(c -> {
+                    int documentoId = c.getDocumentoIdByAggiornamento(aggiornamentoId);
 
-            int teamIdUtente = controller.getTeamIdByUser(loggedUserId);
 
-            if (teamIdDocumento != teamIdUtente) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi eliminare un aggiornamento di un documento che non appartiene al tuo team.");
-                return;
-            }
+                    int teamIdDocumento = c.getTeamIdByDocumento(documentoId);
 
+                    if (!corrente.hasTeam() || teamIdDocumento != corrente.teamId()) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi eliminare un aggiornamento di un documento che non appartiene al tuo team.");
+                    }
 
-            String result = controller.deleteAggiornamento(aggiornamentoId);
-            showResults(result);
-            clearFields();
 
-        }  catch (Exception ex) {
-            showResults("Errore durante l'eliminazione: " + ex.getMessage());
-        }
+                    return c.deleteAggiornamento(aggiornamentoId);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
@@ -0,0 +1,168 @@
+package gui;
+
+import model.exceptions.OperazioneRifiutataException;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Indicatore di avanzamento per le operazioni asincrone di un pannello.
+ * <p>
+ * Mostra una barra indeterminata e una descrizione finché almeno un'operazione
+ * è in corso, e offre un pulsante "Annulla" che annulla le letture tracciate con
+ * {@link #track}. Le scritture tracciate con {@link #trackScrittura} non si possono
+ * annullare: l'indicatore ne attende la fine e ne mostra sempre l'esito reale. Durante
+ * l'esecuzione i controlli indicati nel costruttore vengono disabilitati, per evitare
+ * invii multipli della stessa azione.
+ * </p>
+ * <p>
+ * Le callback di successo vengono sempre eseguite sull'Event Dispatch Thread.
+ * Se l'operazione fallisce con una {@link OperazioneRifiutataException} il suo messaggio
+ * viene mostrato così com'è (è il modo con cui i pannelli segnalano un controllo
+ * non superato); per le altre eccezioni viene mostrato un messaggio di errore generico.
+ * </p>
+ */
+public class BusyIndicator extends JPanel {
+
+    private static final Logger logger = Logger.getLogger(BusyIndicator.class.getName());
+
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel lblStato = new JLabel(" ");
+    private final JButton btnAnnulla = new JButton("Annulla");
+    private final Set<CompletableFuture<?>> inCorso = new LinkedHashSet<>();
+    private final Set<CompletableFuture<?>> annullabili = new LinkedHashSet<>();
+    private final List<JComponent> controlli;
+
+    /**
+     * Crea l'indicatore.
+     *
+     * @param controlli componenti da disabilitare mentre un'operazione è in corso
+     */
+    public BusyIndicator(JComponent... controlli) {
+        this.controlli = List.of(controlli);
+
+        setLayout(new FlowLayout(FlowLayout.LEFT, 8, 2));
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new Dimension(120, 14));
+        add(progressBar);
+        add(lblStato);
+        add(btnAnnulla);
+
+        btnAnnulla.addActionListener(_ -> cancelAll());
+        aggiornaStato(" ");
+    }
+
+    /**
+     * Traccia un'operazione asincrona di sola lettura, che il pulsante "Annulla" può annullare.
+     *
+     * @param descrizione descrizione mostrata durante l'esecuzione
+     * @param future      future dell'operazione
+     * @param onSuccess   azione da eseguire sull'EDT con il risultato
+     * @param <T>         tipo del risultato
+     */
+    public <T> void track(String descrizione, CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        annullabili.add(future);
+        traccia(descrizione, future, onSuccess);
+    }
+
+    /**
+     * Traccia un'operazione asincrona che scrive nel database, da avviare con
+     * {@link controller.AsyncController#callScrittura}. Non viene annullata dal pulsante
+     * "Annulla": il suo esito viene mostrato anche se nel frattempo sono state annullate
+     * altre operazioni.
+     *
+     * @param descrizione descrizione mostrata durante l'esecuzione
+     * @param future      future dell'operazione
+     * @param onSuccess   azione da eseguire sull'EDT con il risultato
+     * @param <T>         tipo del risultato
+     */
+    public <T> void trackScrittura(String descrizione, CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        traccia(descrizione, future, onSuccess);
+    }
+
+    private <T> void traccia(String descrizione, CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        inCorso.add(future);
+        aggiornaStato(descrizione + "...");
+
+        future.whenComplete((risultato, errore) -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                completa(future, risultato, errore, onSuccess);
+            } else {
+                SwingUtilities.invokeLater(() -> completa(future, risultato, errore, onSuccess));
+            }
+        });
+    }
+
+    /**
+     * Aggiorna la descrizione mostrata mentre un'operazione è in corso, ad esempio con il suo avanzamento.
+     * Può essere chiamato da qualsiasi thread; viene ignorato se non ci sono operazioni in corso.
+     *
+     * @param descrizione nuova descrizione
+     */
+    public void aggiornaDescrizione(String descrizione) {
+        SwingUtilities.invokeLater(() -> {
+            if (!inCorso.isEmpty()) {
+                aggiornaStato(descrizione);
+            }
+        });
+    }
+
+    /**
+     * Annulla le letture in corso tracciate da questo indicatore; le scritture proseguono.
+     */
+    public void cancelAll() {
+        for (CompletableFuture<?> future : List.copyOf(annullabili)) {
+            future.cancel(true);
+        }
+    }
+
+    private <T> void completa(CompletableFuture<T> future, T risultato, Throwable errore,
+                              Consumer<? super T> onSuccess) {
+        inCorso.remove(future);
+        annullabili.remove(future);
+
+        if (future.isCancelled() || errore instanceof CancellationException) {
+            aggiornaStato("Operazione annullata.");
+            return;
+        }
+        aggiornaStato(" ");
+
+        if (errore != null) {
+            Throwable causa = errore instanceof CompletionException && errore.getCause() != null
+                    ? errore.getCause() : errore;
+            String messaggio = causa instanceof OperazioneRifiutataException
+                    ? causa.getMessage()
+                    : "Errore: " + causa.getMessage();
+            JOptionPane.showMessageDialog(this, messaggio);
+            return;
+        }
+
+        try {
+            onSuccess.accept(risultato);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Errore durante l'aggiornamento dell'interfaccia", e);
+            JOptionPane.showMessageDialog(this, "Errore: " + e.getMessage());
+        }
+    }
+
+    private void aggiornaStato(String testo) {
+        boolean occupato = !inCorso.isEmpty();
+        progressBar.setVisible(occupato);
+        btnAnnulla.setVisible(!annullabili.isEmpty());
+        lblStato.setText(occupato ? testo : (testo.isBlank() ? " " : testo));
+        for (JComponent controllo : controlli) {
+            controllo.setEnabled(!occupato);
+        }
+        revalidate();
+        repaint();
+    }
+}
@@ -1,6 +1,9 @@
 package gui;
 
+import controller.AsyncController;
+import model.SessioneUtente;
 import controller.Controller;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
 
@@ -13,32 +16,30 @@ import java.awt.*;
  *   <li>Visualizzare i commenti associati a un documento</li>
  * </ul>
  *
- * <p>Il pannello si interfaccia con il {@link Controller} per tutte
- * le operazioni di business e di accesso ai dati.</p>
+ * <p>Il pannello si interfaccia con il {@link Controller}, tramite {@link AsyncController}, per tutte
+ * le operazioni di business e di accesso ai dati, che vengono eseguite in background.</p>
  */
 public class CommentoPanel extends JPanel {
-    private final Controller controller;
-    private final int loggedUserId;
-    private final String loggedUserTipo;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
     private final JTextField tfDocumentoId;
 
     private final JTextArea taTesto;
-    private final JTextArea taRisultati;
+    private final PagedListModel risultati;
 
 
     /**
      * Crea e inizializza il pannello per la gestione dei commenti.
      *
-     * @param controller     il controller che gestisce la logica applicativa
-     * @param loggedUserId   l'ID dell’utente loggato
-     * @param loggedUserTipo il tipo di utente loggato (es. "giudice", "concorrente", ecc.)
+     * @param controller     il controller asincrono che gestisce la logica applicativa
+     * @param sessione      sessione dell’utente loggato (tipo atteso: {@code giudice})
      */
-    public CommentoPanel(Controller controller, int loggedUserId, String loggedUserTipo) {
+    public CommentoPanel(AsyncController controller, SessioneCorrente sessione) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
-        this.loggedUserTipo = loggedUserTipo;
+        this.sessione = sessione;
 
 
         setLayout(new BorderLayout(10, 10));
@@ -82,13 +83,6 @@ public class CommentoPanel extends JPanel {
         add(inputPanel, BorderLayout.CENTER);
 
 
-        taRisultati = new JTextArea(10, 30);
-        taRisultati.setEditable(false);
-        JScrollPane resultScroll = new JScrollPane(taRisultati);
-        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
-        add(resultScroll, BorderLayout.EAST);
-
-
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
         JButton btnSave = new JButton("Aggiungi Commento");
 
@@ -108,55 +102,70 @@ public class CommentoPanel extends JPanel {
         buttonPanel.add(btnShow);
 
 
-        add(buttonPanel, BorderLayout.SOUTH);
-    }
-
-
-
-    private void saveCommento() {
-        try {
-            if (!"giudice".equalsIgnoreCase(loggedUserTipo)) {
-                showResults(" Solo i giudici possono aggiungere commenti.");
-                return;
-            }
+        busyIndicator = new BusyIndicator(btnSave, btnShow);
 
-            int documentoId = Integer.parseInt(tfDocumentoId.getText());
+        risultati = new PagedListModel(busyIndicator);
+        JList<String> lstRisultati = new JList<>(risultati);
+        lstRisultati.setVisibleRowCount(10);
+        lstRisultati.setPrototypeCellValue("X".repeat(30));
+        JScrollPane resultScroll = new JScrollPane(lstRisultati);
+        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
+        risultati.installa(resultScroll);
+        add(resultScroll, BorderLayout.EAST);
 
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+    }
 
-            int documentoHackathonId = controller.getHackathonIdByDocumento(documentoId);
-            int giudiceHackathonId = controller.getHackathonIdByUser(loggedUserId);
 
-            if (documentoHackathonId != giudiceHackathonId) {
-                showResults(" Non puoi commentare documenti di un altro hackathon.");
-                return;
-            }
 
-            String testo = taTesto.getText();
-            String result = controller.saveCommento(documentoId, loggedUserId, testo);
-            showResults(result);
-            clearFields();
+    private void saveCommento() {
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.isTipo("giudice")) {
+            showResults(" Solo i giudici possono aggiungere commenti.");
+            return;
+        }
 
+        int documentoId;
+        try {
+            documentoId = Integer.parseInt(tfDocumentoId.getText());
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            showResults("Errore: " + ex.getMessage());
+            return;
         }
+        String testo = taTesto.getText();
+
+        busyIndicator.trackScrittura("Salvataggio commento",
+                controller.callScrittura(c -> {
+                    int documentoHackathonId = c.getHackathonIdByDocumento(documentoId);
+
+                    if (!corrente.hasHackathon() || documentoHackathonId != corrente.hackathonId()) {
+                        throw new OperazioneRifiutataException(" Non puoi commentare documenti di un altro hackathon.");
+                    }
+
+                    return c.saveCommento(documentoId, corrente.userId(), testo);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
 
     private void showCommentiByDocumentoId() {
+        int documentoId;
         try {
-            int documentoId = Integer.parseInt(tfDocumentoId.getText());
-            taRisultati.setText(""); // pulizia area risultati
-
-            for (String commento : controller.getCommentiByDocumentoId(documentoId)) {
-                showResults(commento);
-            }
-
+            documentoId = Integer.parseInt(tfDocumentoId.getText());
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+            return;
         }
+
+        risultati.carica("Caricamento commenti", cursore -> controller.call(
+                c -> c.getCommentiByDocumentoIdPage(documentoId, cursore, PagedListModel.DIMENSIONE_PAGINA)));
     }
 
 
@@ -172,6 +181,6 @@ public class CommentoPanel extends JPanel {
      * @param message testo da aggiungere all’area dei risultati
      */
     public void showResults(String message) {
-        taRisultati.append(message + "\n");
+        risultati.aggiungi(message);
     }
 }
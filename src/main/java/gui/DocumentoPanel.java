@@ -1,11 +1,14 @@
 package gui;
 
 
+import controller.AsyncController;
 import controller.Controller;
+import model.SessioneUtente;
 import javax.swing.*;
 import java.awt.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Pannello Swing per la gestione dei documenti caricati dai team.
@@ -13,17 +16,18 @@ import java.time.LocalDate;
  * <p>Questa GUI permette agli utenti (membri di un team) di:
  * <ul>
  *   <li>Aggiungere un nuovo documento al proprio team</li>
- *   <li>Visualizzare i documenti associati al proprio team</li>
+ *   <li>Visualizzare i documenti associati al proprio team, caricati una pagina alla volta</li>
  *   <li>Selezionare un documento specifico per la consultazione</li>
  * </ul>
  *
- * <p>Il pannello comunica con il {@link Controller} per tutte le
- * operazioni di salvataggio e recupero dati.</p>
+ * <p>Il pannello comunica con il {@link Controller}, tramite {@link AsyncController}, per tutte le
+ * operazioni di salvataggio e recupero dati, che vengono eseguite in background.</p>
  */
 public class DocumentoPanel extends JPanel {
     private final Runnable onDocumentSaved;
-    private final Controller controller;
-    private final int loggedUserId;       // id utente loggato
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
 
@@ -34,20 +38,23 @@ public class DocumentoPanel extends JPanel {
     private final JTextField tfDimensione;
     private final JTextField tfTipo;
 
+    /** Voce della combo che mostra tutti i documenti del team, caricati una pagina alla volta. */
+    private static final String TUTTI_I_DOCUMENTI = "Tutti i documenti";
+
     private final JComboBox<String> cbDocumento;
 
-    private final JTextArea taRisultati;
+    private final PagedListModel risultati;
 
     /**
      * Crea e inizializza il pannello per la gestione dei documenti.
      *
-     * @param controller   il controller che gestisce la logica applicativa
-     * @param loggedUserId l’ID dell’utente loggato
+     * @param controller   il controller asincrono che gestisce la logica applicativa
+     * @param sessione     sessione dell’utente loggato
      * @param onDocumentSaved  azione da eseguire quando un documento viene salvato
      */
-    public DocumentoPanel(Controller controller, int loggedUserId, Runnable onDocumentSaved) {
+    public DocumentoPanel(AsyncController controller, SessioneCorrente sessione, Runnable onDocumentSaved) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
+        this.sessione = sessione;
         this.onDocumentSaved = onDocumentSaved;
 
 
@@ -136,13 +143,6 @@ public class DocumentoPanel extends JPanel {
         add(inputPanel, BorderLayout.CENTER);
 
 
-        taRisultati = new JTextArea(16, 30);
-        taRisultati.setEditable(false);
-        JScrollPane resultScroll = new JScrollPane(taRisultati);
-        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
-        add(resultScroll, BorderLayout.EAST);
-
-
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
         JButton btnSave = new JButton("Aggiungi Documento");
 
@@ -163,42 +163,57 @@ public class DocumentoPanel extends JPanel {
 
         buttonPanel.add(btnShow);
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        busyIndicator = new BusyIndicator(btnSave, btnShow);
+
+        risultati = new PagedListModel(busyIndicator);
+        JList<String> lstRisultati = new JList<>(risultati);
+        lstRisultati.setVisibleRowCount(16);
+        lstRisultati.setPrototypeCellValue("X".repeat(30));
+        JScrollPane resultScroll = new JScrollPane(lstRisultati);
+        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
+        risultati.installa(resultScroll);
+        add(resultScroll, BorderLayout.EAST);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+        sessione.addListener(_ -> loadDocumentiForLoggedUser());
         loadDocumentiForLoggedUser();
     }
 
 
     private void saveDocumento() {
+        String titolo = tfTitolo.getText();
+        String descrizione = taDescrizione.getText();
+        LocalDate dataCreazione = LocalDate.now();
+        String formato = tfFormato.getText();
+        long dimensione;
         try {
+            String dimStr = tfDimensione.getText().trim();
+            dimensione = dimStr.isEmpty() ? 0 : Long.parseLong(dimStr);
+        } catch (NumberFormatException nfe) {
+            JOptionPane.showMessageDialog(this, "Inserisci una dimensione valida (numero intero).");
+            return;
+        }
+        String tipo = tfTipo.getText();
 
-            int teamId = controller.getTeamIdByUser(loggedUserId);
-            if (teamId <= 0) {
-                JOptionPane.showMessageDialog(this, "Non appartieni a nessun team. Impossibile aggiungere documenti.");
-                return;
-            }
-            String titolo = tfTitolo.getText();
-            String descrizione = taDescrizione.getText();
-            LocalDate dataCreazione = LocalDate.now();
-            String formato = tfFormato.getText();
-            long dimensione =0;
-            try {
-                String dimStr = tfDimensione.getText().trim();
-                dimensione = dimStr.isEmpty() ? 0 : Long.parseLong(dimStr);
-            } catch (NumberFormatException nfe) {
-                JOptionPane.showMessageDialog(this, "Inserisci una dimensione valida (numero intero).");
-                return;
-            }
-            String tipo = tfTipo.getText();
-
-            String result = controller.saveDocumento(teamId, titolo, descrizione, dataCreazione, formato, dimensione, tipo);
-            showResults(result);
-            clearFields();
-            if (onDocumentSaved != null) {
-                onDocumentSaved.run();
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.hasTeam()) {
+            JOptionPane.showMessageDialog(this, "Non appartieni a nessun team. Impossibile aggiungere documenti.");
+            return;
         }
+        int teamId = corrente.teamId();
+
+        busyIndicator.trackScrittura("Salvataggio documento",
+                controller.callScrittura(c -> c.saveDocumento(teamId, titolo, descrizione, dataCreazione, formato, dimensione, tipo)),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                    if (onDocumentSaved != null) {
+                        onDocumentSaved.run();
+                    }
+                });
     }
 
 
@@ -207,67 +222,66 @@ public class DocumentoPanel extends JPanel {
 
 
     private void showDocumentiByTeamId() {
+        String selected = (String) cbDocumento.getSelectedItem();
+        Integer documentoId = null;
         try {
-
-            int teamId = controller.getTeamIdByUser(loggedUserId);
-
-            if (teamId <= 0) {
-                JOptionPane.showMessageDialog(this, "Non appartieni a nessun team.");
-                return;
-            }
-
-            taRisultati.setText("");
-
-
-            String selected = (String) cbDocumento.getSelectedItem();
-            Integer documentoId = null;
-
             if (selected != null && selected.contains(" - ")) {
                 documentoId = Integer.parseInt(selected.split(" - ")[0].trim());
             }
-
-
-
-            var documenti = controller.getDocumentoByTeamId(teamId,documentoId);
-
-            if (documenti == null || documenti.isEmpty()) {
-                showResults("Nessun documento trovato per il team con ID: " + teamId);
-            } else {
-                for (String msg : documenti) {
-                    showResults(msg);
-                }
-            }
-
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori selezionati.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+            return;
         }
-    }
+        Integer documentoSelezionato = documentoId;
 
-    private void loadDocumentiForLoggedUser() {
-        cbDocumento.removeAllItems();
-        try {
-            int teamId = controller.getTeamIdByUser(loggedUserId);
-            if (teamId <=0) {
-                cbDocumento.addItem("Nessun team trovato");
-                return;
-            }
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.hasTeam()) {
+            JOptionPane.showMessageDialog(this, "Non appartieni a nessun team.");
+            return;
+        }
+        int teamId = corrente.teamId();
 
-            Integer documentoId = null;
+        if (documentoSelezionato == null) {
+            // senza un documento selezionato si scorrono tutti i documenti del team, una pagina alla volta
+            risultati.carica("Caricamento documenti", cursore -> controller.call(
+                    c -> c.getDocumentiByTeamIdPage(teamId, cursore, PagedListModel.DIMENSIONE_PAGINA)));
+            return;
+        }
 
-            var docs = controller.getDocumentoByTeamId(teamId,documentoId); // lista di stringhe con titoli/documenti
-            if (docs == null || docs.isEmpty()) {
-                cbDocumento.addItem("Nessun documento trovato");
-            } else {
-                for (String d : docs) {
-                    cbDocumento.addItem(d);
-                }
-            }
+        busyIndicator.track("Caricamento documento",
+                controller.call(c -> {
+                    var documenti = c.getDocumentoByTeamId(teamId, documentoSelezionato);
+                    if (documenti == null || documenti.isEmpty()) {
+                        return List.of("Nessun documento trovato per il team con ID: " + teamId);
+                    }
+                    return documenti;
+                }),
+                risultati::mostra);
+    }
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Errore nel caricamento dei documenti: " + e.getMessage());
+    private void loadDocumentiForLoggedUser() {
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.hasTeam()) {
+            cbDocumento.removeAllItems();
+            cbDocumento.addItem("Nessun team trovato");
+            return;
         }
+
+        busyIndicator.track("Caricamento documenti",
+                controller.call(c -> {
+                    var docs = c.getDocumentoByTeamId(corrente.teamId(), null); // lista di stringhe con titoli/documenti
+                    if (docs == null || docs.isEmpty()) {
+                        return List.of("Nessun documento trovato");
+                    }
+                    return docs;
+                }),
+                docs -> {
+                    cbDocumento.removeAllItems();
+                    cbDocumento.addItem(TUTTI_I_DOCUMENTI);
+                    for (String d : docs) {
+                        cbDocumento.addItem(d);
+                    }
+                });
     }
 
 
@@ -287,6 +301,6 @@ public class DocumentoPanel extends JPanel {
      * @param message testo da aggiungere all’area dei risultati
      */
     public void showResults(String message) {
-        taRisultati.append(message + "\n");
+        risultati.aggiungi(message);
     }
 }
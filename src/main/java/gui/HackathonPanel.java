@@ -1,8 +1,13 @@
 package gui;
 
-import controller.Controller; // Import del controller
+import controller.AsyncController;
+import exporter.FormatoExport;
+import model.Pagina;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 
@@ -16,12 +21,15 @@ import java.util.ArrayList;
  *   <li>Mostrare solo quelli con registrazioni aperte</li>
  *   <li>Accedere alla classifica dei team partecipanti</li>
  *   <li>Visualizzare gli utenti (concorrenti o giudici) iscritti a un hackathon</li>
+ *   <li>Importare in blocco gli utenti da un file CSV</li>
  * </ul>
  *
- * <p>Il pannello interagisce con il {@link Controller} per tutte le operazioni.</p>
+ * <p>Il pannello interagisce con l'{@link AsyncController} per tutte le operazioni: le chiamate
+ * al database non bloccano l'interfaccia e possono essere annullate dall'indicatore di avanzamento.</p>
  */
 public class HackathonPanel extends JPanel {
-    private final Controller controller;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
 
 
     private final JTextField tfNome;
@@ -31,17 +39,17 @@ public class HackathonPanel extends JPanel {
     private final JTextField tfDataFine;
     private final JComboBox<String> cbHackathonId;
     private final java.util.List<Integer> hackathonIds = new ArrayList<>();
-    private final JTextArea taRisultati;
+    private final PagedListModel risultati;
     private final int loggedOrganizzatoreId;
     private final JComboBox<String> cbTipoUtente;
 
     /**
      * Crea e inizializza il pannello per la gestione degli hackathon.
      *
-     * @param controller            il controller che gestisce la logica applicativa
+     * @param controller            il controller asincrono che gestisce la logica applicativa
      * @param loggedOrganizzatoreId l’ID dell’organizzatore loggato
      */
-    public HackathonPanel(Controller controller,int loggedOrganizzatoreId) {
+    public HackathonPanel(AsyncController controller,int loggedOrganizzatoreId) {
         this.controller = controller;
         this.loggedOrganizzatoreId = loggedOrganizzatoreId;
 
@@ -120,8 +128,6 @@ public class HackathonPanel extends JPanel {
         inputPanel.add(cbHackathonId, gbc);
 
 
-        loadHackathonsForOrganizzatore();
-
         row++;
         gbc.gridx = 0; gbc.gridy = row;
         inputPanel.add(new JLabel("Tipo Utente:"), gbc);
@@ -132,13 +138,6 @@ public class HackathonPanel extends JPanel {
         add(inputPanel, BorderLayout.CENTER);
 
 
-        taRisultati = new JTextArea(8, 20);
-        taRisultati.setEditable(false);
-        JScrollPane resultScroll = new JScrollPane(taRisultati);
-        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
-        add(resultScroll, BorderLayout.EAST);
-
-
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 10));
         JButton btnSave = new JButton("Aggiungi Hackathon");
 
@@ -148,6 +147,8 @@ public class HackathonPanel extends JPanel {
 
         JButton btnShowClassifica = new JButton("Mostra Classifica");
         JButton btnShowUsersByType = new JButton("Mostra Utenti per Tipo");
+        JButton btnImportUtenti = new JButton("Importa Utenti CSV");
+        JButton btnExportRisultati = new JButton("Esporta Risultati");
 
 
 
@@ -159,6 +160,8 @@ public class HackathonPanel extends JPanel {
 
         btnShowClassifica.addActionListener(_ -> showClassifica());
         btnShowUsersByType.addActionListener(_ -> showUsersByTypeForHackathon());
+        btnImportUtenti.addActionListener(_ -> importUtentiCsv());
+        btnExportRisultati.addActionListener(_ -> esportaRisultati());
 
 
 
@@ -171,32 +174,53 @@ public class HackathonPanel extends JPanel {
 
         buttonPanel.add(btnShowClassifica);
         buttonPanel.add(btnShowUsersByType);
+        buttonPanel.add(btnImportUtenti);
+        buttonPanel.add(btnExportRisultati);
+
+        busyIndicator = new BusyIndicator(btnSave, btnShowAll, btnShowOpen, btnShowClassifica, btnShowUsersByType,
+                btnImportUtenti, btnExportRisultati);
+
+        risultati = new PagedListModel(busyIndicator);
+        JList<String> lstRisultati = new JList<>(risultati);
+        lstRisultati.setVisibleRowCount(8);
+        lstRisultati.setPrototypeCellValue("X".repeat(40));
+        JScrollPane resultScroll = new JScrollPane(lstRisultati);
+        resultScroll.setBorder(BorderFactory.createTitledBorder("Risultati"));
+        risultati.installa(resultScroll);
+        add(resultScroll, BorderLayout.EAST);
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        loadHackathonsForOrganizzatore();
     }
 
 
     private void saveHackathon() {
+        String nome = tfNome.getText();
+        String descrizione = taDescrizione.getText();
+        String luogo = tfLuogo.getText();
+        LocalDate dataInizio;
+        LocalDate dataFine;
         try {
-            String nome = tfNome.getText();
-            String descrizione = taDescrizione.getText();
-            String luogo = tfLuogo.getText();
-            LocalDate dataInizio = LocalDate.parse(tfDataInizio.getText());
-            LocalDate dataFine = LocalDate.parse(tfDataFine.getText());
-
-
-            String result = controller.saveHackathon(nome, descrizione, luogo, dataInizio, dataFine, loggedOrganizzatoreId);
-            showResults(result);
-            clearFields();
-            if (result!=null && result.toLowerCase().contains("successo")) {
-                loadHackathonsForOrganizzatore();
-            }
+            dataInizio = LocalDate.parse(tfDataInizio.getText());
+            dataFine = LocalDate.parse(tfDataFine.getText());
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+            return;
         }
 
-
-
+        busyIndicator.trackScrittura("Salvataggio hackathon",
+                controller.callScrittura(c -> c.saveHackathon(nome, descrizione, luogo, dataInizio, dataFine, loggedOrganizzatoreId)),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                    if (result != null && result.toLowerCase().contains("successo")) {
+                        loadHackathonsForOrganizzatore();
+                    }
+                });
     }
 
 
@@ -205,18 +229,15 @@ public class HackathonPanel extends JPanel {
 
 
     private void showAllHackathons() {
-        taRisultati.setText("");
-        for (String h : controller.getAllHackathons(loggedOrganizzatoreId)) {
-            showResults(h);
-        }
+        risultati.carica("Caricamento hackathon", cursore -> controller.call(
+                c -> c.getAllHackathonsPage(loggedOrganizzatoreId, cursore, PagedListModel.DIMENSIONE_PAGINA)));
     }
 
 
     private void showHackathonsWithOpenRegistrations() {
-        taRisultati.setText("");
-        for (String h : controller.getHackathonsWithOpenRegistrations(loggedOrganizzatoreId)) {
-            showResults(h);
-        }
+        busyIndicator.track("Caricamento hackathon aperti",
+                controller.call(c -> c.getHackathonsWithOpenRegistrations(loggedOrganizzatoreId)),
+                this::showAll);
     }
 
 
@@ -233,29 +254,83 @@ public class HackathonPanel extends JPanel {
 
         String nomeHackathon = selected.trim();
 
-        try {
-            int hackathonId = controller.getHackathonIdByNameAndOrganizzatore(nomeHackathon, loggedOrganizzatoreId);
-            if (hackathonId <= 0) {
-                JOptionPane.showMessageDialog(this, "Impossibile trovare l'ID dell'hackathon selezionato.");
-                return;
-            }
+        busyIndicator.track("Caricamento classifica",
+                controller.call(c -> {
+                    int hackathonId = c.getHackathonIdByNameAndOrganizzatore(nomeHackathon, loggedOrganizzatoreId);
+                    if (hackathonId <= 0) {
+                        throw new OperazioneRifiutataException("Impossibile trovare l'ID dell'hackathon selezionato.");
+                    }
 
 
-            int organizzatoreId = controller.getOrganizzatoreIdByHackathon(hackathonId);
-            if (organizzatoreId != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi vedere la classifica di un hackathon che non ti appartiene.");
-                return;
-            }
+                    int organizzatoreId = c.getOrganizzatoreIdByHackathon(hackathonId);
+                    if (organizzatoreId != loggedOrganizzatoreId) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi vedere la classifica di un hackathon che non ti appartiene.");
+                    }
 
-            taRisultati.setText("");
-            for (String entry : controller.getClassificaHackathon(hackathonId)) {
-                showResults(entry);
-            }
+                    return c.getClassificaHackathon(hackathonId);
+                }),
+                this::showAll);
+    }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore durante il recupero della classifica: " + ex.getMessage());
+    /**
+     * Importa in blocco gli utenti da un file CSV scelto dall'organizzatore
+     * e mostra il riepilogo con le eventuali righe scartate.
+     */
+    private void importUtentiCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Seleziona il file CSV degli utenti");
+        chooser.setFileFilter(new FileNameExtensionFilter("File CSV", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+
+        Path file = chooser.getSelectedFile().toPath();
+        busyIndicator.trackScrittura("Importazione utenti da " + file.getFileName(),
+                controller.callScrittura(c -> c.importUtentiCsv(file, loggedOrganizzatoreId)),
+                this::showAll);
+    }
+
+    /**
+     * Esporta i risultati dell'hackathon selezionato in un file CSV o JSON Lines scelto
+     * dall'organizzatore, mostrando durante l'esportazione le righe già scritte.
+     */
+    private void esportaRisultati() {
+        String selected = (String) cbHackathonId.getSelectedItem();
+        if (selected == null || selected.trim().isEmpty() || "Nessun hackathon trovato".equals(selected)) {
+            JOptionPane.showMessageDialog(this, "Seleziona un hackathon dalla lista.");
+            return;
+        }
+        String nomeHackathon = selected.trim();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Esporta i risultati di " + nomeHackathon);
+        FileNameExtensionFilter filtroCsv = new FileNameExtensionFilter("File CSV", FormatoExport.CSV.estensione());
+        FileNameExtensionFilter filtroJsonl =
+                new FileNameExtensionFilter("File JSON Lines", FormatoExport.JSONL.estensione());
+        chooser.addChoosableFileFilter(filtroCsv);
+        chooser.addChoosableFileFilter(filtroJsonl);
+        chooser.setFileFilter(filtroCsv);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        FormatoExport formato = chooser.getFileFilter() == filtroJsonl ? FormatoExport.JSONL : FormatoExport.CSV;
+        Path scelto = chooser.getSelectedFile().toPath();
+        Path file = scelto.getFileName().toString().contains(".")
+                ? scelto
+                : scelto.resolveSibling(scelto.getFileName() + "." + formato.estensione());
+
+        busyIndicator.track("Esportazione risultati",
+                controller.call(c -> {
+                    int hackathonId = c.getHackathonIdByNameAndOrganizzatore(nomeHackathon, loggedOrganizzatoreId);
+                    if (hackathonId <= 0) {
+                        throw new OperazioneRifiutataException("Impossibile trovare l'ID dell'hackathon selezionato.");
+                    }
+                    return c.esportaRisultati(hackathonId, file, formato,
+                            righe -> busyIndicator.aggiornaDescrizione("Esportazione risultati: " + righe + " righe scritte..."));
+                }),
+                this::showAll);
     }
 
 
@@ -281,44 +356,46 @@ public class HackathonPanel extends JPanel {
         }
 
         String nomeHackathon = selected.trim();
+        String tipoUtente = (String) cbTipoUtente.getSelectedItem();
+
+        busyIndicator.track("Caricamento utenti",
+                controller.call(c -> {
+                    int hackathonId = c.getHackathonIdByNameAndOrganizzatore(nomeHackathon, loggedOrganizzatoreId);
+                    if (hackathonId <= 0) {
+                        throw new OperazioneRifiutataException("Impossibile trovare l'ID dell'hackathon selezionato.");
+                    }
+
+                    int organizzatoreId = c.getOrganizzatoreIdByHackathon(hackathonId);
+                    if (organizzatoreId != loggedOrganizzatoreId) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi visualizzare utenti di un hackathon che non ti appartiene.");
+                    }
+
+                    return hackathonId;
+                }),
+                hackathonId -> risultati.carica("Caricamento utenti", cursore -> controller.call(c -> {
+                    var utenti = c.getUtentiByTipoUtenteForHackathonPage(hackathonId, tipoUtente, cursore,
+                            PagedListModel.DIMENSIONE_PAGINA);
+                    if (cursore == null && utenti.elementi().isEmpty()) {
+                        return Pagina.messaggio("Nessun utente trovato per il tipo " + tipoUtente + " nell'hackathon " + hackathonId);
+                    }
+                    return utenti;
+                })));
+    }
 
-        try {
-            int hackathonId = controller.getHackathonIdByNameAndOrganizzatore(nomeHackathon, loggedOrganizzatoreId);
-            if (hackathonId <= 0) {
-                JOptionPane.showMessageDialog(this, "Impossibile trovare l'ID dell'hackathon selezionato.");
-                return;
-            }
-
-            int organizzatoreId = controller.getOrganizzatoreIdByHackathon(hackathonId);
-            if (organizzatoreId != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi visualizzare utenti di un hackathon che non ti appartiene.");
-                return;
-            }
-
-            String tipoUtente = (String) cbTipoUtente.getSelectedItem();
-            taRisultati.setText("");
-            var utenti = controller.getUtentiByTipoUtenteForHackathon(hackathonId, tipoUtente);
-
-            if (utenti == null || utenti.isEmpty()) {
-                showResults("Nessun utente trovato per il tipo " + tipoUtente + " nell'hackathon " + hackathonId);
-            } else {
-                utenti.forEach(this::showResults);
-            }
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore durante il recupero utenti: " + ex.getMessage());
-        }
+    private void loadHackathonsForOrganizzatore() {
+        busyIndicator.track("Caricamento hackathon",
+                controller.call(c -> c.getAllHackathons(loggedOrganizzatoreId)),
+                this::populateHackathons);
     }
 
 
-    private void loadHackathonsForOrganizzatore() {
+    private void populateHackathons(java.util.List<String> hackathons) {
         cbHackathonId.removeAllItems();
         hackathonIds.clear();
 
         try {
-            var hackathons = controller.getAllHackathons(loggedOrganizzatoreId);
-
             if (hackathons == null || hackathons.isEmpty()) {
                 cbHackathonId.addItem("Nessun hackathon trovato");
                 return;
@@ -398,12 +475,16 @@ public class HackathonPanel extends JPanel {
 
 
 
+    private void showAll(java.util.List<String> righe) {
+        risultati.mostra(righe);
+    }
+
     /**
      * Mostra un messaggio di output nell’area dei risultati.
      *
      * @param message testo da aggiungere all’area dei risultati
      */
     public void showResults(String message) {
-        taRisultati.append(message + "\n");
+        risultati.aggiungi(message);
     }
 }
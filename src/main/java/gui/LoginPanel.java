@@ -1,6 +1,6 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,34 +11,35 @@ import java.awt.*;
  * Questo pannello permette all'utente di:
  * <ul>
  *     <li>Inserire email e password per autenticarsi</li>
- *     <li>Effettuare l'accesso tramite il {@link Controller}</li>
+ *     <li>Effettuare l'accesso tramite l'{@link AsyncController}, senza bloccare l'interfaccia</li>
  *     <li>Passare al pannello di registrazione se non è registrato</li>
  * </ul>
  * Dopo un login corretto, invoca un handler {@link LoginSuccessHandler}
- * per comunicare l'ID utente e il tipo (concorrente, giudice, organizzatore, ecc.).
+ * per comunicare la {@link model.SessioneUtente} dell'utente autenticato.
  */
 public class LoginPanel extends JPanel{
     private final JTextField tfEmail;
     private final JPasswordField pfPassword;
     private final JButton btnLogin, btnVaiRegistrazione;
 
-    private final Controller controller;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
     private final Runnable onSwitchToRegistrazione;
     private final LoginSuccessHandler  onLoginSuccess;
 
     /**
      * Costruttore del pannello di login.
      *
-     * @param controller               il controller per la gestione del login
+     * @param controller               il controller asincrono per la gestione del login
      * @param onSwitchToRegistrazione  azione da eseguire per cambiare al pannello di registrazione
      * @param onLoginSuccess           handler da eseguire in caso di login corretto
      */
-    public LoginPanel(Controller controller, Runnable onSwitchToRegistrazione, LoginSuccessHandler onLoginSuccess) {
+    public LoginPanel(AsyncController controller, Runnable onSwitchToRegistrazione, LoginSuccessHandler onLoginSuccess) {
         this.controller = controller;
         this.onSwitchToRegistrazione = onSwitchToRegistrazione;
         this.onLoginSuccess = onLoginSuccess;
 
-        setLayout(new GridLayout(3, 2, 5, 5));
+        setLayout(new GridLayout(4, 2, 5, 5));
 
         Font smallFont = new Font("SansSerif", Font.PLAIN, 12);
 
@@ -65,24 +66,26 @@ public class LoginPanel extends JPanel{
         add(btnLogin);
         add(btnVaiRegistrazione);
 
+        busyIndicator = new BusyIndicator(btnLogin);
+        add(busyIndicator);
+        add(new JLabel());
+
 
 
         btnLogin.addActionListener(_-> {
             String email = tfEmail.getText().trim();
             String password = new String(pfPassword.getPassword());
 
-            try {
-                int userId = controller.login(email, password); // login ora restituisce l'ID
-                if (userId > 0) {
-                    String tipo = controller.getUserType(userId); // aggiungi un metodo in controller
-                    JOptionPane.showMessageDialog(this, "Login effettuato!");
-                    onLoginSuccess.run(userId, tipo);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Credenziali errate.");
-                }
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Errore login: " + ex.getMessage());
-            }
+            busyIndicator.track("Accesso in corso",
+                    controller.call(c -> c.loginSessione(email, password)), // una sola query per credenziali e profilo
+                    sessione -> {
+                        if (sessione != null) {
+                            JOptionPane.showMessageDialog(this, "Login effettuato!");
+                            onLoginSuccess.run(sessione);
+                        } else {
+                            JOptionPane.showMessageDialog(this, "Credenziali errate.");
+                        }
+                    });
         });
 
         // Listener cambio a registrazione
@@ -1,5 +1,7 @@
 package gui;
 
+import model.SessioneUtente;
+
 /**
  * Interfaccia funzionale che rappresenta un'azione da eseguire
  * dopo un login effettuato con successo.
@@ -11,8 +13,7 @@ public interface LoginSuccessHandler {
     /**
      * Metodo da implementare per gestire l'evento di login avvenuto con successo.
      *
-     * @param userId identificativo numerico dell'utente autenticato
-     * @param tipo   tipo di utente autenticato (es. "organizzatore", "concorrente", "giudice")
+     * @param sessione sessione dell'utente autenticato (ID, tipo, hackathon e team)
      */
-    void run(int userId, String tipo);
+    void run(SessioneUtente sessione);
 }
@@ -1,6 +1,7 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
+import model.SessioneUtente;
 import javax.swing.*;
 
 /**
@@ -14,12 +15,12 @@ import javax.swing.*;
  *     <li><b>Concorrente</b>: unione team, gestione documenti e aggiornamenti</li>
  *     <li><b>Giudice</b>: gestione problemi, valutazioni e commenti</li>
  * </ul>
+ * I pannelli condividono la {@link SessioneCorrente} creata a partire dalla sessione di login.
  */
 public class MainFrame extends JFrame {
 
-    private final Controller controller;
-    private final int loggedUserId;
-    private final String loggedUserTipo;
+    private final AsyncController controller;
+    private final SessioneCorrente sessione;
 
     /**
      * Costruisce la finestra principale dell'applicazione.
@@ -27,16 +28,15 @@ public class MainFrame extends JFrame {
      * In base al tipo di utente, vengono caricati i pannelli corrispondenti
      * all'interno di un {@link JTabbedPane}.
      *
-     * @param controller istanza del controller che gestisce la logica applicativa
-     * @param userId     identificativo dell'utente loggato
-     * @param tipo       tipo di utente loggato (organizzatore, concorrente o giudice)
+     * @param controller facciata asincrona del controller che gestisce la logica applicativa
+     * @param sessione   sessione dell'utente loggato, ottenuta al login
      */
-    public MainFrame(Controller controller, int userId, String tipo) {
+    public MainFrame(AsyncController controller, SessioneUtente sessione) {
         this.controller = controller;
-        this.loggedUserId = userId;
-        this.loggedUserTipo = tipo;
+        this.sessione = new SessioneCorrente(sessione);
+        int loggedUserId = sessione.userId();
 
-        setTitle("Gestione Hackathon");
+        setTitle("Gestione Hackathon - " + sessione.nomeVisualizzato());
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(800, 600);
         setLocationRelativeTo(null); // Centra la finestra
@@ -45,7 +45,7 @@ public class MainFrame extends JFrame {
         JTabbedPane tabbedPane = new JTabbedPane();
 
         // Aggiungi ogni pannello come tab
-        if (loggedUserTipo.equalsIgnoreCase("organizzatore")) {
+        if (sessione.isTipo("organizzatore")) {
             tabbedPane.addTab("Hackathon", new HackathonPanel(controller, loggedUserId));
             tabbedPane.addTab("Team", new TeamPanel(controller, loggedUserId));
 
@@ -54,12 +54,12 @@ public class MainFrame extends JFrame {
 
 
 
-        if (loggedUserTipo.equalsIgnoreCase("concorrente")) {
-            tabbedPane.addTab("Unione Team", new UnioneTeamPanel(controller, loggedUserId));
-            AggiornamentoPanel aggiornamentoPanel = new AggiornamentoPanel(controller, loggedUserId);
+        if (sessione.isTipo("concorrente")) {
+            tabbedPane.addTab("Unione Team", new UnioneTeamPanel(controller, this.sessione));
+            AggiornamentoPanel aggiornamentoPanel = new AggiornamentoPanel(controller, this.sessione);
 
 
-            DocumentoPanel documentoPanel = new DocumentoPanel(controller, loggedUserId, () -> {
+            DocumentoPanel documentoPanel = new DocumentoPanel(controller, this.sessione, () -> {
 
                 SwingUtilities.invokeLater(aggiornamentoPanel::loadDocumentiForTeam);
             });
@@ -76,10 +76,10 @@ public class MainFrame extends JFrame {
 
 
 
-        if (loggedUserTipo.equalsIgnoreCase("giudice")) {
-            tabbedPane.addTab("Problemi", new ProblemaPanel(controller, loggedUserId, loggedUserTipo));
-            tabbedPane.addTab("Valutazioni", new ValutazionePanel(controller, loggedUserId, loggedUserTipo));
-            tabbedPane.addTab("Commenti", new CommentoPanel(controller, loggedUserId, loggedUserTipo));
+        if (sessione.isTipo("giudice")) {
+            tabbedPane.addTab("Problemi", new ProblemaPanel(controller, this.sessione));
+            tabbedPane.addTab("Valutazioni", new ValutazionePanel(controller, this.sessione));
+            tabbedPane.addTab("Commenti", new CommentoPanel(controller, this.sessione));
 
         }
 
@@ -0,0 +1,184 @@
+package gui;
+
+import model.Pagina;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Modello di lista che carica gli elementi una pagina alla volta.
+ * <p>
+ * Con {@link #carica(String, Function)} viene chiesta solo la prima pagina; le successive
+ * vengono richieste quando la lista, installata in uno {@link JScrollPane} con
+ * {@link #installa(JScrollPane)}, viene scorsa vicino al fondo oppure non riempie ancora
+ * l'area visibile. In questo modo l'interfaccia non legge né trattiene l'intero elenco.
+ * </p>
+ * <p>
+ * Il caricamento è tracciato dal {@link BusyIndicator} del pannello, che ne segnala gli errori
+ * e permette di annullarlo. Se nel frattempo viene avviato un nuovo caricamento o mostrato un
+ * altro contenuto, le pagine ancora in arrivo di quello precedente vengono ignorate.
+ * Tutti i metodi vanno chiamati dall'Event Dispatch Thread.
+ * </p>
+ */
+public class PagedListModel extends AbstractListModel<String> {
+
+    /** Numero di elementi richiesti per ogni pagina. */
+    public static final int DIMENSIONE_PAGINA = 50;
+
+    private final BusyIndicator busyIndicator;
+    private final List<String> righe = new ArrayList<>();
+
+    private String descrizione;
+    private Function<Integer, CompletableFuture<Pagina<String>>> loader;
+    private Integer cursore;
+    private boolean altre;
+    private boolean inCaricamento;
+    private int generazione;
+    private JScrollPane scrollPane;
+
+    /**
+     * Crea un modello vuoto.
+     *
+     * @param busyIndicator indicatore con cui tracciare il caricamento delle pagine
+     */
+    public PagedListModel(BusyIndicator busyIndicator) {
+        this.busyIndicator = busyIndicator;
+    }
+
+    @Override
+    public int getSize() {
+        return righe.size();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return righe.get(index);
+    }
+
+    /**
+     * Sostituisce il contenuto con un elenco già completo, interrompendo il caricamento in corso.
+     *
+     * @param elementi elementi da mostrare
+     */
+    public void mostra(List<String> elementi) {
+        svuota();
+        aggiungiTutti(elementi);
+    }
+
+    /**
+     * Aggiunge un elemento in fondo alla lista.
+     *
+     * @param elemento elemento da aggiungere
+     */
+    public void aggiungi(String elemento) {
+        aggiungiTutti(List.of(elemento));
+    }
+
+    /**
+     * Sostituisce il contenuto con un elenco paginato e ne chiede la prima pagina.
+     *
+     * @param descrizione descrizione mostrata dall'indicatore durante il caricamento
+     * @param loader      funzione che, dato il cursore della pagina precedente ({@code null}
+     *                    per la prima), restituisce la pagina successiva
+     */
+    public void carica(String descrizione, Function<Integer, CompletableFuture<Pagina<String>>> loader) {
+        svuota();
+        this.descrizione = descrizione;
+        this.loader = loader;
+        this.altre = true;
+        caricaAltre();
+    }
+
+    /**
+     * Chiede la pagina successiva, se esiste e non è già in corso di caricamento.
+     */
+    public void caricaAltre() {
+        if (loader == null || !altre || inCaricamento) {
+            return;
+        }
+        inCaricamento = true;
+        int richiesta = generazione;
+
+        CompletableFuture<Pagina<String>> future = loader.apply(cursore);
+        future.whenComplete((pagina, errore) -> {
+            if (errore != null) {
+                SwingUtilities.invokeLater(() -> interrompi(richiesta));
+            }
+        });
+        busyIndicator.track(descrizione, future, pagina -> accoda(richiesta, pagina));
+    }
+
+    /**
+     * Collega il modello a uno scroll pane: quando la barra verticale arriva vicino al fondo
+     * viene chiesta la pagina successiva.
+     *
+     * @param scrollPane scroll pane che contiene la lista basata su questo modello
+     */
+    public void installa(JScrollPane scrollPane) {
+        this.scrollPane = scrollPane;
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(_ -> {
+            if (vicinoAlFondo()) {
+                caricaAltre();
+            }
+        });
+    }
+
+    private void accoda(int richiesta, Pagina<String> pagina) {
+        if (richiesta != generazione) {
+            return;
+        }
+        inCaricamento = false;
+        cursore = pagina.cursore();
+        altre = pagina.haAltre();
+        aggiungiTutti(pagina.elementi());
+
+        // se la pagina non riempie l'area visibile la barra non si muove: si controlla dopo il layout
+        SwingUtilities.invokeLater(() -> {
+            if (richiesta == generazione && vicinoAlFondo()) {
+                caricaAltre();
+            }
+        });
+    }
+
+    private void interrompi(int richiesta) {
+        if (richiesta == generazione) {
+            // dopo un errore o un annullamento non si riprova da soli, per non ripetere il messaggio
+            inCaricamento = false;
+            altre = false;
+        }
+    }
+
+    private boolean vicinoAlFondo() {
+        if (scrollPane == null || !scrollPane.isShowing()) {
+            return false;
+        }
+        JScrollBar barra = scrollPane.getVerticalScrollBar();
+        int fineVisibile = barra.getValue() + barra.getVisibleAmount();
+        return fineVisibile >= barra.getMaximum() - barra.getVisibleAmount() / 2;
+    }
+
+    private void svuota() {
+        generazione++;
+        loader = null;
+        cursore = null;
+        altre = false;
+        inCaricamento = false;
+        int size = righe.size();
+        if (size > 0) {
+            righe.clear();
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+    }
+
+    private void aggiungiTutti(List<String> elementi) {
+        if (elementi.isEmpty()) {
+            return;
+        }
+        int inizio = righe.size();
+        righe.addAll(elementi);
+        fireIntervalAdded(this, inizio, righe.size() - 1);
+    }
+}
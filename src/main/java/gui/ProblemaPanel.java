@@ -1,6 +1,8 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
+import model.SessioneUtente;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
 
@@ -13,11 +15,12 @@ import java.awt.*;
  *     <li>Assegnare un problema esistente a un team specifico.</li>
  * </ul>
  * L’accesso è limitato agli utenti con ruolo {@code giudice}.
+ * Le chiamate al controller sono eseguite in background tramite {@link AsyncController}.
  */
 public class ProblemaPanel extends JPanel {
-    private final Controller controller;
-    private final int loggedUserId;
-    private final String loggedUserTipo;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
     private final JTextField tfTitolo;
@@ -29,14 +32,12 @@ public class ProblemaPanel extends JPanel {
     /**
      * Crea un nuovo pannello per la gestione dei problemi.
      *
-     * @param controller    riferimento al controller per la logica applicativa
-     * @param loggedUserId  ID dell’utente attualmente loggato
-     * @param loggedUserTipo tipo dell’utente loggato (es. {@code giudice})
+     * @param controller    riferimento al controller asincrono per la logica applicativa
+     * @param sessione      sessione dell’utente loggato (tipo atteso: {@code giudice})
      */
-    public ProblemaPanel(Controller controller,int loggedUserId, String loggedUserTipo) {
+    public ProblemaPanel(AsyncController controller, SessioneCorrente sessione) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
-        this.loggedUserTipo = loggedUserTipo;
+        this.sessione = sessione;
 
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -83,7 +84,12 @@ public class ProblemaPanel extends JPanel {
 
         buttonPanel.add(btnAssign);
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        busyIndicator = new BusyIndicator(btnAssign);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
 
 
@@ -91,47 +97,44 @@ public class ProblemaPanel extends JPanel {
 
 
     private void assignProblema() {
-        try {
-            if (!"giudice".equalsIgnoreCase(loggedUserTipo)) {
-                showResults("Solo i giudici possono creare o assegnare problemi.");
-                return;
-            }
-
-            String titolo = tfTitolo.getText().isEmpty() ? null : tfTitolo.getText();
-            String descrizione = tfDescrizione.getText().isEmpty() ? null : tfDescrizione.getText();
-            String teamText = tfTeamId.getText().trim();
-
-
-            Integer teamId = teamText.isEmpty() ? null : Integer.parseInt(teamText);
-
-
-
-            if (titolo.isEmpty() || descrizione.isEmpty() || teamId == null) {
-                JOptionPane.showMessageDialog(this,
-                        "Compila Titolo, Descrizione e Team ID per creare e assegnare il problema.");
-                return;
-            }
-                int teamHackathonId = controller.getHackathonIdByTeam(teamId);
-                int giudiceHackathonId = controller.getHackathonIdByUser(loggedUserId);
-
-                if (teamHackathonId != giudiceHackathonId) {
-                    showResults(" Non puoi assegnare problemi a team di un altro hackathon.");
-                    return;
-                }
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.isTipo("giudice")) {
+            showResults("Solo i giudici possono creare o assegnare problemi.");
+            return;
+        }
 
+        String titolo = tfTitolo.getText().isEmpty() ? null : tfTitolo.getText();
+        String descrizione = tfDescrizione.getText().isEmpty() ? null : tfDescrizione.getText();
+        String teamText = tfTeamId.getText().trim();
 
-            String result= controller.assignProblemaToTeam(titolo, descrizione, teamId, loggedUserId, null);;
+        Integer teamId;
+        try {
+            teamId = teamText.isEmpty() ? null : Integer.parseInt(teamText);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+            return;
+        }
 
+        if (titolo == null || descrizione == null || teamId == null) {
+            JOptionPane.showMessageDialog(this,
+                    "Compila Titolo, Descrizione e Team ID per creare e assegnare il problema.");
+            return;
+        }
 
+        busyIndicator.trackScrittura("Assegnazione problema",
+                controller.callScrittura(c -> {
+                    int teamHackathonId = c.getHackathonIdByTeam(teamId);
 
-            showResults(result);
-            clearFields();
+                    if (!corrente.hasHackathon() || teamHackathonId != corrente.hackathonId()) {
+                        throw new OperazioneRifiutataException(" Non puoi assegnare problemi a team di un altro hackathon.");
+                    }
 
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            showResults("Errore: " + ex.getMessage());
-        }
+                    return c.assignProblemaToTeam(titolo, descrizione, teamId, corrente.userId(), null);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
@@ -1,6 +1,6 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,20 +20,21 @@ public class RegistrazionePanel extends JPanel {
     private final JComboBox<String> cbTipoUtente, cbHackathon;
     private final JButton btnRegistrati, btnVaiLogin;
 
-    private final Controller controller;
+    private final AsyncController controller;
     private final Runnable onSwitchToLogin;
+    private final BusyIndicator busyIndicator;
 
     /**
      * Crea un nuovo pannello di registrazione.
      *
-     * @param controller       riferimento al controller per la logica applicativa
+     * @param controller       riferimento al controller asincrono per la logica applicativa
      * @param onSwitchToLogin  callback da eseguire per tornare al pannello di login
      */
-    public RegistrazionePanel(Controller controller, Runnable onSwitchToLogin) {
+    public RegistrazionePanel(AsyncController controller, Runnable onSwitchToLogin) {
         this.controller = controller;
         this.onSwitchToLogin = onSwitchToLogin;
 
-        setLayout(new GridLayout(7, 2, 10, 10));
+        setLayout(new GridLayout(8, 2, 10, 10));
 
         add(new JLabel("Nome:"));
         tfNome = new JTextField();
@@ -57,14 +58,6 @@ public class RegistrazionePanel extends JPanel {
 
         add(new JLabel("Hackathon:"));
         cbHackathon = new JComboBox<>();
-        try {
-            for (String hackathon : controller.getHackathonsWithOpenRegistrationsCombo()) { // <- devi avere questo metodo in Controller
-                cbHackathon.addItem(hackathon);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(SwingUtilities.getWindowAncestor(this),
-                     "Errore nel caricamento hackathon: " + e.getMessage());
-        }
         add(cbHackathon);
 
         btnRegistrati = new JButton("Registrati");
@@ -73,6 +66,14 @@ public class RegistrazionePanel extends JPanel {
         add(btnRegistrati);
         add(btnVaiLogin);
 
+        busyIndicator = new BusyIndicator(btnRegistrati);
+        add(busyIndicator);
+        add(new JLabel());
+
+        busyIndicator.track("Caricamento hackathon",
+                controller.call(c -> c.getHackathonsWithOpenRegistrationsCombo()),
+                hackathons -> hackathons.forEach(cbHackathon::addItem));
+
 
         cbTipoUtente.addActionListener(_-> {
             String tipoSelezionato = (String) cbTipoUtente.getSelectedItem();
@@ -111,22 +112,25 @@ public class RegistrazionePanel extends JPanel {
             }
 
 
-            System.out.println("DEBUG: selected hackathon string = [" + hackathonSelezionato + "]");
-            String msg = controller.saveUtente(
-                    nome,
-                    cognome,
-                    email,
-                    password,
-                    LocalDate.now(),
-                    tipo,
-                    hackathonId,
-                    null
-            );
-            JOptionPane.showMessageDialog(this, msg);
-
-            if (msg.contains("successo")) {
-                onSwitchToLogin.run(); // passo a login
-            }
+            Integer idSelezionato = hackathonId;
+            busyIndicator.trackScrittura("Registrazione in corso",
+                    controller.callScrittura(c -> c.saveUtente(
+                            nome,
+                            cognome,
+                            email,
+                            password,
+                            LocalDate.now(),
+                            tipo,
+                            idSelezionato,
+                            null
+                    )),
+                    msg -> {
+                        JOptionPane.showMessageDialog(this, msg);
+
+                        if (msg.contains("successo")) {
+                            onSwitchToLogin.run(); // passo a login
+                        }
+                    });
         });
 
 
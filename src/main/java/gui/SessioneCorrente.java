@@ -0,0 +1,71 @@
+package gui;
+
+import model.SessioneUtente;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Riferimento condiviso alla {@link SessioneUtente} corrente.
+ * <p>
+ * È creato dalla {@link MainFrame} e passato ai pannelli, che leggono la sessione
+ * invece di interrogare il database. Quando un pannello modifica l'appartenenza
+ * dell'utente sostituisce la sessione con {@link #aggiorna(SessioneUtente)}: se hackathon
+ * o team sono cambiati, gli ascoltatori registrati vengono notificati sull'EDT.
+ * </p>
+ */
+public class SessioneCorrente {
+
+    private volatile SessioneUtente sessione;
+    private final List<Consumer<SessioneUtente>> ascoltatori = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crea il riferimento con la sessione ottenuta al login.
+     *
+     * @param sessione sessione iniziale, non {@code null}
+     */
+    public SessioneCorrente(SessioneUtente sessione) {
+        if (sessione == null) {
+            throw new IllegalArgumentException("Sessione non valida.");
+        }
+        this.sessione = sessione;
+    }
+
+    /**
+     * @return la sessione corrente; può essere letta anche fuori dall'EDT
+     */
+    public SessioneUtente get() {
+        return sessione;
+    }
+
+    /**
+     * Sostituisce la sessione corrente.
+     * <p>
+     * Gli ascoltatori vengono notificati solo se l'appartenenza a hackathon o team è cambiata.
+     * Un valore {@code null} (ad esempio per un errore nel ricaricamento) viene ignorato.
+     * </p>
+     *
+     * @param nuova nuova sessione
+     */
+    public void aggiorna(SessioneUtente nuova) {
+        if (nuova == null) {
+            return;
+        }
+        SessioneUtente precedente = sessione;
+        sessione = nuova;
+        if (!nuova.stessaAppartenenza(precedente)) {
+            SwingUtilities.invokeLater(() -> ascoltatori.forEach(a -> a.accept(nuova)));
+        }
+    }
+
+    /**
+     * Registra un ascoltatore dei cambi di appartenenza.
+     *
+     * @param ascoltatore azione eseguita sull'EDT con la nuova sessione
+     */
+    public void addListener(Consumer<SessioneUtente> ascoltatore) {
+        ascoltatori.add(ascoltatore);
+    }
+}
@@ -1,6 +1,8 @@
 package gui;
 
+import controller.AsyncController;
 import controller.Controller;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
@@ -18,9 +20,11 @@ import java.util.ArrayList;
  *     <li>Visualizzare concorrenti e valutazioni associate a ciascun team</li>
  * </ul>
  * L'accesso e le operazioni sono limitati agli organizzatori dell'hackathon selezionato.
+ * Le chiamate al controller sono eseguite in background tramite {@link AsyncController}.
  */
 public class TeamPanel extends JPanel {
-    private final Controller controller;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
     private final int loggedOrganizzatoreId;
     private final List<Integer> teamIds = new ArrayList<>();
 
@@ -30,15 +34,15 @@ public class TeamPanel extends JPanel {
     private final JComboBox<String> cbHackathon;
 
     private final JComboBox<String> cbTeam;
-    private final JTextArea taRisultati;
+    private final PagedListModel risultati;
 
     /**
      * Crea un pannello per la gestione dei team.
      *
-     * @param controller            riferimento al controller per la logica applicativa
+     * @param controller            riferimento al controller asincrono per la logica applicativa
      * @param loggedOrganizzatoreId ID dell’organizzatore loggato
      */
-    public TeamPanel(Controller controller,int loggedOrganizzatoreId) {
+    public TeamPanel(AsyncController controller,int loggedOrganizzatoreId) {
         this.controller = controller;
         this.loggedOrganizzatoreId = loggedOrganizzatoreId;
         setLayout(new BorderLayout(10, 10));
@@ -66,8 +70,6 @@ public class TeamPanel extends JPanel {
 
         add(formPanel, BorderLayout.NORTH);
 
-        loadHackathonOptions();
-
 
         cbHackathon.addActionListener(e -> {
             String selected = (String) cbHackathon.getSelectedItem();
@@ -77,11 +79,6 @@ public class TeamPanel extends JPanel {
             }
         });
 
-        taRisultati = new JTextArea(10, 30);
-        taRisultati.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(taRisultati);
-        add(scrollPane,BorderLayout.CENTER);
-
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
 
 
@@ -116,43 +113,54 @@ public class TeamPanel extends JPanel {
         buttonPanel.add(btnShowConcorrenti);
         buttonPanel.add(btnShowValutazioni);
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        busyIndicator = new BusyIndicator(btnSave, btnDelete, btnShowTeams, btnShowAvailableTeams,
+                btnShowConcorrenti, btnShowValutazioni);
+
+        risultati = new PagedListModel(busyIndicator);
+        JList<String> lstRisultati = new JList<>(risultati);
+        lstRisultati.setVisibleRowCount(10);
+        JScrollPane scrollPane = new JScrollPane(lstRisultati);
+        risultati.installa(scrollPane);
+        add(scrollPane,BorderLayout.CENTER);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        loadHackathonOptions();
     }
 
 
     private void saveTeam() {
+        String nome = tfNome.getText();
+        int hackathonId;
         try {
-            String nome = tfNome.getText();
             //int hackathonId = Integer.parseInt(tfHackathonId.getText());
             String hackathonSelected = (String) cbHackathon.getSelectedItem();
-            int hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
-
-
-            int organizzatoreIdDb = controller.getOrganizzatoreIdByHackathon(hackathonId);
-
-
-            if (organizzatoreIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Hackathon non trovato.");
-                return;
-            }
-
-            if (organizzatoreIdDb != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi aggiungere un team a un hackathon che non è stato creato da te.");
-                return;
-            }
-
-            String result = controller.saveTeam(nome, hackathonId);
-            showResults(result);
-            clearFields();
+            hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+            return;
         }
+
+        busyIndicator.trackScrittura("Salvataggio team",
+                controller.callScrittura(c -> {
+                    checkOwnership(c, hackathonId,
+                            "Non puoi aggiungere un team a un hackathon che non è stato creato da te.");
+                    return c.saveTeam(nome, hackathonId);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
 
     private void deleteTeam() {
+        int teamId;
+        int hackathonId;
         try {
 
             String teamSelected = (String) cbTeam.getSelectedItem();
@@ -160,87 +168,67 @@ public class TeamPanel extends JPanel {
                 JOptionPane.showMessageDialog(this, "Seleziona un team da eliminare.");
                 return;
             }
-            int teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
+            teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
 
             String hackathonSelected = (String) cbHackathon.getSelectedItem();
             if (hackathonSelected == null || hackathonSelected.trim().isEmpty()) {
                 JOptionPane.showMessageDialog(this, "Seleziona un hackathon.");
                 return;
             }
-            int hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
-
-
-            int organizzatoreIdDb = controller.getOrganizzatoreIdByHackathon(hackathonId);
-
-            if (organizzatoreIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Hackathon non trovato.");
-                return;
-            }
-
-            if (organizzatoreIdDb != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        " Non puoi eliminare team da un hackathon che non è stato creato da te.");
-                return;
-            }
-
-
-            int hackathonIdDb = controller.getHackathonIdByTeam(teamId);
-
-            if (hackathonIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Team non trovato.");
-                return;
-            }
-
-            if (hackathonIdDb != hackathonId) {
-                JOptionPane.showMessageDialog(this,
-                        " Il team non appartiene all'hackathon con ID " + hackathonId);
-                return;
-            }
-
-
-            String result = controller.deleteTeam(teamId);
-            showResults(result);
-            clearFields();
-
-            loadTeamOptions(hackathonId);
-
+            hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
+            return;
         }
+
+        busyIndicator.trackScrittura("Eliminazione team",
+                controller.callScrittura(c -> {
+                    checkOwnership(c, hackathonId,
+                            " Non puoi eliminare team da un hackathon che non è stato creato da te.");
+                    checkTeamInHackathon(c, teamId, hackathonId,
+                            " Il team non appartiene all'hackathon con ID " + hackathonId);
+                    return c.deleteTeam(teamId);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+
+                    loadTeamOptions(hackathonId);
+                });
     }
 
 
 
     private void showTeamsByHackathonId() {
+        int hackathonId;
         try {
 
             String hackathonSelected = (String) cbHackathon.getSelectedItem();
-            int hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
-
-
-            int ownerId = controller.getOrganizzatoreIdByHackathon(hackathonId);
-            if (ownerId != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi visualizzare i team: l'hackathon non appartiene al tuo account.");
-                return;
-            }
-
-            taRisultati.setText(""); // pulisco l'area
-            var teams = controller.getTeamsByHackathonId(hackathonId);
-
-            if (teams.isEmpty()) {
-                showResults("Nessun team trovato per l'hackathon con ID " + hackathonId);
-            } else {
-                for (String team : teams) {
-                    showResults(team);
-                }
-            }
-
+            hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+            return;
         }
+
+        busyIndicator.track("Caricamento team",
+                controller.call(c -> {
+                    int ownerId = c.getOrganizzatoreIdByHackathon(hackathonId);
+                    if (ownerId != loggedOrganizzatoreId) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi visualizzare i team: l'hackathon non appartiene al tuo account.");
+                    }
+                    return c.getTeamsByHackathonId(hackathonId);
+                }),
+                teams -> {
+                    risultati.mostra(List.of()); // pulisco l'area
+                    if (teams.isEmpty()) {
+                        showResults("Nessun team trovato per l'hackathon con ID " + hackathonId);
+                    } else {
+                        for (String team : teams) {
+                            showResults(team);
+                        }
+                    }
+                });
     }
 
 
@@ -248,55 +236,50 @@ public class TeamPanel extends JPanel {
 
 
     private void showTeamsNotFull() {
-        try {
-            String selectedHackathon = (String) cbHackathon.getSelectedItem();
-
-            if (selectedHackathon == null || selectedHackathon.trim().isEmpty() ||
-                    selectedHackathon.toLowerCase().contains("nessun hackathon")) {
-                JOptionPane.showMessageDialog(this, "Seleziona un hackathon valido dalla lista.");
-                return;
-            }
-
-            // --- Estrai un nome "pulito" dall'elemento selezionato ---
-            String nomeEstratto = extractHackathonName(selectedHackathon);
-            if (nomeEstratto == null || nomeEstratto.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Impossibile determinare il nome dell'hackathon selezionato.");
-                return;
-            }
-
-            // Recupera l'id usando il nome e l'organizzatore (metodo già presente in Controller)
-            int hackathonId = controller.getHackathonIdByNameAndOrganizzatore(nomeEstratto, loggedOrganizzatoreId);
-            if (hackathonId == -1) {
-                JOptionPane.showMessageDialog(this, "Impossibile trovare l'hackathon selezionato.");
-                return;
-            }
-
-            taRisultati.setText("");
-
-            // Ottieni i team non pieni dal controller
-            var teamsNotFull = controller.getTeamsNotFull(hackathonId);
-
-            if (teamsNotFull == null || teamsNotFull.isEmpty()) {
-                // Se non ci sono team non pieni, controlliamo se esistono team in generale
-                var allTeams = controller.getTeamsByHackathonId(hackathonId);
-                if (allTeams == null || allTeams.isEmpty()) {
-                    showResults("Non sono presenti team per questo hackathon.");
-                } else {
-                    showResults("Tutti i team per l'hackathon con ID " + hackathonId + " sono già pieni.");
-                }
-                return;
-            }
+        String selectedHackathon = (String) cbHackathon.getSelectedItem();
 
-            showResults("Team non pieni per l'hackathon con ID " + hackathonId + ":");
-            for (String team : teamsNotFull) {
-                showResults(team);
-            }
+        if (selectedHackathon == null || selectedHackathon.trim().isEmpty() ||
+                selectedHackathon.toLowerCase().contains("nessun hackathon")) {
+            JOptionPane.showMessageDialog(this, "Seleziona un hackathon valido dalla lista.");
+            return;
+        }
 
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+        // --- Estrai un nome "pulito" dall'elemento selezionato ---
+        String nomeEstratto = extractHackathonName(selectedHackathon);
+        if (nomeEstratto == null || nomeEstratto.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Impossibile determinare il nome dell'hackathon selezionato.");
+            return;
         }
+
+        busyIndicator.track("Caricamento team non pieni",
+                controller.call(c -> {
+                    // Recupera l'id usando il nome e l'organizzatore (metodo già presente in Controller)
+                    int hackathonId = c.getHackathonIdByNameAndOrganizzatore(nomeEstratto, loggedOrganizzatoreId);
+                    if (hackathonId == -1) {
+                        throw new OperazioneRifiutataException("Impossibile trovare l'hackathon selezionato.");
+                    }
+
+                    // Ottieni i team non pieni dal controller
+                    var teamsNotFull = c.getTeamsNotFull(hackathonId);
+
+                    if (teamsNotFull == null || teamsNotFull.isEmpty()) {
+                        // Se non ci sono team non pieni, controlliamo se esistono team in generale
+                        var allTeams = c.getTeamsByHackathonId(hackathonId);
+                        if (allTeams == null || allTeams.isEmpty()) {
+                            return List.of("Non sono presenti team per questo hackathon.");
+                        }
+                        return List.of("Tutti i team per l'hackathon con ID " + hackathonId + " sono già pieni.");
+                    }
+
+                    List<String> righe = new ArrayList<>();
+                    righe.add("Team non pieni per l'hackathon con ID " + hackathonId + ":");
+                    righe.addAll(teamsNotFull);
+                    return righe;
+                }),
+                righe -> {
+                    risultati.mostra(List.of());
+                    righe.forEach(this::showResults);
+                });
     }
 
     /**
@@ -349,6 +332,8 @@ public class TeamPanel extends JPanel {
 
 
     private void showConcorrentiByTeam() {
+        int hackathonId;
+        int teamId;
         try {
 
             String hackathonSelected = (String) cbHackathon.getSelectedItem();
@@ -357,59 +342,40 @@ public class TeamPanel extends JPanel {
                 JOptionPane.showMessageDialog(this, "Seleziona sia un hackathon che un team.");
                 return;
             }
-            int hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
+            hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
             //int teamId = Integer.parseInt(tfTeamId.getText());
 
-            int teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
-
-
-            int organizzatoreIdDb = controller.getOrganizzatoreIdByHackathon(hackathonId);
-
-            if (organizzatoreIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Hackathon non trovato.");
-                return;
-            }
-
-            if (organizzatoreIdDb != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi visualizzare i concorrenti di un hackathon che non è stato creato da te.");
-                return;
-            }
-
-
-            int hackathonIdDb = controller.getHackathonIdByTeam(teamId);
-
-            if (hackathonIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Team non trovato.");
-                return;
-            }
-
-            if (hackathonIdDb != hackathonId) {
-                JOptionPane.showMessageDialog(this,
-                        "Il team con ID " + teamId + " non appartiene all'hackathon con ID " + hackathonId);
-                return;
-            }
-
-            // Recupero concorrenti dal controller
-            taRisultati.setText("");
-            var concorrenti = controller.getAllConcorrentiForTeam(teamId, hackathonId);
-
-            if (concorrenti.isEmpty()) {
-                showResults("Nessun concorrente trovato per il team con ID " + teamId);
-            } else {
-                for (String concorrente : concorrenti) {
-                    showResults(concorrente);
-                }
-            }
-
+            teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Inserisci valori numerici validi per Hackathon ID e Team ID.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+            return;
         }
+
+        busyIndicator.track("Caricamento concorrenti",
+                controller.call(c -> {
+                    checkOwnership(c, hackathonId,
+                            "Non puoi visualizzare i concorrenti di un hackathon che non è stato creato da te.");
+                    checkTeamInHackathon(c, teamId, hackathonId,
+                            "Il team con ID " + teamId + " non appartiene all'hackathon con ID " + hackathonId);
+
+                    // Recupero concorrenti dal controller
+                    return c.getAllConcorrentiForTeam(teamId, hackathonId);
+                }),
+                concorrenti -> {
+                    risultati.mostra(List.of());
+                    if (concorrenti.isEmpty()) {
+                        showResults("Nessun concorrente trovato per il team con ID " + teamId);
+                    } else {
+                        for (String concorrente : concorrenti) {
+                            showResults(concorrente);
+                        }
+                    }
+                });
     }
 
     private void showValutazioniByTeam() {
+        int hackathonId;
+        int teamId;
         try {
 
             String hackathonSelected = (String) cbHackathon.getSelectedItem();
@@ -418,78 +384,94 @@ public class TeamPanel extends JPanel {
                 JOptionPane.showMessageDialog(this, "Seleziona sia un hackathon che un team.");
                 return;
             }
-            int hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
-
-
-            int teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
+            hackathonId = Integer.parseInt(hackathonSelected.split(" - ")[0]);
 
 
-            int ownerId = controller.getOrganizzatoreIdByHackathon(hackathonId);
-            if (ownerId != loggedOrganizzatoreId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi visualizzare valutazioni di team in un hackathon che non è stato creato da te.");
-                return;
-            }
-
+            teamId = Integer.parseInt(teamSelected.split(" - ")[0]);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Inserisci valori numerici validi per Hackathon ID e Team ID.");
+            return;
+        }
 
-            int hackathonIdDb = controller.getHackathonIdByTeam(teamId);
-            if (hackathonIdDb == -1) {
-                JOptionPane.showMessageDialog(this, "Team non trovato.");
-                return;
-            }
-            if (hackathonIdDb != hackathonId) {
-                JOptionPane.showMessageDialog(this,
-                        "Il team con ID " + teamId + " non appartiene all'hackathon con ID " + hackathonId);
-                return;
-            }
+        busyIndicator.track("Caricamento valutazioni",
+                controller.call(c -> {
+                    int ownerId = c.getOrganizzatoreIdByHackathon(hackathonId);
+                    if (ownerId != loggedOrganizzatoreId) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi visualizzare valutazioni di team in un hackathon che non è stato creato da te.");
+                    }
+                    checkTeamInHackathon(c, teamId, hackathonId,
+                            "Il team con ID " + teamId + " non appartiene all'hackathon con ID " + hackathonId);
+
+                    return teamId;
+                }),
+                _ -> risultati.carica("Caricamento valutazioni", cursore -> controller.call(
+                        c -> c.getValutazioniByTeamPage(teamId, cursore, PagedListModel.DIMENSIONE_PAGINA))));
+    }
 
+    /**
+     * Verifica che l'hackathon esista e appartenga all'organizzatore loggato.
+     * Va invocato sul thread di lavoro.
+     *
+     * @throws OperazioneRifiutataException con il messaggio da mostrare se il controllo non è superato
+     */
+    private void checkOwnership(Controller c, int hackathonId, String messaggioNonProprietario) {
+        int organizzatoreIdDb = c.getOrganizzatoreIdByHackathon(hackathonId);
 
-            taRisultati.setText(""); // pulisco area
-            var valutazioni = controller.getValutazioniByTeam(teamId);
+        if (organizzatoreIdDb == -1) {
+            throw new OperazioneRifiutataException("Hackathon non trovato.");
+        }
+        if (organizzatoreIdDb != loggedOrganizzatoreId) {
+            throw new OperazioneRifiutataException(messaggioNonProprietario);
+        }
+    }
 
-            if (valutazioni.isEmpty()) {
-                showResults("Nessuna valutazione trovata per il team con ID: " + teamId);
-            } else {
-                valutazioni.forEach(this::showResults);
-            }
+    /**
+     * Verifica che il team esista e appartenga all'hackathon indicato.
+     * Va invocato sul thread di lavoro.
+     *
+     * @throws OperazioneRifiutataException con il messaggio da mostrare se il controllo non è superato
+     */
+    private static void checkTeamInHackathon(Controller c, int teamId, int hackathonId,
+                                             String messaggioAltroHackathon) {
+        int hackathonIdDb = c.getHackathonIdByTeam(teamId);
 
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Inserisci valori numerici validi per Hackathon ID e Team ID.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+        if (hackathonIdDb == -1) {
+            throw new OperazioneRifiutataException("Team non trovato.");
+        }
+        if (hackathonIdDb != hackathonId) {
+            throw new OperazioneRifiutataException(messaggioAltroHackathon);
         }
     }
 
 
     private void loadHackathonOptions() {
-        cbHackathon.removeAllItems();
-        try {
-            var hackathonList = controller.getHackathonByOrganizzatoreId(loggedOrganizzatoreId);
-            if (hackathonList == null || hackathonList.isEmpty()) {
-                cbHackathon.addItem("Nessun hackathon trovato");
-                return;
-            }
-            for (String h : hackathonList) {
-                cbHackathon.addItem(h); // formato: "id - nome"
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Errore nel caricamento degli hackathon: " + e.getMessage());
-        }
+        busyIndicator.track("Caricamento hackathon",
+                controller.call(c -> c.getHackathonByOrganizzatoreId(loggedOrganizzatoreId)),
+                hackathonList -> {
+                    cbHackathon.removeAllItems();
+                    if (hackathonList == null || hackathonList.isEmpty()) {
+                        cbHackathon.addItem("Nessun hackathon trovato");
+                        return;
+                    }
+                    for (String h : hackathonList) {
+                        cbHackathon.addItem(h); // formato: "id - nome"
+                    }
+                });
     }
 
 
 
 
     private void loadTeamOptions(int hackathonId) {
-        cbTeam.removeAllItems();
-        try {
-            var teams = controller.getTeamsByHackathonId(hackathonId);
-            for (String t : teams) {
-                cbTeam.addItem(t); // formato: "id - nome"
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Errore nel caricamento dei team: " + e.getMessage());
-        }
+        busyIndicator.track("Caricamento team",
+                controller.call(c -> c.getTeamsByHackathonId(hackathonId)),
+                teams -> {
+                    cbTeam.removeAllItems();
+                    for (String t : teams) {
+                        cbTeam.addItem(t); // formato: "id - nome"
+                    }
+                });
     }
 
 
@@ -508,6 +490,6 @@ public class TeamPanel extends JPanel {
      */
     public void showResults(String message) {
 
-        taRisultati.append(message + "\n");
+        risultati.aggiungi(message);
     }
 }
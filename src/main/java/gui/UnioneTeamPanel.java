@@ -1,6 +1,8 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
+import model.SessioneUtente;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
 
@@ -12,10 +14,12 @@ import java.awt.*;
  *     <li>Aggiungersi a un team di un hackathon di cui fanno parte</li>
  *     <li>Rimuoversi da un team di cui fanno parte</li>
  * </ul>
+ * Le chiamate al controller sono eseguite in background tramite {@link AsyncController}.
  */
 public class UnioneTeamPanel extends JPanel {
-    private final Controller controller;
-    private final int loggedUserId;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
 
@@ -28,12 +32,12 @@ public class UnioneTeamPanel extends JPanel {
     /**
      * Crea un pannello per gestire l’adesione a team.
      *
-     * @param controller  riferimento al controller
-     * @param loggedUserId ID dell’utente loggato
+     * @param controller  riferimento al controller asincrono
+     * @param sessione    sessione dell’utente loggato
      */
-    public UnioneTeamPanel(Controller controller, int loggedUserId) {
+    public UnioneTeamPanel(AsyncController controller, SessioneCorrente sessione) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
+        this.sessione = sessione;
 
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -76,95 +80,101 @@ public class UnioneTeamPanel extends JPanel {
         buttonPanel.add(btnRemoveFromTeam);
 
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        busyIndicator = new BusyIndicator(btnAddToTeam, btnRemoveFromTeam);
 
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
+
+        sessione.addListener(_ -> loadTeamsForLoggedUser());
         loadTeamsForLoggedUser();
     }
 
 
 
     private void addUtenteToTeam() {
+        String selected = (String) cbTeam.getSelectedItem();
+        int teamId;
         try {
-
-            String selected = (String) cbTeam.getSelectedItem();
-            Integer teamId = null;
-            if (selected != null && selected.contains(" - ")) {
-                teamId = Integer.parseInt(selected.split(" - ")[0].trim());
-            }
-
-            if (teamId == null) {
+            if (selected == null || !selected.contains(" - ")) {
                 JOptionPane.showMessageDialog(this, "Seleziona un team valido.");
                 return;
             }
-
-            int currentTeamId = controller.getTeamIdByUser(loggedUserId);
-            if (currentTeamId > 0) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi aggiungerti a un altro team: sei già nel team con ID " + currentTeamId);
-                return;
-            }
-
-
-            int hackathonId = controller.getHackathonIdByTeam(teamId);
-
-
-            int userHackathonId = controller.getHackathonIdByUser(loggedUserId);
-
-            if (hackathonId != userHackathonId) {
-                JOptionPane.showMessageDialog(this,
-                        "Non puoi aggiungerti a questo team: appartiene a un altro hackathon.");
-                return;
-            }
-
-            String result = controller.addUtenteToTeam(loggedUserId, teamId);
-            showResults(result);
+            teamId = Integer.parseInt(selected.split(" - ")[0].trim());
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+            return;
         }
-    }
-
-    private void removeUtenteFromTeam() {
-        try {
 
-            int currentTeamId = controller.getTeamIdByUser(loggedUserId);
+        SessioneUtente corrente = sessione.get();
+        if (corrente.hasTeam()) {
+            JOptionPane.showMessageDialog(this,
+                    "Non puoi aggiungerti a un altro team: sei già nel team con ID " + corrente.teamId());
+            return;
+        }
 
-            if (currentTeamId == -1 || currentTeamId == 0) {
-                JOptionPane.showMessageDialog(this, "Non appartieni a nessun team.");
-                return;
-            }
+        busyIndicator.trackScrittura("Adesione al team",
+                controller.callScrittura(c -> {
+                    int hackathonId = c.getHackathonIdByTeam(teamId);
+
+                    if (!corrente.hasHackathon() || hackathonId != corrente.hackathonId()) {
+                        throw new OperazioneRifiutataException(
+                                "Non puoi aggiungerti a questo team: appartiene a un altro hackathon.");
+                    }
+
+                    String result = c.addUtenteToTeam(corrente.userId(), teamId);
+                    return new EsitoAppartenenza(result, c.refreshSessione(corrente.userId()));
+                }),
+                esito -> {
+                    showResults(esito.messaggio());
+                    sessione.aggiorna(esito.sessione());
+                });
+    }
 
-            String result = controller.removeUtenteFromTeam(loggedUserId,currentTeamId);
-            showResults(result);
+    private void removeUtenteFromTeam() {
+        SessioneUtente corrente = sessione.get();
 
-            loadTeamsForLoggedUser();
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Errore nei valori inseriti.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore: " + ex.getMessage());
+        if (!corrente.hasTeam()) {
+            JOptionPane.showMessageDialog(this, "Non appartieni a nessun team.");
+            return;
         }
+
+        busyIndicator.trackScrittura("Uscita dal team",
+                controller.callScrittura(c -> {
+                    String result = c.removeUtenteFromTeam(corrente.userId(), corrente.teamId());
+                    return new EsitoAppartenenza(result, c.refreshSessione(corrente.userId()));
+                }),
+                esito -> {
+                    showResults(esito.messaggio());
+
+                    // la lista dei team viene ricaricata dall'ascoltatore della sessione
+                    sessione.aggiorna(esito.sessione());
+                });
     }
 
 
 
     private void loadTeamsForLoggedUser() {
-        cbTeam.removeAllItems();
-        try {
-            int hackathonId = controller.getHackathonIdByUser(loggedUserId);
-            if (hackathonId == -1) {
-                cbTeam.addItem("Nessun hackathon trovato");
-                return;
-            }
-
-            var teams = controller.getTeamsByHackathonId(hackathonId);
-            for (String t : teams) {
-                cbTeam.addItem(t); // formato "id - nome"
-            }
-
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Errore nel caricamento dei team: " + e.getMessage());
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.hasHackathon()) {
+            cbTeam.removeAllItems();
+            cbTeam.addItem("Nessun hackathon trovato");
+            return;
         }
+
+        busyIndicator.track("Caricamento team",
+                controller.call(c -> c.getTeamsNotFullCombo(corrente.hackathonId())),
+                teams -> {
+                    cbTeam.removeAllItems();
+                    if (teams.isEmpty()) {
+                        cbTeam.addItem("Nessun team con posti liberi");
+                        return;
+                    }
+                    for (String t : teams) {
+                        cbTeam.addItem(t); // formato "id - nome (membri/massimo)"
+                    }
+                });
     }
 
 
@@ -177,4 +187,9 @@ public class UnioneTeamPanel extends JPanel {
         taRisultati.append(message + "\n");
     }
 
+    /**
+     * Esito di un'adesione o di un'uscita da un team, con la sessione ricaricata.
+     */
+    private record EsitoAppartenenza(String messaggio, SessioneUtente sessione) {
+    }
 }
@@ -1,6 +1,8 @@
 package gui;
 
-import controller.Controller;
+import controller.AsyncController;
+import model.SessioneUtente;
+import model.exceptions.OperazioneRifiutataException;
 import javax.swing.*;
 import java.awt.*;
 
@@ -14,11 +16,12 @@ import java.awt.*;
  *     <li>Visualizzare tutte le valutazioni di un team</li>
  * </ul>
  * L’accesso alle funzionalità è riservato agli utenti con ruolo {@code giudice}.
+ * Le chiamate al controller sono eseguite in background tramite {@link AsyncController}.
  */
 public class ValutazionePanel extends JPanel{
-    private final Controller controller;
-    private final int loggedUserId;
-    private final String loggedUserTipo;
+    private final AsyncController controller;
+    private final BusyIndicator busyIndicator;
+    private final SessioneCorrente sessione;
 
 
     private final JTextField tfTeamId;
@@ -32,14 +35,12 @@ public class ValutazionePanel extends JPanel{
     /**
      * Crea un pannello per la gestione delle valutazioni.
      *
-     * @param controller    riferimento al controller
-     * @param loggedUserId  ID dell’utente loggato
-     * @param loggedUserTipo tipo dell’utente loggato (es. {@code giudice})
+     * @param controller    riferimento al controller asincrono
+     * @param sessione      sessione dell’utente loggato (tipo atteso: {@code giudice})
      */
-    public ValutazionePanel(Controller controller,int loggedUserId, String loggedUserTipo) {
+    public ValutazionePanel(AsyncController controller, SessioneCorrente sessione) {
         this.controller = controller;
-        this.loggedUserId = loggedUserId;
-        this.loggedUserTipo = loggedUserTipo;
+        this.sessione = sessione;
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
@@ -128,41 +129,48 @@ public class ValutazionePanel extends JPanel{
 
         buttonPanel.add(btnShowValutazioni);
 
-        add(buttonPanel, BorderLayout.SOUTH);
+        busyIndicator = new BusyIndicator(btnSave, btnShowValutazioni);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(busyIndicator, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
 
 
 
 
     private void saveValutazione() {
-        try {
-            if (!"giudice".equalsIgnoreCase(loggedUserTipo)) {
-                showResults("Solo i giudici possono aggiungere valutazioni.");
-                return;
-            }
-
-            int teamId = Integer.parseInt(tfTeamId.getText());
-
-            int teamHackathonId = controller.getHackathonIdByTeam(teamId);
-            int giudiceHackathonId = controller.getHackathonIdByUser(loggedUserId);
-
-            if (teamHackathonId != giudiceHackathonId) {
-                showResults(" Non puoi valutare team di un altro hackathon.");
-                return;
-            }
-
-            int punteggio = (Integer)cbPunteggio.getSelectedItem();
-            String feedback = taFeedback.getText();
-
-
-            String result = controller.saveValutazione(teamId, loggedUserId, punteggio, feedback);
-            showResults(result);
-            clearFields();
-
+        SessioneUtente corrente = sessione.get();
+        if (!corrente.isTipo("giudice")) {
+            showResults("Solo i giudici possono aggiungere valutazioni.");
+            return;
+        }
 
-        } catch (Exception ex) {
+        int teamId;
+        try {
+            teamId = Integer.parseInt(tfTeamId.getText());
+        } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Errore durante il salvataggio: " + ex.getMessage());
+            return;
         }
+        int punteggio = (Integer)cbPunteggio.getSelectedItem();
+        String feedback = taFeedback.getText();
+
+        busyIndicator.trackScrittura("Salvataggio valutazione",
+                controller.callScrittura(c -> {
+                    int teamHackathonId = c.getHackathonIdByTeam(teamId);
+
+                    if (!corrente.hasHackathon() || teamHackathonId != corrente.hackathonId()) {
+                        throw new OperazioneRifiutataException(" Non puoi valutare team di un altro hackathon.");
+                    }
+
+                    return c.saveValutazione(teamId, corrente.userId(), punteggio, feedback);
+                }),
+                result -> {
+                    showResults(result);
+                    clearFields();
+                });
     }
 
 
@@ -170,32 +178,30 @@ public class ValutazionePanel extends JPanel{
 
 
     private void showValutazioniByTeam() {
+        String teamIdStr = tfTeamId.getText().trim();
+        if (teamIdStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Inserisci l'ID del team.");
+            return;
+        }
+
+        int teamId;
         try {
-            String teamIdStr = tfTeamId.getText().trim();
-            if (teamIdStr.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Inserisci l'ID del team.");
-                return;
-            }
-
-            int teamId;
-            try {
-                teamId = Integer.parseInt(teamIdStr);
-            } catch (NumberFormatException nfe) {
-                JOptionPane.showMessageDialog(this, "Team ID non valido.");
-                return;
-            }
-
-            taRisultati.setText("");
-            var valutazioni = controller.getValutazioniByTeam(teamId);
-
-            if (valutazioni == null || valutazioni.isEmpty()) {
-                showResults("Nessuna valutazione trovata per il team con ID: " + teamId);
-            } else {
-                valutazioni.forEach(this::showResults);
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Errore durante la visualizzazione delle valutazioni: " + ex.getMessage());
+            teamId = Integer.parseInt(teamIdStr);
+        } catch (NumberFormatException nfe) {
+            JOptionPane.showMessageDialog(this, "Team ID non valido.");
+            return;
         }
+
+        busyIndicator.track("Caricamento valutazioni",
+                controller.call(c -> c.getValutazioniByTeam(teamId)),
+                valutazioni -> {
+                    taRisultati.setText("");
+                    if (valutazioni == null || valutazioni.isEmpty()) {
+                        showResults("Nessuna valutazione trovata per il team con ID: " + teamId);
+                    } else {
+                        valutazioni.forEach(this::showResults);
+                    }
+                });
     }
 
 
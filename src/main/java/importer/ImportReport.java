@@ -0,0 +1,63 @@
+package importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Esito di un'importazione massiva di utenti.
+ *
+ * @param righeLette        righe di dati lette dal file (esclusa l'intestazione e le righe vuote)
+ * @param importati         utenti inseriti nel database
+ * @param errori            righe scartate, con il relativo motivo
+ * @param durataMillis      durata complessiva dell'importazione
+ * @param controlliMillis   tempo speso nei controlli sul database (email, team, hackathon)
+ * @param hashingMillis     tempo speso nel calcolo degli hash delle password
+ * @param inserimentoMillis tempo speso negli inserimenti a blocchi
+ */
+public record ImportReport(int righeLette, int importati, List<ErroreRiga> errori,
+                           long durataMillis, long controlliMillis, long hashingMillis, long inserimentoMillis) {
+
+    /**
+     * Riga del file scartata durante l'importazione.
+     *
+     * @param riga      numero della riga nel file (l'intestazione è la riga 1)
+     * @param email     email indicata nella riga, se leggibile
+     * @param messaggio motivo dello scarto
+     */
+    public record ErroreRiga(int riga, String email, String messaggio) {
+    }
+
+    /**
+     * @return numero di righe scartate
+     */
+    public int scartati() {
+        return errori.size();
+    }
+
+    /**
+     * @return righe elaborate al secondo sull'intera durata dell'importazione
+     */
+    public double righePerSecondo() {
+        return durataMillis == 0 ? righeLette : righeLette * 1000.0 / durataMillis;
+    }
+
+    /**
+     * Restituisce il riepilogo e l'elenco degli errori come righe di testo,
+     * nel formato usato dai pannelli per mostrare i risultati.
+     *
+     * @return righe del report
+     */
+    public List<String> toLines() {
+        List<String> out = new ArrayList<>();
+        out.add("Importazione completata: " + importati + " utenti importati, "
+                + scartati() + " righe scartate su " + righeLette + ".");
+        out.add(String.format(Locale.ROOT, "Durata: %d ms (%.1f righe/s) - controlli %d ms, hashing %d ms, inserimento %d ms",
+                durataMillis, righePerSecondo(), controlliMillis, hashingMillis, inserimentoMillis));
+        for (ErroreRiga errore : errori) {
+            out.add("Riga " + errore.riga() + (errore.email() != null ? " (" + errore.email() + ")" : "")
+                    + ": " + errore.messaggio());
+        }
+        return out;
+    }
+}
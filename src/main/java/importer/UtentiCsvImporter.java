@@ -0,0 +1,456 @@
+package importer;
+
+import dao.HackathonDAO;
+import dao.TeamDAO;
+import dao.UtenteDAO;
+import dao.row.HackathonRow;
+import dao.row.NuovoUtenteRow;
+import importer.ImportReport.ErroreRiga;
+import model.exceptions.InvalidDataException;
+import model.utils.ValidationUtils;
+import security.HashingRejectedException;
+import security.HashingService;
+import security.PasswordSecurity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Importazione massiva di utenti da un file CSV.
+ * <p>
+ * Il file viene letto in streaming e le righe vengono elaborate a blocchi:
+ * <ol>
+ *     <li>ogni riga è validata con {@link ValidationUtils} (campi obbligatori, email, tipo utente)
+ *         e l'hackathon indicato deve essere dell'organizzatore che importa;</li>
+ *     <li>per ogni blocco, email già registrate e appartenenza dei team agli hackathon vengono
+ *         verificate con poche query sull'intero blocco, non riga per riga;</li>
+ *     <li>le password del blocco vengono trasformate in hash sul {@link HashingService} condiviso,
+ *         tenendo in corso meno calcoli dei suoi thread, così login e registrazioni non restano
+ *         in attesa dietro all'importazione;</li>
+ *     <li>le righe valide vengono inserite con {@link UtenteDAO#saveBatch(List)}, in una
+ *         transazione per blocco.</li>
+ * </ol>
+ * Il risultato è un {@link ImportReport} con l'elenco delle righe scartate e i tempi di ogni fase.
+ * </p>
+ * <p>
+ * Il file deve avere un'intestazione con le colonne {@code nome}, {@code cognome}, {@code email},
+ * {@code password} e {@code tipo_utente}; le colonne {@code hackathon_id} e {@code team_id} sono
+ * facoltative. Il separatore è la virgola (o il punto e virgola, se usato nell'intestazione) e i
+ * valori possono essere racchiusi tra doppi apici.
+ * </p>
+ */
+public class UtentiCsvImporter {
+
+    private static final Logger logger = Logger.getLogger(UtentiCsvImporter.class.getName());
+
+    /** Numero di righe inserite in ciascuna transazione. */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final List<String> COLONNE_OBBLIGATORIE =
+            List.of("nome", "cognome", "email", "password", "tipo_utente");
+    private static final Set<String> TIPI_UTENTE = Set.of("concorrente", "giudice", "organizzatore");
+    private static final int MAX_TENTATIVI_HASH = 50;
+
+    private final UtenteDAO utenteDAO;
+    private final TeamDAO teamDAO;
+    private final HackathonDAO hackathonDAO;
+    private final int chunkSize;
+    private final int hashInCorso;
+
+    /**
+     * Crea un importatore con blocchi da {@value #DEFAULT_CHUNK_SIZE} righe che tiene
+     * in corso un calcolo di hash in meno dei thread del {@link HashingService}.
+     *
+     * @param utenteDAO    DAO degli utenti
+     * @param teamDAO      DAO dei team
+     * @param hackathonDAO DAO degli hackathon
+     */
+    public UtentiCsvImporter(UtenteDAO utenteDAO, TeamDAO teamDAO, HackathonDAO hackathonDAO) {
+        this(utenteDAO, teamDAO, hackathonDAO, DEFAULT_CHUNK_SIZE,
+                Math.max(1, HashingService.getInstance().getStats().threads() - 1));
+    }
+
+    /**
+     * Crea un importatore con dimensione dei blocchi e parallelismo indicati.
+     *
+     * @param utenteDAO    DAO degli utenti
+     * @param teamDAO      DAO dei team
+     * @param hackathonDAO DAO degli hackathon
+     * @param chunkSize    righe per transazione
+     * @param hashInCorso  massimo di password in hashing contemporaneamente sul {@link HashingService}
+     */
+    public UtentiCsvImporter(UtenteDAO utenteDAO, TeamDAO teamDAO, HackathonDAO hackathonDAO,
+                             int chunkSize, int hashInCorso) {
+        if (chunkSize < 1 || hashInCorso < 1) {
+            throw new IllegalArgumentException("Dimensione dei blocchi e calcoli di hash in corso devono essere positivi.");
+        }
+        this.utenteDAO = utenteDAO;
+        this.teamDAO = teamDAO;
+        this.hackathonDAO = hackathonDAO;
+        this.chunkSize = chunkSize;
+        this.hashInCorso = hashInCorso;
+    }
+
+    /**
+     * Importa gli utenti dal file CSV indicato (codifica UTF-8).
+     *
+     * @param file            percorso del file
+     * @param organizzatoreId ID dell'organizzatore che importa: le righe possono indicare solo i suoi hackathon
+     * @return il report dell'importazione
+     * @throws IOException  se il file non è leggibile o l'intestazione non è valida
+     * @throws SQLException se una transazione di inserimento non può essere completata
+     */
+    public ImportReport importa(Path file, int organizzatoreId) throws IOException, SQLException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importa(reader, organizzatoreId);
+        }
+    }
+
+    /**
+     * Importa gli utenti leggendo il CSV dal reader indicato.
+     *
+     * @param source          sorgente del CSV; non viene chiusa
+     * @param organizzatoreId ID dell'organizzatore che importa: le righe possono indicare solo i suoi hackathon
+     * @return il report dell'importazione
+     * @throws IOException  se la sorgente non è leggibile o l'intestazione non è valida
+     * @throws SQLException se una transazione di inserimento non può essere completata
+     */
+    public ImportReport importa(Reader source, int organizzatoreId) throws IOException, SQLException {
+        long inizio = System.nanoTime();
+        BufferedReader reader = source instanceof BufferedReader br ? br : new BufferedReader(source);
+
+        String intestazione = reader.readLine();
+        if (intestazione == null) {
+            throw new IOException("Il file CSV è vuoto.");
+        }
+        if (intestazione.startsWith("\uFEFF")) {
+            intestazione = intestazione.substring(1);
+        }
+        char separatore = intestazione.indexOf(';') >= 0 && intestazione.indexOf(',') < 0 ? ';' : ',';
+        Map<String, Integer> colonne = leggiIntestazione(intestazione, separatore);
+
+        Stato stato = new Stato(organizzatoreId);
+        // una sola query per gli hackathon con registrazioni aperte, valida per tutto il file
+        long t0 = System.nanoTime();
+        for (HackathonRow row : hackathonDAO.findRowsByRegistrazioniAperte(true)) {
+            stato.organizzatoriHackathonAperti.put(row.id(), row.organizzatoreId());
+        }
+        stato.controlliNanos += System.nanoTime() - t0;
+
+        List<Candidato> blocco = new ArrayList<>(chunkSize);
+        int numeroRiga = 1;
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            numeroRiga++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            stato.righeLette++;
+
+            Candidato candidato = valida(numeroRiga, dividi(linea, separatore), colonne, stato);
+            if (candidato != null) {
+                blocco.add(candidato);
+            }
+            if (blocco.size() == chunkSize) {
+                elaboraBlocco(blocco, stato);
+                blocco.clear();
+            }
+        }
+        elaboraBlocco(blocco, stato);
+
+        stato.errori.sort((a, b) -> Integer.compare(a.riga(), b.riga()));
+        ImportReport report = new ImportReport(stato.righeLette, stato.importati, stato.errori,
+                millis(System.nanoTime() - inizio), millis(stato.controlliNanos),
+                millis(stato.hashingNanos), millis(stato.inserimentoNanos));
+        logger.log(Level.INFO, "Importazione utenti: {0} importati, {1} scartati in {2} ms",
+                new Object[]{report.importati(), report.scartati(), report.durataMillis()});
+        return report;
+    }
+
+    private static Map<String, Integer> leggiIntestazione(String intestazione, char separatore) throws IOException {
+        Map<String, Integer> colonne = new HashMap<>();
+        List<String> nomi = dividi(intestazione, separatore);
+        for (int i = 0; i < nomi.size(); i++) {
+            colonne.put(nomi.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> mancanti = new ArrayList<>();
+        for (String obbligatoria : COLONNE_OBBLIGATORIE) {
+            if (!colonne.containsKey(obbligatoria)) {
+                mancanti.add(obbligatoria);
+            }
+        }
+        if (!mancanti.isEmpty()) {
+            throw new IOException("Intestazione CSV non valida, colonne mancanti: " + String.join(", ", mancanti));
+        }
+        return colonne;
+    }
+
+    /**
+     * Controlli che non richiedono il database. Restituisce {@code null} se la riga è scartata.
+     */
+    private static Candidato valida(int riga, List<String> valori, Map<String, Integer> colonne, Stato stato) {
+        String email = valore(valori, colonne, "email");
+        String emailNormalizzata = email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+        try {
+            String nome = valore(valori, colonne, "nome");
+            String cognome = valore(valori, colonne, "cognome");
+            String password = valore(valori, colonne, "password");
+            String tipo = valore(valori, colonne, "tipo_utente");
+
+            ValidationUtils.validateNotEmpty(nome, "Nome");
+            ValidationUtils.validateNotEmpty(cognome, "Cognome");
+            ValidationUtils.validateNotEmpty(password, "Password");
+            ValidationUtils.validateNotEmpty(tipo, "Tipo utente");
+            if (!ValidationUtils.isValidEmail(emailNormalizzata)) {
+                throw new InvalidDataException("Email non valida: " + email);
+            }
+
+            String tipoUtente = tipo.trim().toLowerCase(Locale.ROOT);
+            if (!TIPI_UTENTE.contains(tipoUtente)) {
+                throw new InvalidDataException("Tipo utente non valido: " + tipo);
+            }
+
+            Integer hackathonId = intero(valore(valori, colonne, "hackathon_id"), "hackathon_id");
+            Integer teamId = intero(valore(valori, colonne, "team_id"), "team_id");
+            if ("organizzatore".equals(tipoUtente) && hackathonId != null) {
+                throw new InvalidDataException("Un organizzatore non può avere un hackathon scelto.");
+            }
+            if (teamId != null && !"concorrente".equals(tipoUtente)) {
+                throw new InvalidDataException("Solo un concorrente può essere assegnato a un team.");
+            }
+            if (teamId != null && hackathonId == null) {
+                throw new InvalidDataException("Il team richiede l'indicazione dell'hackathon.");
+            }
+            if (hackathonId != null) {
+                Integer organizzatoreHackathon = stato.organizzatoriHackathonAperti.get(hackathonId);
+                if (organizzatoreHackathon == null) {
+                    throw new InvalidDataException("Hackathon con ID " + hackathonId
+                            + " inesistente o con registrazioni chiuse.");
+                }
+                if (organizzatoreHackathon != stato.organizzatoreId) {
+                    throw new InvalidDataException("L'hackathon con ID " + hackathonId
+                            + " non è organizzato da te.");
+                }
+            }
+            if (!stato.emailViste.add(emailNormalizzata)) {
+                throw new InvalidDataException("Email duplicata nel file.");
+            }
+
+            return new Candidato(riga, nome.trim(), cognome.trim(), emailNormalizzata, password,
+                    tipoUtente, hackathonId, teamId);
+        } catch (InvalidDataException e) {
+            stato.errori.add(new ErroreRiga(riga, emailNormalizzata, e.getMessage()));
+            return null;
+        }
+    }
+
+    private void elaboraBlocco(List<Candidato> blocco, Stato stato) throws SQLException {
+        if (blocco.isEmpty()) {
+            return;
+        }
+
+        // controlli sull'intero blocco: una query per le email e una per i team
+        long t0 = System.nanoTime();
+        Set<String> emails = new HashSet<>();
+        Set<Integer> teamIds = new HashSet<>();
+        for (Candidato c : blocco) {
+            emails.add(c.email());
+            if (c.teamId() != null) {
+                teamIds.add(c.teamId());
+            }
+        }
+        Set<String> giaRegistrate = utenteDAO.findExistingEmails(emails);
+        Map<Integer, Integer> hackathonDeiTeam = teamDAO.findHackathonIdsByTeamIds(teamIds);
+
+        List<Candidato> validi = new ArrayList<>(blocco.size());
+        for (Candidato c : blocco) {
+            if (giaRegistrate.contains(c.email())) {
+                stato.errori.add(new ErroreRiga(c.riga(), c.email(), "Email già registrata."));
+            } else if (c.teamId() != null && !hackathonDeiTeam.containsKey(c.teamId())) {
+                stato.errori.add(new ErroreRiga(c.riga(), c.email(), "Team con ID " + c.teamId() + " non trovato."));
+            } else if (c.teamId() != null && !c.hackathonId().equals(hackathonDeiTeam.get(c.teamId()))) {
+                stato.errori.add(new ErroreRiga(c.riga(), c.email(), "Il team con ID " + c.teamId()
+                        + " non appartiene all'hackathon con ID " + c.hackathonId()));
+            } else {
+                validi.add(c);
+            }
+        }
+        stato.controlliNanos += System.nanoTime() - t0;
+        if (validi.isEmpty()) {
+            return;
+        }
+
+        // hash delle password sul servizio condiviso, con al più hashInCorso calcoli avviati e non
+        // ancora conclusi: il servizio li esegue in ordine, quindi prima di avviarne uno nuovo
+        // basta attendere quello avviato hashInCorso posizioni prima
+        long t1 = System.nanoTime();
+        List<Future<String>> hash = new ArrayList<>(validi.size());
+        List<NuovoUtenteRow> righe = new ArrayList<>(validi.size());
+        List<Candidato> daInserire = new ArrayList<>(validi.size());
+        LocalDate oggi = LocalDate.now();
+        try {
+            for (Candidato c : validi) {
+                if (hash.size() >= hashInCorso) {
+                    attendi(hash.get(hash.size() - hashInCorso));
+                }
+                hash.add(avviaHash(c.password()));
+            }
+            for (int i = 0; i < validi.size(); i++) {
+                Candidato c = validi.get(i);
+                try {
+                    righe.add(new NuovoUtenteRow(c.nome(), c.cognome(), c.email(), hash.get(i).get(), oggi,
+                            c.tipoUtente(), c.hackathonId(), c.teamId()));
+                    daInserire.add(c);
+                } catch (ExecutionException e) {
+                    stato.errori.add(new ErroreRiga(c.riga(), c.email(),
+                            "Errore nel calcolo dell'hash: " + e.getCause().getMessage()));
+                }
+            }
+        } catch (InterruptedException e) {
+            hash.forEach(calcolo -> calcolo.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SQLException("Importazione interrotta.", e);
+        }
+        stato.hashingNanos += System.nanoTime() - t1;
+
+        // inserimento del blocco in un'unica transazione
+        long t2 = System.nanoTime();
+        List<String> esiti = utenteDAO.saveBatch(righe);
+        for (int i = 0; i < esiti.size(); i++) {
+            if (esiti.get(i) == null) {
+                stato.importati++;
+            } else {
+                Candidato c = daInserire.get(i);
+                stato.errori.add(new ErroreRiga(c.riga(), c.email(), "Rifiutato dal database: " + esiti.get(i)));
+            }
+        }
+        stato.inserimentoNanos += System.nanoTime() - t2;
+    }
+
+    /**
+     * Il servizio di hashing è condiviso con login e registrazioni: se è saturo si attende
+     * brevemente e si riprova, invece di far fallire la riga. Dopo l'ultimo tentativo il
+     * rifiuto è riportato dal calcolo restituito.
+     */
+    private static Future<String> avviaHash(String password) throws InterruptedException {
+        long attesa = 20;
+        for (int tentativo = 1; ; tentativo++) {
+            try {
+                return PasswordSecurity.hashPasswordAsync(password);
+            } catch (HashingRejectedException e) {
+                if (tentativo >= MAX_TENTATIVI_HASH) {
+                    return CompletableFuture.failedFuture(e);
+                }
+                Thread.sleep(attesa);
+                attesa = Math.min(attesa * 2, 500);
+            }
+        }
+    }
+
+    /**
+     * Attende la fine di un calcolo di hash; il suo eventuale errore viene riportato
+     * quando si raccolgono i risultati del blocco.
+     */
+    private static void attendi(Future<String> calcolo) throws InterruptedException {
+        try {
+            calcolo.get();
+        } catch (ExecutionException e) {
+            // riportato con la riga a cui appartiene
+        }
+    }
+
+    private static String valore(List<String> valori, Map<String, Integer> colonne, String colonna) {
+        Integer indice = colonne.get(colonna);
+        if (indice == null || indice >= valori.size()) {
+            return null;
+        }
+        String valore = valori.get(indice);
+        return valore.isBlank() ? null : valore;
+    }
+
+    private static Integer intero(String valore, String colonna) throws InvalidDataException {
+        if (valore == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valore.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidDataException("Valore non numerico per " + colonna + ": " + valore);
+        }
+    }
+
+    /**
+     * Divide una riga CSV nei suoi campi, gestendo i valori tra doppi apici
+     * (con {@code ""} come apice letterale).
+     */
+    static List<String> dividi(String linea, char separatore) {
+        List<String> campi = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean traApici = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char ch = linea.charAt(i);
+            if (traApici) {
+                if (ch == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    traApici = false;
+                } else {
+                    campo.append(ch);
+                }
+            } else if (ch == '"') {
+                traApici = true;
+            } else if (ch == separatore) {
+                campi.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(ch);
+            }
+        }
+        campi.add(campo.toString());
+        return campi;
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private record Candidato(int riga, String nome, String cognome, String email, String password,
+                             String tipoUtente, Integer hackathonId, Integer teamId) {
+    }
+
+    /** Contatori e insiemi condivisi tra i blocchi di una singola importazione. */
+    private static final class Stato {
+        private final int organizzatoreId;
+        private final Map<Integer, Integer> organizzatoriHackathonAperti = new HashMap<>();
+        private final Set<String> emailViste = new HashSet<>();
+        private final List<ErroreRiga> errori = new ArrayList<>();
+        private int righeLette;
+        private int importati;
+        private long controlliNanos;
+        private long hashingNanos;
+        private long inserimentoNanos;
+
+        private Stato(int organizzatoreId) {
+            this.organizzatoreId = organizzatoreId;
+        }
+    }
+}
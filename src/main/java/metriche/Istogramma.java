@@ -0,0 +1,118 @@
+package metriche;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Istogramma di valori interi non negativi con errore relativo limitato, sul modello di HdrHistogram.
+ * <p>
+ * I valori fino a 63 hanno un bucket ciascuno; oltre, ogni potenza di due è divisa in 32 bucket
+ * lineari, quindi un percentile è riportato con un errore relativo massimo di 1/32 (circa 3%)
+ * qualunque sia l'ordine di grandezza. Valori oltre {@link #VALORE_MASSIMO} vengono registrati
+ * come {@link #VALORE_MASSIMO}.
+ * </p>
+ * <p>
+ * La registrazione non usa lock ed è sicura tra thread; le letture sono istantanee approssimate,
+ * adatte al monitoraggio.
+ * </p>
+ */
+public final class Istogramma {
+
+    /** Valore massimo distinguibile (circa 12 giorni, se i valori sono microsecondi). */
+    public static final long VALORE_MASSIMO = (1L << 40) - 1;
+
+    private static final int BIT_SOTTO_BUCKET = 5;
+    private static final int SOTTO_BUCKET = 1 << BIT_SOTTO_BUCKET;
+
+    private final AtomicLongArray conteggi = new AtomicLongArray(indice(VALORE_MASSIMO) + 1);
+    private final LongAdder totale = new LongAdder();
+    private final LongAdder somma = new LongAdder();
+    private final AtomicLong massimo = new AtomicLong();
+
+    /**
+     * Registra un valore.
+     *
+     * @param valore valore da registrare; i negativi sono registrati come 0
+     */
+    public void registra(long valore) {
+        long v = Math.max(0, Math.min(valore, VALORE_MASSIMO));
+        conteggi.incrementAndGet(indice(v));
+        totale.increment();
+        somma.add(v);
+        massimo.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * @return numero di valori registrati
+     */
+    public long conteggio() {
+        return totale.sum();
+    }
+
+    /**
+     * @return media dei valori registrati, 0 se non ce ne sono
+     */
+    public double media() {
+        long n = totale.sum();
+        return n == 0 ? 0 : (double) somma.sum() / n;
+    }
+
+    /**
+     * @return valore massimo registrato
+     */
+    public long massimo() {
+        return massimo.get();
+    }
+
+    /**
+     * Restituisce il valore sotto cui cade la percentuale indicata dei valori registrati.
+     *
+     * @param percentile percentile tra 0 e 100
+     * @return il limite superiore del bucket che contiene il percentile, 0 se non ci sono valori
+     */
+    public long percentile(double percentile) {
+        long n = totale.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long soglia = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long cumulato = 0;
+        for (int i = 0; i < conteggi.length(); i++) {
+            cumulato += conteggi.get(i);
+            if (cumulato >= soglia) {
+                return Math.min(limiteSuperiore(i), massimo.get());
+            }
+        }
+        return massimo.get();
+    }
+
+    /**
+     * Azzera l'istogramma.
+     */
+    public void azzera() {
+        for (int i = 0; i < conteggi.length(); i++) {
+            conteggi.set(i, 0);
+        }
+        totale.reset();
+        somma.reset();
+        massimo.set(0);
+    }
+
+    static int indice(long valore) {
+        if (valore < 2 * SOTTO_BUCKET) {
+            return (int) valore;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(valore) - BIT_SOTTO_BUCKET;
+        return shift * SOTTO_BUCKET + (int) (valore >>> shift);
+    }
+
+    static long limiteSuperiore(int indice) {
+        if (indice < 2 * SOTTO_BUCKET) {
+            return indice;
+        }
+        int shift = indice / SOTTO_BUCKET - 1;
+        long mantissa = indice % SOTTO_BUCKET + SOTTO_BUCKET;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,323 @@
+package metriche;
+
+import db.SessioneQuery;
+import model.Pagina;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Registro delle metriche di accesso al database.
+ * <p>
+ * {@link #strumenta(Class, Object)} avvolge un DAO in un proxy che, per ogni metodo
+ * dell'interfaccia, conta chiamate, errori e righe restituite e registra la latenza in un
+ * {@link Istogramma}. {@link #misuraOperazione(Class, Supplier)} delimita invece
+ * un'operazione utente: le chiamate DAO eseguite al suo interno, sullo stesso thread, vengono
+ * contate e attribuite ai metodi della classe facciata (il controller) da cui partono, così
+ * da vedere quante query costa ogni azione dell'interfaccia.
+ * </p>
+ * <p>
+ * Le statistiche sono pubblicate come MBean nel dominio {@code hackathon.metriche}
+ * ({@code type=Dao} per i metodi, {@code type=Operazione} per le operazioni) e sono leggibili
+ * con JConsole o VisualVM; l'MBean {@code hackathon.metriche:type=Metriche} ne produce il
+ * report e lo salva su file. La raccolta si disattiva avviando l'applicazione con
+ * {@code -Dhackathon.metriche=false}: in quel caso i DAO non vengono avvolti.
+ * </p>
+ * <p>
+ * Se è attivo il rilevamento degli accessi N+1 ({@link SessioneQuery#isRilevamentoAttivo()}),
+ * ogni operazione viene eseguita anche in una {@link SessioneQuery}, che ne conta gli statement
+ * SQL e segnala quelli ripetuti.
+ * </p>
+ */
+public final class Metriche {
+
+    private static final Logger logger = Logger.getLogger(Metriche.class.getName());
+
+    private static final String DOMINIO = "hackathon.metriche";
+    private static final boolean ABILITATE =
+            !"false".equalsIgnoreCase(System.getProperty("hackathon.metriche", "true"));
+
+    private static final Map<String, StatisticheMetodo> METODI = new ConcurrentHashMap<>();
+    private static final Map<String, StatisticheOperazione> OPERAZIONI = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Contesto> CORRENTE = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    static {
+        if (ABILITATE) {
+            // Registro non segue la convenzione di nome degli MBean standard: serve l'adattatore
+            registraMBean(DOMINIO + ":type=Metriche", new StandardMBean(new Registro(), MetricheMBean.class, false));
+        }
+    }
+
+    private Metriche() {
+    }
+
+    /** Operazione utente in corso sul thread corrente. */
+    private static final class Contesto {
+        private final String facciata;
+        private final Set<String> metodi = new LinkedHashSet<>();
+        private long query;
+
+        private Contesto(String facciata) {
+            this.facciata = facciata;
+        }
+    }
+
+    /** MBean di registro: report, salvataggio su file e azzeramento. */
+    private static final class Registro implements MetricheMBean {
+        @Override
+        public String[] getReport() {
+            return report().toArray(String[]::new);
+        }
+
+        @Override
+        public String salva(String percorso) throws IOException {
+            Path file = Path.of(percorso).toAbsolutePath();
+            Metriche.salva(file);
+            return file.toString();
+        }
+
+        @Override
+        public void azzera() {
+            Metriche.azzera();
+        }
+    }
+
+    /**
+     * @return {@code true} se la raccolta delle metriche è attiva
+     */
+    public static boolean isAbilitate() {
+        return ABILITATE;
+    }
+
+    /**
+     * Avvolge un DAO in un proxy che ne misura i metodi.
+     * <p>
+     * I metodi sovraccaricati sono distinti dai tipi dei parametri. Le eccezioni del DAO
+     * vengono rilanciate invariate.
+     * </p>
+     *
+     * @param interfaccia interfaccia del DAO
+     * @param target      implementazione da misurare
+     * @param <T>         tipo dell'interfaccia
+     * @return il proxy, oppure {@code target} stesso se le metriche sono disattivate
+     */
+    public static <T> T strumenta(Class<T> interfaccia, T target) {
+        if (!ABILITATE) {
+            return target;
+        }
+        Map<Method, StatisticheMetodo> perMetodo = new ConcurrentHashMap<>();
+        Object proxy = Proxy.newProxyInstance(interfaccia.getClassLoader(), new Class<?>[]{interfaccia},
+                (_, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invoca(method, target, args);
+                    }
+                    StatisticheMetodo stats = perMetodo.computeIfAbsent(method,
+                            m -> metodo(nomeMetodo(interfaccia, m)));
+                    contaQuery();
+                    long inizio = System.nanoTime();
+                    Object risultato;
+                    try {
+                        risultato = invoca(method, target, args);
+                    } catch (Throwable e) {
+                        stats.registra(micros(inizio), 0, true);
+                        throw e;
+                    }
+                    stats.registra(micros(inizio), righe(risultato), false);
+                    return risultato;
+                });
+        return interfaccia.cast(proxy);
+    }
+
+    /**
+     * Esegue un'operazione utente contando le chiamate DAO che richiede.
+     * <p>
+     * L'operazione prende il nome dei metodi di {@code facciata} da cui partono le chiamate DAO
+     * (più metodi sono uniti da {@code +}); un'operazione che non accede al database non viene
+     * registrata. Le operazioni annidate sono conteggiate in quella più esterna.
+     * </p>
+     *
+     * @param facciata  classe i cui metodi identificano le operazioni (es. il controller)
+     * @param operazione operazione da eseguire
+     * @param <T>       tipo del risultato
+     * @return il risultato dell'operazione
+     */
+    public static <T> T misuraOperazione(Class<?> facciata, Supplier<T> operazione) {
+        if (!ABILITATE || CORRENTE.get() != null) {
+            return operazione.get();
+        }
+        Contesto contesto = new Contesto(facciata.getName());
+        CORRENTE.set(contesto);
+        SessioneQuery sessione = SessioneQuery.isRilevamentoAttivo() ? SessioneQuery.apri(facciata.getSimpleName()) : null;
+        long inizio = System.nanoTime();
+        try {
+            return operazione.get();
+        } finally {
+            CORRENTE.remove();
+            String nome = contesto.metodi.isEmpty() ? "?" : String.join("+", contesto.metodi);
+            if (sessione != null) {
+                sessione.setNome(facciata.getSimpleName() + "." + nome);
+                sessione.close();
+            }
+            if (contesto.query > 0) {
+                OPERAZIONI.computeIfAbsent(nome, n -> {
+                    StatisticheOperazione stats = new StatisticheOperazione(n);
+                    registraMBean(DOMINIO + ":type=Operazione,name=" + ObjectName.quote(n), stats);
+                    return stats;
+                }).registra(contesto.query, micros(inizio));
+            }
+        }
+    }
+
+    /**
+     * @return le statistiche dei metodi DAO, dal più costoso in tempo totale
+     */
+    public static List<StatisticheMetodo> getMetodi() {
+        return METODI.values().stream()
+                .sorted(Comparator.comparingDouble(StatisticheMetodo::tempoTotaleMicros).reversed())
+                .toList();
+    }
+
+    /**
+     * @return le statistiche delle operazioni, dalla più frequente
+     */
+    public static List<StatisticheOperazione> getOperazioni() {
+        return OPERAZIONI.values().stream()
+                .sorted(Comparator.comparingLong(StatisticheOperazione::getEsecuzioni).reversed())
+                .toList();
+    }
+
+    /**
+     * @return il report testuale di metodi DAO e operazioni
+     */
+    public static List<String> report() {
+        List<String> righe = new ArrayList<>();
+        righe.add("Metriche di accesso al database - " + LocalDateTime.now().withNano(0));
+        righe.add("");
+        righe.add(StatisticheMetodo.intestazione());
+        getMetodi().forEach(m -> righe.add(m.riga()));
+        righe.add("");
+        righe.add(StatisticheOperazione.intestazione());
+        getOperazioni().forEach(o -> righe.add(o.riga()));
+        return righe;
+    }
+
+    /**
+     * Scrive il {@link #report()} su file.
+     *
+     * @param file file di destinazione, sovrascritto se esiste
+     * @throws IOException se il file non può essere scritto
+     */
+    public static void salva(Path file) throws IOException {
+        Files.write(file, report(), StandardCharsets.UTF_8);
+        logger.info("Metriche salvate in " + file);
+    }
+
+    /**
+     * Azzera tutte le statistiche; gli MBean restano registrati.
+     */
+    public static void azzera() {
+        METODI.values().forEach(StatisticheMetodo::azzera);
+        OPERAZIONI.values().forEach(StatisticheOperazione::azzera);
+    }
+
+    private static StatisticheMetodo metodo(String nome) {
+        return METODI.computeIfAbsent(nome, n -> {
+            StatisticheMetodo stats = new StatisticheMetodo(n);
+            registraMBean(DOMINIO + ":type=Dao,name=" + ObjectName.quote(n), stats);
+            return stats;
+        });
+    }
+
+    private static void contaQuery() {
+        Contesto contesto = CORRENTE.get();
+        if (contesto == null) {
+            return;
+        }
+        contesto.query++;
+        // il frame più esterno della facciata è l'operazione richiesta, non un suo metodo di supporto
+        STACK_WALKER.walk(frames -> frames
+                        .filter(f -> f.getClassName().equals(contesto.facciata)
+                                && !f.getMethodName().startsWith("lambda$"))
+                        .reduce((_, esterno) -> esterno))
+                .ifPresent(f -> contesto.metodi.add(f.getMethodName()));
+    }
+
+    private static String nomeMetodo(Class<?> interfaccia, Method method) {
+        String nome = interfaccia.getSimpleName() + "." + method.getName();
+        long stessoNome = Arrays.stream(interfaccia.getMethods())
+                .filter(m -> m.getName().equals(method.getName()))
+                .count();
+        if (stessoNome == 1) {
+            return nome;
+        }
+        return nome + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static Object invoca(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long righe(Object risultato) {
+        if (risultato == null) {
+            return 0;
+        }
+        if (risultato instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (risultato instanceof Pagina<?> pagina) {
+            return pagina.elementi().size();
+        }
+        if (risultato.getClass().isArray()) {
+            return Array.getLength(risultato);
+        }
+        return 1;
+    }
+
+    private static long micros(long inizioNanos) {
+        return (System.nanoTime() - inizioNanos) / 1_000;
+    }
+
+    private static void registraMBean(String nome, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(nome);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Impossibile registrare l'MBean " + nome, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package metriche;
+
+/**
+ * Interfaccia JMX del registro delle metriche.
+ */
+public interface MetricheMBean {
+
+    /** @return il report testuale di tutte le metriche, una riga per elemento */
+    String[] getReport();
+
+    /**
+     * Scrive il report su file.
+     *
+     * @param percorso file di destinazione, sovrascritto se esiste
+     * @return il percorso assoluto del file scritto
+     * @throws java.io.IOException se il file non può essere scritto
+     */
+    String salva(String percorso) throws java.io.IOException;
+
+    /** Azzera tutte le metriche raccolte. */
+    void azzera();
+}
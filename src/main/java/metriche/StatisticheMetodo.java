@@ -0,0 +1,102 @@
+package metriche;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiche di un metodo DAO: chiamate, errori, righe restituite e istogramma delle latenze.
+ */
+public final class StatisticheMetodo implements StatisticheMetodoMBean {
+
+    private final String nome;
+    private final LongAdder chiamate = new LongAdder();
+    private final LongAdder errori = new LongAdder();
+    private final LongAdder righe = new LongAdder();
+    private final Istogramma latenzaMicros = new Istogramma();
+
+    StatisticheMetodo(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return nome del metodo, nella forma {@code Interfaccia.metodo}
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    void registra(long micros, long righeRestituite, boolean errore) {
+        chiamate.increment();
+        if (errore) {
+            errori.increment();
+        }
+        righe.add(righeRestituite);
+        latenzaMicros.registra(micros);
+    }
+
+    /**
+     * @return tempo totale stimato speso nel metodo, in microsecondi
+     */
+    double tempoTotaleMicros() {
+        return latenzaMicros.media() * latenzaMicros.conteggio();
+    }
+
+    @Override
+    public long getChiamate() {
+        return chiamate.sum();
+    }
+
+    @Override
+    public long getErrori() {
+        return errori.sum();
+    }
+
+    @Override
+    public long getRighe() {
+        return righe.sum();
+    }
+
+    @Override
+    public double getLatenzaMediaMicros() {
+        return latenzaMicros.media();
+    }
+
+    @Override
+    public long getLatenzaP50Micros() {
+        return latenzaMicros.percentile(50);
+    }
+
+    @Override
+    public long getLatenzaP95Micros() {
+        return latenzaMicros.percentile(95);
+    }
+
+    @Override
+    public long getLatenzaP99Micros() {
+        return latenzaMicros.percentile(99);
+    }
+
+    @Override
+    public long getLatenzaMassimaMicros() {
+        return latenzaMicros.massimo();
+    }
+
+    @Override
+    public void azzera() {
+        chiamate.reset();
+        errori.reset();
+        righe.reset();
+        latenzaMicros.azzera();
+    }
+
+    String riga() {
+        return String.format(Locale.ROOT, "%-55s %8d %6d %9d %10.0f %9d %9d %9d %9d",
+                nome, getChiamate(), getErrori(), getRighe(), getLatenzaMediaMicros(),
+                getLatenzaP50Micros(), getLatenzaP95Micros(), getLatenzaP99Micros(), getLatenzaMassimaMicros());
+    }
+
+    static String intestazione() {
+        return String.format(Locale.ROOT, "%-55s %8s %6s %9s %10s %9s %9s %9s %9s",
+                "metodo", "chiamate", "errori", "righe", "media(us)", "p50(us)", "p95(us)", "p99(us)", "max(us)");
+    }
+}
@@ -0,0 +1,34 @@
+package metriche;
+
+/**
+ * Interfaccia JMX delle statistiche di un metodo DAO.
+ */
+public interface StatisticheMetodoMBean {
+
+    /** @return chiamate del metodo */
+    long getChiamate();
+
+    /** @return chiamate terminate con un'eccezione */
+    long getErrori();
+
+    /** @return righe restituite in totale (elementi di liste e pagine, 1 per gli altri risultati non nulli) */
+    long getRighe();
+
+    /** @return latenza media, in microsecondi */
+    double getLatenzaMediaMicros();
+
+    /** @return latenza al 50° percentile, in microsecondi */
+    long getLatenzaP50Micros();
+
+    /** @return latenza al 95° percentile, in microsecondi */
+    long getLatenzaP95Micros();
+
+    /** @return latenza al 99° percentile, in microsecondi */
+    long getLatenzaP99Micros();
+
+    /** @return latenza massima, in microsecondi */
+    long getLatenzaMassimaMicros();
+
+    /** Azzera le statistiche. */
+    void azzera();
+}
@@ -0,0 +1,81 @@
+package metriche;
+
+import java.util.Locale;
+
+/**
+ * Statistiche di un'operazione utente: quante query DAO richiede e quanto dura ogni esecuzione.
+ */
+public final class StatisticheOperazione implements StatisticheOperazioneMBean {
+
+    private final String nome;
+    private final Istogramma query = new Istogramma();
+    private final Istogramma durataMicros = new Istogramma();
+
+    StatisticheOperazione(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return nome dell'operazione: i metodi del controller invocati, separati da {@code +}
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    void registra(long queryEseguite, long micros) {
+        query.registra(queryEseguite);
+        durataMicros.registra(micros);
+    }
+
+    @Override
+    public long getEsecuzioni() {
+        return query.conteggio();
+    }
+
+    @Override
+    public double getQueryMedie() {
+        return query.media();
+    }
+
+    @Override
+    public long getQueryP95() {
+        return query.percentile(95);
+    }
+
+    @Override
+    public long getQueryMassime() {
+        return query.massimo();
+    }
+
+    @Override
+    public double getDurataMediaMicros() {
+        return durataMicros.media();
+    }
+
+    @Override
+    public long getDurataP95Micros() {
+        return durataMicros.percentile(95);
+    }
+
+    @Override
+    public long getDurataMassimaMicros() {
+        return durataMicros.massimo();
+    }
+
+    @Override
+    public void azzera() {
+        query.azzera();
+        durataMicros.azzera();
+    }
+
+    String riga() {
+        return String.format(Locale.ROOT, "%-55s %10d %8.1f %8d %8d %10.0f %9d %9d",
+                nome, getEsecuzioni(), getQueryMedie(), getQueryP95(), getQueryMassime(),
+                getDurataMediaMicros(), getDurataP95Micros(), getDurataMassimaMicros());
+    }
+
+    static String intestazione() {
+        return String.format(Locale.ROOT, "%-55s %10s %8s %8s %8s %10s %9s %9s",
+                "operazione", "esecuzioni", "query", "q p95", "q max", "media(us)", "p95(us)", "max(us)");
+    }
+}
@@ -0,0 +1,31 @@
+package metriche;
+
+/**
+ * Interfaccia JMX delle statistiche di un'operazione utente del controller.
+ */
+public interface StatisticheOperazioneMBean {
+
+    /** @return esecuzioni dell'operazione */
+    long getEsecuzioni();
+
+    /** @return query DAO eseguite in media per esecuzione */
+    double getQueryMedie();
+
+    /** @return query DAO per esecuzione al 95° percentile */
+    long getQueryP95();
+
+    /** @return massimo di query DAO eseguite in una singola esecuzione */
+    long getQueryMassime();
+
+    /** @return durata media, in microsecondi */
+    double getDurataMediaMicros();
+
+    /** @return durata al 95° percentile, in microsecondi */
+    long getDurataP95Micros();
+
+    /** @return durata massima, in microsecondi */
+    long getDurataMassimaMicros();
+
+    /** Azzera le statistiche. */
+    void azzera();
+}
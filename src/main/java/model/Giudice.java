@@ -146,7 +146,7 @@ public class Giudice extends Utente {
             throw new InvalidDataException("Valutazione non valida: team non associato.");
         }
 
-        if (team.getAggiornamenti().isEmpty()) {
+        if (!team.haAggiornamenti()) {
             throw new InvalidDataException("Il team '" + team.getNome() + "' non ha ancora aggiunto alcun aggiornamento e non può essere valutato.");
         }
 
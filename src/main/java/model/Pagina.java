@@ -0,0 +1,82 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pagina di un elenco letto con paginazione keyset (seek).
+ * <p>
+ * Invece di un offset, la pagina successiva si richiede passando il {@link #cursore()},
+ * cioè l'ID dell'ultimo elemento ricevuto: la query riparte con {@code id > cursore},
+ * quindi il costo di ogni pagina non cresce con la posizione nell'elenco.
+ * </p>
+ *
+ * @param elementi elementi della pagina, in ordine di ID crescente
+ * @param cursore  ID dell'ultimo elemento, da passare per la pagina successiva;
+ *                 {@code null} se questa è l'ultima pagina
+ * @param <T>      tipo degli elementi
+ */
+public record Pagina<T>(List<T> elementi, Integer cursore) {
+
+    /**
+     * Crea una pagina.
+     *
+     * @param elementi elementi della pagina
+     * @param cursore  cursore per la pagina successiva, oppure {@code null}
+     */
+    public Pagina {
+        elementi = List.copyOf(elementi);
+    }
+
+    /**
+     * Costruisce una pagina dalle righe lette con {@code LIMIT limite + 1}: la riga in più,
+     * se presente, indica che esistono altre pagine e viene scartata.
+     *
+     * @param righe  righe lette dal database (al più {@code limite + 1})
+     * @param limite dimensione della pagina
+     * @param id     funzione che estrae l'ID di una riga
+     * @param <T>    tipo delle righe
+     * @return la pagina
+     */
+    public static <T> Pagina<T> daRighe(List<T> righe, int limite, ToIntFunction<? super T> id) {
+        if (righe.size() <= limite) {
+            return new Pagina<>(righe, null);
+        }
+        List<T> elementi = righe.subList(0, limite);
+        return new Pagina<>(elementi, id.applyAsInt(elementi.get(limite - 1)));
+    }
+
+    /**
+     * Pagina finale con un solo messaggio, usata per segnalare errori o elenchi vuoti.
+     *
+     * @param messaggio testo da mostrare
+     * @return la pagina
+     */
+    public static Pagina<String> messaggio(String messaggio) {
+        return new Pagina<>(List.of(messaggio), null);
+    }
+
+    /**
+     * @return {@code true} se esistono altre pagine dopo questa
+     */
+    public boolean haAltre() {
+        return cursore != null;
+    }
+
+    /**
+     * Trasforma gli elementi mantenendo il cursore.
+     *
+     * @param mapper trasformazione da applicare a ogni elemento
+     * @param <R>    tipo degli elementi trasformati
+     * @return la pagina trasformata
+     */
+    public <R> Pagina<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> trasformati = new ArrayList<>(elementi.size());
+        for (T elemento : elementi) {
+            trasformati.add(mapper.apply(elemento));
+        }
+        return new Pagina<>(trasformati, cursore);
+    }
+}
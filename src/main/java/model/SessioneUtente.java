@@ -0,0 +1,58 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Contesto immutabile dell'utente autenticato.
+ * <p>
+ * Viene caricato con un'unica query al momento del login e condiviso dalla
+ * finestra principale e dai pannelli, che non devono quindi rileggere dal database
+ * tipo utente, hackathon e team a ogni operazione. Quando l'appartenenza
+ * dell'utente cambia (adesione o uscita da un team) ne viene creata una nuova istanza.
+ * </p>
+ *
+ * @param userId           ID dell'utente
+ * @param tipoUtente       tipo di utente ({@code concorrente}, {@code giudice}, {@code organizzatore})
+ * @param hackathonId      ID dell'hackathon di appartenenza, oppure {@code null}
+ * @param teamId           ID del team di appartenenza, oppure {@code null}
+ * @param nomeVisualizzato nome e cognome da mostrare nell'interfaccia
+ */
+public record SessioneUtente(int userId, String tipoUtente, Integer hackathonId, Integer teamId,
+                             String nomeVisualizzato) {
+
+    /**
+     * Verifica se l'utente è del tipo indicato, ignorando maiuscole e minuscole.
+     *
+     * @param tipo tipo da confrontare
+     * @return {@code true} se il tipo coincide
+     */
+    public boolean isTipo(String tipo) {
+        return tipoUtente != null && tipoUtente.equalsIgnoreCase(tipo);
+    }
+
+    /**
+     * @return {@code true} se l'utente è associato a un hackathon
+     */
+    public boolean hasHackathon() {
+        return hackathonId != null && hackathonId > 0;
+    }
+
+    /**
+     * @return {@code true} se l'utente fa parte di un team
+     */
+    public boolean hasTeam() {
+        return teamId != null && teamId > 0;
+    }
+
+    /**
+     * Verifica se due sessioni hanno la stessa appartenenza a hackathon e team.
+     *
+     * @param altra sessione da confrontare
+     * @return {@code true} se hackathon e team coincidono
+     */
+    public boolean stessaAppartenenza(SessioneUtente altra) {
+        return altra != null
+                && Objects.equals(hackathonId, altra.hackathonId)
+                && Objects.equals(teamId, altra.teamId);
+    }
+}
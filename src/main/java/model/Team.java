@@ -21,7 +21,8 @@ import java.util.List;
  * </p>
  */
 public class Team {
-    private static final int MAX_TEAM_SIZE = 6;
+    /** Numero massimo di concorrenti in un team, applicato anche dal DAO in fase di unione. */
+    public static final int MAX_TEAM_SIZE = 6;
 
     private final int id;
     private String nome;
@@ -32,6 +33,7 @@ public class Team {
     private final List<Documento> documenti = new ArrayList<>();
     private final List<Aggiornamento> aggiornamenti = new ArrayList<>();
     private final List<Valutazione> valutazioni = new ArrayList<>();
+    private int aggiornamentiRegistrati;
 
     /**
      * Costruisce un nuovo team associato a un {@link Hackathon}.
@@ -120,6 +122,26 @@ public class Team {
         }
     }
 
+    /**
+     * Imposta il numero di aggiornamenti del team registrati nel database, così che il team
+     * possa essere validato senza caricarne gli aggiornamenti come oggetti.
+     *
+     * @param aggiornamentiRegistrati numero di aggiornamenti registrati
+     */
+    public void setAggiornamentiRegistrati(int aggiornamentiRegistrati) {
+        this.aggiornamentiRegistrati = aggiornamentiRegistrati;
+    }
+
+    /**
+     * Indica se il team ha rilasciato almeno un aggiornamento, tra quelli aggiunti al modello
+     * e quelli registrati nel database.
+     *
+     * @return {@code true} se il team ha almeno un aggiornamento
+     */
+    public boolean haAggiornamenti() {
+        return !aggiornamenti.isEmpty() || aggiornamentiRegistrati > 0;
+    }
+
     /**
      * Aggiunge una valutazione al team.
      *
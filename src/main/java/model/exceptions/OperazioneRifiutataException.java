@@ -0,0 +1,19 @@
+package model.exceptions;
+/**
+ * Eccezione lanciata quando un'operazione richiesta dall'utente viene rifiutata
+ * per un controllo non superato (dati non validi, permessi, servizio saturo).
+ * <p>
+ * Il messaggio è pensato per essere mostrato così com'è all'utente: è l'unico tipo
+ * di eccezione il cui messaggio l'interfaccia riporta senza filtri.
+ * </p>
+ */
+public class OperazioneRifiutataException extends RuntimeException {
+    /**
+     * Crea una nuova eccezione con il messaggio specificato.
+     *
+     * @param message messaggio da mostrare all'utente
+     */
+    public OperazioneRifiutataException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package security;
+
+import model.exceptions.OperazioneRifiutataException;
+
+/**
+ * Eccezione sollevata quando il {@link HashingService} è saturo e rifiuta
+ * immediatamente una nuova operazione invece di accodarla.
+ * <p>
+ * Estende {@link OperazioneRifiutataException}: il messaggio è pensato per essere
+ * mostrato così com'è all'utente, che può riprovare dopo qualche istante.
+ * </p>
+ */
+public class HashingRejectedException extends OperazioneRifiutataException {
+
+    /**
+     * Crea l'eccezione con il messaggio indicato.
+     *
+     * @param message descrizione dell'errore
+     */
+    public HashingRejectedException(String message) {
+        super(message);
+    }
+}
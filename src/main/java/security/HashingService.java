@@ -0,0 +1,189 @@
+package security;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Servizio dedicato al calcolo e alla verifica degli hash BCrypt.
+ * <p>
+ * BCrypt è volutamente costoso in CPU: eseguirlo sul thread chiamante fa sì che un'ondata
+ * di registrazioni o di login occupi tutti i thread applicativi. Il servizio esegue invece
+ * ogni operazione su un pool di thread pari al numero di core, con una coda limitata.
+ * Quando la coda è piena la richiesta viene rifiutata subito con una
+ * {@link HashingRejectedException}, senza attese e senza sottrarre risorse alle altre operazioni.
+ * </p>
+ * <p>
+ * Il servizio misura separatamente il tempo di attesa in coda e il tempo di calcolo,
+ * disponibili tramite {@link #getStats()}. Numero di thread e capacità della coda possono essere
+ * modificati con le proprietà di sistema {@code hackathon.bcrypt.threads} e
+ * {@code hackathon.bcrypt.queueCapacity}.
+ * </p>
+ */
+public final class HashingService {
+
+    private static final Logger logger = Logger.getLogger(HashingService.class.getName());
+
+    private static HashingService instance;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Long::max, 0);
+
+    private HashingService(int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Numero di thread e capacità della coda devono essere positivi.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(executor::shutdownNow, "bcrypt-shutdown"));
+    }
+
+    /**
+     * Restituisce l'istanza unica del servizio, creandola al primo utilizzo.
+     *
+     * @return il servizio di hashing condiviso
+     */
+    public static synchronized HashingService getInstance() {
+        if (instance == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            int threads = Integer.getInteger("hackathon.bcrypt.threads", cores);
+            instance = new HashingService(threads,
+                    Integer.getInteger("hackathon.bcrypt.queueCapacity", threads * 16));
+        }
+        return instance;
+    }
+
+    /**
+     * Calcola l'hash BCrypt di una password sul pool dedicato, attendendo il risultato.
+     *
+     * @param plainPassword password in chiaro
+     * @param salt          salt BCrypt (contiene anche il costo)
+     * @return l'hash della password
+     * @throws HashingRejectedException se il servizio è saturo
+     */
+    public String hash(String plainPassword, String salt) {
+        return submitAndWait(() -> BCrypt.hashpw(plainPassword, salt));
+    }
+
+    /**
+     * Avvia il calcolo dell'hash BCrypt di una password sul pool dedicato, senza attenderne
+     * il risultato. Eventuali errori del calcolo sono riportati da {@link Future#get()}.
+     *
+     * @param plainPassword password in chiaro
+     * @param salt          salt BCrypt (contiene anche il costo)
+     * @return il calcolo in corso
+     * @throws HashingRejectedException se il servizio è saturo
+     */
+    public Future<String> hashAsync(String plainPassword, String salt) {
+        return submit(() -> BCrypt.hashpw(plainPassword, salt));
+    }
+
+    /**
+     * Verifica una password contro un hash BCrypt sul pool dedicato, attendendo il risultato.
+     *
+     * @param plainPassword password in chiaro
+     * @param hashed        hash BCrypt salvato
+     * @return {@code true} se la password corrisponde
+     * @throws HashingRejectedException se il servizio è saturo
+     */
+    public boolean verify(String plainPassword, String hashed) {
+        return submitAndWait(() -> BCrypt.checkpw(plainPassword, hashed));
+    }
+
+    /**
+     * Restituisce le statistiche correnti del servizio.
+     *
+     * @return istantanea delle statistiche
+     */
+    public HashingStats getStats() {
+        long done = completed.sum();
+        return new HashingStats(
+                executor.getMaximumPoolSize(),
+                queueCapacity,
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                done,
+                rejected.sum(),
+                done == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalQueueWaitNanos.sum() / done),
+                TimeUnit.NANOSECONDS.toMicros(maxQueueWaitNanos.get()),
+                done == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalHashNanos.sum() / done),
+                TimeUnit.NANOSECONDS.toMicros(maxHashNanos.get()));
+    }
+
+    private <T> Future<T> submit(Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return operation.call();
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    record(startedAt - submittedAt, finishedAt - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.log(Level.WARNING, "Servizio di hashing saturo: {0}", getStats());
+            throw new HashingRejectedException("Troppe richieste in corso, riprova tra qualche istante.");
+        }
+    }
+
+    private <T> T submitAndWait(Callable<T> operation) {
+        Future<T> future = submit(operation);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Operazione di hashing interrotta.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Errore durante il calcolo dell'hash.", cause);
+        }
+    }
+
+    private void record(long queueWaitNanos, long hashNanos) {
+        completed.increment();
+        totalQueueWaitNanos.add(queueWaitNanos);
+        totalHashNanos.add(hashNanos);
+        maxQueueWaitNanos.accumulate(queueWaitNanos);
+        maxHashNanos.accumulate(hashNanos);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "bcrypt-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
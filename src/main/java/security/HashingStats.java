@@ -0,0 +1,21 @@
+package security;
+
+/**
+ * Istantanea delle statistiche di un {@link HashingService}.
+ *
+ * @param threads           thread dedicati al calcolo BCrypt
+ * @param queueCapacity     capacità massima della coda di attesa
+ * @param queued            operazioni attualmente in coda
+ * @param active            operazioni attualmente in esecuzione
+ * @param completed         operazioni completate dall'avvio
+ * @param rejected          operazioni rifiutate perché la coda era piena
+ * @param avgQueueWaitMicros tempo medio di attesa in coda, in microsecondi
+ * @param maxQueueWaitMicros tempo massimo di attesa in coda, in microsecondi
+ * @param avgHashMicros     tempo medio di calcolo BCrypt, in microsecondi
+ * @param maxHashMicros     tempo massimo di calcolo BCrypt, in microsecondi
+ */
+public record HashingStats(int threads, int queueCapacity, int queued, int active,
+                           long completed, long rejected,
+                           long avgQueueWaitMicros, long maxQueueWaitMicros,
+                           long avgHashMicros, long maxHashMicros) {
+}
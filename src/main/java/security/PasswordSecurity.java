@@ -2,6 +2,10 @@ package security;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 /**
  * Classe di utilità per la gestione sicura delle password.
  * <p>
@@ -9,41 +13,166 @@ import org.mindrot.jbcrypt.BCrypt;
  * <ul>
  *   <li>Generare l'hash sicuro di una password in chiaro utilizzando l'algoritmo BCrypt.</li>
  *   <li>Verificare se una password in chiaro corrisponde a un hash salvato.</li>
+ *   <li>Stabilire se un hash salvato va ricalcolato con il costo corrente.</li>
  * </ul>
  * <p>
  * BCrypt gestisce internamente un salt casuale e rende più sicura la protezione
  * contro attacchi a forza bruta e rainbow tables.
+ * <p>
+ * Il calcolo vero e proprio è delegato al {@link HashingService}, che lo esegue su un pool
+ * limitato di thread; se il servizio è saturo entrambi i metodi sollevano una
+ * {@link HashingRejectedException}.
+ * <p>
+ * Il costo BCrypt usato per i nuovi hash si imposta con la proprietà di sistema
+ * {@code hackathon.bcrypt.cost}. In sua assenza viene calibrato al primo utilizzo:
+ * si sceglie il costo più alto il cui tempo di calcolo rientra nel budget
+ * {@code hackathon.bcrypt.latencyBudgetMs} (250 ms se non specificato), senza scendere sotto {@value #MIN_COST}.
  */
 public class PasswordSecurity {
+
+    private static final Logger logger = Logger.getLogger(PasswordSecurity.class.getName());
+
+    /** Costo minimo accettato per i nuovi hash, anche su hardware lento. */
+    static final int MIN_COST = 10;
+    /** Costo massimo raggiungibile dalla calibrazione automatica. */
+    static final int MAX_COST = 16;
+    private static final String PREFIX = "$2a$";
+
+    private static volatile Integer targetCost;
+
     /**
-     * Genera un hash sicuro a partire da una password in chiaro.
+     * Genera un hash sicuro a partire da una password in chiaro, con il costo corrente.
      *
      * @param plainPassword la password in chiaro da proteggere (non deve essere {@code null} o vuota)
      * @return una stringa contenente l'hash BCrypt della password
      * @throws IllegalArgumentException se la password è {@code null} o vuota
+     * @throws HashingRejectedException se il servizio di hashing è saturo
      */
     public static String hashPassword(String plainPassword) {
         if (plainPassword == null || plainPassword.isEmpty()) {
             throw new IllegalArgumentException("Password non può essere null o vuota");
         }
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return HashingService.getInstance().hash(plainPassword, BCrypt.gensalt(getTargetCost()));
+    }
+
+    /**
+     * Avvia il calcolo dell'hash di una password con il costo corrente, senza attenderne il risultato.
+     * Serve a chi deve trasformare molte password e vuole tenerne in corso più di una alla volta.
+     *
+     * @param plainPassword la password in chiaro da proteggere (non deve essere {@code null} o vuota)
+     * @return il calcolo in corso sul {@link HashingService}
+     * @throws IllegalArgumentException se la password è {@code null} o vuota
+     * @throws HashingRejectedException se il servizio di hashing è saturo
+     */
+    public static Future<String> hashPasswordAsync(String plainPassword) {
+        if (plainPassword == null || plainPassword.isEmpty()) {
+            throw new IllegalArgumentException("Password non può essere null o vuota");
+        }
+        return HashingService.getInstance().hashAsync(plainPassword, BCrypt.gensalt(getTargetCost()));
     }
     /**
      * Verifica se una password in chiaro corrisponde a un hash precedentemente generato.
+     * <p>
+     * Sono accettati gli hash con prefisso {@code $2a$}, {@code $2b$} e {@code $2y$},
+     * che per la verifica sono equivalenti.
+     * </p>
      *
      * @param plainPassword la password in chiaro da controllare
      * @param hashed        l'hash salvato con cui confrontare (deve essere un hash BCrypt valido)
      * @return {@code true} se la password corrisponde all'hash, {@code false} altrimenti
      * @throws IllegalArgumentException se l'hash fornito è {@code null} o non ha un formato valido
+     * @throws HashingRejectedException se il servizio di hashing è saturo
      */
     public static boolean checkPassword(String plainPassword, String hashed) {
         if (plainPassword == null || plainPassword.isEmpty()) {
             return false;
         }
-        if (hashed == null || !hashed.startsWith("$2a$")) {
+        if (hashed == null || !isBcryptHash(hashed)) {
             throw new IllegalArgumentException("Hash non valido");
         }
-        return BCrypt.checkpw(plainPassword, hashed);
+        return HashingService.getInstance().verify(plainPassword, PREFIX + hashed.substring(4));
+    }
+
+    /**
+     * Indica se un hash salvato va ricalcolato perché ha un prefisso diverso da {@code $2a$}
+     * o un costo diverso da quello corrente.
+     *
+     * @param hashed hash BCrypt salvato
+     * @return {@code true} se l'hash andrebbe aggiornato al prossimo login riuscito
+     */
+    public static boolean needsRehash(String hashed) {
+        if (hashed == null || !isBcryptHash(hashed)) {
+            return false;
+        }
+        return !hashed.startsWith(PREFIX) || costOf(hashed) != getTargetCost();
+    }
+
+    /**
+     * Restituisce il costo BCrypt usato per i nuovi hash, calibrandolo al primo utilizzo
+     * se non è stato impostato con {@code hackathon.bcrypt.cost}.
+     *
+     * @return il costo corrente
+     */
+    public static int getTargetCost() {
+        Integer cost = targetCost;
+        if (cost == null) {
+            synchronized (PasswordSecurity.class) {
+                cost = targetCost;
+                if (cost == null) {
+                    Integer configured = Integer.getInteger("hackathon.bcrypt.cost");
+                    cost = configured != null
+                            ? Math.max(4, Math.min(30, configured))
+                            : calibrate(Long.getLong("hackathon.bcrypt.latencyBudgetMs", 250L));
+                    targetCost = cost;
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Sceglie il costo più alto il cui tempo di calcolo stimato rientra nel budget.
+     * Ogni incremento di costo raddoppia il lavoro di BCrypt, quindi basta misurare
+     * il costo minimo e verificare il risultato finale.
+     */
+    static int calibrate(long budgetMillis) {
+        BCrypt.hashpw("riscaldamento", BCrypt.gensalt(4));
+
+        int cost = MIN_COST;
+        long elapsed = measure(cost);
+        while (cost < MAX_COST && elapsed * 2 <= budgetMillis) {
+            cost++;
+            elapsed *= 2;
+        }
+        if (cost > MIN_COST) {
+            long actual = measure(cost);
+            if (actual > budgetMillis) {
+                cost--;
+            }
+        }
+
+        if (elapsed > budgetMillis && cost == MIN_COST) {
+            logger.log(Level.WARNING, "Costo BCrypt minimo ({0}) oltre il budget di {1} ms: {2} ms",
+                    new Object[]{MIN_COST, budgetMillis, elapsed});
+        }
+        logger.log(Level.INFO, "Costo BCrypt calibrato: {0} (budget {1} ms)", new Object[]{cost, budgetMillis});
+        return cost;
     }
 
+    private static long measure(int cost) {
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibrazione", BCrypt.gensalt(cost));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static boolean isBcryptHash(String hashed) {
+        return hashed.length() > 7
+                && (hashed.startsWith(PREFIX) || hashed.startsWith("$2b$") || hashed.startsWith("$2y$"))
+                && Character.isDigit(hashed.charAt(4)) && Character.isDigit(hashed.charAt(5))
+                && hashed.charAt(6) == '$';
+    }
+
+    private static int costOf(String hashed) {
+        return Integer.parseInt(hashed.substring(4, 6));
+    }
 }
@@ -1,8 +1,8 @@
 package security;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
+import dao.UtenteDAO;
+import dao.impl.UtenteDAOImpl;
+
 import java.sql.SQLException;
 
 /**
@@ -13,7 +13,8 @@ import java.sql.SQLException;
  * corrispondente nella tabella {@code utente}.
  * </p>
  * <p>
- * Connessione gestita tramite JDBC a un database PostgreSQL.
+ * La scrittura passa per {@link UtenteDAO#updatePasswordHash(int, String, String)},
+ * che usa il pool di connessioni condiviso dell'applicazione.
  * </p>
  */
 public class PasswordUpdater {
@@ -33,21 +34,11 @@ public class PasswordUpdater {
         // Genera l'hash della password
         String hashedPassword = PasswordSecurity.hashPassword(plainPassword);
 
-        String url = "jdbc:postgresql://localhost:5432/hackathon_sql";               String username = "postgres";                                          String password = "marioruigoat6";
-
-        // SQL per aggiornare la password
-        String sql = "UPDATE utente SET password_hash = ? , updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-
-        try (Connection conn = DriverManager.getConnection(url, username, password);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            // Imposta i parametri nella query
-            pstmt.setString(1, hashedPassword); // Imposta l'hash della password
-            pstmt.setInt(2, userId);             // Imposta l'ID dell'utente
+        UtenteDAO utenteDAO = new UtenteDAOImpl();
 
+        try {
             // Esegui l'aggiornamento
-            int rowsUpdated = pstmt.executeUpdate();
-            if (rowsUpdated > 0) {
+            if (utenteDAO.updatePasswordHash(userId, null, hashedPassword)) {
                 System.out.println("Password aggiornata con successo.");
             } else {
                 System.out.println("Nessun utente trovato con l'ID specificato.");
@@ -0,0 +1,159 @@
+-- Benchmark degli inserimenti massivi su commento e valutazione.
+--
+-- Confronta, sullo stesso server e negli stessi dati, il throughput degli insert con i due
+-- modi di verificare che giudice_id si riferisca a un giudice:
+--
+--   trigger:  foreign key semplice verso utente più i trigger check_giudice_id_in_* dello
+--             schema iniziale, che eseguono una subquery EXISTS su utente per ogni riga;
+--   vincoli:  foreign key composta (giudice_id, giudice_tipo) -> utente (id, tipo_utente)
+--             della migrazione V004__vincoli_ruolo_dichiarativi.sql.
+--
+-- Va eseguito su un database già migrato (V004 o successive): la variante con i trigger viene
+-- ricostruita dentro la transazione. Le righe al secondo di ogni variante sono riportate nei
+-- NOTICE:
+--
+--     psql -d hackathon_sql -v righe=50000 -f bulk_insert_ruoli.sql
+--
+-- Tutto avviene in una transazione annullata alla fine: il database non viene modificato.
+
+\set ON_ERROR_STOP on
+\if :{?righe}
+\else
+\set righe 50000
+\endif
+
+begin;
+
+select set_config('bench.righe', :'righe', true);
+
+create temporary table bench_dati
+(
+    id_giudice   integer,
+    id_team      integer,
+    id_documento integer
+) on commit drop;
+
+create temporary table bench_risultati
+(
+    variante  text,
+    tabella   text,
+    righe     integer,
+    durata_ms numeric
+) on commit drop;
+
+do
+$$
+    declare
+        id_hackathon integer;
+        id_giudice   integer;
+        id_team      integer;
+        id_documento integer;
+    begin
+        insert into hackathon (nome, luogo, data_inizio, data_fine)
+        values ('bench', 'bench', current_date + 30, current_date + 32)
+        returning id into id_hackathon;
+
+        insert into utente (nome, cognome, email, password_hash, data_registrazione, tipo_utente, hackathon_id)
+        values ('Bench', 'Giudice', 'bench.giudice@example.com', 'x', current_date, 'giudice', id_hackathon)
+        returning id into id_giudice;
+
+        insert into team (nome, hackathon_id) values ('bench', id_hackathon) returning id into id_team;
+        insert into documento (titolo, team_id) values ('bench', id_team) returning id into id_documento;
+
+        insert into bench_dati values (id_giudice, id_team, id_documento);
+    end
+$$;
+
+-- misura gli insert della variante attiva e poi elimina le righe inserite, così che la
+-- variante successiva parta dalle stesse tabelle
+create function pg_temp.misura(variante text) returns void
+    language plpgsql
+as
+$$
+declare
+    righe     constant integer := current_setting('bench.righe')::integer;
+    dati      bench_dati;
+    inizio    timestamptz;
+    durata_ms numeric;
+begin
+    select * into dati from bench_dati;
+
+    inizio := clock_timestamp();
+    insert into commento (documento_id, giudice_id, testo)
+    select dati.id_documento, dati.id_giudice, 'commento ' || g
+    from generate_series(1, righe) g;
+    durata_ms := extract(epoch from clock_timestamp() - inizio) * 1000;
+    insert into bench_risultati values (variante, 'commento', righe, durata_ms);
+
+    inizio := clock_timestamp();
+    insert into valutazione (team_id, giudice_id, punteggio, feedback)
+    select dati.id_team, dati.id_giudice, 1 + g % 10, 'feedback ' || g
+    from generate_series(1, righe) g;
+    durata_ms := extract(epoch from clock_timestamp() - inizio) * 1000;
+    insert into bench_risultati values (variante, 'valutazione', righe, durata_ms);
+
+    delete from commento where documento_id = dati.id_documento;
+    delete from valutazione where team_id = dati.id_team;
+end;
+$$;
+
+-- variante con i vincoli dichiarativi (schema attuale)
+select pg_temp.misura('vincoli');
+
+-- variante con i trigger dello schema iniziale
+alter table commento
+    drop constraint fk_commento_giudice,
+    add constraint commento_giudice_id_fkey foreign key (giudice_id) references utente on delete cascade;
+alter table valutazione
+    drop constraint fk_valutazione_giudice,
+    add constraint valutazione_giudice_id_fkey foreign key (giudice_id) references utente on delete cascade;
+
+create function pg_temp.check_giudice_id() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM utente
+        WHERE id = NEW.giudice_id
+          AND tipo_utente = 'giudice'
+    ) AND NEW.giudice_id IS NOT NULL THEN
+        RAISE EXCEPTION 'giudice_id deve riferirsi a un utente con tipo_utente = ''giudice''';
+    END IF;
+    RETURN NEW;
+END;
+$$;
+
+create trigger check_giudice_id_before_insert_or_update
+    before insert or update
+    on commento
+    for each row
+execute procedure pg_temp.check_giudice_id();
+
+create trigger check_giudice_id_before_insert_or_update
+    before insert or update
+    on valutazione
+    for each row
+execute procedure pg_temp.check_giudice_id();
+
+select pg_temp.misura('trigger');
+
+do
+$$
+    declare
+        r record;
+    begin
+        for r in
+            select tabella, variante, righe, durata_ms
+            from bench_risultati
+            order by tabella, variante desc
+        loop
+            raise notice '%: % righe in % ms (% righe/s) con %',
+                rpad(r.tabella, 11), r.righe, round(r.durata_ms),
+                round(r.righe * 1000 / greatest(r.durata_ms, 1)), r.variante;
+        end loop;
+    end
+$$;
+
+rollback;
@@ -1,9 +1,5 @@
 -- we don't know how to generate root <with-no-name> (class Root) :(
 
-comment on database postgres is 'default administrative connection database';
-
-grant connect, create, temporary on database progetto_hackathon to vpisa;
-
 create table hackathon
 (
     id                  serial
@@ -17,9 +13,6 @@ create table hackathon
     organizzatore_id    integer
 );
 
-alter table hackathon
-    owner to postgres;
-
 create table team
 (
     id           serial
@@ -31,9 +24,6 @@ create table team
     unique (nome, hackathon_id)
 );
 
-alter table team
-    owner to postgres;
-
 create index idx_team_hackathon
     on team (hackathon_id);
 
@@ -64,9 +54,6 @@ create table utente
                (((tipo_utente)::text <> 'concorrente'::text) AND (team_id IS NULL)))
 );
 
-alter table utente
-    owner to postgres;
-
 alter table hackathon
     add constraint fk_hackathon_organizzatore
         foreign key (organizzatore_id) references utente
@@ -88,9 +75,6 @@ create table problema
             on delete set null
 );
 
-alter table problema
-    owner to postgres;
-
 create index idx_utente_email
     on utente (email);
 
@@ -118,9 +102,6 @@ create table documento
             on delete cascade
 );
 
-alter table documento
-    owner to postgres;
-
 create index idx_documento_team
     on documento (team_id);
 
@@ -142,9 +123,6 @@ create table valutazione
     feedback   text
 );
 
-alter table valutazione
-    owner to postgres;
-
 create index idx_valutazione_team
     on valutazione (team_id);
 
@@ -164,9 +142,6 @@ create table commento
     testo        text not null
 );
 
-alter table commento
-    owner to postgres;
-
 create index idx_commento_documento
     on commento (documento_id);
 
@@ -183,9 +158,6 @@ create table aggiornamento
     contenuto    text not null
 );
 
-alter table aggiornamento
-    owner to postgres;
-
 create index idx_aggiornamento_team
     on aggiornamento (team_id);
 
@@ -194,9 +166,6 @@ SELECT id
 FROM utente
 WHERE tipo_utente::text = 'giudice'::text;
 
-alter table utenti_giudici
-    owner to postgres;
-
 create function aggiorna_stato_registrazione() returns trigger
     language plpgsql
 as
@@ -211,8 +180,6 @@ BEGIN
 END;
 $$;
 
-alter function aggiorna_stato_registrazione() owner to postgres;
-
 create function update_updated_at_column() returns trigger
     language plpgsql
 as
@@ -223,8 +190,6 @@ BEGIN
 END;
 $$;
 
-alter function update_updated_at_column() owner to postgres;
-
 create function check_giudice_id() returns trigger
     language plpgsql
 as
@@ -243,8 +208,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id() owner to postgres;
-
 create function check_organizzatore_id() returns trigger
     language plpgsql
 as
@@ -263,8 +226,6 @@ BEGIN
 END;
 $$;
 
-alter function check_organizzatore_id() owner to postgres;
-
 create function check_giudice_id_problema() returns trigger
     language plpgsql
 as
@@ -283,8 +244,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id_problema() owner to postgres;
-
 create function check_giudice_id_valutazione() returns trigger
     language plpgsql
 as
@@ -303,8 +262,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id_valutazione() owner to postgres;
-
 create function check_team_id_concorrente() returns trigger
     language plpgsql
 as
@@ -318,8 +275,6 @@ BEGIN
 END;
 $$;
 
-alter function check_team_id_concorrente() owner to postgres;
-
 create function check_team_concorrenti_limit() returns trigger
     language plpgsql
 as
@@ -345,8 +300,6 @@ BEGIN
 END;
 $$;
 
-alter function check_team_concorrenti_limit() owner to postgres;
-
 create function check_stato_registrazioni() returns trigger
     language plpgsql
 as
@@ -362,8 +315,6 @@ BEGIN
 END;
 $$;
 
-alter function check_stato_registrazioni() owner to postgres;
-
 create function check_team_id() returns trigger
     language plpgsql
 as
@@ -380,8 +331,6 @@ BEGIN
 END;
 $$;
 
-alter function check_team_id() owner to postgres;
-
 create function check_giudice_id_in_commento() returns trigger
     language plpgsql
 as
@@ -400,8 +349,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id_in_commento() owner to postgres;
-
 create trigger check_giudice_id_before_insert_or_update
     before insert or update
     on commento
@@ -426,8 +373,6 @@ BEGIN
 END;
 $$;
 
-alter function check_organizzatore_id_in_hackathon() owner to postgres;
-
 create trigger check_organizzatore_id_before_insert_or_update
     before insert or update
     on hackathon
@@ -452,8 +397,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id_in_problema() owner to postgres;
-
 create trigger check_giudice_id_before_insert_or_update
     before insert or update
     on problema
@@ -478,8 +421,6 @@ BEGIN
 END;
 $$;
 
-alter function check_giudice_id_in_valutazione() owner to postgres;
-
 create trigger check_giudice_id_before_insert_or_update
     before insert or update
     on valutazione
@@ -502,8 +443,6 @@ BEGIN
 END;
 $$;
 
-alter function check_max_concorrenti_in_team() owner to postgres;
-
 create trigger check_max_concorrenti_before_insert_or_update
     before insert or update
     on utente
@@ -527,8 +466,6 @@ BEGIN
 END;
 $$;
 
-alter function check_stato_registrazioni_hackathon() owner to postgres;
-
 create trigger check_stato_registrazioni_before_insert_or_update
     before insert or update
     on hackathon
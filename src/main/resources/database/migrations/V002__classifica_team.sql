@@ -0,0 +1,85 @@
+-- Aggregati della classifica per team.
+--
+-- La classifica era ricalcolata a ogni lettura con AVG(punteggio) su tutte le valutazioni
+-- dell'hackathon. classifica_team conserva somma, numero, minimo e massimo dei punteggi di
+-- ogni team; la media è una colonna generata. Gli aggregati sono mantenuti da un trigger su
+-- valutazione, quindi restano allineati anche con le eliminazioni a cascata (ad esempio di un
+-- giudice) e con le correzioni manuali.
+
+create table classifica_team
+(
+    team_id            integer           not null
+        primary key
+        references team
+            on delete cascade,
+    hackathon_id       integer           not null
+        references hackathon
+            on delete cascade,
+    somma_punteggi     bigint  default 0 not null,
+    numero_valutazioni integer default 0 not null,
+    punteggio_min      integer,
+    punteggio_max      integer,
+    punteggio_medio    double precision generated always as
+        (somma_punteggi::double precision / NULLIF(numero_valutazioni, 0)) stored
+);
+
+create index idx_classifica_team_hackathon_media
+    on classifica_team (hackathon_id, punteggio_medio desc);
+
+-- allineamento iniziale degli aggregati con le valutazioni già presenti
+insert into classifica_team (team_id, hackathon_id, somma_punteggi, numero_valutazioni, punteggio_min, punteggio_max)
+select t.id, t.hackathon_id, SUM(v.punteggio), COUNT(*), MIN(v.punteggio), MAX(v.punteggio)
+from team t
+         join valutazione v on v.team_id = t.id
+where t.hackathon_id is not null
+group by t.id, t.hackathon_id;
+
+create function aggiorna_classifica_team() returns trigger
+    language plpgsql
+as
+$$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE classifica_team
+        SET somma_punteggi     = somma_punteggi - OLD.punteggio,
+            numero_valutazioni = numero_valutazioni - 1
+        WHERE team_id = OLD.team_id;
+
+        -- minimo e massimo non si possono sottrarre: se il punteggio tolto era un estremo
+        -- vengono ricalcolati dalle valutazioni rimaste del team
+        UPDATE classifica_team c
+        SET punteggio_min = r.minimo,
+            punteggio_max = r.massimo
+        FROM (select MIN(punteggio) as minimo, MAX(punteggio) as massimo
+              from valutazione
+              where team_id = OLD.team_id) r
+        WHERE c.team_id = OLD.team_id
+          AND (OLD.punteggio = c.punteggio_min OR OLD.punteggio = c.punteggio_max);
+
+        DELETE FROM classifica_team WHERE team_id = OLD.team_id AND numero_valutazioni = 0;
+    END IF;
+
+    IF TG_OP <> 'DELETE' THEN
+        INSERT INTO classifica_team (team_id, hackathon_id, somma_punteggi, numero_valutazioni,
+                                     punteggio_min, punteggio_max)
+        SELECT t.id, t.hackathon_id, NEW.punteggio, 1, NEW.punteggio, NEW.punteggio
+        FROM team t
+        WHERE t.id = NEW.team_id
+          AND t.hackathon_id IS NOT NULL
+        ON CONFLICT (team_id) DO UPDATE SET somma_punteggi     = classifica_team.somma_punteggi + EXCLUDED.somma_punteggi,
+                                            numero_valutazioni = classifica_team.numero_valutazioni + 1,
+                                            punteggio_min      = LEAST(classifica_team.punteggio_min, EXCLUDED.punteggio_min),
+                                            punteggio_max      = GREATEST(classifica_team.punteggio_max, EXCLUDED.punteggio_max);
+        IF NOT FOUND THEN
+            RAISE EXCEPTION 'Team % non associato a nessun hackathon, classifica non aggiornata.', NEW.team_id;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+create trigger aggiorna_classifica_after_insert_update_delete
+    after insert or update of team_id, punteggio or delete
+    on valutazione
+    for each row
+execute procedure aggiorna_classifica_team();
@@ -0,0 +1,80 @@
+-- Contatore dei concorrenti di ogni team (team.member_count).
+--
+-- La capienza del team era verificata contando le righe di utente: nel trigger
+-- check_max_concorrenti_in_team a ogni unione, in TeamDAO.findRowsNotFull e in
+-- UtenteDAO.addUserToTeam. Ora il contatore è mantenuto da un unico trigger AFTER su utente,
+-- che lo aggiorna su insert, cambio di team e delete e rifiuta l'ingresso in un team pieno;
+-- sostituisce il trigger di conteggio. Il vecchio trigger contava i concorrenti a ogni update
+-- di utente, anche senza cambio di team, e impediva di modificare un concorrente di un team
+-- pieno: il nuovo trigger non fa nulla se team_id non cambia.
+--
+-- La capienza non è scritta qui: è model.Team.MAX_TEAM_SIZE, che i DAO passano al trigger
+-- nell'impostazione hackathon.max_concorrenti_team della transazione
+-- (set_config('hackathon.max_concorrenti_team', ..., true)). Senza l'impostazione, ad esempio
+-- in una correzione manuale, il trigger aggiorna il contatore senza limitarlo.
+
+-- concorrenti nel team, mantenuto dal trigger aggiorna_member_count_team su utente
+alter table team
+    add column member_count integer default 0 not null
+        constraint chk_team_member_count
+            check (member_count >= 0);
+
+-- allineamento iniziale dei contatori con i concorrenti già assegnati; l'alter table sopra
+-- blocca team fino al commit, quindi nessuna unione concorrente può sfuggire al conteggio
+update team t
+set member_count = (select COUNT(*) from utente u where u.team_id = t.id and u.tipo_utente = 'concorrente')
+where exists (select 1 from utente u where u.team_id = t.id);
+
+create function aggiorna_member_count_team() returns trigger
+    language plpgsql
+as
+$$
+DECLARE
+    team_uscita  integer;
+    team_entrata integer;
+    limite       integer := nullif(current_setting('hackathon.max_concorrenti_team', true), '')::integer;
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        team_uscita := OLD.team_id;
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        team_entrata := NEW.team_id;
+    END IF;
+    IF team_uscita IS NOT DISTINCT FROM team_entrata THEN
+        RETURN NULL;
+    END IF;
+
+    -- negli spostamenti tra due team le righe vengono aggiornate in ordine di id, lo stesso
+    -- in cui UtenteDAO.addUserToTeam le blocca prima dell'UPDATE: i due team vengono bloccati
+    -- sempre nello stesso ordine anche dalle modifiche che non passano dal DAO
+    IF team_uscita IS NOT NULL AND (team_entrata IS NULL OR team_uscita < team_entrata) THEN
+        UPDATE team SET member_count = member_count - 1 WHERE id = team_uscita;
+        team_uscita := NULL;
+    END IF;
+
+    IF team_entrata IS NOT NULL THEN
+        -- incremento condizionato: il lock sulla riga del team serializza le unioni concorrenti
+        UPDATE team SET member_count = member_count + 1
+        WHERE id = team_entrata AND (limite IS NULL OR member_count < limite);
+        IF NOT FOUND THEN
+            RAISE EXCEPTION 'Un team non può avere più di % concorrenti.', limite;
+        END IF;
+    END IF;
+
+    IF team_uscita IS NOT NULL THEN
+        UPDATE team SET member_count = member_count - 1 WHERE id = team_uscita;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+create trigger aggiorna_member_count_after_insert_update_delete
+    after insert or update of team_id or delete
+    on utente
+    for each row
+execute procedure aggiorna_member_count_team();
+
+-- il controllo di capienza è ora svolto da aggiorna_member_count_team
+drop trigger check_max_concorrenti_before_insert_or_update on utente;
+
+drop function check_max_concorrenti_in_team();
@@ -0,0 +1,85 @@
+-- Integrità dei ruoli con vincoli dichiarativi al posto dei trigger di controllo.
+--
+-- I trigger check_*_in_* eseguivano una subquery EXISTS su utente a ogni insert/update di
+-- commento, problema, valutazione e hackathon. Ora ogni riferimento a un giudice o a un
+-- organizzatore porta con sé il ruolo atteso (colonna costante) e una foreign key composta
+-- su utente (id, tipo_utente): il controllo usa l'indice univoco di utente ed è svolto dal
+-- motore dei vincoli, senza codice PL/pgSQL. In più, un utente referenziato non può più
+-- cambiare tipo, cosa che i trigger non impedivano.
+--
+-- ON DELETE SET NULL con elenco di colonne richiede PostgreSQL 15 o successivo.
+
+-- i valori ammessi dal check di utente sono case-insensitive, la foreign key no
+update utente
+set tipo_utente = lower(tipo_utente)
+where tipo_utente <> lower(tipo_utente);
+
+alter table utente
+    add constraint uq_utente_id_tipo unique (id, tipo_utente);
+
+-- commento.giudice_id -> giudice
+alter table commento
+    add column giudice_tipo varchar(20) default 'giudice' not null
+        constraint chk_commento_giudice_tipo check (giudice_tipo = 'giudice');
+alter table commento
+    drop constraint if exists commento_giudice_id_fkey;
+alter table commento
+    add constraint fk_commento_giudice
+        foreign key (giudice_id, giudice_tipo) references utente (id, tipo_utente)
+            on delete cascade;
+
+-- valutazione.giudice_id -> giudice
+alter table valutazione
+    add column giudice_tipo varchar(20) default 'giudice' not null
+        constraint chk_valutazione_giudice_tipo check (giudice_tipo = 'giudice');
+alter table valutazione
+    drop constraint if exists valutazione_giudice_id_fkey;
+alter table valutazione
+    add constraint fk_valutazione_giudice
+        foreign key (giudice_id, giudice_tipo) references utente (id, tipo_utente)
+            on delete cascade;
+
+-- problema.giudice_id -> giudice
+alter table problema
+    add column giudice_tipo varchar(20) default 'giudice' not null
+        constraint chk_problema_giudice_tipo check (giudice_tipo = 'giudice');
+alter table problema
+    drop constraint if exists problema_giudice_id_fkey;
+alter table problema
+    add constraint fk_problema_giudice
+        foreign key (giudice_id, giudice_tipo) references utente (id, tipo_utente)
+            on delete set null (giudice_id);
+
+-- hackathon.organizzatore_id -> organizzatore
+alter table hackathon
+    add column organizzatore_tipo varchar(20) default 'organizzatore' not null
+        constraint chk_hackathon_organizzatore_tipo check (organizzatore_tipo = 'organizzatore');
+alter table hackathon
+    drop constraint if exists fk_hackathon_organizzatore;
+alter table hackathon
+    add constraint fk_hackathon_organizzatore
+        foreign key (organizzatore_id, organizzatore_tipo) references utente (id, tipo_utente)
+            on delete set null (organizzatore_id);
+
+-- trigger sostituiti dalle foreign key
+drop trigger if exists check_giudice_id_before_insert_or_update on commento;
+drop trigger if exists check_giudice_id_before_insert_or_update on problema;
+drop trigger if exists check_giudice_id_before_insert_or_update on valutazione;
+drop trigger if exists check_organizzatore_id_before_insert_or_update on hackathon;
+
+drop function if exists check_giudice_id_in_commento();
+drop function if exists check_giudice_id_in_problema();
+drop function if exists check_giudice_id_in_valutazione();
+drop function if exists check_organizzatore_id_in_hackathon();
+
+-- funzioni mai collegate a un trigger
+drop function if exists check_giudice_id();
+drop function if exists check_organizzatore_id();
+drop function if exists check_giudice_id_problema();
+drop function if exists check_giudice_id_valutazione();
+drop function if exists check_team_id();
+drop function if exists check_team_id_concorrente();
+drop function if exists check_team_concorrenti_limit();
+drop function if exists check_stato_registrazioni();
+drop function if exists aggiorna_stato_registrazione();
+drop function if exists update_updated_at_column();
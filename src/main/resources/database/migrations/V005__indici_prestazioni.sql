@@ -0,0 +1,35 @@
+-- migrazione: senza-transazione
+--
+-- Indici per i predicati più frequenti dei DAO. Sono creati con CONCURRENTLY per non
+-- bloccare le scritture sulle tabelle durante la costruzione, quindi lo script viene
+-- eseguito fuori da una transazione (vedi db.MigrationRunner).
+--
+-- Se la creazione di un indice viene interrotta resta un indice INVALID con lo stesso
+-- nome, che IF NOT EXISTS non ricostruisce: va eliminato a mano con
+-- DROP INDEX CONCURRENTLY prima di riavviare l'applicazione.
+--
+-- I piani delle query interessate sono verificati da perf.IndexPlanCheck.
+
+-- HackathonDAO.getRowsByOrganizzatoreId, findDettagliByOrganizzatoreId e getIdByNameAndOrganizzatore;
+-- con id incluso la ricerca per nome e organizzatore è un index-only scan.
+-- Serve anche alla foreign key fk_hackathon_organizzatore quando si elimina un utente.
+create index concurrently if not exists idx_hackathon_organizzatore_nome
+    on hackathon (organizzatore_id, nome) include (id);
+
+-- HackathonDAO.findRowsByRegistrazioniAperte(true): indice parziale, contiene solo
+-- gli hackathon con registrazioni aperte, che sono una piccola parte del totale
+create index concurrently if not exists idx_hackathon_registrazioni_aperte
+    on hackathon (id)
+    where stato_registrazioni;
+
+-- UtenteDAO.findRowsByTipoUtenteForHackathon e, con id come ultima colonna, la sua
+-- versione paginata findRowsByTipoUtenteForHackathonPage (vedi V006)
+create index concurrently if not exists idx_utente_hackathon_tipo_id
+    on utente (hackathon_id, tipo_utente, id);
+
+-- idx_utente_hackathon è un prefisso del nuovo indice composto: mantenerlo costa solo scritture
+drop index concurrently if exists idx_utente_hackathon;
+
+-- foreign key fk_problema_giudice: senza indice l'eliminazione di un giudice scansiona problema
+create index concurrently if not exists idx_problema_giudice
+    on problema (giudice_id);
@@ -0,0 +1,29 @@
+-- migrazione: senza-transazione
+--
+-- Indici per la paginazione keyset (WHERE ... AND id > ? ORDER BY id LIMIT ?) dei
+-- metodi *Page dei DAO: con id come ultima colonna ogni pagina è una lettura di un
+-- intervallo dell'indice, già ordinata, senza sort e senza leggere le pagine precedenti.
+-- Ogni indice sostituisce quello sulle sole colonne di filtro, che ne è un prefisso.
+--
+-- Come per V005, gli indici sono creati con CONCURRENTLY e un indice INVALID rimasto
+-- da una creazione interrotta va eliminato a mano prima di riavviare l'applicazione.
+
+-- UtenteDAO.findRowsByTipoUtenteForHackathonPage usa idx_utente_hackathon_tipo_id di V005.
+
+-- CommentoDAO.findRowsByDocumentoIdPage
+create index concurrently if not exists idx_commento_documento_id
+    on commento (documento_id, id);
+
+drop index concurrently if exists idx_commento_documento;
+
+-- ValutazioneDAO.getRowsByTeamPage
+create index concurrently if not exists idx_valutazione_team_id
+    on valutazione (team_id, id);
+
+drop index concurrently if exists idx_valutazione_team;
+
+-- DocumentoDAO.findRowsByTeamIdPage
+create index concurrently if not exists idx_documento_team_id
+    on documento (team_id, id);
+
+drop index concurrently if exists idx_documento_team;
@@ -0,0 +1,12 @@
+-- migrazione: senza-transazione
+--
+-- CommentoDAO.save verifica con EXISTS che il documento abbia almeno un aggiornamento:
+-- senza un indice su aggiornamento(documento_id) la verifica scansiona la tabella e il
+-- suo costo cresce con il numero di aggiornamenti. Lo stesso indice serve alla foreign
+-- key verso documento (on delete set null) quando si elimina un documento.
+--
+-- Come per V005, un indice INVALID rimasto da una creazione interrotta va eliminato
+-- a mano prima di riavviare l'applicazione.
+
+create index concurrently if not exists idx_aggiornamento_documento
+    on aggiornamento (documento_id);
@@ -0,0 +1,384 @@
+package perf;
+
+import db.DatabaseConnectionSingleton;
+import perf.GeneratoreDati.CommentoGenerato;
+import perf.GeneratoreDati.DocumentoGenerato;
+import perf.GeneratoreDati.HackathonGenerato;
+import perf.GeneratoreDati.TeamGenerato;
+import perf.GeneratoreDati.UtenteGenerato;
+import perf.GeneratoreDati.ValutazioneGenerata;
+import security.PasswordSecurity;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Scrive nel database i dati prodotti da {@link GeneratoreDati}, con inserimenti a blocchi.
+ * <p>
+ * Ogni hackathon viene caricato in una propria transazione. Gli identificativi di utenti,
+ * hackathon, team e documenti vengono riservati in anticipo dalle rispettive sequenze, così
+ * che le righe collegate possano essere inserite a blocchi senza rileggere le chiavi generate.
+ * Gli aggregati di {@code classifica_team} sono aggiornati dal trigger su {@code valutazione}
+ * a ogni riga inserita. Alla fine le tabelle vengono analizzate, perché il planner abbia statistiche
+ * coerenti con il nuovo volume di dati.
+ * </p>
+ * <p>
+ * Tutti gli utenti generati hanno la password {@value #PASSWORD}, con un solo hash calcolato
+ * all'avvio. Le email contengono il seme: per ricaricare gli stessi dati occorre un database
+ * pulito, altrimenti il vincolo di unicità sulle email annulla la transazione. Con
+ * {@code reWriteBatchedInserts=true} nell'URL JDBC il caricamento è sensibilmente più veloce.
+ * </p>
+ * <p>
+ * Uso, con il database dell'applicazione raggiungibile (la classe fa parte dei sorgenti di test
+ * del profilo {@code benchmark}):
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@carica-dati-sintetici -Dcaricatore.args="[seme] [hackathon] [partecipantiPerHackathon]"
+ * </pre>
+ * Con i valori predefiniti (seme 42, un hackathon, 10000 partecipanti) si ottiene un evento delle
+ * dimensioni di quelli reali più grandi.
+ * </p>
+ */
+public final class CaricatoreDatiSintetici {
+
+    private static final Logger logger = Logger.getLogger(CaricatoreDatiSintetici.class.getName());
+
+    /** Password in chiaro di tutti gli utenti generati. */
+    public static final String PASSWORD = "Password!2024";
+
+    private static final int DIMENSIONE_BLOCCO = 1000;
+
+    private static final String RISERVA_ID =
+            "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_UTENTE =
+            "INSERT INTO utente (id, nome, cognome, email, password_hash, data_registrazione, tipo_utente, " +
+            "hackathon_id, team_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_HACKATHON =
+            "INSERT INTO hackathon (id, nome, descrizione, luogo, data_inizio, data_fine, stato_registrazioni, " +
+            "organizzatore_id) VALUES (?, ?, ?, ?, ?, ?, true, ?)";
+    private static final String INSERT_TEAM =
+            "INSERT INTO team (id, nome, hackathon_id) VALUES (?, ?, ?)";
+    private static final String INSERT_PROBLEMA =
+            "INSERT INTO problema (titolo, descrizione, team_id, giudice_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DOCUMENTO =
+            "INSERT INTO documento (id, titolo, descrizione, data_creazione, formato, dimensione, tipo, team_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_AGGIORNAMENTO =
+            "INSERT INTO aggiornamento (team_id, documento_id, contenuto) VALUES (?, ?, ?)";
+    private static final String INSERT_COMMENTO =
+            "INSERT INTO commento (documento_id, giudice_id, testo) VALUES (?, ?, ?)";
+    private static final String INSERT_VALUTAZIONE =
+            "INSERT INTO valutazione (team_id, giudice_id, punteggio, feedback) VALUES (?, ?, ?, ?)";
+    private static final List<String> TABELLE = List.of(
+            "utente", "hackathon", "team", "problema", "documento", "aggiornamento", "commento",
+            "valutazione", "classifica_team");
+
+    /**
+     * Righe inserite da un caricamento.
+     *
+     * @param hackathon     hackathon
+     * @param utenti        utenti (organizzatori, giudici e concorrenti)
+     * @param team          team
+     * @param documenti     documenti
+     * @param aggiornamenti aggiornamenti
+     * @param commenti      commenti
+     * @param valutazioni   valutazioni
+     * @param millis        durata del caricamento, in millisecondi
+     */
+    public record Riepilogo(int hackathon, int utenti, int team, int documenti, int aggiornamenti,
+                            int commenti, int valutazioni, long millis) {
+
+        /**
+         * @return il riepilogo in forma leggibile
+         */
+        public String descrizione() {
+            return String.format("%d hackathon, %d utenti, %d team, %d documenti, %d aggiornamenti, "
+                            + "%d commenti, %d valutazioni in %d ms",
+                    hackathon, utenti, team, documenti, aggiornamenti, commenti, valutazioni, millis);
+        }
+    }
+
+    private CaricatoreDatiSintetici() {
+    }
+
+    /**
+     * Carica gli hackathon generati, uno per transazione.
+     *
+     * @param conn         connessione al database
+     * @param dati         hackathon generati con {@link GeneratoreDati#genera()}
+     * @param passwordHash hash BCrypt assegnato a tutti gli utenti
+     * @return le righe inserite
+     * @throws SQLException se un inserimento fallisce; l'hackathon in corso viene annullato,
+     *                      quelli già caricati restano
+     */
+    public static Riepilogo carica(Connection conn, List<HackathonGenerato> dati, String passwordHash)
+            throws SQLException {
+        long inizio = System.nanoTime();
+        Contatori contatori = new Contatori();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (HackathonGenerato hackathon : dati) {
+                try {
+                    caricaHackathon(conn, hackathon, passwordHash, contatori);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                contatori.hackathon++;
+                logger.info("Caricato " + hackathon.nome() + " (" + hackathon.concorrenti() + " concorrenti)");
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String tabella : TABELLE) {
+                stmt.execute("ANALYZE " + tabella);
+            }
+        }
+
+        return new Riepilogo(contatori.hackathon, contatori.utenti, contatori.team, contatori.documenti,
+                contatori.aggiornamenti, contatori.commenti, contatori.valutazioni,
+                (System.nanoTime() - inizio) / 1_000_000);
+    }
+
+    private static void caricaHackathon(Connection conn, HackathonGenerato h, String passwordHash,
+                                        Contatori contatori) throws SQLException {
+        int numeroUtenti = 1 + h.giudici().size() + h.concorrenti();
+        int numeroDocumenti = h.team().stream().mapToInt(t -> t.documenti().size()).sum();
+        int[] idUtenti = riservaId(conn, "utente", numeroUtenti);
+        int[] idTeam = riservaId(conn, "team", h.team().size());
+        int[] idDocumenti = riservaId(conn, "documento", numeroDocumenti);
+        int hackathonId = riservaId(conn, "hackathon", 1)[0];
+        LocalDate registrazione = LocalDate.now();
+
+        int prossimoUtente = 0;
+        int organizzatoreId = idUtenti[prossimoUtente++];
+        int[] idGiudici = new int[h.giudici().size()];
+
+        try (Blocco utenti = new Blocco(conn, INSERT_UTENTE)) {
+            bindUtente(utenti.pstmt, organizzatoreId, h.organizzatore(), passwordHash, registrazione,
+                    "organizzatore", null, null);
+            utenti.aggiungi();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_HACKATHON)) {
+            pstmt.setInt(1, hackathonId);
+            pstmt.setString(2, h.nome());
+            pstmt.setString(3, h.descrizione());
+            pstmt.setString(4, h.luogo());
+            pstmt.setDate(5, Date.valueOf(h.dataInizio()));
+            pstmt.setDate(6, Date.valueOf(h.dataFine()));
+            pstmt.setInt(7, organizzatoreId);
+            pstmt.executeUpdate();
+        }
+
+        try (Blocco team = new Blocco(conn, INSERT_TEAM)) {
+            for (int t = 0; t < h.team().size(); t++) {
+                team.pstmt.setInt(1, idTeam[t]);
+                team.pstmt.setString(2, h.team().get(t).nome());
+                team.pstmt.setInt(3, hackathonId);
+                team.aggiungi();
+            }
+        }
+
+        try (Blocco utenti = new Blocco(conn, INSERT_UTENTE)) {
+            for (int g = 0; g < idGiudici.length; g++) {
+                idGiudici[g] = idUtenti[prossimoUtente++];
+                bindUtente(utenti.pstmt, idGiudici[g], h.giudici().get(g), passwordHash, registrazione,
+                        "giudice", hackathonId, null);
+                utenti.aggiungi();
+            }
+            for (int t = 0; t < h.team().size(); t++) {
+                for (UtenteGenerato concorrente : h.team().get(t).concorrenti()) {
+                    bindUtente(utenti.pstmt, idUtenti[prossimoUtente++], concorrente, passwordHash, registrazione,
+                            "concorrente", hackathonId, idTeam[t]);
+                    utenti.aggiungi();
+                }
+            }
+        }
+
+        int prossimoDocumento = 0;
+        try (Blocco problemi = new Blocco(conn, INSERT_PROBLEMA);
+             Blocco documenti = new Blocco(conn, INSERT_DOCUMENTO);
+             Blocco aggiornamenti = new Blocco(conn, INSERT_AGGIORNAMENTO, documenti);
+             Blocco commenti = new Blocco(conn, INSERT_COMMENTO, documenti);
+             Blocco valutazioni = new Blocco(conn, INSERT_VALUTAZIONE)) {
+
+            for (int t = 0; t < h.team().size(); t++) {
+                TeamGenerato team = h.team().get(t);
+                if (team.problema() != null) {
+                    problemi.pstmt.setString(1, team.problema().titolo());
+                    problemi.pstmt.setString(2, team.problema().descrizione());
+                    problemi.pstmt.setInt(3, idTeam[t]);
+                    problemi.pstmt.setInt(4, idGiudici[team.problema().giudice()]);
+                    problemi.aggiungi();
+                }
+
+                for (DocumentoGenerato d : team.documenti()) {
+                    int documentoId = idDocumenti[prossimoDocumento++];
+                    documenti.pstmt.setInt(1, documentoId);
+                    documenti.pstmt.setString(2, d.titolo());
+                    documenti.pstmt.setString(3, d.descrizione());
+                    documenti.pstmt.setDate(4, Date.valueOf(d.dataCreazione()));
+                    documenti.pstmt.setString(5, d.formato());
+                    documenti.pstmt.setDouble(6, d.dimensione());
+                    documenti.pstmt.setString(7, d.tipo());
+                    documenti.pstmt.setInt(8, idTeam[t]);
+                    documenti.aggiungi();
+
+                    for (String contenuto : d.aggiornamenti()) {
+                        aggiornamenti.pstmt.setInt(1, idTeam[t]);
+                        aggiornamenti.pstmt.setInt(2, documentoId);
+                        aggiornamenti.pstmt.setString(3, contenuto);
+                        aggiornamenti.aggiungi();
+                    }
+                    for (CommentoGenerato c : d.commenti()) {
+                        commenti.pstmt.setInt(1, documentoId);
+                        commenti.pstmt.setInt(2, idGiudici[c.giudice()]);
+                        commenti.pstmt.setString(3, c.testo());
+                        commenti.aggiungi();
+                    }
+                }
+
+                for (ValutazioneGenerata v : team.valutazioni()) {
+                    valutazioni.pstmt.setInt(1, idTeam[t]);
+                    valutazioni.pstmt.setInt(2, idGiudici[v.giudice()]);
+                    valutazioni.pstmt.setInt(3, v.punteggio());
+                    valutazioni.pstmt.setString(4, v.feedback());
+                    valutazioni.aggiungi();
+                }
+            }
+
+            contatori.documenti += documenti.righe;
+            contatori.aggiornamenti += aggiornamenti.righe;
+            contatori.commenti += commenti.righe;
+            contatori.valutazioni += valutazioni.righe;
+        }
+
+        contatori.utenti += numeroUtenti;
+        contatori.team += h.team().size();
+    }
+
+    private static int[] riservaId(Connection conn, String tabella, int quanti) throws SQLException {
+        int[] id = new int[quanti];
+        if (quanti == 0) {
+            return id;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(RISERVA_ID)) {
+            pstmt.setString(1, tabella);
+            pstmt.setInt(2, quanti);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    id[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return id;
+    }
+
+    private static void bindUtente(PreparedStatement pstmt, int id, UtenteGenerato utente, String passwordHash,
+                                   LocalDate registrazione, String tipo, Integer hackathonId, Integer teamId)
+            throws SQLException {
+        pstmt.setInt(1, id);
+        pstmt.setString(2, utente.nome());
+        pstmt.setString(3, utente.cognome());
+        pstmt.setString(4, utente.email());
+        pstmt.setString(5, passwordHash);
+        pstmt.setDate(6, Date.valueOf(registrazione));
+        pstmt.setString(7, tipo);
+        pstmt.setObject(8, hackathonId, Types.INTEGER);
+        pstmt.setObject(9, teamId, Types.INTEGER);
+    }
+
+    /** Righe inserite finora, per tipo. */
+    private static final class Contatori {
+        private int hackathon;
+        private int utenti;
+        private int team;
+        private int documenti;
+        private int aggiornamenti;
+        private int commenti;
+        private int valutazioni;
+    }
+
+    /**
+     * Statement preparato che esegue le righe accumulate ogni {@value #DIMENSIONE_BLOCCO}
+     * e alla chiusura. Se le righe fanno riferimento a quelle di un altro blocco (ad esempio
+     * gli aggiornamenti ai documenti), prima di ogni esecuzione viene svuotato quel blocco.
+     */
+    private static final class Blocco implements AutoCloseable {
+        private final PreparedStatement pstmt;
+        private final Blocco riferito;
+        private int inAttesa;
+        private int righe;
+
+        private Blocco(Connection conn, String sql) throws SQLException {
+            this(conn, sql, null);
+        }
+
+        private Blocco(Connection conn, String sql, Blocco riferito) throws SQLException {
+            this.pstmt = conn.prepareStatement(sql);
+            this.riferito = riferito;
+        }
+
+        private void aggiungi() throws SQLException {
+            pstmt.addBatch();
+            righe++;
+            if (++inAttesa == DIMENSIONE_BLOCCO) {
+                esegui();
+            }
+        }
+
+        private void esegui() throws SQLException {
+            if (inAttesa == 0) {
+                return;
+            }
+            if (riferito != null) {
+                riferito.esegui();
+            }
+            pstmt.executeBatch();
+            inAttesa = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                esegui();
+            } finally {
+                pstmt.close();
+            }
+        }
+    }
+
+    /**
+     * Genera e carica i dati nel database dell'applicazione.
+     *
+     * @param args seme, numero di hackathon e partecipanti per hackathon (facoltativi)
+     * @throws Exception se il database non è raggiungibile o il caricamento fallisce
+     */
+    public static void main(String[] args) throws Exception {
+        long seme = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        int hackathon = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int partecipanti = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        List<HackathonGenerato> dati = new GeneratoreDati(
+                GeneratoreDati.Parametri.perPartecipanti(seme, hackathon, partecipanti)).genera();
+        String passwordHash = PasswordSecurity.hashPassword(PASSWORD);
+
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection()) {
+            Riepilogo riepilogo = carica(conn, dati, passwordHash);
+            System.out.println("Caricati " + riepilogo.descrizione() + " (seme " + seme + ").");
+        }
+    }
+}
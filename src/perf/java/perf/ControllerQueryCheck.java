@@ -0,0 +1,110 @@
+package perf;
+
+import controller.Controller;
+import db.DatabaseConnectionSingleton;
+import db.MigrationRunner;
+import db.SessioneQuery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import security.PasswordSecurity;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Numero di statement eseguiti dalle letture del controller: le liste vanno lette con una query
+ * sola, non con una query per elemento.
+ * <p>
+ * Il database è un'istanza temporanea di {@link PostgresLocale}, oppure quello indicato con
+ * {@code hackathon.perf.url}; lo schema viene aggiornato con {@link MigrationRunner} e riempito
+ * con {@link CaricatoreDatiSintetici}. Uso:
+ * <pre>
+ * mvn -Pbenchmark test -Dtest=ControllerQueryCheck
+ * </pre>
+ * </p>
+ */
+class ControllerQueryCheck {
+
+    private static final String TEAM_CON_PIU_VALUTAZIONI =
+            "SELECT team_id, COUNT(*) FROM valutazione GROUP BY team_id ORDER BY COUNT(*) DESC, team_id LIMIT 1";
+    private static final String CONTA_REGISTRAZIONI_APERTE =
+            "SELECT COUNT(*) FROM hackathon WHERE stato_registrazioni = true";
+
+    private static PostgresLocale postgres;
+    private static Controller controller;
+    private static int teamId;
+    private static int valutazioni;
+    private static int registrazioniAperte;
+
+    @BeforeAll
+    static void preparaDatabase() throws IOException, SQLException {
+        String url = System.getProperty("hackathon.perf.url");
+        if (url == null) {
+            postgres = PostgresLocale.avvia(PostgresLocale.DATABASE_APPLICAZIONE);
+            System.setProperty("hackathon.db.url", postgres.url(PostgresLocale.DATABASE_APPLICAZIONE));
+            System.setProperty("hackathon.db.user", postgres.utente());
+            System.setProperty("hackathon.db.password", "");
+        } else {
+            System.setProperty("hackathon.db.url", url);
+        }
+        // costo basso: le password servono solo a caricare i dati
+        System.setProperty("hackathon.bcrypt.cost", "4");
+
+        DatabaseConnectionSingleton database = DatabaseConnectionSingleton.getInstance();
+        new MigrationRunner(database).migrate();
+
+        List<GeneratoreDati.HackathonGenerato> dati = new GeneratoreDati(
+                GeneratoreDati.Parametri.perPartecipanti(42, 3, 60), LocalDate.now().minusDays(60)).genera();
+        try (Connection conn = database.getConnection()) {
+            CaricatoreDatiSintetici.carica(conn, dati,
+                    PasswordSecurity.hashPassword(CaricatoreDatiSintetici.PASSWORD));
+            try (Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery(TEAM_CON_PIU_VALUTAZIONI)) {
+                    rs.next();
+                    teamId = rs.getInt(1);
+                    valutazioni = rs.getInt(2);
+                }
+                try (ResultSet rs = stmt.executeQuery(CONTA_REGISTRAZIONI_APERTE)) {
+                    rs.next();
+                    registrazioniAperte = rs.getInt(1);
+                }
+            }
+        }
+        controller = new Controller();
+    }
+
+    @AfterAll
+    static void fermaDatabase() {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void getValutazioniByTeamUsaUnaSolaQuery() {
+        try (SessioneQuery sessione = SessioneQuery.apri("getValutazioniByTeam")) {
+            List<String> righe = controller.getValutazioniByTeam(teamId);
+
+            assertEquals(valutazioni, righe.size(), String.join(System.lineSeparator(), righe));
+            sessione.assertStatementAlPiu(1).assertNessunaRipetizione(1);
+        }
+    }
+
+    @Test
+    void getHackathonsWithOpenRegistrationsUsaUnaSolaQuery() {
+        try (SessioneQuery sessione = SessioneQuery.apri("getHackathonsWithOpenRegistrations")) {
+            List<String> righe = controller.getHackathonsWithOpenRegistrations(-1);
+
+            assertEquals(registrazioniAperte, righe.size(), String.join(System.lineSeparator(), righe));
+            sessione.assertStatementAlPiu(1).assertNessunaRipetizione(1);
+        }
+    }
+}
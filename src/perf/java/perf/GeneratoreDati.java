@@ -0,0 +1,407 @@
+package perf;
+
+import model.*;
+import model.factory.TestData;
+import model.exceptions.InvalidDataException;
+import model.exceptions.RegistrazioneScadutaException;
+import model.exceptions.TeamFullException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Generatore di dati sintetici per hackathon di grandi dimensioni.
+ * <p>
+ * A differenza di {@link TestData}, che costruisce un solo hackathon fisso, il generatore produce
+ * un numero arbitrario di hackathon, ciascuno con organizzatore, giudici, team da 1 a
+ * {@link Team#MAX_TEAM_SIZE} concorrenti, problemi, documenti, aggiornamenti, commenti e
+ * valutazioni. Le quantità seguono distribuzioni plausibili: team per lo più di 4-6 persone,
+ * un numero di documenti e aggiornamenti per team molto variabile (alcuni team non ne hanno
+ * affatto, e quindi non vengono valutati), punteggi concentrati intorno al 6-7.
+ * </p>
+ * <p>
+ * La generazione dipende solo dal seme: con lo stesso seme e gli stessi parametri si ottengono
+ * sempre gli stessi dati, così da poter riprodurre un profilo a distanza di tempo. Il risultato
+ * di {@link #genera()} è una descrizione neutra dei dati, che si può trasformare nel grafo del
+ * modello con {@link #creaModello(List)} oppure scrivere nel database con
+ * {@link CaricatoreDatiSintetici}.
+ * </p>
+ */
+public class GeneratoreDati {
+
+    /** Peso relativo delle dimensioni dei team, da 1 a {@link Team#MAX_TEAM_SIZE} concorrenti. */
+    private static final int[] PESI_DIMENSIONE_TEAM = {3, 7, 15, 25, 30, 20};
+    /** Dimensione media di un team secondo {@link #PESI_DIMENSIONE_TEAM}. */
+    private static final double DIMENSIONE_MEDIA_TEAM = 4.32;
+
+    private static final String[] NOMI = {
+            "Alessandro", "Anna", "Chiara", "Davide", "Elena", "Francesca", "Giulia", "Giuseppe", "Luca",
+            "Marco", "Maria", "Matteo", "Paolo", "Roberta", "Sara", "Simone", "Stefano", "Valentina"
+    };
+    private static final String[] COGNOMI = {
+            "Bianchi", "Colombo", "Conti", "Costa", "Esposito", "Ferrari", "Gallo", "Greco", "Marino",
+            "Ricci", "Romano", "Rossi", "Russo", "Bruno", "De Luca", "Fontana", "Moretti", "Rinaldi"
+    };
+    private static final String[] CITTA = {"Napoli", "Milano", "Roma", "Torino", "Bologna", "Bari", "Palermo"};
+    private static final String[] TEMI = {
+            "mobilità sostenibile", "sanità digitale", "energia", "turismo", "agricoltura",
+            "sicurezza informatica", "pubblica amministrazione", "istruzione"
+    };
+    private static final String[] FORMATI = {"pdf", "docx", "pptx", "zip", "md"};
+    private static final String[] TIPI_DOCUMENTO = {"relazione", "codice", "presentazione", "progetto"};
+    private static final String[] FEEDBACK = {
+            "Buona idea, realizzazione da migliorare.", "Prototipo solido e ben presentato.",
+            "Manca una valutazione dei costi.", "Ottimo lavoro di squadra.", "Soluzione poco originale.",
+            "Interfaccia curata, architettura fragile.", ""
+    };
+
+    /**
+     * Parametri della generazione.
+     *
+     * @param seme             seme del generatore casuale
+     * @param hackathon        numero di hackathon
+     * @param teamPerHackathon numero di team per hackathon
+     */
+    public record Parametri(long seme, int hackathon, int teamPerHackathon) {
+
+        /**
+         * @throws IllegalArgumentException se il numero di hackathon o di team non è positivo
+         */
+        public Parametri {
+            if (hackathon <= 0 || teamPerHackathon <= 0) {
+                throw new IllegalArgumentException("Servono almeno un hackathon e un team per hackathon.");
+            }
+        }
+
+        /**
+         * Calcola il numero di team necessario per avvicinarsi al numero di partecipanti indicato.
+         *
+         * @param seme                      seme del generatore casuale
+         * @param hackathon                 numero di hackathon
+         * @param partecipantiPerHackathon  concorrenti desiderati per hackathon (es. 10000)
+         * @return i parametri corrispondenti
+         */
+        public static Parametri perPartecipanti(long seme, int hackathon, int partecipantiPerHackathon) {
+            return new Parametri(seme, hackathon,
+                    Math.max(1, (int) Math.round(partecipantiPerHackathon / DIMENSIONE_MEDIA_TEAM)));
+        }
+    }
+
+    /**
+     * Utente generato; l'email è unica per seme.
+     *
+     * @param nome    nome
+     * @param cognome cognome
+     * @param email   email
+     */
+    public record UtenteGenerato(String nome, String cognome, String email) {
+    }
+
+    /**
+     * Commento di un giudice su un documento.
+     *
+     * @param giudice indice del giudice in {@link HackathonGenerato#giudici()}
+     * @param testo   testo del commento
+     */
+    public record CommentoGenerato(int giudice, String testo) {
+    }
+
+    /**
+     * Documento di un team con i suoi aggiornamenti e commenti.
+     *
+     * @param titolo         titolo
+     * @param descrizione    descrizione
+     * @param dataCreazione  data di creazione
+     * @param formato        formato del file
+     * @param dimensione     dimensione in MB
+     * @param tipo           tipo del documento
+     * @param aggiornamenti  contenuti degli aggiornamenti
+     * @param commenti       commenti dei giudici
+     */
+    public record DocumentoGenerato(String titolo, String descrizione, LocalDate dataCreazione, String formato,
+                                    double dimensione, String tipo, List<String> aggiornamenti,
+                                    List<CommentoGenerato> commenti) {
+    }
+
+    /**
+     * Problema assegnato a un team.
+     *
+     * @param giudice     indice del giudice che lo propone
+     * @param titolo      titolo
+     * @param descrizione descrizione
+     */
+    public record ProblemaGenerato(int giudice, String titolo, String descrizione) {
+    }
+
+    /**
+     * Valutazione di un team.
+     *
+     * @param giudice   indice del giudice
+     * @param punteggio punteggio da 1 a 10
+     * @param feedback  feedback, eventualmente vuoto
+     */
+    public record ValutazioneGenerata(int giudice, int punteggio, String feedback) {
+    }
+
+    /**
+     * Team generato.
+     *
+     * @param nome        nome, unico nell'hackathon
+     * @param concorrenti concorrenti del team
+     * @param problema    problema assegnato, {@code null} se assente
+     * @param documenti   documenti del team
+     * @param valutazioni valutazioni ricevute (solo se il team ha aggiornamenti)
+     */
+    public record TeamGenerato(String nome, List<UtenteGenerato> concorrenti, ProblemaGenerato problema,
+                               List<DocumentoGenerato> documenti, List<ValutazioneGenerata> valutazioni) {
+
+        /**
+         * @return {@code true} se almeno un documento del team ha aggiornamenti
+         */
+        public boolean haAggiornamenti() {
+            return documenti.stream().anyMatch(d -> !d.aggiornamenti().isEmpty());
+        }
+    }
+
+    /**
+     * Hackathon generato con tutti i suoi partecipanti.
+     *
+     * @param nome          nome
+     * @param descrizione   descrizione
+     * @param luogo         luogo
+     * @param dataInizio    data di inizio
+     * @param dataFine      data di fine
+     * @param organizzatore organizzatore
+     * @param giudici       giudici
+     * @param team          team
+     */
+    public record HackathonGenerato(String nome, String descrizione, String luogo, LocalDate dataInizio,
+                                    LocalDate dataFine, UtenteGenerato organizzatore,
+                                    List<UtenteGenerato> giudici, List<TeamGenerato> team) {
+
+        /**
+         * @return numero di concorrenti dell'hackathon
+         */
+        public int concorrenti() {
+            return team.stream().mapToInt(t -> t.concorrenti().size()).sum();
+        }
+    }
+
+    private final Parametri parametri;
+    private final Random random;
+    private final LocalDate oggi;
+    private int progressivoUtente;
+
+    /**
+     * Crea un generatore.
+     *
+     * @param parametri parametri della generazione
+     */
+    public GeneratoreDati(Parametri parametri) {
+        this(parametri, LocalDate.now());
+    }
+
+    /**
+     * Crea un generatore con una data di riferimento fissa, per ottenere anche le stesse date.
+     *
+     * @param parametri parametri della generazione
+     * @param oggi      data da cui calcolare le date degli hackathon (tutti futuri)
+     */
+    public GeneratoreDati(Parametri parametri, LocalDate oggi) {
+        this.parametri = parametri;
+        this.random = new Random(parametri.seme());
+        this.oggi = oggi;
+    }
+
+    /**
+     * Genera gli hackathon descritti dai parametri.
+     *
+     * @return gli hackathon generati
+     */
+    public List<HackathonGenerato> genera() {
+        List<HackathonGenerato> risultato = new ArrayList<>();
+        for (int h = 1; h <= parametri.hackathon(); h++) {
+            risultato.add(generaHackathon(h));
+        }
+        return risultato;
+    }
+
+    private HackathonGenerato generaHackathon(int numero) {
+        String citta = scegli(CITTA);
+        String tema = scegli(TEMI);
+        LocalDate inizio = oggi.plusDays(30L + 7L * numero);
+        LocalDate fine = inizio.plusDays(1 + random.nextInt(3));
+
+        UtenteGenerato organizzatore = utente();
+        int numeroGiudici = Math.max(3, (parametri.teamPerHackathon() + 24) / 25);
+        List<UtenteGenerato> giudici = IntStream.range(0, numeroGiudici).mapToObj(_ -> utente()).toList();
+
+        List<TeamGenerato> team = new ArrayList<>(parametri.teamPerHackathon());
+        for (int t = 1; t <= parametri.teamPerHackathon(); t++) {
+            team.add(generaTeam("Team " + t, numeroGiudici, inizio));
+        }
+
+        return new HackathonGenerato(
+                "Hackathon " + citta + " " + inizio.getYear() + " #" + numero + " (seme " + parametri.seme() + ")",
+                "Hackathon sul tema " + tema + ".", citta, inizio, fine, organizzatore, giudici, team);
+    }
+
+    private TeamGenerato generaTeam(String nome, int numeroGiudici, LocalDate inizio) {
+        List<UtenteGenerato> concorrenti = new ArrayList<>();
+        int dimensione = dimensioneTeam();
+        for (int i = 0; i < dimensione; i++) {
+            concorrenti.add(utente());
+        }
+
+        ProblemaGenerato problema = random.nextInt(10) < 9
+                ? new ProblemaGenerato(random.nextInt(numeroGiudici), "Problema di " + nome,
+                "Realizzare un prototipo sul tema assegnato al " + nome + ".")
+                : null;
+
+        // un team su dieci non consegna nulla; gli altri hanno 1 + geometrica documenti
+        List<DocumentoGenerato> documenti = new ArrayList<>();
+        int numeroDocumenti = random.nextInt(10) == 0 ? 0 : 1 + geometrica(0.45, 11);
+        for (int d = 1; d <= numeroDocumenti; d++) {
+            documenti.add(generaDocumento(nome, d, numeroGiudici, inizio));
+        }
+
+        List<ValutazioneGenerata> valutazioni = new ArrayList<>();
+        if (documenti.stream().anyMatch(d -> !d.aggiornamenti().isEmpty())) {
+            List<Integer> giudici = new ArrayList<>(IntStream.range(0, numeroGiudici).boxed().toList());
+            Collections.shuffle(giudici, random);
+            int numeroValutazioni = Math.min(numeroGiudici, 2 + random.nextInt(3));
+            for (int v = 0; v < numeroValutazioni; v++) {
+                int punteggio = (int) Math.round(6.5 + random.nextGaussian() * 1.8);
+                valutazioni.add(new ValutazioneGenerata(giudici.get(v),
+                        Math.max(1, Math.min(10, punteggio)), scegli(FEEDBACK)));
+            }
+        }
+
+        return new TeamGenerato(nome, concorrenti, problema, documenti, valutazioni);
+    }
+
+    private DocumentoGenerato generaDocumento(String team, int numero, int numeroGiudici, LocalDate inizio) {
+        List<String> aggiornamenti = new ArrayList<>();
+        int numeroAggiornamenti = random.nextInt(4) == 0 ? 0 : 1 + geometrica(0.4, 15);
+        for (int a = 1; a <= numeroAggiornamenti; a++) {
+            aggiornamenti.add("Revisione " + a + " del documento " + numero + " di " + team + ".");
+        }
+
+        List<CommentoGenerato> commenti = new ArrayList<>();
+        int numeroCommenti = aggiornamenti.isEmpty() ? 0 : geometrica(0.5, 5);
+        for (int c = 1; c <= numeroCommenti; c++) {
+            commenti.add(new CommentoGenerato(random.nextInt(numeroGiudici),
+                    "Osservazione " + c + " sul documento " + numero + " di " + team + "."));
+        }
+
+        // dimensioni log-normali: molti file piccoli, pochi archivi grandi
+        double dimensione = Math.round(Math.exp(random.nextGaussian() * 1.2) * 100) / 100.0;
+        return new DocumentoGenerato("Documento " + numero + " - " + team,
+                "Consegna " + numero + " del " + team + ".", inizio.plusDays(random.nextInt(2)),
+                scegli(FORMATI), dimensione, scegli(TIPI_DOCUMENTO), aggiornamenti, commenti);
+    }
+
+    private UtenteGenerato utente() {
+        String nome = scegli(NOMI);
+        String cognome = scegli(COGNOMI);
+        int progressivo = ++progressivoUtente;
+        String email = (nome + "." + cognome.replace(" ", "")).toLowerCase()
+                + "." + parametri.seme() + "." + progressivo + "@example.com";
+        return new UtenteGenerato(nome, cognome, email);
+    }
+
+    private int dimensioneTeam() {
+        int totale = 0;
+        for (int peso : PESI_DIMENSIONE_TEAM) {
+            totale += peso;
+        }
+        int estratto = random.nextInt(totale);
+        for (int i = 0; i < PESI_DIMENSIONE_TEAM.length; i++) {
+            estratto -= PESI_DIMENSIONE_TEAM[i];
+            if (estratto < 0) {
+                return i + 1;
+            }
+        }
+        return PESI_DIMENSIONE_TEAM.length;
+    }
+
+    /** Numero di insuccessi prima del primo successo con probabilità {@code p}, limitato a {@code massimo}. */
+    private int geometrica(double p, int massimo) {
+        int n = 0;
+        while (n < massimo && random.nextDouble() >= p) {
+            n++;
+        }
+        return n;
+    }
+
+    private String scegli(String[] valori) {
+        return valori[random.nextInt(valori.length)];
+    }
+
+    /**
+     * Costruisce il grafo del modello a partire dai dati generati.
+     * <p>
+     * Gli identificativi sono progressivi a partire da 1, distinti per tipo di entità.
+     * </p>
+     *
+     * @param generati hackathon generati con {@link #genera()}
+     * @return gli hackathon del modello, con team, concorrenti, documenti, aggiornamenti,
+     *         commenti, problemi e valutazioni collegati
+     * @throws InvalidDataException          se un dato generato non supera le validazioni del modello
+     * @throws RegistrazioneScadutaException se la registrazione di un utente non è ammessa
+     * @throws TeamFullException             se un team supera la capienza massima
+     */
+    public static List<Hackathon> creaModello(List<HackathonGenerato> generati)
+            throws InvalidDataException, RegistrazioneScadutaException, TeamFullException {
+        List<Hackathon> risultato = new ArrayList<>();
+        int idUtente = 0;
+        int idTeam = 0;
+        int idDocumento = 0;
+
+        for (HackathonGenerato h : generati) {
+            UtenteGenerato o = h.organizzatore();
+            Organizzatore organizzatore = new Organizzatore(++idUtente, o.nome(), o.cognome(), o.email());
+            Hackathon hackathon = new Hackathon(h.nome(), h.descrizione(), h.luogo(), h.dataInizio(), h.dataFine(),
+                    organizzatore);
+
+            List<Giudice> giudici = new ArrayList<>();
+            for (UtenteGenerato g : h.giudici()) {
+                giudici.add(new Giudice(++idUtente, g.nome(), g.cognome(), g.email()));
+            }
+
+            for (TeamGenerato t : h.team()) {
+                Team team = new Team(++idTeam, t.nome(), hackathon);
+                hackathon.aggiungiTeam(team);
+                for (UtenteGenerato c : t.concorrenti()) {
+                    team.aggiungiConcorrente(new Concorrente(++idUtente, c.nome(), c.cognome(), c.email()));
+                }
+
+                if (t.problema() != null) {
+                    giudici.get(t.problema().giudice())
+                            .assegnaProblemaATeam(t.problema().titolo(), t.problema().descrizione(), team);
+                }
+
+                for (DocumentoGenerato d : t.documenti()) {
+                    Documento documento = new Documento(++idDocumento, d.titolo(), d.descrizione(),
+                            d.formato(), d.dimensione(), d.tipo(), team);
+                    for (String contenuto : d.aggiornamenti()) {
+                        new Aggiornamento(team, documento, contenuto);
+                    }
+                    for (CommentoGenerato c : d.commenti()) {
+                        new Commento(documento, giudici.get(c.giudice()), c.testo());
+                    }
+                }
+
+                for (ValutazioneGenerata v : t.valutazioni()) {
+                    new Valutazione(team, giudici.get(v.giudice()), v.punteggio(), v.feedback());
+                }
+            }
+            risultato.add(hackathon);
+        }
+        return risultato;
+    }
+}
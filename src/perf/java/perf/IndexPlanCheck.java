@@ -0,0 +1,203 @@
+package perf;
+
+import dao.impl.CommentoDAOImpl;
+import dao.impl.HackathonDAOImpl;
+import dao.impl.UtenteDAOImpl;
+import db.DatabaseConnectionSingleton;
+import db.MigrationRunner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica che le query sui predicati più frequenti usino gli indici creati dalle migrazioni
+ * ({@code V005__indici_prestazioni.sql} e successive).
+ * <p>
+ * Il piano di ogni query viene chiesto con {@code EXPLAIN} dopo aver disattivato
+ * {@code enable_seqscan}, così il controllo non dipende dalla quantità di dati presenti (su
+ * tabelle piccole una scansione sequenziale sarebbe comunque la scelta più economica). Ogni caso
+ * indica l'indice atteso e il test fallisce se il piano non lo usa, se legge la tabella con una
+ * scansione sequenziale o se scorre l'indice applicando il predicato solo come {@code Filter}
+ * invece che come {@code Index Cond}.
+ * </p>
+ * <p>
+ * Per ogni caso viene salvato anche l'{@code EXPLAIN (ANALYZE, BUFFERS)} con le impostazioni
+ * normali del planner, un file per query nella cartella {@code hackathon.perf.piani}
+ * ({@code target/piani-indici} se non indicata), da confrontare tra un rilascio e l'altro.
+ * </p>
+ * <p>
+ * Il database è un'istanza temporanea di {@link PostgresLocale}, oppure quello indicato con
+ * {@code hackathon.perf.url}; in entrambi i casi lo schema viene aggiornato con
+ * {@link MigrationRunner}. Uso:
+ * <pre>
+ * mvn -Pbenchmark test -Dtest=IndexPlanCheck
+ * </pre>
+ * </p>
+ */
+class IndexPlanCheck {
+
+    /**
+     * Query da verificare.
+     *
+     * @param nome      metodo o vincolo che esegue la query
+     * @param tabella   tabella che non deve essere letta con una scansione sequenziale
+     * @param indice    indice che il piano deve usare
+     * @param sql       testo della query
+     * @param parametri valori di esempio dei parametri
+     */
+    record Caso(String nome, String tabella, String indice, String sql, List<Object> parametri) {
+        @Override
+        public String toString() {
+            return nome;
+        }
+    }
+
+    /** Query verificate, con gli stessi testi usati dai DAO. */
+    static final List<Caso> CASI = List.of(
+            new Caso("HackathonDAO.getRowsByOrganizzatoreId", "hackathon", "idx_hackathon_organizzatore_nome",
+                    HackathonDAOImpl.SELECT_BY_ORGANIZZATORE, List.of(1)),
+            new Caso("HackathonDAO.getIdByNameAndOrganizzatore", "hackathon", "idx_hackathon_organizzatore_nome",
+                    HackathonDAOImpl.SELECT_ID_BY_NOME_E_ORGANIZZATORE, List.of("Hackathon", 1)),
+            // indice parziale: il predicato è la condizione dell'indice, quindi non compare Index Cond
+            new Caso("HackathonDAO.findRowsByRegistrazioniAperte", "hackathon", "idx_hackathon_registrazioni_aperte",
+                    HackathonDAOImpl.SELECT_REGISTRAZIONI_APERTE, List.of()),
+            new Caso("UtenteDAO.findRowsByTipoUtenteForHackathon", "utente", "idx_utente_hackathon_tipo_id",
+                    UtenteDAOImpl.SELECT_BY_HACKATHON_E_TIPO, List.of(1, "concorrente")),
+            new Caso("UtenteDAO.findRowsByTipoUtenteForHackathonPage", "utente", "idx_utente_hackathon_tipo_id",
+                    UtenteDAOImpl.SELECT_PAGE_BY_HACKATHON_E_TIPO, List.of(1, "concorrente", 0, 51)),
+            new Caso("CommentoDAO.findRowsByDocumentoIdPage", "commento", "idx_commento_documento_id",
+                    CommentoDAOImpl.SELECT_PAGE_BY_DOCUMENTO, List.of(1, 0, 51)),
+            // la verifica EXISTS eseguita da CommentoDAO.save prima di inserire il commento
+            new Caso("CommentoDAO.save", "aggiornamento", "idx_aggiornamento_documento",
+                    "SELECT 1 FROM aggiornamento WHERE documento_id = ?", List.of(1)),
+            // la stessa ricerca che PostgreSQL esegue per fk_problema_giudice quando si elimina un giudice
+            new Caso("fk_problema_giudice", "problema", "idx_problema_giudice",
+                    "SELECT 1 FROM problema WHERE giudice_id = ? AND giudice_tipo = ?", List.of(1, "giudice"))
+    );
+
+    private static PostgresLocale postgres;
+    private static DatabaseConnectionSingleton database;
+
+    static List<Caso> casi() {
+        return CASI;
+    }
+
+    @BeforeAll
+    static void preparaDatabase() throws IOException, SQLException {
+        String url = System.getProperty("hackathon.perf.url");
+        if (url == null) {
+            postgres = PostgresLocale.avvia(PostgresLocale.DATABASE_APPLICAZIONE);
+            System.setProperty("hackathon.db.url", postgres.url(PostgresLocale.DATABASE_APPLICAZIONE));
+            System.setProperty("hackathon.db.user", postgres.utente());
+            System.setProperty("hackathon.db.password", "");
+        } else {
+            System.setProperty("hackathon.db.url", url);
+        }
+        database = DatabaseConnectionSingleton.getInstance();
+        new MigrationRunner(database).migrate();
+    }
+
+    @AfterAll
+    static void fermaDatabase() {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("casi")
+    void usaLIndiceAtteso(Caso caso) throws SQLException {
+        String piano;
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET LOCAL enable_seqscan = off");
+            }
+            piano = explain(conn, "EXPLAIN ", caso);
+            conn.rollback();
+        }
+
+        assertFalse(Pattern.compile("Seq Scan on " + caso.tabella() + "\\b").matcher(piano).find(),
+                caso.nome() + ": scansione sequenziale su " + caso.tabella() + System.lineSeparator() + piano);
+
+        List<String> nodo = nodoIndice(piano, caso.indice());
+        if (nodo.isEmpty()) {
+            fail(caso.nome() + ": l'indice " + caso.indice() + " non è usato" + System.lineSeparator() + piano);
+        }
+        boolean soloFiltro = nodo.stream().anyMatch(riga -> riga.contains("Filter:"))
+                && nodo.stream().noneMatch(riga -> riga.contains("Index Cond:"));
+        assertFalse(soloFiltro, caso.nome() + ": " + caso.indice() + " è solo scorso, il predicato è un Filter"
+                + System.lineSeparator() + piano);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("casi")
+    void salvaIlPianoEseguito(Caso caso) throws SQLException, IOException {
+        Path cartella = Path.of(System.getProperty("hackathon.perf.piani", "target/piani-indici"));
+        Files.createDirectories(cartella);
+
+        String piano;
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            piano = explain(conn, "EXPLAIN (ANALYZE, BUFFERS) ", caso);
+            conn.rollback();
+        }
+        Files.writeString(cartella.resolve(caso.nome() + ".txt"),
+                caso.sql() + System.lineSeparator() + System.lineSeparator() + piano,
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Righe del nodo del piano che legge l'indice indicato: la riga del nodo e le sue
+     * proprietà ({@code Index Cond}, {@code Filter}, ...) fino al nodo successivo.
+     */
+    private static List<String> nodoIndice(String piano, String indice) {
+        Pattern scansione = Pattern.compile("(?:Index (?:Only )?Scan(?: Backward)? using|Bitmap Index Scan on) "
+                + Pattern.quote(indice) + "\\b");
+        List<String> nodo = new ArrayList<>();
+        for (String riga : piano.split("\\R")) {
+            if (nodo.isEmpty()) {
+                if (scansione.matcher(riga).find()) {
+                    nodo.add(riga);
+                }
+            } else if (riga.contains("->")) {
+                break;
+            } else {
+                nodo.add(riga);
+            }
+        }
+        return nodo;
+    }
+
+    private static String explain(Connection conn, String prefisso, Caso caso) throws SQLException {
+        StringBuilder piano = new StringBuilder();
+        try (PreparedStatement pstmt = conn.prepareStatement(prefisso + caso.sql())) {
+            for (int i = 0; i < caso.parametri().size(); i++) {
+                pstmt.setObject(i + 1, caso.parametri().get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    piano.append(rs.getString(1)).append(System.lineSeparator());
+                }
+            }
+        }
+        return piano.toString();
+    }
+}
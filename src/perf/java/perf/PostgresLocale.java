@@ -0,0 +1,214 @@
+package perf;
+
+import db.MigrationRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Istanza PostgreSQL temporanea avviata con i binari installati sulla macchina
+ * ({@code initdb} e {@code pg_ctl}), senza container.
+ * <p>
+ * Il cluster viene creato in una cartella temporanea, con autenticazione {@code trust}, e
+ * ascolta solo su {@code localhost} su una porta libera. I database creati appartengono al
+ * ruolo {@value #RUOLO_APPLICAZIONE}, che non è un superutente: le migrazioni vengono così
+ * applicate con gli stessi privilegi di un'installazione normale. Per
+ * velocizzare il caricamento dei dati {@code fsync} è disattivato: l'istanza è pensata per
+ * le misure, non per conservare dati. {@link #close()} la ferma e ne cancella la cartella.
+ * </p>
+ * <p>
+ * La cartella dei binari si indica con la proprietà di sistema {@code hackathon.perf.pgBin};
+ * in sua assenza vengono cercati nel {@code PATH} e nelle cartelle di installazione abituali,
+ * tra cui quelle per versione di Debian e Ubuntu dalla più recente, scartando le versioni
+ * precedenti a {@link MigrationRunner#VERSIONE_MINIMA_POSTGRES}.
+ * </p>
+ */
+public final class PostgresLocale implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(PostgresLocale.class.getName());
+
+    /** Nome del database usato dall'applicazione in assenza di {@code hackathon.db.url}. */
+    public static final String DATABASE_APPLICAZIONE = "hackathon_sql";
+
+    private static final String AMMINISTRATORE = "postgres";
+    /** Ruolo proprietario dei database creati, con cui si collega l'applicazione. */
+    private static final String RUOLO_APPLICAZIONE = "hackathon";
+    private static final long TIMEOUT_COMANDO_SECONDI = 120;
+
+    private final Path binari;
+    private final Path cartella;
+    private final int porta;
+
+    private PostgresLocale(Path binari, Path cartella, int porta) {
+        this.binari = binari;
+        this.cartella = cartella;
+        this.porta = porta;
+    }
+
+    /**
+     * Crea un cluster temporaneo, lo avvia e vi crea il ruolo {@value #RUOLO_APPLICAZIONE}
+     * e il database indicato, di sua proprietà.
+     *
+     * @param database nome del database da creare
+     * @return l'istanza avviata
+     * @throws IOException  se i binari non sono disponibili o un comando fallisce
+     * @throws SQLException se il database non può essere creato
+     */
+    public static PostgresLocale avvia(String database) throws IOException, SQLException {
+        Path binari = trovaBinari();
+        Path cartella = Files.createTempDirectory("hackathon-pg");
+        int porta;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            porta = socket.getLocalPort();
+        }
+
+        PostgresLocale istanza = new PostgresLocale(binari, cartella, porta);
+        try {
+            istanza.esegui("initdb", "-D", cartella.resolve("dati").toString(), "-U", AMMINISTRATORE,
+                    "-A", "trust", "-E", "UTF8", "--no-sync");
+            istanza.esegui("pg_ctl", "-D", cartella.resolve("dati").toString(),
+                    "-l", cartella.resolve("postgres.log").toString(), "-w",
+                    "-o", "-p " + porta + " -k " + cartella + " -c listen_addresses=localhost"
+                            + " -c fsync=off -c synchronous_commit=off -c full_page_writes=off",
+                    "start");
+
+            try (Connection conn = DriverManager.getConnection(istanza.url("postgres"), AMMINISTRATORE, "");
+                 Statement stmt = conn.createStatement()) {
+                int versione = conn.getMetaData().getDatabaseMajorVersion();
+                if (versione < MigrationRunner.VERSIONE_MINIMA_POSTGRES) {
+                    throw new IOException("PostgreSQL " + versione + " in " + binari + ": è richiesta la versione "
+                            + MigrationRunner.VERSIONE_MINIMA_POSTGRES + " o successiva (-Dhackathon.perf.pgBin)");
+                }
+                stmt.execute("CREATE ROLE " + RUOLO_APPLICAZIONE + " LOGIN");
+                stmt.execute("CREATE DATABASE " + database + " OWNER " + RUOLO_APPLICAZIONE);
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            istanza.close();
+            throw e;
+        }
+        logger.info("PostgreSQL locale avviato sulla porta " + porta + " in " + cartella);
+        return istanza;
+    }
+
+    /**
+     * Restituisce l'URL JDBC di un database dell'istanza.
+     *
+     * @param database nome del database
+     * @return l'URL, con la riscrittura degli insert a blocchi attiva
+     */
+    public String url(String database) {
+        return "jdbc:postgresql://localhost:" + porta + "/" + database + "?reWriteBatchedInserts=true";
+    }
+
+    /**
+     * @return il ruolo proprietario dei database creati, senza password
+     */
+    public String utente() {
+        return RUOLO_APPLICAZIONE;
+    }
+
+    /**
+     * Ferma l'istanza e ne cancella i dati.
+     */
+    @Override
+    public void close() {
+        try {
+            if (Files.exists(cartella.resolve("dati").resolve("postmaster.pid"))) {
+                esegui("pg_ctl", "-D", cartella.resolve("dati").toString(), "-m", "fast", "-w", "stop");
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossibile fermare PostgreSQL in " + cartella, e);
+        }
+        try (Stream<Path> percorsi = Files.walk(cartella)) {
+            percorsi.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Cartella temporanea non rimossa: " + cartella, e);
+        }
+    }
+
+    private void esegui(String comando, String... argomenti) throws IOException {
+        List<String> riga = new ArrayList<>();
+        riga.add(binari.resolve(comando).toString());
+        riga.addAll(List.of(argomenti));
+
+        Process processo = new ProcessBuilder(riga)
+                .redirectErrorStream(true)
+                .redirectOutput(cartella.resolve(comando + ".out").toFile())
+                .start();
+        try {
+            if (!processo.waitFor(TIMEOUT_COMANDO_SECONDI, TimeUnit.SECONDS)) {
+                processo.destroyForcibly();
+                throw new IOException(comando + " non è terminato entro " + TIMEOUT_COMANDO_SECONDI + " s");
+            }
+        } catch (InterruptedException e) {
+            processo.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException(comando + " interrotto", e);
+        }
+        if (processo.exitValue() != 0) {
+            throw new IOException(comando + " terminato con codice " + processo.exitValue() + ": "
+                    + Files.readString(cartella.resolve(comando + ".out")).strip());
+        }
+    }
+
+    private static Path trovaBinari() throws IOException {
+        List<Path> candidati = new ArrayList<>();
+        String configurata = System.getProperty("hackathon.perf.pgBin");
+        if (configurata != null) {
+            candidati.add(Path.of(configurata));
+        }
+        String path = System.getenv("PATH");
+        if (path != null) {
+            for (String voce : path.split(File.pathSeparator)) {
+                candidati.add(Path.of(voce));
+            }
+        }
+        // Debian/Ubuntu installano i binari del server fuori dal PATH, una cartella per versione
+        // (9.6, 15, 16, ...): si ordinano per numero, non come stringhe, dalla più recente
+        Path debian = Path.of("/usr/lib/postgresql");
+        if (Files.isDirectory(debian)) {
+            try (Stream<Path> versioni = Files.list(debian)) {
+                versioni.filter(v -> versionePrincipale(v) >= MigrationRunner.VERSIONE_MINIMA_POSTGRES)
+                        .sorted(Comparator.comparingInt(PostgresLocale::versionePrincipale).reversed())
+                        .forEach(v -> candidati.add(v.resolve("bin")));
+            }
+        }
+        candidati.add(Path.of("/usr/local/pgsql/bin"));
+        candidati.add(Path.of("/opt/homebrew/bin"));
+
+        for (Path candidato : candidati) {
+            if (Files.isExecutable(candidato.resolve("initdb")) && Files.isExecutable(candidato.resolve("pg_ctl"))) {
+                return candidato;
+            }
+        }
+        throw new IOException("initdb e pg_ctl non trovati: indicare la cartella con -Dhackathon.perf.pgBin");
+    }
+
+    /**
+     * Versione principale indicata dal nome di una cartella di installazione ({@code 9.6} vale 9),
+     * oppure -1 se il nome non è una versione.
+     */
+    private static int versionePrincipale(Path cartella) {
+        String nome = cartella.getFileName().toString();
+        int punto = nome.indexOf('.');
+        try {
+            return Integer.parseInt(punto < 0 ? nome : nome.substring(0, punto));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package perf;
+
+import controller.Controller;
+import db.DatabaseConnectionSingleton;
+import db.MigrationRunner;
+import metriche.Istogramma;
+import metriche.Metriche;
+import model.Team;
+import perf.GeneratoreDati.HackathonGenerato;
+import security.PasswordSecurity;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Suite di prestazioni end-to-end: misura i percorsi completi degli utenti sul {@link Controller}
+ * con un database PostgreSQL reale.
+ * <p>
+ * La suite:
+ * <ol>
+ *     <li>avvia un'istanza PostgreSQL temporanea con {@link PostgresLocale}, oppure usa il database
+ *         indicato con {@code -Dhackathon.perf.url} (con {@code hackathon.db.user} e
+ *         {@code hackathon.db.password});</li>
+ *     <li>applica lo schema con {@link MigrationRunner};</li>
+ *     <li>carica un hackathon generato con {@link GeneratoreDati} e {@link CaricatoreDatiSintetici};</li>
+ *     <li>simula utenti concorrenti, ciascuno su un virtual thread, che ripetono il percorso
+ *         registrazione e ingresso nel team, login, caricamento di un documento, aggiornamento,
+ *         commento e valutazione di un giudice, lettura della classifica;</li>
+ *     <li>riporta per ogni passo e per il percorso completo esiti negativi, throughput e latenze
+ *         p50, p99 e massima, seguiti dalle metriche dei DAO raccolte da {@link Metriche}.</li>
+ * </ol>
+ * Un esito negativo è una risposta di errore o di rifiuto del controller, ad esempio una
+ * valutazione già inserita dallo stesso giudice: viene contato ma la sua latenza è misurata
+ * come le altre.
+ * </p>
+ * <p>
+ * Uso (la classe fa parte dei sorgenti di test del profilo {@code benchmark}):
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@suite-end-to-end -Dsuite.args="[utenti] [giri] [partecipanti] [seme]"
+ * </pre>
+ * I valori predefiniti sono 100 utenti simulati, 5 percorsi ciascuno, un hackathon da 10000
+ * partecipanti e seme 42. Se la proprietà {@code hackathon.perf.report} indica un file, il report
+ * vi viene anche salvato. Salvo diversa indicazione il costo BCrypt è fissato a 10, perché la
+ * calibrazione automatica renderebbe registrazione e login dipendenti dalla macchina; la
+ * concorrenza verso il database è limitata dal pool ({@code hackathon.db.pool.max}).
+ * </p>
+ */
+public final class SuiteEndToEnd {
+
+    private static final String SELECT_HACKATHON = "SELECT id FROM hackathon WHERE nome = ?";
+    private static final String SELECT_TEAM =
+            "SELECT t.id, MIN(d.id) AS documento_id " +
+            "FROM team t " +
+            "JOIN documento d ON d.team_id = t.id " +
+            "WHERE t.hackathon_id = ? AND t.member_count < " + Team.MAX_TEAM_SIZE + " " +
+            "AND EXISTS (SELECT 1 FROM problema p WHERE p.team_id = t.id) " +
+            "GROUP BY t.id ORDER BY t.id";
+    private static final String SELECT_GIUDICI =
+            "SELECT id FROM utente WHERE hackathon_id = ? AND tipo_utente = 'giudice' ORDER BY id";
+
+    /**
+     * Identificativi dei dati caricati usati dai percorsi simulati.
+     *
+     * @param hackathonId ID dell'hackathon caricato
+     * @param team        team con almeno un posto libero, un problema e un documento
+     * @param documenti   per ogni team, l'ID di un suo documento
+     * @param giudici     giudici dell'hackathon
+     */
+    record Scenario(int hackathonId, int[] team, int[] documenti, int[] giudici) {
+    }
+
+    /** Statistiche di un passo del percorso. */
+    private static final class Flusso {
+        private final String nome;
+        private final Istogramma latenzaMicros = new Istogramma();
+        private final LongAdder negativi = new LongAdder();
+
+        private Flusso(String nome) {
+            this.nome = nome;
+        }
+
+        private void registra(long inizioNanos, boolean positivo) {
+            latenzaMicros.registra((System.nanoTime() - inizioNanos) / 1_000);
+            if (!positivo) {
+                negativi.increment();
+            }
+        }
+
+        private String riga(double secondi) {
+            long esecuzioni = latenzaMicros.conteggio();
+            return String.format(Locale.ROOT, "%-20s %10d %9d %10.1f %10.2f %10.2f %10.2f",
+                    nome, esecuzioni, negativi.sum(), esecuzioni / secondi,
+                    latenzaMicros.percentile(50) / 1000.0, latenzaMicros.percentile(99) / 1000.0,
+                    latenzaMicros.massimo() / 1000.0);
+        }
+    }
+
+    private final Controller controller;
+    private final Scenario scenario;
+    private final String prefissoEmail;
+    private final Map<String, Flusso> flussi = new LinkedHashMap<>();
+
+    private SuiteEndToEnd(Controller controller, Scenario scenario) {
+        this.controller = controller;
+        this.scenario = scenario;
+        this.prefissoEmail = "perf." + System.currentTimeMillis();
+        for (String nome : List.of("registrazione", "login", "documento", "aggiornamento", "commento",
+                "valutazione", "classifica", "percorso completo")) {
+            flussi.put(nome, new Flusso(nome));
+        }
+    }
+
+    /**
+     * Esegue i percorsi simulati e restituisce il report.
+     *
+     * @param utenti utenti simulati concorrenti
+     * @param giri   percorsi completi eseguiti da ogni utente
+     * @return righe del report
+     * @throws InterruptedException se l'attesa degli utenti simulati viene interrotta
+     */
+    private List<String> esegui(int utenti, int giri) throws InterruptedException {
+        CountDownLatch partenza = new CountDownLatch(1);
+        long inizio;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < utenti; u++) {
+                int utente = u;
+                executor.submit(() -> {
+                    partenza.await();
+                    for (int g = 0; g < giri; g++) {
+                        percorso(utente * giri + g);
+                    }
+                    return null;
+                });
+            }
+            inizio = System.nanoTime();
+            partenza.countDown();
+        }
+        double secondi = (System.nanoTime() - inizio) / 1e9;
+
+        List<String> righe = new ArrayList<>();
+        righe.add(String.format(Locale.ROOT, "%d utenti simulati x %d percorsi in %.1f s", utenti, giri, secondi));
+        righe.add(String.format(Locale.ROOT, "%-20s %10s %9s %10s %10s %10s %10s",
+                "passo", "esecuzioni", "negativi", "op/s", "p50(ms)", "p99(ms)", "max(ms)"));
+        flussi.values().forEach(f -> righe.add(f.riga(secondi)));
+        return righe;
+    }
+
+    private void percorso(int progressivo) {
+        int indiceTeam = progressivo % scenario.team().length;
+        int teamId = scenario.team()[indiceTeam];
+        int documentoId = scenario.documenti()[indiceTeam];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int giudiceId = scenario.giudici()[random.nextInt(scenario.giudici().length)];
+        String email = prefissoEmail + "." + progressivo + "@example.com";
+        Predicate<String> conSuccesso = m -> m != null && (m.contains("successo") || m.startsWith("Aggiunto"));
+
+        long inizio = System.nanoTime();
+        boolean completo = passo("registrazione", conSuccesso, () -> controller.saveUtente("Perf", "Utente", email,
+                CaricatoreDatiSintetici.PASSWORD, null, "concorrente", scenario.hackathonId(), teamId));
+        completo &= passo("login", s -> s != null,
+                () -> controller.loginSessione(email, CaricatoreDatiSintetici.PASSWORD));
+        completo &= passo("documento", conSuccesso, () -> controller.saveDocumento(teamId,
+                "Documento " + progressivo, "Documento della suite end-to-end", LocalDate.now(), "pdf", 1.5,
+                "relazione"));
+        completo &= passo("aggiornamento", conSuccesso,
+                () -> controller.saveAggiornamento(teamId, documentoId, "Aggiornamento " + progressivo));
+        completo &= passo("commento", conSuccesso,
+                () -> controller.saveCommento(documentoId, giudiceId, "Commento " + progressivo));
+        completo &= passo("valutazione", conSuccesso, () -> controller.saveValutazione(teamId, giudiceId,
+                1 + random.nextInt(10), "Valutazione " + progressivo));
+        completo &= passo("classifica", l -> !l.isEmpty() && l.getFirst().startsWith("Classifica Hackathon"),
+                () -> controller.getClassificaHackathon(scenario.hackathonId()));
+        flussi.get("percorso completo").registra(inizio, completo);
+    }
+
+    private <T> boolean passo(String nome, Predicate<T> positivo, Supplier<T> operazione) {
+        long inizio = System.nanoTime();
+        boolean esito;
+        try {
+            esito = positivo.test(Metriche.misuraOperazione(Controller.class, operazione));
+        } catch (RuntimeException e) {
+            esito = false;
+        }
+        flussi.get(nome).registra(inizio, esito);
+        return esito;
+    }
+
+    private static Scenario leggiScenario(Connection conn, String nomeHackathon) throws SQLException {
+        int hackathonId;
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_HACKATHON)) {
+            pstmt.setString(1, nomeHackathon);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Hackathon generato non trovato: " + nomeHackathon);
+                }
+                hackathonId = rs.getInt(1);
+            }
+        }
+
+        List<int[]> team = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_TEAM)) {
+            pstmt.setInt(1, hackathonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    team.add(new int[]{rs.getInt("id"), rs.getInt("documento_id")});
+                }
+            }
+        }
+
+        List<Integer> giudici = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_GIUDICI)) {
+            pstmt.setInt(1, hackathonId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    giudici.add(rs.getInt(1));
+                }
+            }
+        }
+
+        if (team.isEmpty() || giudici.isEmpty()) {
+            throw new SQLException("I dati caricati non contengono team utilizzabili o giudici.");
+        }
+        return new Scenario(hackathonId,
+                team.stream().mapToInt(t -> t[0]).toArray(),
+                team.stream().mapToInt(t -> t[1]).toArray(),
+                giudici.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Prepara il database, esegue la suite e stampa il report.
+     *
+     * @param args utenti simulati, percorsi per utente, partecipanti dell'hackathon e seme (facoltativi)
+     * @throws Exception se il database non può essere avviato, preparato o caricato
+     */
+    public static void main(String[] args) throws Exception {
+        int utenti = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int giri = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int partecipanti = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        long seme = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        if (System.getProperty("hackathon.bcrypt.cost") == null) {
+            System.setProperty("hackathon.bcrypt.cost", "10");
+        }
+
+        PostgresLocale postgres = null;
+        String url = System.getProperty("hackathon.perf.url");
+        if (url == null) {
+            postgres = PostgresLocale.avvia(PostgresLocale.DATABASE_APPLICAZIONE);
+            System.setProperty("hackathon.db.url", postgres.url(PostgresLocale.DATABASE_APPLICAZIONE));
+            System.setProperty("hackathon.db.user", postgres.utente());
+            System.setProperty("hackathon.db.password", "");
+        } else {
+            System.setProperty("hackathon.db.url", url);
+        }
+
+        try {
+            DatabaseConnectionSingleton database = DatabaseConnectionSingleton.getInstance();
+            new MigrationRunner(database).migrate();
+
+            // date di riferimento arretrate: l'hackathon risulta concluso e la classifica è calcolabile
+            List<HackathonGenerato> dati = new GeneratoreDati(
+                    GeneratoreDati.Parametri.perPartecipanti(seme, 1, partecipanti),
+                    LocalDate.now().minusDays(60)).genera();
+            Scenario scenario;
+            try (Connection conn = database.getConnection()) {
+                CaricatoreDatiSintetici.Riepilogo riepilogo = CaricatoreDatiSintetici.carica(conn, dati,
+                        PasswordSecurity.hashPassword(CaricatoreDatiSintetici.PASSWORD));
+                System.out.println("Caricati " + riepilogo.descrizione());
+                scenario = leggiScenario(conn, dati.getFirst().nome());
+            }
+
+            List<String> report = new ArrayList<>(new SuiteEndToEnd(new Controller(), scenario).esegui(utenti, giri));
+            report.add("");
+            report.addAll(Metriche.report());
+            report.forEach(System.out::println);
+
+            String file = System.getProperty("hackathon.perf.report");
+            if (file != null) {
+                Files.write(Path.of(file), report, StandardCharsets.UTF_8);
+                System.out.println("Report salvato in " + file);
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TtlCacheTest {
+
+    private final AtomicLong orologio = new AtomicLong();
+
+    private TtlCache<Integer, String> cache(int dimensione, long ttlMillis) {
+        return new TtlCache<>(dimensione, ttlMillis, orologio::get);
+    }
+
+    private void avanza(long millis) {
+        orologio.addAndGet(millis * 1_000_000L);
+    }
+
+    @Test
+    void caricaAlPrimoAccessoERestituisceLaVoceNeiSuccessivi() {
+        TtlCache<Integer, String> cache = cache(10, 1_000);
+        AtomicInteger caricamenti = new AtomicInteger();
+
+        TtlCache.Caricatore<Integer, String, RuntimeException> caricatore = k -> {
+            caricamenti.incrementAndGet();
+            return "uno";
+        };
+
+        assertEquals("uno", cache.get(1, caricatore));
+        assertEquals("uno", cache.get(1, caricatore));
+        assertEquals(1, caricamenti.get());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void laVoceScadeAlTermineDelTtl() {
+        TtlCache<Integer, String> cache = cache(10, 1_000);
+        cache.get(1, k -> "uno");
+
+        avanza(999);
+        assertEquals("uno", cache.get(1));
+        avanza(1);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    void oltreLaDimensioneRimuoveLaVoceUsataMenoDiRecente() {
+        TtlCache<Integer, String> cache = cache(2, 1_000);
+        cache.get(1, k -> "uno");
+        cache.get(2, k -> "due");
+        cache.get(1);
+
+        cache.get(3, k -> "tre");
+
+        assertEquals("uno", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void unCaricamentoConcorrenteAUnInvalidazioneNonVieneMemorizzato() {
+        TtlCache<Integer, String> cache = cache(10, 1_000);
+
+        String caricato = cache.get(1, k -> {
+            cache.invalida(k);
+            return "superato";
+        });
+
+        assertEquals("superato", caricato);
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void iValoriNullNonVengonoMemorizzati() {
+        TtlCache<Integer, String> cache = cache(10, 1_000);
+        AtomicInteger caricamenti = new AtomicInteger();
+
+        cache.get(1, k -> {
+            caricamenti.incrementAndGet();
+            return null;
+        });
+        cache.get(1, k -> {
+            caricamenti.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, caricamenti.get());
+        assertEquals(0, cache.getStats().dimensione());
+    }
+
+    @Test
+    void invalidaTuttoSvuotaLaCache() {
+        TtlCache<Integer, String> cache = cache(10, 1_000);
+        cache.get(1, k -> "uno");
+        cache.get(2, k -> "due");
+
+        cache.invalidaTutto();
+
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(2, cache.getStats().invalidations());
+    }
+
+    @Test
+    void rifiutaDimensioneODurataNonPositive() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> cache(10, 0));
+    }
+}
@@ -0,0 +1,119 @@
+package db;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conteggio delle esecuzioni per forma: gli statement passano da {@link SessioneQuery#avvolgi}
+ * come fa {@link ConnectionPool}, ma sono oggetti vuoti che non eseguono nulla.
+ */
+class SessioneQueryTest {
+
+    private static final String SELECT_NOME = "SELECT nome FROM team WHERE id = ?";
+
+    @Test
+    void formaSostituisceLetteraliConSegnaposto() {
+        assertEquals("SELECT * FROM utente WHERE email = ? AND id > ?",
+                SessioneQuery.forma("SELECT * FROM utente WHERE email = 'a@b.it' AND id > 42"));
+        assertEquals("SELECT ? FROM t WHERE x = ?",
+                SessioneQuery.forma("SELECT 1.5 FROM t WHERE x = 'l''apice'"));
+    }
+
+    @Test
+    void formaRiduceListeInECompattaGliSpazi() {
+        assertEquals("SELECT id FROM team WHERE id IN (?)",
+                SessioneQuery.forma("SELECT id\n  FROM team\tWHERE id IN (?, ?,?)"));
+        assertEquals(SessioneQuery.forma("DELETE FROM team WHERE id IN (1, 2, 3)"),
+                SessioneQuery.forma("DELETE FROM team WHERE id IN (7)"));
+    }
+
+    @Test
+    void formaNonToccaGliIdentificatoriConCifre() {
+        assertEquals("SELECT v2.id FROM valutazione v2 WHERE v2.team_id = ?",
+                SessioneQuery.forma("SELECT v2.id FROM valutazione v2 WHERE v2.team_id = ?"));
+    }
+
+    @Test
+    void contaLeEsecuzioniPerForma() throws SQLException {
+        try (SessioneQuery sessione = SessioneQuery.apri("ciclo")) {
+            eseguiPerId(3);
+            Statement stmt = (Statement) SessioneQuery.avvolgi(finto(Statement.class), Statement.class, null);
+            stmt.executeQuery("SELECT COUNT(*) FROM team");
+
+            assertEquals(4, sessione.getStatement());
+            assertEquals(Map.of(SELECT_NOME, 3, "SELECT COUNT(*) FROM team", 1),
+                    sessione.getEsecuzioni());
+            assertEquals(Map.of(SELECT_NOME, 3), sessione.formeRipetute(1));
+        }
+    }
+
+    @Test
+    void leVerificheSegnalanoIlCicloN1() throws SQLException {
+        try (SessioneQuery sessione = SessioneQuery.apri("ciclo")) {
+            eseguiPerId(5);
+
+            sessione.assertStatementAlPiu(5).assertNessunaRipetizione(5);
+            AssertionError troppi = assertThrows(AssertionError.class, () -> sessione.assertStatementAlPiu(4));
+            assertTrue(troppi.getMessage().startsWith("ciclo: 5 statement eseguiti"));
+            AssertionError ripetuti = assertThrows(AssertionError.class, () -> sessione.assertNessunaRipetizione(1));
+            assertTrue(ripetuti.getMessage().contains(SELECT_NOME));
+        }
+    }
+
+    @Test
+    void leSessioniAnnidateContanoAncheNelContenitore() throws SQLException {
+        try (SessioneQuery esterna = SessioneQuery.apri("esterna")) {
+            eseguiPerId(1);
+            try (SessioneQuery interna = SessioneQuery.apri("interna")) {
+                eseguiPerId(2);
+                assertEquals(2, interna.getStatement());
+            }
+            eseguiPerId(1);
+            assertEquals(4, esterna.getStatement());
+        }
+    }
+
+    @Test
+    void senzaSessioneNonContaNulla() throws SQLException {
+        PreparedStatement finto = finto(PreparedStatement.class);
+        assertSame(finto, SessioneQuery.avvolgi(finto, PreparedStatement.class, SELECT_NOME));
+
+        eseguiPerId(2);
+        try (SessioneQuery sessione = SessioneQuery.apri("vuota")) {
+            assertEquals(0, sessione.getStatement());
+        }
+    }
+
+    private static void eseguiPerId(int volte) throws SQLException {
+        for (int id = 1; id <= volte; id++) {
+            PreparedStatement pstmt = (PreparedStatement) SessioneQuery.avvolgi(
+                    finto(PreparedStatement.class), PreparedStatement.class, SELECT_NOME);
+            pstmt.setInt(1, id);
+            pstmt.executeQuery();
+        }
+    }
+
+    /** Statement che non fa nulla: restituisce {@code null}, {@code false} o zero. */
+    private static <T extends Statement> T finto(Class<T> tipo) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (_, method, args) -> {
+            Class<?> ritorno = method.getReturnType();
+            if (ritorno == boolean.class) {
+                return false;
+            }
+            if (ritorno.isPrimitive() && ritorno != void.class) {
+                return ritorno == long.class ? 0L : 0;
+            }
+            return null;
+        }));
+    }
+}
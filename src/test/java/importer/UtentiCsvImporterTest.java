@@ -0,0 +1,40 @@
+package importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UtentiCsvImporterTest {
+
+    @Test
+    void divideSulSeparatore() {
+        assertEquals(List.of("Mario", "Rossi", "mario@example.com"),
+                UtentiCsvImporter.dividi("Mario,Rossi,mario@example.com", ','));
+        assertEquals(List.of("Mario", "Rossi"), UtentiCsvImporter.dividi("Mario;Rossi", ';'));
+    }
+
+    @Test
+    void conservaICampiVuoti() {
+        assertEquals(List.of("a", "", "c", ""), UtentiCsvImporter.dividi("a,,c,", ','));
+        assertEquals(List.of(""), UtentiCsvImporter.dividi("", ','));
+    }
+
+    @Test
+    void ilSeparatoreTraApiciFaParteDelValore() {
+        assertEquals(List.of("Rossi, Mario", "concorrente"),
+                UtentiCsvImporter.dividi("\"Rossi, Mario\",concorrente", ','));
+    }
+
+    @Test
+    void dueApiciTraApiciSonoUnApiceLetterale() {
+        assertEquals(List.of("pass\"word", "x"), UtentiCsvImporter.dividi("\"pass\"\"word\",x", ','));
+        assertEquals(List.of("\"", ""), UtentiCsvImporter.dividi("\"\"\"\",", ','));
+    }
+
+    @Test
+    void gliApiciPossonoRacchiudereSoloParteDelCampo() {
+        assertEquals(List.of("D'Angelo Mario"), UtentiCsvImporter.dividi("D'Angelo \"Mario\"", ','));
+    }
+}
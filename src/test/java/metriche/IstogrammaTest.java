@@ -0,0 +1,81 @@
+package metriche;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IstogrammaTest {
+
+    @Test
+    void senzaValoriRestituisceZero() {
+        Istogramma istogramma = new Istogramma();
+
+        assertEquals(0, istogramma.conteggio());
+        assertEquals(0.0, istogramma.media());
+        assertEquals(0, istogramma.percentile(99));
+    }
+
+    @Test
+    void iValoriPiccoliSonoEsatti() {
+        Istogramma istogramma = new Istogramma();
+        for (int v = 1; v <= 60; v++) {
+            istogramma.registra(v);
+        }
+
+        assertEquals(60, istogramma.conteggio());
+        assertEquals(30.5, istogramma.media(), 1e-9);
+        assertEquals(30, istogramma.percentile(50));
+        assertEquals(60, istogramma.percentile(100));
+        assertEquals(60, istogramma.massimo());
+    }
+
+    @Test
+    void iPercentiliHannoErroreRelativoLimitato() {
+        Istogramma istogramma = new Istogramma();
+        for (long v = 1; v <= 100_000; v++) {
+            istogramma.registra(v * 37);
+        }
+
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long esatto = (long) Math.ceil(p / 100 * 100_000) * 37;
+            long stimato = istogramma.percentile(p);
+            assertTrue(stimato >= esatto, p + ": " + stimato + " < " + esatto);
+            assertTrue(stimato <= esatto + esatto / 32, p + ": " + stimato + " oltre l'errore ammesso su " + esatto);
+        }
+        assertEquals(3_700_000, istogramma.percentile(100));
+    }
+
+    @Test
+    void ogniBucketContieneIValoriTraLimiteInferioreESuperiore() {
+        for (long v : new long[]{0, 63, 64, 65, 1_000, 123_456_789, Istogramma.VALORE_MASSIMO}) {
+            int indice = Istogramma.indice(v);
+            assertTrue(v <= Istogramma.limiteSuperiore(indice), "valore " + v);
+            assertTrue(indice == 0 || v > Istogramma.limiteSuperiore(indice - 1), "valore " + v);
+        }
+    }
+
+    @Test
+    void iValoriFuoriIntervalloVengonoLimitati() {
+        Istogramma istogramma = new Istogramma();
+        istogramma.registra(-5);
+        istogramma.registra(Long.MAX_VALUE);
+
+        assertEquals(0, istogramma.percentile(50));
+        assertEquals(Istogramma.VALORE_MASSIMO, istogramma.massimo());
+        assertEquals(Istogramma.VALORE_MASSIMO, istogramma.percentile(100));
+    }
+
+    @Test
+    void azzeraRimuoveTuttiIValori() {
+        Istogramma istogramma = new Istogramma();
+        istogramma.registra(10);
+        istogramma.registra(1_000);
+
+        istogramma.azzera();
+
+        assertEquals(0, istogramma.conteggio());
+        assertEquals(0, istogramma.massimo());
+        assertEquals(0, istogramma.percentile(50));
+    }
+}
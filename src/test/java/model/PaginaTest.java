@@ -0,0 +1,51 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaginaTest {
+
+    @Test
+    void senzaRigaInPiuEUltimaPagina() {
+        Pagina<Integer> pagina = Pagina.daRighe(List.of(4, 8, 15), 3, Integer::intValue);
+
+        assertEquals(List.of(4, 8, 15), pagina.elementi());
+        assertNull(pagina.cursore());
+        assertFalse(pagina.haAltre());
+    }
+
+    @Test
+    void laRigaInPiuVieneScartataEIlCursoreEIlSuoPredecessore() {
+        Pagina<Integer> pagina = Pagina.daRighe(List.of(4, 8, 15, 16), 3, Integer::intValue);
+
+        assertEquals(List.of(4, 8, 15), pagina.elementi());
+        assertEquals(15, pagina.cursore());
+        assertTrue(pagina.haAltre());
+    }
+
+    @Test
+    void nessunaRigaDaUnaPaginaVuota() {
+        Pagina<Integer> pagina = Pagina.daRighe(List.of(), 3, Integer::intValue);
+
+        assertTrue(pagina.elementi().isEmpty());
+        assertFalse(pagina.haAltre());
+    }
+
+    @Test
+    void gliElementiNonDipendonoDallaListaLetta() {
+        ArrayList<Integer> righe = new ArrayList<>(List.of(1, 2, 3));
+        Pagina<Integer> pagina = Pagina.daRighe(righe, 2, Integer::intValue);
+
+        righe.clear();
+
+        assertEquals(List.of(1, 2), pagina.elementi());
+        assertEquals(2, pagina.cursore());
+    }
+}
@@ -0,0 +1,68 @@
+package security;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordSecurityTest {
+
+    /** Salt e digest BCrypt validi, a cui si antepongono prefisso e costo. */
+    private static final String CORPO = "$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    @BeforeAll
+    static void costoMinimo() {
+        // costo basso per non rallentare i test; va impostato prima del primo uso
+        System.setProperty("hackathon.bcrypt.cost", "4");
+    }
+
+    private static String hash(String prefisso, int costo) {
+        return prefisso + String.format(Locale.ROOT, "%02d", costo) + CORPO;
+    }
+
+    @Test
+    void unHashConCostoEPrefissoCorrentiNonVaRicalcolato() {
+        assertEquals(4, PasswordSecurity.getTargetCost());
+        assertFalse(PasswordSecurity.needsRehash(hash("$2a$", 4)));
+        assertFalse(PasswordSecurity.needsRehash(PasswordSecurity.hashPassword("segreta")));
+    }
+
+    @Test
+    void unCostoDiversoRichiedeIlRicalcolo() {
+        assertTrue(PasswordSecurity.needsRehash(hash("$2a$", 10)));
+        assertTrue(PasswordSecurity.needsRehash(hash("$2a$", 12)));
+    }
+
+    @Test
+    void gliAltriPrefissiRichiedonoIlRicalcolo() {
+        assertTrue(PasswordSecurity.needsRehash(hash("$2b$", 4)));
+        assertTrue(PasswordSecurity.needsRehash(hash("$2y$", 4)));
+    }
+
+    @Test
+    void gliHashNonValidiNonVengonoRicalcolati() {
+        assertFalse(PasswordSecurity.needsRehash(null));
+        assertFalse(PasswordSecurity.needsRehash("password-in-chiaro"));
+        assertFalse(PasswordSecurity.needsRehash("$2x$04" + CORPO));
+        assertFalse(PasswordSecurity.needsRehash("$2a$4" + CORPO));
+    }
+
+    @Test
+    void laCalibrazioneNonScendeSottoIlCostoMinimo() {
+        assertEquals(PasswordSecurity.MIN_COST, PasswordSecurity.calibrate(0));
+        assertEquals(PasswordSecurity.MIN_COST, PasswordSecurity.calibrate(1));
+    }
+
+    @Test
+    void laCalibrazioneRestaTraICostiAmmessi() {
+        long budget = 200;
+        int costo = PasswordSecurity.calibrate(budget);
+
+        assertTrue(costo >= PasswordSecurity.MIN_COST && costo <= PasswordSecurity.MAX_COST, "costo " + costo);
+        assertTrue(costo >= PasswordSecurity.calibrate(1));
+    }
+}